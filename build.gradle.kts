@@ -2,6 +2,9 @@ plugins {
     id("java")
     id("org.springframework.boot") version "3.2.6"
     id("io.spring.dependency-management") version "1.1.4"
+    id("me.champeau.jmh") version "0.7.2"
+    // Same version as the Hibernate ORM managed by Spring Boot 3.2.6
+    id("org.hibernate.orm") version "6.4.8.Final"
 }
 
 group = "org.example"
@@ -15,6 +18,15 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+
+    // Metrics: Micrometer timers exposed through the Prometheus actuator endpoint
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+
+    // Binary wire formats negotiated via Accept header (application/cbor, application/x-jackson-smile)
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     
     // Database migration with Flyway
     implementation("org.flywaydb:flyway-core")
@@ -27,4 +39,58 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Hibernate bytecode enhancement of compiled entities (also used by jmh and tests):
+// lazy basic attributes (@Basic(fetch = LAZY) + @LazyGroup) and in-line dirty tracking, so a flush
+// checks the entity's own change tracker instead of comparing every loaded snapshot field by field.
+// Association management stays off - ChangeLogEntry.setTask / Task.setAssignedTo would initialize
+// the inverse collections (whole task history, all tasks of the user) on every write.
+// ./gradlew jmh -PhibernateEnhancement=false builds unenhanced classes for comparison
+if (findProperty("hibernateEnhancement")?.toString()?.toBoolean() != false) {
+    hibernate {
+        enhancement {
+            enableLazyInitialization.set(true)
+            enableDirtyTracking.set(true)
+            enableAssociationManagement.set(false)
+        }
+    }
+}
+
+// Benchmarks live in src/jmh/java and run with ./gradlew jmh
+// Results are exported as JSON so regressions can be compared across builds
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    // Optional filter, e.g. ./gradlew jmh -PjmhIncludes=RepositoryQueryBenchmark
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes").toString()))
+    }
+}
+// Deterministic large dataset for the database of the active profile, e.g.
+// ./gradlew generateDataset --args='--spring.profiles.active=prod --datagen.users=5000 --datagen.tasks=1000000'
+tasks.register<JavaExec>("generateDataset") {
+    group = "performance"
+    description = "Generates users, tasks and change-log history with batched JDBC inserts"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.example.datagen.DatasetGeneratorCli")
+}
+
+// Mixed read/write load against a running instance, e.g.
+// ./gradlew loadTest --args='--base-url=http://localhost:8080 --concurrency=200 --duration=60'
+tasks.register<JavaExec>("loadTest") {
+    group = "performance"
+    description = "Replays a mixed REST workload and reports latency percentiles"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.example.loadtest.LoadTestDriver")
+}
+
+// Compares two --output reports, e.g. platform vs virtual threads
+// ./gradlew loadTestCompare --args='build/load-platform.json build/load-virtual.json'
+tasks.register<JavaExec>("loadTestCompare") {
+    group = "performance"
+    description = "Compares throughput and latency percentiles of two load test reports"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.example.loadtest.LoadTestComparison")
+}
@@ -0,0 +1,103 @@
+package org.example.benchmark;
+
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogOperationType;
+import org.example.Task;
+import org.example.TaskPriority;
+import org.example.TaskStatus;
+import org.example.User;
+import org.example.dto.DashboardDto;
+import org.example.dto.TaskSummaryDto;
+import org.example.dto.UserStatsDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministyczne dane wejściowe współdzielone przez benchmarki.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("Użytkownik " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setAvatarUrl("https://randomuser.me/api/portraits/men/" + (id % 90) + ".jpg");
+        return user;
+    }
+
+    public static Task task(long id) {
+        Task task = new Task("Zadanie numer " + id,
+                "Opis zadania " + id + " - analiza wymagań, implementacja i testy regresyjne modułu raportowego",
+                TaskStatus.values()[(int) (id % 3)], TaskPriority.values()[(int) (id % 3)]);
+        task.setId(id);
+        task.setDueDate(LocalDate.of(2030, 1, 1).plusDays(id % 365));
+        task.setAssignedTo(user(id % 50 + 1));
+        return task;
+    }
+
+    public static ChangeLogEntry changeLogEntry(long id) {
+        ChangeLogEntry entry = new ChangeLogEntry(task(id), "status", "To Do", "In Progress",
+                ChangeLogOperationType.STATUS_CHANGE, "Status changed by benchmark");
+        entry.setId(id);
+        entry.setChangedBy(user(id % 50 + 1));
+        entry.setChangedAt(LocalDateTime.of(2030, 1, 1, 12, 0).plusMinutes(id));
+        entry.setIpAddress("192.168.0." + (id % 255));
+        entry.setUserAgent("Mozilla/5.0 (X11; Linux x86_64) Benchmark/1.0");
+        return entry;
+    }
+
+    public static DashboardDto dashboard() {
+        DashboardDto dashboard = new DashboardDto();
+        dashboard.setGeneratedAt(LocalDateTime.of(2030, 1, 1, 12, 0));
+
+        TaskSummaryDto summary = new TaskSummaryDto();
+        summary.setGeneratedAt(dashboard.getGeneratedAt());
+        summary.setTotalTasks(1200);
+        summary.setCompletedTasks(400);
+        summary.setActiveTasks(800);
+        summary.setOverdueTasks(37);
+        summary.setUnassignedTasks(12);
+        summary.setCompletionRate(33.33);
+        summary.setTasksByStatus(Map.of("To Do", 500, "In Progress", 300, "Done", 400));
+        summary.setTasksByPriority(Map.of("Low", 300, "Medium", 600, "High", 300));
+        dashboard.setTaskSummary(summary);
+
+        UserStatsDto userStats = new UserStatsDto();
+        userStats.setGeneratedAt(dashboard.getGeneratedAt());
+        userStats.setTotalUsers(50);
+        userStats.setActiveUsers(45);
+        userStats.setInactiveUsers(5);
+        userStats.setAverageTasksPerUser(24.0);
+        Map<String, Integer> byUser = new HashMap<>();
+        for (int i = 1; i <= 50; i++) {
+            byUser.put("Użytkownik " + i, 20 + i % 10);
+        }
+        userStats.setUsersByTaskCount(byUser);
+        userStats.setTopPerformers(Map.of("top5", List.of(Map.of("username", "Użytkownik 1", "completedTasks", 40, "rank", 1))));
+        dashboard.setUserStats(userStats);
+
+        List<Map<String, Object>> activity = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", i);
+            item.put("taskId", i);
+            item.put("taskTitle", "Zadanie numer " + i);
+            item.put("operationType", "Status Change");
+            item.put("changedAt", LocalDateTime.of(2030, 1, 1, 12, 0).plusMinutes(i));
+            activity.add(item);
+        }
+        dashboard.setRecentActivity(activity);
+        dashboard.setProgressTracking(Map.of("modifiedTasksCount", 120, "fromDate", LocalDate.of(2030, 1, 1)));
+        dashboard.setTaskDistribution(Map.of("assignmentRate", 99.0, "overdueRate", 3.08));
+        dashboard.setPerformanceMetrics(Map.of("completionRate", 33.33, "assignmentRate", 99.0));
+        return dashboard;
+    }
+}
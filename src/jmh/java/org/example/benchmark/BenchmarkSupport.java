@@ -0,0 +1,49 @@
+package org.example.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pomocnicze narzędzia do uruchamiania serwisów poza kontekstem Springa.
+ * Repozytoria zastępowane są prostymi proxy, aby mierzyć wyłącznie logikę serwisu.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Tworzy stub interfejsu odpowiadający na wskazane metody (po nazwie)
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            (self, method, args) -> {
+                Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "toString" -> "stub:" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> throw new UnsupportedOperationException(
+                        type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                };
+            });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Wstrzykuje zależność do pola oznaczonego @Autowired
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass(), e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.ChangeLogDailyRollupRepository;
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.ChangeLogOperationType;
+import org.example.ChangeLogServiceImpl;
+import org.example.ChangeLogStats;
+import org.example.Task;
+import org.example.TaskChangeSequenceRepository;
+import org.example.TaskPriority;
+import org.example.TaskStatus;
+import org.example.User;
+import org.example.cluster.ClusterEventBus;
+import org.example.service.ChangeLogRollupServiceImpl;
+import org.example.service.ChangeLogSearchServiceImpl;
+import org.example.service.LeaderboardServiceImpl;
+import org.example.service.RecentActivityServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarki logiki ChangeLogServiceImpl bez bazy danych:
+ * wykrywanie zmian pól (compareAndLogFieldChanges) oraz składanie statystyk z wierszy agregatów (buildStats).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeLogServiceBenchmark {
+
+    @Param({"10", "1000"})
+    public int historySize;
+
+    private ChangeLogServiceImpl service;
+    private Task oldTask;
+    private Task unchangedTask;
+    private Task changedTask;
+    private User changedBy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ChangeLogEntry> history = new ArrayList<>(historySize);
+        LocalDateTime now = LocalDateTime.now();
+        ChangeLogOperationType[] types = ChangeLogOperationType.values();
+        for (int i = 0; i < historySize; i++) {
+            ChangeLogEntry entry = BenchmarkFixtures.changeLogEntry(i);
+            entry.setOperationType(types[i % types.length]);
+            // Najnowsze wpisy pierwsze - tak jak zwraca repozytorium
+            entry.setChangedAt(now.minusHours(i * 3L));
+            history.add(entry);
+        }
+
+        // Statystyki liczy baza (COUNT / GROUP BY) - stuby zwracają wiersze agregatów tej historii
+        long[] recent = new long[3];
+        Map<List<Object>, Long> byTypeAndField = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : history) {
+            recent[0] += entry.getChangedAt().isAfter(now.minusHours(24)) ? 1 : 0;
+            recent[1] += entry.getChangedAt().isAfter(now.minusDays(7)) ? 1 : 0;
+            recent[2] += entry.getChangedAt().isAfter(now.minusDays(30)) ? 1 : 0;
+            byTypeAndField.merge(Arrays.asList(entry.getOperationType(), entry.getFieldName()), 1L, Long::sum);
+        }
+        List<Object[]> summary = List.<Object[]>of(new Object[] {
+            (long) history.size(), history.get(history.size() - 1).getChangedAt(), history.get(0).getChangedAt(),
+            recent[0], recent[1], recent[2]
+        });
+        List<Object[]> breakdown = new ArrayList<>();
+        byTypeAndField.forEach((key, count) -> breakdown.add(new Object[] { key.get(0), key.get(1), count }));
+
+        ChangeLogEntryRepository repository = BenchmarkSupport.stub(ChangeLogEntryRepository.class, Map.of(
+            "save", args -> args[0],
+            "saveAll", args -> args[0],
+            "findByTaskIdOrderBySeqDesc", args -> history,
+            "summarizeTaskChanges", args -> summary,
+            "countTaskChangesByTypeAndField", args -> breakdown
+        ));
+
+        service = new ChangeLogServiceImpl();
+        BenchmarkSupport.inject(service, "changeLogRepository", repository);
+        AtomicLong lastSeq = new AtomicLong();
+        BenchmarkSupport.inject(service, "taskChangeSequenceRepository", BenchmarkSupport.stub(TaskChangeSequenceRepository.class,
+            Map.of("increment", args -> {
+                    lastSeq.incrementAndGet();
+                    return 1;
+                },
+                "incrementBy", args -> {
+                    lastSeq.addAndGet((Integer) args[1]);
+                    return 1;
+                },
+                "findLastSeq", args -> lastSeq.get())));
+        BenchmarkSupport.inject(service, "meterRegistry", new SimpleMeterRegistry());
+        BenchmarkSupport.inject(service, "changeLogSearchService", new ChangeLogSearchServiceImpl());
+
+        ChangeLogRollupServiceImpl rollupService = new ChangeLogRollupServiceImpl();
+        BenchmarkSupport.inject(rollupService, "rollupRepository",
+            BenchmarkSupport.stub(ChangeLogDailyRollupRepository.class, Map.of("increment", args -> 1)));
+        BenchmarkSupport.inject(service, "changeLogRollupService", rollupService);
+        BenchmarkSupport.inject(service, "leaderboardService", new LeaderboardServiceImpl());
+        BenchmarkSupport.inject(service, "recentActivityService", new RecentActivityServiceImpl());
+        // Bez transportu i odbiorców - mierzony jest tylko koszt publish (dopisanie do kolejki)
+        BenchmarkSupport.inject(service, "clusterEventBus",
+            new ClusterEventBus("benchmark", null, List::of, 500, 10_000, 10_000, new SimpleMeterRegistry()));
+
+        oldTask = BenchmarkFixtures.task(1);
+        unchangedTask = BenchmarkFixtures.task(1);
+        changedTask = BenchmarkFixtures.task(1);
+        changedTask.setTitle("Zmieniony tytuł zadania");
+        changedTask.setStatus(oldTask.getStatus() == TaskStatus.DONE ? TaskStatus.TODO : TaskStatus.DONE);
+        changedTask.setPriority(oldTask.getPriority() == TaskPriority.HIGH ? TaskPriority.LOW : TaskPriority.HIGH);
+        changedTask.setAssignedTo(BenchmarkFixtures.user(999));
+        changedBy = BenchmarkFixtures.user(7);
+    }
+
+    @Benchmark
+    public List<ChangeLogEntry> compareFieldsNoChanges() {
+        return service.logTaskChanges(oldTask, unchangedTask, changedBy);
+    }
+
+    @Benchmark
+    public List<ChangeLogEntry> compareFieldsFourChanges() {
+        return service.logTaskChanges(oldTask, changedTask, changedBy);
+    }
+
+    @Benchmark
+    public ChangeLogStats calculateTaskStats() {
+        return service.getTaskChangeStats(1L);
+    }
+}
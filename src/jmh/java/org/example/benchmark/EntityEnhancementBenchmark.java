@@ -0,0 +1,137 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.ChangeLogEntry;
+import org.example.Main;
+import org.example.Task;
+import org.example.TaskPriority;
+import org.example.datagen.DatasetGenerator;
+import org.example.datagen.DatasetSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Koszt ładowania list encji i flush z bytecode enhancement i bez niego:
+ * ./gradlew jmh -PjmhIncludes=EntityEnhancementBenchmark
+ * ./gradlew jmh -PjmhIncludes=EntityEnhancementBenchmark -PhibernateEnhancement=false
+ *
+ * Flush po odczycie strony zadań: bez zmian i ze zmianą jednego pola - z in-line dirty tracking
+ * Hibernate pyta tracker encji zamiast porównywać migawkę każdego pola. Transakcje są wycofywane,
+ * więc każda iteracja widzi te same dane.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityEnhancementBenchmark {
+
+    @Param({"10000"})
+    public int taskCount;
+
+    @Param({"500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Main.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=bench");
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        DatasetSpec spec = new DatasetSpec(100, taskCount, 6, 42L);
+        new DatasetGenerator(context.getBean(JdbcTemplate.class)).generate(spec);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listTasks() {
+        return inEntityManager(entityManager -> loadTasks(entityManager).size());
+    }
+
+    /**
+     * Strona historii - z enhancement bez kolumn leniwej grupy "client" (ip_address, user_agent)
+     */
+    @Benchmark
+    public int listChangeLogEntries() {
+        return inEntityManager(entityManager -> entityManager
+                .createQuery("SELECT c FROM ChangeLogEntry c ORDER BY c.id", ChangeLogEntry.class)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .size());
+    }
+
+    @Benchmark
+    public int flushUnchangedTasks() {
+        return inRolledBackTransaction(entityManager -> {
+            List<Task> tasks = loadTasks(entityManager);
+            entityManager.flush();
+            return tasks.size();
+        });
+    }
+
+    @Benchmark
+    public int flushOneChangedTask() {
+        return inRolledBackTransaction(entityManager -> {
+            List<Task> tasks = loadTasks(entityManager);
+            Task task = tasks.get(0);
+            task.setPriority(task.getPriority() == TaskPriority.HIGH ? TaskPriority.LOW : TaskPriority.HIGH);
+            entityManager.flush();
+            return tasks.size();
+        });
+    }
+
+    private List<Task> loadTasks(EntityManager entityManager) {
+        return entityManager.createQuery("SELECT t FROM Task t ORDER BY t.id", Task.class)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    private int inEntityManager(Function<EntityManager, Integer> action) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return action.apply(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private int inRolledBackTransaction(Function<EntityManager, Integer> action) {
+        return inEntityManager(entityManager -> {
+            entityManager.getTransaction().begin();
+            try {
+                return action.apply(entityManager);
+            } finally {
+                entityManager.getTransaction().rollback();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.benchmark;
+
+import org.example.ChangeLogOperationType;
+import org.example.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarki parserów TaskStatus.fromString i ChangeLogOperationType.fromString
+ * dla wariantów wejścia spotykanych w API (nazwa enuma, nazwa wyświetlana, wartość błędna).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumParsingBenchmark {
+
+    @Param({"IN_PROGRESS", "In Progress", "done"})
+    public String statusInput;
+
+    @Param({"STATUS_CHANGE", "status_change", "unknown"})
+    public String operationInput;
+
+    @Benchmark
+    public TaskStatus parseTaskStatus() {
+        return TaskStatus.fromString(statusInput);
+    }
+
+    @Benchmark
+    public ChangeLogOperationType parseOperationType() {
+        return ChangeLogOperationType.fromString(operationInput);
+    }
+}
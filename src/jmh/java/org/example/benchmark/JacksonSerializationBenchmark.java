@@ -0,0 +1,52 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.Task;
+import org.example.config.JsonConfig;
+import org.example.dto.DashboardDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializacja Task i DashboardDto przez ObjectMapper skonfigurowany dokładnie jak bean aplikacji.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private DashboardDto dashboard;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new JsonConfig().objectMapper();
+        task = BenchmarkFixtures.task(42);
+        dashboard = BenchmarkFixtures.dashboard();
+    }
+
+    @Benchmark
+    public String serializeTask() throws Exception {
+        return objectMapper.writeValueAsString(task);
+    }
+
+    @Benchmark
+    public String serializeDashboard() throws Exception {
+        return objectMapper.writeValueAsString(dashboard);
+    }
+}
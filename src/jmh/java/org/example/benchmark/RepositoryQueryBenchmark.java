@@ -0,0 +1,128 @@
+package org.example.benchmark;
+
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.Main;
+import org.example.Task;
+import org.example.TaskRepository;
+import org.example.TaskStatus;
+import org.example.UserRepository;
+import org.example.datagen.DatasetGenerator;
+import org.example.datagen.DatasetSpec;
+import org.example.datagen.DatasetSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zapytania repozytoriów wykonywane na H2 ze schematem z migracji Flyway
+ * i danymi z DatasetGenerator (stałe ziarno, skośne przypisania).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryQueryBenchmark {
+
+    @Param({"10000"})
+    public int taskCount;
+
+    @Param({"100"})
+    public int userCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private ChangeLogEntryRepository changeLogRepository;
+    private UserRepository userRepository;
+    private long sampleUserId;
+    private long sampleTaskId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Main.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=bench");
+        taskRepository = context.getBean(TaskRepository.class);
+        changeLogRepository = context.getBean(ChangeLogEntryRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        DatasetSpec spec = new DatasetSpec(userCount, taskCount, 6, 42L);
+        DatasetSummary summary = new DatasetGenerator(jdbc).generate(spec);
+        sampleUserId = summary.getFirstUserId();
+        sampleTaskId = (summary.getFirstTaskId() + summary.getLastTaskId()) / 2;
+    }
+
+    @Benchmark
+    public List<Object[]> countTasksByStatus() {
+        return taskRepository.countTasksByStatus();
+    }
+
+    @Benchmark
+    public Long countOverdueTasks() {
+        return taskRepository.countOverdueTasks(LocalDate.now());
+    }
+
+    @Benchmark
+    public List<Task> findByAssignedToAndStatus() {
+        return taskRepository.findByAssignedTo_IdAndStatus(sampleUserId, TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<Object[]> userTaskStatistics() {
+        return taskRepository.getUserTaskStatistics();
+    }
+
+    @Benchmark
+    public List<Object[]> topPerformers() {
+        return taskRepository.findTopPerformersRanked(5, 500);
+    }
+
+    @Benchmark
+    public List<Task> titleSearch() {
+        return taskRepository.findByTitleContainingIgnoreCase("task 12");
+    }
+
+    @Benchmark
+    public List<ChangeLogEntry> taskHistory() {
+        return changeLogRepository.findByTaskIdOrderBySeqDesc(sampleTaskId);
+    }
+
+    @Benchmark
+    public List<Object[]> userStatsAggregate() {
+        return userRepository.aggregateTaskStats(List.of(sampleUserId), LocalDate.now());
+    }
+
+    @Benchmark
+    public long countUsersWithTasks() {
+        return userRepository.countUsersWithTasks();
+    }
+}
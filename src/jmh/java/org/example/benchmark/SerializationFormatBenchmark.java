@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.ChangeLogEntry;
+import org.example.Task;
+import org.example.config.JsonConfig;
+import org.example.dto.DashboardDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównanie JSON, CBOR i Smile dla typów zwracanych przez API.
+ * Rozmiar ładunku jest wypisywany w logu benchmarku (linia "payload-bytes").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"task", "changeLogEntry", "dashboard"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Object value;
+    private Class<?> type;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            // JSON bez wcięć - tak jak wysyłają go klienci serwisowi
+            case "json" -> JsonConfig.configure(new ObjectMapper());
+            case "cbor" -> JsonConfig.cborMapper();
+            case "smile" -> JsonConfig.smileMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        switch (payload) {
+            case "task" -> { value = BenchmarkFixtures.task(42); type = Task.class; }
+            case "changeLogEntry" -> { value = BenchmarkFixtures.changeLogEntry(42); type = ChangeLogEntry.class; }
+            case "dashboard" -> { value = BenchmarkFixtures.dashboard(); type = DashboardDto.class; }
+            default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+
+        encoded = mapper.writeValueAsBytes(value);
+        System.out.printf("payload-bytes format=%s payload=%s size=%d%n", format, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return mapper.readValue(encoded, type);
+    }
+}
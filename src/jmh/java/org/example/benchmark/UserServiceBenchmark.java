@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.TaskCycleMetricsRepository;
+import org.example.UserRepository;
+import org.example.UserServiceImpl;
+import org.example.UserStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark UserServiceImpl.getUserStats (pojedynczo i zbiorczo) z wierszami agregacji dostarczanymi przez stub
+ * repozytorium. Koszt samego zapytania agregującego mierzy RepositoryQueryBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    @Param({"1", "500"})
+    public int userCount;
+
+    private UserServiceImpl service;
+    private List<Long> userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>(userCount);
+        userIds = new ArrayList<>(userCount);
+        for (long id = 1; id <= userCount; id++) {
+            // [id, username, wszystkie, Done, In Progress, To Do, High, Medium, Low, przeterminowane]
+            rows.add(new Object[] { id, "user" + id, 30L, 10L, 10L, 10L, 5L, 20L, 5L, 3L });
+            userIds.add(id);
+        }
+
+        service = new UserServiceImpl();
+        BenchmarkSupport.inject(service, "userRepository", BenchmarkSupport.stub(UserRepository.class, Map.of(
+            "aggregateTaskStats", args -> rows
+        )));
+        BenchmarkSupport.inject(service, "taskCycleMetricsRepository", BenchmarkSupport.stub(TaskCycleMetricsRepository.class, Map.of(
+            "summarizeForUsers", args -> List.of()
+        )));
+    }
+
+    @Benchmark
+    public UserStats getUserStats() {
+        return service.getUserStats(1L);
+    }
+
+    @Benchmark
+    public List<UserStats> getUserStatsBatch() {
+        return service.getUserStats(userIds);
+    }
+}
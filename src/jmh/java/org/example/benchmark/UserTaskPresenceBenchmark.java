@@ -0,0 +1,110 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.Main;
+import org.example.User;
+import org.example.UserRepository;
+import org.example.datagen.DatasetGenerator;
+import org.example.datagen.DatasetSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Użytkownicy z zadaniami / bez zadań na zbiorze 1M zadań: dawne ładowanie list encji
+ * (IS NOT EMPTY / IS EMPTY + size()) kontra COUNT z EXISTS / NOT EXISTS i stronicowane listy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserTaskPresenceBenchmark {
+
+    @Param({"1000000"})
+    public int taskCount;
+
+    @Param({"20000"})
+    public int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Main.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=bench");
+        userRepository = context.getBean(UserRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        // Skośne przypisania (Zipf) - część użytkowników zostaje bez zadań
+        DatasetSpec spec = new DatasetSpec(userCount, taskCount, 1, 42L);
+        new DatasetGenerator(context.getBean(JdbcTemplate.class)).generate(spec);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int legacyUsersWithTasksListSize() {
+        return legacyList("SELECT DISTINCT u FROM User u WHERE u.tasks IS NOT EMPTY").size();
+    }
+
+    @Benchmark
+    public int legacyUsersWithoutTasksListSize() {
+        return legacyList("SELECT u FROM User u WHERE u.tasks IS EMPTY").size();
+    }
+
+    @Benchmark
+    public long countUsersWithTasks() {
+        return userRepository.countUsersWithTasks();
+    }
+
+    @Benchmark
+    public long countUsersWithoutTasks() {
+        return userRepository.countUsersWithoutTasks();
+    }
+
+    @Benchmark
+    public List<User> usersWithTasksFirstPage() {
+        return userRepository.findUsersWithTasks(PageRequest.of(0, 100));
+    }
+
+    @Benchmark
+    public List<User> usersWithoutTasksFirstPage() {
+        return userRepository.findUsersWithoutTasks(PageRequest.of(0, 100));
+    }
+
+    private List<User> legacyList(String jpql) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(jpql, User.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.benchmark;
+
+import org.example.search.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opóźnienie podpowiedzi użytkowników z indeksu trigramów (cel: poniżej 1 ms przy 100k użytkowników).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserTypeaheadBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jan", "Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Paweł", "Agnieszka"};
+    private static final String[] SYLLABLES = {"ko", "wal", "ski", "no", "wak", "wiś", "nie", "wsk", "ka", "miń", "lew",
+            "an", "dow", "zie", "liń", "szy", "mań", "jan", "pio", "tr", "mar", "cin", "ew", "ska"};
+
+    @Param({"100000"})
+    public int users;
+
+    @Param({"wi", "wisn", "kowlaski", "jan.ko"})
+    public String query;
+
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TrigramIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < users; i++) {
+            StringBuilder surname = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            String username = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + Character.toUpperCase(surname.charAt(0)) + surname.substring(1);
+            index.index(i, username, username.toLowerCase().replace(' ', '.') + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Hit> suggest() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Rejestr czasów odpowiedzi jednej operacji. Każdy wątek roboczy ma własną instancję,
+ * wyniki łączone są dopiero po zakończeniu testu (brak rywalizacji o blokady podczas pomiaru).
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /**
+     * Zwraca percentyle w milisekundach: p50, p90, p99, p99.9, max
+     */
+    double[] percentilesMillis() {
+        if (count == 0) {
+            return new double[5];
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new double[] {
+            percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+            percentile(sorted, 0.999), sorted[sorted.length - 1] / 1_000_000.0
+        };
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
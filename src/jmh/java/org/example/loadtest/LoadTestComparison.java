@@ -0,0 +1,61 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Porównanie dwóch raportów JSON sterownika obciążenia (--output), np. wątki platformowe vs wirtualne.
+ *
+ * Przykład: ./gradlew loadTestCompare --args='build/load-platform.json build/load-virtual.json'
+ *
+ * Dla każdej operacji wypisuje przepustowość i p50/p99 obu przebiegów oraz zmianę procentową
+ * (dodatnia zmiana req/s i ujemna zmiana opóźnień oznaczają poprawę drugiego przebiegu).
+ */
+public class LoadTestComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: LoadTestComparison <baseline.json> <candidate.json>");
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode baseline = mapper.readTree(Path.of(args[0]).toFile());
+        JsonNode candidate = mapper.readTree(Path.of(args[1]).toFile());
+        System.out.println(compare(baseline, candidate));
+    }
+
+    static String compare(JsonNode baseline, JsonNode candidate) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Comparison [%s] -> [%s]%n",
+            baseline.path("label").asText(), candidate.path("label").asText()));
+        sb.append(String.format(Locale.ROOT, "%-22s %10s %10s %8s %9s %9s %8s %9s %9s %8s %7s%n",
+            "operation", "req/s A", "req/s B", "diff", "p50 A", "p50 B", "diff", "p99 A", "p99 B", "diff", "err B"));
+        Iterator<Map.Entry<String, JsonNode>> operations = baseline.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> entry = operations.next();
+            JsonNode a = entry.getValue();
+            JsonNode b = candidate.path("operations").path(entry.getKey());
+            if (b.isMissingNode()) {
+                continue;
+            }
+            double throughputA = a.path("requests").asDouble() / baseline.path("durationSeconds").asDouble(1);
+            double throughputB = b.path("requests").asDouble() / candidate.path("durationSeconds").asDouble(1);
+            sb.append(String.format(Locale.ROOT, "%-22s %10.1f %10.1f %7.1f%% %9.2f %9.2f %7.1f%% %9.2f %9.2f %7.1f%% %7d%n",
+                entry.getKey(),
+                throughputA, throughputB, change(throughputA, throughputB),
+                a.path("p50").asDouble(), b.path("p50").asDouble(), change(a.path("p50").asDouble(), b.path("p50").asDouble()),
+                a.path("p99").asDouble(), b.path("p99").asDouble(), change(a.path("p99").asDouble(), b.path("p99").asDouble()),
+                b.path("errors").asLong()));
+        }
+        return sb.toString();
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
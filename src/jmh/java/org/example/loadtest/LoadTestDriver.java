@@ -0,0 +1,307 @@
+package org.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lokalny sterownik obciążenia REST API: odtwarza mieszany ruch odczyt/zapis
+ * w modelu zamkniętej pętli i raportuje percentyle opóźnień dla każdej operacji.
+ *
+ * Przykład: ./gradlew loadTest --args='--base-url=http://localhost:8080 --concurrency=200 --duration=60
+ *                                      --task-ids=1-1000000 --user-ids=1-5000 --label=platform'
+ *
+ * Wątki robocze są wirtualne, jeśli JVM je obsługuje (Java 21+), w przeciwnym razie używana jest pula stała.
+ */
+public class LoadTestDriver {
+
+    private final Options options;
+    private final HttpClient client;
+
+    LoadTestDriver(Options options, ExecutorService executor) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .executor(executor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ExecutorService executor = newWorkerExecutor(options.concurrency);
+        try {
+            Map<Operation, LatencyRecorder> results = new LoadTestDriver(options, executor).run(executor);
+            String report = report(options, results);
+            System.out.println(report);
+            if (options.output != null) {
+                Files.writeString(Path.of(options.output), json(options, results));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    Map<Operation, LatencyRecorder> run(ExecutorService executor) throws Exception {
+        long warmupEnd = System.nanoTime() + options.warmupSeconds * 1_000_000_000L;
+        long deadline = warmupEnd + options.durationSeconds * 1_000_000_000L;
+
+        List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            SplittableRandom random = new SplittableRandom(options.seed + i);
+            workers.add(executor.submit(() -> worker(random, warmupEnd, deadline)));
+        }
+
+        Map<Operation, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            merged.put(operation, new LatencyRecorder());
+        }
+        for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        return merged;
+    }
+
+    private Map<Operation, LatencyRecorder> worker(SplittableRandom random, long warmupEnd, long deadline) {
+        Map<Operation, LatencyRecorder> recorders = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            Operation operation = Operation.pick(random, options.readRatio);
+            HttpRequest request = operation.request(options, random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                // 4xx z reguł biznesowych (np. zakończone zadanie) to poprawna odpowiedź serwera
+                ok = response.statusCode() < 500;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (start < warmupEnd) {
+                continue;
+            }
+            LatencyRecorder recorder = recorders.computeIfAbsent(operation, op -> new LatencyRecorder());
+            if (ok) {
+                recorder.record(elapsed);
+            } else {
+                recorder.recordError();
+            }
+        }
+        return recorders;
+    }
+
+    /**
+     * Executor z wątkami wirtualnymi (Java 21+) lub pulą stałą na starszych JVM
+     */
+    static ExecutorService newWorkerExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    static String report(Options options, Map<Operation, LatencyRecorder> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Load test [%s] %s, concurrency=%d, duration=%ds, readRatio=%.2f%n",
+            options.label, options.baseUrl, options.concurrency, options.durationSeconds, options.readRatio));
+        sb.append(String.format(Locale.ROOT, "%-22s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            appendRow(sb, entry.getKey().name(), entry.getValue(), options.durationSeconds);
+            total.merge(entry.getValue());
+        }
+        appendRow(sb, "TOTAL", total, options.durationSeconds);
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, LatencyRecorder recorder, int durationSeconds) {
+        double[] p = recorder.percentilesMillis();
+        sb.append(String.format(Locale.ROOT, "%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name, recorder.count(), recorder.errors(), recorder.count() / (double) durationSeconds,
+            p[0], p[1], p[2], p[3], p[4]));
+    }
+
+    static String json(Options options, Map<Operation, LatencyRecorder> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "{\"label\":\"%s\",\"concurrency\":%d,\"durationSeconds\":%d,\"operations\":{",
+            options.label, options.concurrency, options.durationSeconds));
+        boolean first = true;
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            double[] p = entry.getValue().percentilesMillis();
+            sb.append(first ? "" : ",");
+            sb.append(String.format(Locale.ROOT,
+                "\"%s\":{\"requests\":%d,\"errors\":%d,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}",
+                entry.getKey().name(), entry.getValue().count(), entry.getValue().errors(), p[0], p[1], p[2], p[3], p[4]));
+            first = false;
+        }
+        return sb.append("}}").toString();
+    }
+
+    /**
+     * Operacje składające się na mieszany ruch. Wagi odczytów i zapisów są skalowane przez readRatio.
+     */
+    enum Operation {
+        GET_TASK(true, 30),
+        GET_TASK_HISTORY(true, 15),
+        GET_TASKS_BY_USER(true, 10),
+        GET_USER_STATS(true, 10),
+        GET_DASHBOARD(true, 5),
+        GET_RECENT_ACTIVITY(true, 10),
+        CHANGE_PRIORITY(false, 50),
+        CREATE_TASK(false, 30),
+        CHANGE_STATUS(false, 20);
+
+        private static final String[] PRIORITIES = { "LOW", "MEDIUM", "HIGH" };
+        private static final String[] STATUSES = { "TODO", "IN_PROGRESS", "DONE" };
+
+        private final boolean read;
+        private final int weight;
+
+        Operation(boolean read, int weight) {
+            this.read = read;
+            this.weight = weight;
+        }
+
+        static Operation pick(SplittableRandom random, double readRatio) {
+            boolean read = random.nextDouble() < readRatio;
+            int totalWeight = 0;
+            for (Operation op : values()) {
+                if (op.read == read) {
+                    totalWeight += op.weight;
+                }
+            }
+            int roll = random.nextInt(totalWeight);
+            for (Operation op : values()) {
+                if (op.read == read) {
+                    roll -= op.weight;
+                    if (roll < 0) {
+                        return op;
+                    }
+                }
+            }
+            throw new IllegalStateException("No operation selected");
+        }
+
+        HttpRequest request(Options options, SplittableRandom random) {
+            long taskId = options.randomTaskId(random);
+            long userId = options.randomUserId(random);
+            return switch (this) {
+                case GET_TASK -> get(options, "/api/tasks/" + taskId);
+                case GET_TASK_HISTORY -> get(options, "/api/changelog/task/" + taskId);
+                case GET_TASKS_BY_USER -> get(options, "/api/tasks/user/" + userId);
+                case GET_USER_STATS -> get(options, "/api/users/" + userId + "/stats");
+                case GET_DASHBOARD -> get(options, "/api/analytics/dashboard");
+                case GET_RECENT_ACTIVITY -> get(options, "/api/analytics/recent-activity?limit=20");
+                case CHANGE_PRIORITY -> put(options, "/api/tasks/" + taskId + "/priority?priority="
+                    + PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                case CHANGE_STATUS -> put(options, "/api/tasks/" + taskId + "/status?status="
+                    + STATUSES[random.nextInt(STATUSES.length)]);
+                case CREATE_TASK -> HttpRequest.newBuilder(URI.create(options.baseUrl + "/api/tasks"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"title\":\"Load test task " + random.nextInt(1_000_000) + "\","
+                        + "\"description\":\"Created by load driver\",\"status\":\"To Do\",\"priority\":\"Medium\"}"))
+                    .build();
+            };
+        }
+
+        private static HttpRequest get(Options options, String path) {
+            return HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        }
+
+        private static HttpRequest put(Options options, String path) {
+            return HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        }
+    }
+
+    /**
+     * Parametry uruchomienia w formacie --klucz=wartość
+     */
+    static class Options {
+        String baseUrl = "http://localhost:8080";
+        String label = "default";
+        String output;
+        int concurrency = 64;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        double readRatio = 0.9;
+        long seed = 42;
+        long firstTaskId = 1;
+        long lastTaskId = 4;
+        long firstUserId = 1;
+        long lastUserId = 3;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+                }
+                String key = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (key) {
+                    case "base-url" -> options.baseUrl = value;
+                    case "label" -> options.label = value;
+                    case "output" -> options.output = value;
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "read-ratio" -> options.readRatio = Double.parseDouble(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "task-ids" -> {
+                        long[] range = range(value);
+                        options.firstTaskId = range[0];
+                        options.lastTaskId = range[1];
+                    }
+                    case "user-ids" -> {
+                        long[] range = range(value);
+                        options.firstUserId = range[0];
+                        options.lastUserId = range[1];
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: --" + key);
+                }
+            }
+            return options;
+        }
+
+        long randomTaskId(SplittableRandom random) {
+            return random.nextLong(firstTaskId, lastTaskId + 1);
+        }
+
+        long randomUserId(SplittableRandom random) {
+            return random.nextLong(firstUserId, lastUserId + 1);
+        }
+
+        private static long[] range(String value) {
+            String[] parts = value.split("-");
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package org.example;
 
+import org.example.activity.ActivityRecord;
+import org.example.dto.CursorPageDto;
+import org.example.dto.SearchPageDto;
+import org.example.service.ChangeLogSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,13 +25,40 @@ public class ChangeLogController {
     @Autowired
     private ChangeLogService changeLogService;
 
+    @Autowired
+    private ChangeLogSearchService changeLogSearchService;
+
     /**
-     * Pobiera pełną historię zmian dla konkretnego zadania
+     * Pobiera historię zmian dla konkretnego zadania (najnowsze, maks. 1000 wpisów).
+     * Przy obcięciu nagłówek X-Next-Cursor wskazuje dalszą część dla /task/{taskId}/page.
      */
     @GetMapping("/task/{taskId}")
     public ResponseEntity<List<ChangeLogEntry>> getTaskHistory(@PathVariable Long taskId) {
-        List<ChangeLogEntry> history = changeLogService.getTaskHistory(taskId);
-        return ResponseEntity.ok(history);
+        return capped(changeLogService.getTaskHistoryPage(taskId, null, ChangeLogServiceImpl.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Historia zadania stronicowana kursorem, od najnowszych
+     * GET /api/changelog/task/{taskId}/page?size=50&cursor=...
+     */
+    @GetMapping("/task/{taskId}/page")
+    public CursorPageDto<ChangeLogEntry> getTaskHistoryPage(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return changeLogService.getTaskHistoryPage(taskId, cursor, size);
+    }
+
+    /**
+     * Wpisy zadania zapisane po podanym numerze, rosnąco - klient dociąga tylko to, czego jeszcze nie ma
+     * GET /api/changelog/task/{taskId}/since?afterSeq=12&limit=100
+     */
+    @GetMapping("/task/{taskId}/since")
+    public ResponseEntity<List<ChangeLogEntry>> getTaskChangesSince(
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "0") long afterSeq,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeLogService.getTaskChangesSince(taskId, afterSeq, limit));
     }
 
     /**
@@ -56,23 +87,56 @@ public class ChangeLogController {
     }
 
     /**
-     * Pobiera zmiany według typu operacji
+     * Pobiera zmiany według typu operacji (najnowsze, maks. 1000 wpisów, dalej - X-Next-Cursor)
      */
     @GetMapping("/operation/{operationType}")
     public ResponseEntity<List<ChangeLogEntry>> getChangesByOperationType(
             @PathVariable ChangeLogOperationType operationType) {
         
-        List<ChangeLogEntry> changes = changeLogService.getChangesByOperationType(operationType);
-        return ResponseEntity.ok(changes);
+        return capped(changeLogService.getChangesByOperationTypePage(operationType, null, ChangeLogServiceImpl.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Zmiany danego typu stronicowane kursorem
+     * GET /api/changelog/operation/{operationType}/page?size=50&cursor=...
+     */
+    @GetMapping("/operation/{operationType}/page")
+    public CursorPageDto<ChangeLogEntry> getChangesByOperationTypePage(
+            @PathVariable ChangeLogOperationType operationType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return changeLogService.getChangesByOperationTypePage(operationType, cursor, size);
     }
 
     /**
-     * Pobiera zmiany wykonane przez konkretnego użytkownika
+     * Pobiera zmiany wykonane przez konkretnego użytkownika (najnowsze, maks. 1000 wpisów, dalej - X-Next-Cursor)
      */
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ChangeLogEntry>> getChangesByUser(@PathVariable Long userId) {
-        List<ChangeLogEntry> changes = changeLogService.getChangesByUser(userId);
-        return ResponseEntity.ok(changes);
+        return capped(changeLogService.getChangesByUserPage(userId, null, ChangeLogServiceImpl.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Zmiany użytkownika stronicowane kursorem
+     * GET /api/changelog/user/{userId}/page?size=50&cursor=...
+     */
+    @GetMapping("/user/{userId}/page")
+    public CursorPageDto<ChangeLogEntry> getChangesByUserPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return changeLogService.getChangesByUserPage(userId, cursor, size);
+    }
+
+    /**
+     * Lista z pierwszej strony; kursor dalszej części w nagłówku, aby nie zmieniać formatu odpowiedzi
+     */
+    private static ResponseEntity<List<ChangeLogEntry>> capped(CursorPageDto<ChangeLogEntry> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
@@ -86,6 +150,18 @@ public class ChangeLogController {
         return ResponseEntity.ok(changes);
     }
 
+    /**
+     * Ostatnie zmiany w zwięzłym formacie prosto z bufora aktywności (tytuł zadania i nazwa autora, bez SQL)
+     * GET /api/changelog/recent/activity?limit=20
+     */
+    @GetMapping("/recent/activity")
+    public ResponseEntity<List<ActivityRecord>> getRecentSystemActivity(
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        List<ActivityRecord> activity = changeLogService.getRecentSystemActivity(limit);
+        return ResponseEntity.ok(activity);
+    }
+
     /**
      * Pobiera statystyki zmian dla zadania
      */
@@ -142,12 +218,10 @@ public class ChangeLogController {
         dashboard.put("recentChanges", recentChanges);
         dashboard.put("recentChangesCount", recentChanges.size());
         
-        // Statystyki według typu operacji
+        // Statystyki według typu operacji - jedno zapytanie GROUP BY zamiast ładowania wpisów każdego typu
         Map<String, Integer> operationStats = new HashMap<>();
-        for (ChangeLogOperationType type : ChangeLogOperationType.values()) {
-            List<ChangeLogEntry> typeChanges = changeLogService.getChangesByOperationType(type);
-            operationStats.put(type.getDisplayName(), typeChanges.size());
-        }
+        changeLogService.countChangesByOperationType()
+            .forEach((type, count) -> operationStats.put(type.getDisplayName(), count.intValue()));
         dashboard.put("operationStats", operationStats);
         
         // Informacje o systemie
@@ -208,27 +282,20 @@ public class ChangeLogController {
             @RequestParam(defaultValue = "50") int limit) {
         
         Map<String, Object> response = new HashMap<>();
-        List<ChangeLogEntry> results = null;
+        List<?> results = null;
         
         if (taskId != null && operationType != null) {
             // Wyszukiwanie według zadania i typu operacji
-            results = changeLogService.getTaskHistory(taskId).stream()
-                    .filter(entry -> entry.getOperationType() == operationType)
-                    .limit(limit)
-                    .toList();
+            results = changeLogService.getRecentTaskChanges(taskId, operationType, limit);
         } else if (taskId != null) {
             // Wyszukiwanie według zadania
             results = changeLogService.getRecentTaskChanges(taskId, limit);
         } else if (userId != null) {
             // Wyszukiwanie według użytkownika
-            results = changeLogService.getChangesByUser(userId).stream()
-                    .limit(limit)
-                    .toList();
+            results = changeLogService.getChangesByUserPage(userId, null, limit).getItems();
         } else if (operationType != null) {
             // Wyszukiwanie według typu operacji
-            results = changeLogService.getChangesByOperationType(operationType).stream()
-                    .limit(limit)
-                    .toList();
+            results = changeLogService.getChangesByOperationTypePage(operationType, null, limit).getItems();
         } else {
             // Domyślnie ostatnie zmiany
             results = changeLogService.getRecentSystemChanges(limit);
@@ -247,4 +314,28 @@ public class ChangeLogController {
         
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Wyszukiwanie pełnotekstowe w opisach oraz starych i nowych wartościach wpisów
+     * GET /api/changelog/search/fulltext?q=raport&taskId=1&from=2024-01-01T00:00:00&to=2024-01-31T23:59:59
+     */
+    @GetMapping("/search/fulltext")
+    public SearchPageDto<ChangeLogEntry> searchChangeLogFullText(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return changeLogSearchService.search(query, taskId, from, to, page, size);
+    }
+
+    /**
+     * Przebudowa indeksu wyszukiwania historii
+     * POST /api/changelog/search/rebuild
+     */
+    @PostMapping("/search/rebuild")
+    public Map<String, Object> rebuildSearchIndex() {
+        return changeLogSearchService.rebuildIndex();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Dzienny agregat historii zmian: liczba wpisów dla kombinacji dzień x typ operacji x użytkownik x nowy status.
+ * Utrzymywany przyrostowo przy zapisie wpisu historii - trendy czytają jeden wiersz na kombinację zamiast wpisów.
+ */
+@Entity
+@Table(name = "change_log_daily_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_change_log_rollup",
+                                             columnNames = {"rollup_date", "operation_type", "user_id", "new_status"}))
+public class ChangeLogDailyRollup {
+
+    /**
+     * Wartość user_id dla zmian wykonanych bez użytkownika
+     */
+    public static final long NO_USER = 0L;
+
+    /**
+     * Wartość new_status dla operacji innych niż zmiana statusu
+     */
+    public static final String NO_STATUS = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation_type", nullable = false, length = 20)
+    private ChangeLogOperationType operationType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId = NO_USER;
+
+    @Column(name = "new_status", nullable = false, length = 20)
+    private String newStatus = NO_STATUS;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount = 0L;
+
+    public ChangeLogDailyRollup() {
+    }
+
+    public Long getId() { return id; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public ChangeLogOperationType getOperationType() { return operationType; }
+    public void setOperationType(ChangeLogOperationType operationType) { this.operationType = operationType; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getNewStatus() { return newStatus; }
+    public void setNewStatus(String newStatus) { this.newStatus = newStatus; }
+
+    public Long getEntryCount() { return entryCount; }
+    public void setEntryCount(Long entryCount) { this.entryCount = entryCount; }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository dziennych agregatów historii zmian.
+ * Odczyty zwracają co najwyżej kilka wierszy na dzień niezależnie od liczby wpisów historii.
+ */
+public interface ChangeLogDailyRollupRepository extends JpaRepository<ChangeLogDailyRollup, Long> {
+
+    /**
+     * Zwiększa licznik kombinacji o count, tworząc wiersz przy pierwszym wpisie (jedno polecenie, bez odczytu)
+     */
+    @Modifying
+    @Query(value = "MERGE INTO change_log_daily_rollup r "
+            + "USING (SELECT CAST(:rollupDate AS DATE) AS rollup_date, CAST(:operationType AS VARCHAR(20)) AS operation_type, "
+            + "CAST(:userId AS BIGINT) AS user_id, CAST(:newStatus AS VARCHAR(20)) AS new_status) s "
+            + "ON r.rollup_date = s.rollup_date AND r.operation_type = s.operation_type "
+            + "AND r.user_id = s.user_id AND r.new_status = s.new_status "
+            + "WHEN MATCHED THEN UPDATE SET entry_count = r.entry_count + :count "
+            + "WHEN NOT MATCHED THEN INSERT (rollup_date, operation_type, user_id, new_status, entry_count) "
+            + "VALUES (s.rollup_date, s.operation_type, s.user_id, s.new_status, :count)",
+            nativeQuery = true)
+    int increment(@Param("rollupDate") LocalDate rollupDate, @Param("operationType") String operationType,
+                  @Param("userId") long userId, @Param("newStatus") String newStatus, @Param("count") long count);
+
+    /**
+     * Przelicza agregaty wpisów z zakresu [fromTime, toTime) na podstawie change_log_entry
+     * (po wcześniejszym usunięciu wierszy tych dni)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log_daily_rollup (rollup_date, operation_type, user_id, new_status, entry_count) "
+            + "SELECT CAST(changed_at AS DATE), operation_type, COALESCE(changed_by_user_id, 0), "
+            + "CASE WHEN operation_type = 'STATUS_CHANGE' THEN "
+            + "CASE new_value WHEN 'To Do' THEN 'TODO' WHEN 'In Progress' THEN 'IN_PROGRESS' WHEN 'Done' THEN 'DONE' ELSE '' END "
+            + "ELSE '' END, COUNT(*) "
+            + "FROM change_log_entry WHERE changed_at >= :fromTime AND changed_at < :toTime "
+            + "GROUP BY CAST(changed_at AS DATE), operation_type, COALESCE(changed_by_user_id, 0), "
+            + "CASE WHEN operation_type = 'STATUS_CHANGE' THEN "
+            + "CASE new_value WHEN 'To Do' THEN 'TODO' WHEN 'In Progress' THEN 'IN_PROGRESS' WHEN 'Done' THEN 'DONE' ELSE '' END "
+            + "ELSE '' END",
+            nativeQuery = true)
+    int insertFromChangeLog(@Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+
+    @Modifying
+    @Query("DELETE FROM ChangeLogDailyRollup r WHERE r.rollupDate BETWEEN :fromDate AND :toDate")
+    int deleteRollupsBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Suma liczników na dzień od podanej daty: [dzień, liczba] - porównywana z liczbą wpisów historii dnia
+     */
+    @Query("SELECT r.rollupDate, SUM(r.entryCount) FROM ChangeLogDailyRollup r "
+            + "WHERE r.rollupDate >= :fromDate GROUP BY r.rollupDate")
+    List<Object[]> sumEntryCountsByDay(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Liczba zmian według typu operacji w zakresie dat
+     */
+    @Query("SELECT r.operationType, SUM(r.entryCount) FROM ChangeLogDailyRollup r "
+            + "WHERE r.rollupDate BETWEEN :fromDate AND :toDate GROUP BY r.operationType")
+    List<Object[]> sumByOperationType(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Dzienne serie: [dzień, typ operacji, nowy status, liczba]
+     */
+    @Query("SELECT r.rollupDate, r.operationType, r.newStatus, SUM(r.entryCount) FROM ChangeLogDailyRollup r "
+            + "WHERE r.rollupDate BETWEEN :fromDate AND :toDate "
+            + "GROUP BY r.rollupDate, r.operationType, r.newStatus ORDER BY r.rollupDate")
+    List<Object[]> sumByDayOperationAndStatus(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Liczba przejść do danego statusu na dzień: [dzień, liczba]
+     */
+    @Query("SELECT r.rollupDate, SUM(r.entryCount) FROM ChangeLogDailyRollup r "
+            + "WHERE r.operationType = org.example.ChangeLogOperationType.STATUS_CHANGE AND r.newStatus = :newStatus "
+            + "AND r.rollupDate BETWEEN :fromDate AND :toDate GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> sumStatusTransitionsByDay(@Param("newStatus") String newStatus,
+                                             @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Liczba aktywnych użytkowników (z co najmniej jedną zmianą) na dzień: [dzień, liczba]
+     */
+    @Query("SELECT r.rollupDate, COUNT(DISTINCT r.userId) FROM ChangeLogDailyRollup r "
+            + "WHERE r.userId <> 0 AND r.rollupDate BETWEEN :fromDate AND :toDate "
+            + "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> countActiveUsersByDay(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+}
@@ -1,15 +1,21 @@
 package org.example;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Encja reprezentująca wpis w historii zmian zadania.
  * Przechowuje szczegółowe informacje o każdej zmianie: jakie pole, poprzednia wartość, nowa wartość.
  */
 @Entity
-@Table(name = "change_log_entry")
+@Table(name = "change_log_entry",
+       uniqueConstraints = @UniqueConstraint(name = "uk_change_log_task_seq", columnNames = {"task_id", "seq"}))
 public class ChangeLogEntry {
     
     @Id
@@ -24,6 +30,12 @@ public class ChangeLogEntry {
     @JsonIgnoreProperties({"changeLogEntries", "assignedTo"})
     private Task task;
     
+    /**
+     * Numer kolejny wpisu w obrębie zadania (1, 2, 3...) nadawany przy zapisie z licznika task_change_seq
+     */
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+    
     /**
      * Nazwa pola, które zostało zmienione
      */
@@ -50,13 +62,22 @@ public class ChangeLogEntry {
     private ChangeLogOperationType operationType;
     
     /**
-     * Użytkownik, który wykonał zmianę (opcjonalne)
+     * Użytkownik, który wykonał zmianę (opcjonalne); po usunięciu użytkownika zerowany przez bazę jak w V4
      */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "changed_by_user_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     @JsonIgnoreProperties("tasks")
     private User changedBy;
     
+    /**
+     * Osoba przypisana do zadania w chwili zmiany (bez relacji - zostaje po usunięciu użytkownika).
+     * Ustawiana przy zapisie; ranking wykonawców liczy według niej przejścia do DONE.
+     */
+    @JsonIgnore
+    @Column(name = "assignee_user_id")
+    private Long assigneeId;
+    
     /**
      * Data i czas zmiany
      */
@@ -70,20 +91,29 @@ public class ChangeLogEntry {
     private String description;
     
     /**
-     * Adres IP użytkownika (dla audytu)
+     * Adres IP użytkownika (dla audytu).
+     * Pola audytu klienta tworzą leniwą grupę "client" (bytecode enhancement) - odczyt historii ich nie pobiera,
+     * a getter ładuje obie kolumny jednym zapytaniem. Poza JSON, żeby serializacja list nie wymuszała tego zapytania.
      */
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("client")
+    @JsonIgnore
     @Column(name = "ip_address", length = 45)
     private String ipAddress;
     
     /**
-     * User Agent przeglądarki (dla audytu)
+     * User Agent przeglądarki (dla audytu), grupa leniwa "client"
      */
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("client")
+    @JsonIgnore
     @Column(name = "user_agent", length = 500)
     private String userAgent;
 
     // Konstruktory
     public ChangeLogEntry() {
-        this.changedAt = LocalDateTime.now();
+        // Precyzja kolumny TIMESTAMP - wartość w pamięci równa zapisanej, co wymaga kursor (changed_at, id)
+        this.changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public ChangeLogEntry(Task task, String fieldName, String oldValue, String newValue, 
@@ -109,6 +139,9 @@ public class ChangeLogEntry {
     public Task getTask() { return task; }
     public void setTask(Task task) { this.task = task; }
 
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
     public String getFieldName() { return fieldName; }
     public void setFieldName(String fieldName) { this.fieldName = fieldName; }
 
@@ -127,6 +160,9 @@ public class ChangeLogEntry {
     public LocalDateTime getChangedAt() { return changedAt; }
     public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
 
+    public Long getAssigneeId() { return assigneeId; }
+    public void setAssigneeId(Long assigneeId) { this.assigneeId = assigneeId; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -136,6 +172,13 @@ public class ChangeLogEntry {
     public String getUserAgent() { return userAgent; }
     public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
 
+    @PrePersist
+    void captureAssignee() {
+        if (assigneeId == null && task != null && task.getAssignedTo() != null) {
+            assigneeId = task.getAssignedTo().getId();
+        }
+    }
+
     // Metody pomocnicze
     public boolean isFieldChange() {
         return operationType == ChangeLogOperationType.UPDATE && 
@@ -170,7 +213,7 @@ public class ChangeLogEntry {
 
     @Override
     public String toString() {
-        return String.format("ChangeLogEntry{id=%d, task=%d, field='%s', operation=%s, changedAt=%s}", 
-                           id, task != null ? task.getId() : null, fieldName, operationType, changedAt);
+        return String.format("ChangeLogEntry{id=%d, task=%d, seq=%d, field='%s', operation=%s, changedAt=%s}", 
+                           id, task != null ? task.getId() : null, seq, fieldName, operationType, changedAt);
     }
 } 
\ No newline at end of file
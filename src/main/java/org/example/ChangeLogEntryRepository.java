@@ -1,11 +1,18 @@
 package org.example;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository do zarządzania historią zmian zadań.
@@ -14,20 +21,20 @@ import java.util.List;
 public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
     
     /**
-     * Pobiera wszystkie wpisy historii dla konkretnego zadania, posortowane chronologicznie (najnowsze pierwsze)
+     * Pobiera wszystkie wpisy historii dla konkretnego zadania od najnowszego (skan uk_change_log_task_seq wstecz)
      */
-    List<ChangeLogEntry> findByTaskIdOrderByChangedAtDesc(Long taskId);
+    List<ChangeLogEntry> findByTaskIdOrderBySeqDesc(Long taskId);
     
     /**
-     * Pobiera wszystkie wpisy historii dla konkretnego zadania w określonym zakresie dat
+     * Wpisy zadania o numerze większym niż afterSeq, rosnąco - odtwarzanie historii od znanej pozycji
      */
-    List<ChangeLogEntry> findByTaskIdAndChangedAtBetweenOrderByChangedAtDesc(
-        Long taskId, LocalDateTime startDate, LocalDateTime endDate);
+    List<ChangeLogEntry> findByTaskIdAndSeqGreaterThanOrderBySeqAsc(Long taskId, Long afterSeq, Pageable pageable);
     
     /**
-     * Pobiera wpisy historii według typu operacji
+     * Pobiera wszystkie wpisy historii dla konkretnego zadania w określonym zakresie dat
      */
-    List<ChangeLogEntry> findByOperationTypeOrderByChangedAtDesc(ChangeLogOperationType operationType);
+    List<ChangeLogEntry> findByTaskIdAndChangedAtBetweenOrderByChangedAtDesc(
+        Long taskId, LocalDateTime startDate, LocalDateTime endDate);
     
     /**
      * Pobiera wpisy historii dla zadań przypisanych do konkretnego użytkownika
@@ -35,11 +42,6 @@ public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry,
     @Query("SELECT cle FROM ChangeLogEntry cle WHERE cle.task.assignedTo.id = :userId ORDER BY cle.changedAt DESC")
     List<ChangeLogEntry> findByTaskAssignedToUserOrderByChangedAtDesc(@Param("userId") Long userId);
     
-    /**
-     * Pobiera wpisy historii zmian wykonanych przez konkretnego użytkownika
-     */
-    List<ChangeLogEntry> findByChangedByIdOrderByChangedAtDesc(Long userId);
-    
     /**
      * Pobiera wpisy historii dla konkretnego pola zadania
      */
@@ -53,14 +55,17 @@ public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry,
     /**
      * Pobiera ostatnie N zmian dla konkretnego zadania
      */
-    @Query("SELECT cle FROM ChangeLogEntry cle WHERE cle.task.id = :taskId ORDER BY cle.changedAt DESC LIMIT :limit")
-    List<ChangeLogEntry> findTopNByTaskIdOrderByChangedAtDesc(@Param("taskId") Long taskId, @Param("limit") int limit);
+    @Query("SELECT cle FROM ChangeLogEntry cle WHERE cle.task.id = :taskId ORDER BY cle.seq DESC LIMIT :limit")
+    List<ChangeLogEntry> findTopNByTaskIdOrderBySeqDesc(@Param("taskId") Long taskId, @Param("limit") int limit);
     
     /**
-     * Pobiera ostatnie N zmian w całym systemie (dla analytics)
+     * Ostatnie N zmian w całym systemie jako projekcja z tytułem zadania i nazwą autora (bez ładowania encji):
+     * id, id zadania, tytuł, typ operacji, pole, stara i nowa wartość, opis, data, id i nazwa autora
      */
-    @Query("SELECT cle FROM ChangeLogEntry cle ORDER BY cle.changedAt DESC LIMIT :limit")
-    List<ChangeLogEntry> findTopNByOrderByChangedAtDesc(@Param("limit") int limit);
+    @Query("SELECT cle.id, t.id, t.title, cle.operationType, cle.fieldName, cle.oldValue, cle.newValue, "
+         + "cle.description, cle.changedAt, u.id, u.username "
+         + "FROM ChangeLogEntry cle JOIN cle.task t LEFT JOIN cle.changedBy u ORDER BY cle.changedAt DESC LIMIT :limit")
+    List<Object[]> findRecentActivityRows(@Param("limit") int limit);
     
     /**
      * Pobiera wszystkie zmiany w określonym zakresie dat
@@ -107,15 +112,10 @@ public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry,
     List<ChangeLogEntry> findByDescriptionContainingIgnoreCaseOrderByChangedAtDesc(@Param("searchText") String searchText);
     
     /**
-     * Pobiera zmiany dla konkretnego zadania według typu operacji
+     * Najnowsze zmiany konkretnego zadania według typu operacji (rozmiar z pageable)
      */
-    List<ChangeLogEntry> findByTaskIdAndOperationTypeOrderByChangedAtDesc(Long taskId, ChangeLogOperationType operationType);
-    
-    /**
-     * Pobiera ostatnie zmiany w systemie (dla dashboard)
-     */
-    @Query("SELECT cle FROM ChangeLogEntry cle ORDER BY cle.changedAt DESC LIMIT :limit")
-    List<ChangeLogEntry> findRecentChanges(@Param("limit") int limit);
+    List<ChangeLogEntry> findByTaskIdAndOperationTypeOrderByChangedAtDesc(Long taskId, ChangeLogOperationType operationType,
+                                                                          Pageable pageable);
     
     /**
      * Pobiera statystyki zmian według typu operacji
@@ -123,9 +123,180 @@ public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry,
     @Query("SELECT cle.operationType, COUNT(cle) FROM ChangeLogEntry cle GROUP BY cle.operationType")
     List<Object[]> getChangeStatsByOperationType();
     
+    /**
+     * Liczba wpisów historii na dzień (dzień, liczba) - porównywana z dziennymi agregatami przy uzgadnianiu
+     */
+    @Query("SELECT CAST(cle.changedAt AS LocalDate), COUNT(cle) FROM ChangeLogEntry cle "
+         + "GROUP BY CAST(cle.changedAt AS LocalDate)")
+    List<Object[]> countEntriesByDay();
+    
+    /**
+     * Podsumowanie historii zadania w jednym wierszu: liczba, pierwsza i ostatnia zmiana, liczby zmian po podanych chwilach
+     */
+    @Query("SELECT COUNT(cle), MIN(cle.changedAt), MAX(cle.changedAt), "
+         + "SUM(CASE WHEN cle.changedAt > :since24Hours THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN cle.changedAt > :since7Days THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN cle.changedAt > :since30Days THEN 1 ELSE 0 END) "
+         + "FROM ChangeLogEntry cle WHERE cle.task.id = :taskId")
+    List<Object[]> summarizeTaskChanges(@Param("taskId") Long taskId, @Param("since24Hours") LocalDateTime since24Hours,
+                                        @Param("since7Days") LocalDateTime since7Days,
+                                        @Param("since30Days") LocalDateTime since30Days);
+    
+    /**
+     * Liczba zmian zadania według typu operacji i pola (typ, pole, liczba)
+     */
+    @Query("SELECT cle.operationType, cle.fieldName, COUNT(cle) FROM ChangeLogEntry cle WHERE cle.task.id = :taskId "
+         + "GROUP BY cle.operationType, cle.fieldName")
+    List<Object[]> countTaskChangesByTypeAndField(@Param("taskId") Long taskId);
+    
+    /**
+     * Podsumowanie zmian wykonanych przez użytkownika - kolumny jak w summarizeTaskChanges
+     */
+    @Query("SELECT COUNT(cle), MIN(cle.changedAt), MAX(cle.changedAt), "
+         + "SUM(CASE WHEN cle.changedAt > :since24Hours THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN cle.changedAt > :since7Days THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN cle.changedAt > :since30Days THEN 1 ELSE 0 END) "
+         + "FROM ChangeLogEntry cle WHERE cle.changedBy.id = :userId")
+    List<Object[]> summarizeUserChanges(@Param("userId") Long userId, @Param("since24Hours") LocalDateTime since24Hours,
+                                        @Param("since7Days") LocalDateTime since7Days,
+                                        @Param("since30Days") LocalDateTime since30Days);
+    
+    /**
+     * Liczba zmian użytkownika według typu operacji i pola (typ, pole, liczba)
+     */
+    @Query("SELECT cle.operationType, cle.fieldName, COUNT(cle) FROM ChangeLogEntry cle WHERE cle.changedBy.id = :userId "
+         + "GROUP BY cle.operationType, cle.fieldName")
+    List<Object[]> countUserChangesByTypeAndField(@Param("userId") Long userId);
+    
     /**
      * Pobiera statystyki zmian według użytkownika (kto wykonał najwięcej zmian)
      */
     @Query("SELECT cle.changedBy, COUNT(cle) FROM ChangeLogEntry cle WHERE cle.changedBy IS NOT NULL GROUP BY cle.changedBy ORDER BY COUNT(cle) DESC")
     List<Object[]> getChangeStatsByUser();
-} 
\ No newline at end of file
+
+    /**
+     * Paczka dokumentów dla indeksu wyszukiwania (id, id zadania, data, opis, stara i nowa wartość) - stronicowanie po kluczu
+     */
+    @Query("SELECT cle.id, cle.task.id, cle.changedAt, cle.description, cle.oldValue, cle.newValue FROM ChangeLogEntry cle WHERE cle.id > :afterId ORDER BY cle.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Oś czasu utworzeń i przejść do DONE (id zadania, typ operacji, data) posortowana po zadaniu i numerze wpisu.
+     * Strumień czytany kursorem - wymaga aktywnej transakcji i zamknięcia po użyciu.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT cle.task.id, cle.operationType, cle.changedAt FROM ChangeLogEntry cle "
+         + "WHERE cle.operationType = org.example.ChangeLogOperationType.CREATE "
+         + "OR (cle.operationType = org.example.ChangeLogOperationType.STATUS_CHANGE AND cle.newValue = :doneValue) "
+         + "ORDER BY cle.task.id, cle.seq")
+    Stream<Object[]> streamCompletionTimeline(@Param("doneValue") String doneValue);
+    
+    /**
+     * Pełna oś czasu historii (id zadania, typ operacji, stara i nowa wartość, data, bieżący status zadania)
+     * w kolejności indeksu uk_change_log_task_seq - bez sortowania, wpisy z tą samą datą w kolejności zapisu.
+     * Strumień wymaga aktywnej transakcji i zamknięcia.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT cle.task.id, cle.operationType, cle.oldValue, cle.newValue, cle.changedAt, t.status "
+         + "FROM ChangeLogEntry cle JOIN cle.task t "
+         + "ORDER BY cle.task.id, cle.seq")
+    Stream<Object[]> streamTaskTimeline();
+    
+    /**
+     * Liczba przejść do DONE od podanej daty według osoby przypisanej w chwili zmiany i dnia (id użytkownika, dzień, liczba)
+     */
+    @Query("SELECT cle.assigneeId, CAST(cle.changedAt AS LocalDate), COUNT(cle) FROM ChangeLogEntry cle "
+         + "WHERE cle.operationType = org.example.ChangeLogOperationType.STATUS_CHANGE AND cle.newValue = :doneValue "
+         + "AND cle.changedAt >= :from AND cle.assigneeId IS NOT NULL "
+         + "GROUP BY cle.assigneeId, CAST(cle.changedAt AS LocalDate)")
+    List<Object[]> countCompletionsByAssigneeAndDay(@Param("doneValue") String doneValue, @Param("from") LocalDateTime from);
+    
+    /**
+     * Wpisy o podanych id z zadaniem, osobą przypisaną i autorem w jednym zapytaniu (zdarzenia z innych węzłów)
+     */
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task t LEFT JOIN FETCH t.assignedTo "
+         + "LEFT JOIN FETCH cle.changedBy WHERE cle.id IN :ids ORDER BY cle.id")
+    List<ChangeLogEntry> findAllWithTaskByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Id najstarszych (najniższe id) wpisów zapisanych przed podaną chwilą - paczka czyszczenia historii
+     */
+    @Query("SELECT cle.id FROM ChangeLogEntry cle WHERE cle.changedAt < :cutoff ORDER BY cle.id")
+    List<Long> findIdsChangedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Usuwa wpisy sprzed podanej chwili o id nie większym niż upToId - jedna paczka czyszczenia historii
+     */
+    @Modifying
+    @Query(value = "DELETE FROM change_log_entry WHERE changed_at < :cutoff AND id <= :upToId", nativeQuery = true)
+    int deleteChangedBeforeUpTo(@Param("cutoff") LocalDateTime cutoff, @Param("upToId") Long upToId);
+    
+    /**
+     * Najwyższe id wpisu historii (0 dla pustej tabeli)
+     */
+    @Query("SELECT COALESCE(MAX(cle.id), 0) FROM ChangeLogEntry cle")
+    Long findMaxId();
+    
+    /**
+     * Wpisy UNASSIGN dla zadań użytkownika o id nie większym niż upToId - INSERT ... SELECT bez ładowania zadań.
+     * Numer wpisu pochodzi z licznika zwiększonego wcześniej przez TaskChangeSequenceRepository.incrementForAssignedTasks.
+     * Musi poprzedzać TaskRepository.unassignTasksUpTo z tymi samymi parametrami.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log_entry (task_id, seq, field_name, old_value, new_value, operation_type, changed_at, description) "
+         + "SELECT t.id, s.last_seq, 'assignedTo', :username, 'unassigned', 'UNASSIGN', :changedAt, :description "
+         + "FROM task t JOIN task_change_seq s ON s.task_id = t.id "
+         + "WHERE t.user_id = :userId AND t.id <= :upToId", nativeQuery = true)
+    int insertUnassignEntries(@Param("userId") Long userId, @Param("upToId") Long upToId,
+                              @Param("username") String username, @Param("changedAt") LocalDateTime changedAt,
+                              @Param("description") String description);
+    
+    // ===== Stronicowanie kursorem, od najnowszych =====
+    // Slice pobiera size + 1 wierszy bez zapytania COUNT; zadanie i autor dociągane w tym samym zapytaniu.
+    // Historia zadania: po seq (uk_change_log_task_seq), pozostałe listy: po (changed_at, id).
+    
+    /**
+     * Pierwsza strona historii zadania
+     */
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.task.id = :taskId ORDER BY cle.seq DESC")
+    Slice<ChangeLogEntry> findTaskHistorySlice(@Param("taskId") Long taskId, Pageable pageable);
+    
+    /**
+     * Kolejna strona historii zadania - wpisy o numerze mniejszym niż kursor
+     */
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.task.id = :taskId AND cle.seq < :seq ORDER BY cle.seq DESC")
+    Slice<ChangeLogEntry> findTaskHistorySliceBefore(@Param("taskId") Long taskId, @Param("seq") Long seq,
+                                                    Pageable pageable);
+    
+    /**
+     * Pierwsza strona zmian użytkownika (idx_change_log_changed_by_changed_at)
+     */
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.changedBy.id = :userId ORDER BY cle.changedAt DESC, cle.id DESC")
+    Slice<ChangeLogEntry> findUserChangesSlice(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.changedBy.id = :userId "
+         + "AND (cle.changedAt < :changedAt OR (cle.changedAt = :changedAt AND cle.id < :id)) "
+         + "ORDER BY cle.changedAt DESC, cle.id DESC")
+    Slice<ChangeLogEntry> findUserChangesSliceBefore(@Param("userId") Long userId, @Param("changedAt") LocalDateTime changedAt,
+                                                    @Param("id") Long id, Pageable pageable);
+    
+    /**
+     * Pierwsza strona zmian danego typu (idx_change_log_operation_changed_at)
+     */
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.operationType = :operationType ORDER BY cle.changedAt DESC, cle.id DESC")
+    Slice<ChangeLogEntry> findOperationTypeSlice(@Param("operationType") ChangeLogOperationType operationType,
+                                                 Pageable pageable);
+    
+    @Query("SELECT cle FROM ChangeLogEntry cle JOIN FETCH cle.task LEFT JOIN FETCH cle.changedBy "
+         + "WHERE cle.operationType = :operationType "
+         + "AND (cle.changedAt < :changedAt OR (cle.changedAt = :changedAt AND cle.id < :id)) "
+         + "ORDER BY cle.changedAt DESC, cle.id DESC")
+    Slice<ChangeLogEntry> findOperationTypeSliceBefore(@Param("operationType") ChangeLogOperationType operationType,
+                                                       @Param("changedAt") LocalDateTime changedAt,
+                                                       @Param("id") Long id, Pageable pageable);
+}
@@ -1,7 +1,11 @@
 package org.example;
 
+import org.example.activity.ActivityRecord;
+import org.example.dto.CursorPageDto;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface serwisu do zarządzania szczegółową historią zmian zadań.
@@ -42,25 +46,61 @@ public interface ChangeLogService {
     List<ChangeLogEntry> getTaskHistory(Long taskId, LocalDateTime startDate, LocalDateTime endDate);
     
     /**
-     * Pobiera ostatnie N zmian dla zadania
+     * Pobiera ostatnie N zmian dla zadania (1..MAX_PAGE_SIZE)
      */
     List<ChangeLogEntry> getRecentTaskChanges(Long taskId, int limit);
     
     /**
-     * Pobiera historię zmian według typu operacji
+     * Najnowsze zmiany zadania danego typu (1..MAX_PAGE_SIZE)
+     */
+    List<ChangeLogEntry> getRecentTaskChanges(Long taskId, ChangeLogOperationType operationType, int limit);
+    
+    /**
+     * Najnowsze zmiany danego typu (1..MAX_PAGE_SIZE); dalsze strony - getChangesByOperationTypePage
+     */
+    List<ChangeLogEntry> getChangesByOperationType(ChangeLogOperationType operationType, int limit);
+    
+    /**
+     * Najnowsze zmiany wykonane przez użytkownika (1..MAX_PAGE_SIZE); dalsze strony - getChangesByUserPage
+     */
+    List<ChangeLogEntry> getChangesByUser(Long userId, int limit);
+    
+    /**
+     * Strona historii zadania od najnowszych; cursor z nextCursor poprzedniej strony (null - pierwsza strona)
+     */
+    CursorPageDto<ChangeLogEntry> getTaskHistoryPage(Long taskId, String cursor, int size);
+    
+    /**
+     * Wpisy zadania zapisane po wpisie o numerze afterSeq (rosnąco, najwyżej limit) - do odtwarzania historii
+     * od ostatnio znanej pozycji; afterSeq = 0 zwraca historię od początku
+     */
+    List<ChangeLogEntry> getTaskChangesSince(Long taskId, long afterSeq, int limit);
+    
+    /**
+     * Strona zmian wykonanych przez użytkownika od najnowszych
      */
-    List<ChangeLogEntry> getChangesByOperationType(ChangeLogOperationType operationType);
+    CursorPageDto<ChangeLogEntry> getChangesByUserPage(Long userId, String cursor, int size);
     
     /**
-     * Pobiera zmiany wykonane przez konkretnego użytkownika
+     * Strona zmian danego typu od najnowszych
      */
-    List<ChangeLogEntry> getChangesByUser(Long userId);
+    CursorPageDto<ChangeLogEntry> getChangesByOperationTypePage(ChangeLogOperationType operationType, String cursor, int size);
     
     /**
-     * Pobiera ostatnie zmiany w systemie
+     * Pobiera ostatnie zmiany w systemie - id z bufora aktywności w pamięci, wpisy jednym zapytaniem po kluczu
      */
     List<ChangeLogEntry> getRecentSystemChanges(int limit);
     
+    /**
+     * Ostatnie zmiany w systemie prosto z bufora aktywności (bez zapytań SQL)
+     */
+    List<ActivityRecord> getRecentSystemActivity(int limit);
+    
+    /**
+     * Liczba wpisów historii według typu operacji (jedno zapytanie GROUP BY)
+     */
+    Map<ChangeLogOperationType, Long> countChangesByOperationType();
+    
     /**
      * Pobiera statystyki zmian dla zadania
      */
@@ -75,6 +115,17 @@ public interface ChangeLogService {
      * Czyści starą historię zmian (starszą niż określona liczba dni)
      */
     int cleanOldChangeLog(int daysOld);
+
+    /**
+     * Jak cleanOldChangeLog(int), ale przed każdą paczką usuwanych wpisów wywołuje beforeChunk - wyjątek
+     * z niego przerywa czyszczenie (zadanie okresowe sprawdza w ten sposób, czy nadal trzyma blokadę klastra)
+     */
+    int cleanOldChangeLog(int daysOld, Runnable beforeChunk);
+
+    /**
+     * Uzgadnia liczniki task_change_seq z największym numerem kolejnym w historii; zwraca liczbę poprawionych zadań
+     */
+    int reconcileTaskSequences();
     
     /**
      * Eksportuje historię zmian dla zadania do JSON
@@ -1,49 +1,113 @@
 package org.example;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.activity.ActivityRecord;
+import org.example.audit.EntityDiffer;
+import org.example.audit.FieldChange;
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.ClusterEventType;
+import org.example.dto.ChangeLogCursor;
+import org.example.dto.CursorPageDto;
+import org.example.dto.TaskHistoryCursor;
+import org.example.service.ChangeLogRollupService;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.LeaderboardService;
+import org.example.service.RecentActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Map;
 
 /**
  * Implementacja serwisu do zarządzania szczegółową historią zmian zadań.
  * Automatycznie wykrywa zmiany w polach i tworzy odpowiednie wpisy w historii.
+ * Każdy wpis dostaje numer kolejny w obrębie zadania w tej samej transakcji co zapis - wycofany zapis
+ * nie zostawia luki, a wpisy jednej aktualizacji zadania mają kolejne numery.
  */
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 public class ChangeLogServiceImpl implements ChangeLogService {
     
+    /**
+     * Maksymalny rozmiar strony historii - także twardy limit endpointów zwracających listy
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final EntityDiffer<Task> TASK_DIFFER = EntityDiffer.of(Task.class);
+
+    /**
+     * Wpisy usuwane w jednej krótkiej transakcji czyszczenia historii
+     */
+    private static final int RETENTION_CHUNK_SIZE = 1000;
+    
     @Autowired
     private ChangeLogEntryRepository changeLogRepository;
     
+    @Autowired
+    private TaskChangeSequenceRepository taskChangeSequenceRepository;
+    
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ChangeLogSearchService changeLogSearchService;
+    
+    @Autowired
+    private ChangeLogRollupService changeLogRollupService;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private RecentActivityService recentActivityService;
+    
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public ChangeLogEntry logChange(Task task, String fieldName, String oldValue, String newValue, 
                                   ChangeLogOperationType operationType) {
         return logChange(task, fieldName, oldValue, newValue, operationType, (String) null);
     }
 
     @Override
+    @Transactional
     public ChangeLogEntry logChange(Task task, String fieldName, String oldValue, String newValue, 
                                   ChangeLogOperationType operationType, String description) {
         ChangeLogEntry entry = new ChangeLogEntry(task, fieldName, oldValue, newValue, operationType, description);
-        return changeLogRepository.save(entry);
+        return persist(entry);
     }
 
     @Override
+    @Transactional
     public ChangeLogEntry logChange(Task task, String fieldName, String oldValue, String newValue, 
                                   ChangeLogOperationType operationType, User changedBy) {
         ChangeLogEntry entry = new ChangeLogEntry(task, fieldName, oldValue, newValue, operationType);
         entry.setChangedBy(changedBy);
-        return changeLogRepository.save(entry);
+        return persist(entry);
     }
 
     @Override
+    @Transactional
     public List<ChangeLogEntry> logTaskChanges(Task oldTask, Task newTask, User changedBy) {
         List<ChangeLogEntry> changes = new ArrayList<>();
         
@@ -53,7 +117,7 @@ public class ChangeLogServiceImpl implements ChangeLogService {
                                                            ChangeLogOperationType.CREATE);
             createEntry.setChangedBy(changedBy);
             createEntry.setDescription("Task created: " + newTask.getTitle());
-            changes.add(changeLogRepository.save(createEntry));
+            changes.add(persist(createEntry));
             return changes;
         }
 
@@ -63,147 +127,235 @@ public class ChangeLogServiceImpl implements ChangeLogService {
         return changes;
     }
 
+    /**
+     * Zmienione pola (@TrackChanges w Task) zapisywane razem: jeden MERGE rezerwuje zakres numerów kolejnych,
+     * jedno saveAll zapisuje wpisy
+     */
     private List<ChangeLogEntry> compareAndLogFieldChanges(Task oldTask, Task newTask, User changedBy) {
-        List<ChangeLogEntry> changes = new ArrayList<>();
-
-        // Sprawdzenie zmiany tytułu
-        if (!Objects.equals(oldTask.getTitle(), newTask.getTitle())) {
-            changes.add(createFieldChangeEntry(newTask, "title", oldTask.getTitle(), 
-                                             newTask.getTitle(), ChangeLogOperationType.TITLE_CHANGE, changedBy));
+        List<FieldChange> fieldChanges = TASK_DIFFER.diff(oldTask, newTask);
+        if (fieldChanges.isEmpty()) {
+            return new ArrayList<>();
         }
-
-        // Sprawdzenie zmiany opisu
-        if (!Objects.equals(oldTask.getDescription(), newTask.getDescription())) {
-            changes.add(createFieldChangeEntry(newTask, "description", oldTask.getDescription(), 
-                                             newTask.getDescription(), ChangeLogOperationType.DESCRIPTION_CHANGE, changedBy));
+        List<ChangeLogEntry> entries = new ArrayList<>(fieldChanges.size());
+        for (FieldChange change : fieldChanges) {
+            ChangeLogEntry entry = new ChangeLogEntry(newTask, change.field(), change.oldValue(), change.newValue(),
+                                                      change.operation());
+            entry.setChangedBy(changedBy);
+            entries.add(entry);
         }
+        return persistAll(newTask.getId(), entries);
+    }
 
-        // Sprawdzenie zmiany statusu
-        if (!Objects.equals(oldTask.getStatus(), newTask.getStatus())) {
-            String oldStatus = oldTask.getStatus() != null ? oldTask.getStatus().getDisplayName() : null;
-            String newStatus = newTask.getStatus() != null ? newTask.getStatus().getDisplayName() : null;
-            changes.add(createFieldChangeEntry(newTask, "status", oldStatus, newStatus, 
-                                             ChangeLogOperationType.STATUS_CHANGE, changedBy));
-        }
+    /**
+     * Wspólna ścieżka zapisu wszystkich wpisów historii
+     */
+    private ChangeLogEntry persist(ChangeLogEntry entry) {
+        entry.setSeq(nextSeq(entry.getTask().getId()));
+        ChangeLogEntry saved = changeLogRepository.save(entry);
+        afterPersist(saved);
+        return saved;
+    }
 
-        // Sprawdzenie zmiany priorytetu
-        if (!Objects.equals(oldTask.getPriority(), newTask.getPriority())) {
-            String oldPriority = oldTask.getPriority() != null ? oldTask.getPriority().getDisplayName() : null;
-            String newPriority = newTask.getPriority() != null ? newTask.getPriority().getDisplayName() : null;
-            changes.add(createFieldChangeEntry(newTask, "priority", oldPriority, newPriority, 
-                                             ChangeLogOperationType.PRIORITY_CHANGE, changedBy));
+    /**
+     * Zapis kilku wpisów jednego zadania - numery kolejne last - n + 1 .. last z jednego zwiększenia licznika
+     */
+    private List<ChangeLogEntry> persistAll(Long taskId, List<ChangeLogEntry> entries) {
+        taskChangeSequenceRepository.incrementBy(taskId, entries.size());
+        long seq = taskChangeSequenceRepository.findLastSeq(taskId) - entries.size();
+        for (ChangeLogEntry entry : entries) {
+            entry.setSeq(++seq);
         }
+        List<ChangeLogEntry> saved = changeLogRepository.saveAll(entries);
+        saved.forEach(this::afterPersist);
+        return saved;
+    }
 
-        // Sprawdzenie zmiany terminu wykonania
-        if (!Objects.equals(oldTask.getDueDate(), newTask.getDueDate())) {
-            String oldDate = oldTask.getDueDate() != null ? oldTask.getDueDate().toString() : null;
-            String newDate = newTask.getDueDate() != null ? newTask.getDueDate().toString() : null;
-            changes.add(createFieldChangeEntry(newTask, "dueDate", oldDate, newDate, 
-                                             ChangeLogOperationType.DUE_DATE_CHANGE, changedBy));
-        }
+    private void afterPersist(ChangeLogEntry saved) {
+        meterRegistry.counter("taskmanager.changelog.entries", "operation", saved.getOperationType().name()).increment();
+        changeLogSearchService.indexEntry(saved);
+        changeLogRollupService.recordEntry(saved);
+        leaderboardService.recordCompletion(saved);
+        recentActivityService.record(saved);
+        clusterEventBus.publish(ClusterEventType.CHANGE_LOG_APPENDED, saved.getId());
+    }
 
-        // Sprawdzenie zmiany przypisania
-        if (!Objects.equals(getAssignedToId(oldTask), getAssignedToId(newTask))) {
-            String oldAssignee = getAssignedToName(oldTask);
-            String newAssignee = getAssignedToName(newTask);
-            
-            ChangeLogOperationType operationType = newTask.getAssignedTo() != null ? 
-                ChangeLogOperationType.ASSIGN : ChangeLogOperationType.UNASSIGN;
-            
-            changes.add(createFieldChangeEntry(newTask, "assignedTo", oldAssignee, newAssignee, 
-                                             operationType, changedBy));
-        }
+    /**
+     * Przydziela kolejny numer wpisu zadania; wymaga aktywnej transakcji (blokada wiersza licznika do commitu)
+     */
+    private long nextSeq(Long taskId) {
+        taskChangeSequenceRepository.increment(taskId);
+        return taskChangeSequenceRepository.findLastSeq(taskId);
+    }
 
-        return changes;
+    @Override
+    public List<ChangeLogEntry> getTaskHistory(Long taskId) {
+        return changeLogRepository.findByTaskIdOrderBySeqDesc(taskId);
     }
 
-    private ChangeLogEntry createFieldChangeEntry(Task task, String fieldName, String oldValue, String newValue, 
-                                                ChangeLogOperationType operationType, User changedBy) {
-        ChangeLogEntry entry = new ChangeLogEntry(task, fieldName, oldValue, newValue, operationType);
-        entry.setChangedBy(changedBy);
-        return changeLogRepository.save(entry);
+    @Override
+    public List<ChangeLogEntry> getTaskHistory(Long taskId, LocalDateTime startDate, LocalDateTime endDate) {
+        return changeLogRepository.findByTaskIdAndChangedAtBetweenOrderByChangedAtDesc(taskId, startDate, endDate);
     }
 
-    private Long getAssignedToId(Task task) {
-        return task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+    @Override
+    public List<ChangeLogEntry> getRecentTaskChanges(Long taskId, int limit) {
+        return changeLogRepository.findTopNByTaskIdOrderBySeqDesc(taskId, slicePage(limit).getPageSize());
     }
 
-    private String getAssignedToName(Task task) {
-        return task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : "unassigned";
+    @Override
+    public List<ChangeLogEntry> getRecentTaskChanges(Long taskId, ChangeLogOperationType operationType, int limit) {
+        return changeLogRepository.findByTaskIdAndOperationTypeOrderByChangedAtDesc(taskId, operationType, slicePage(limit));
     }
 
     @Override
-    public List<ChangeLogEntry> getTaskHistory(Long taskId) {
-        return changeLogRepository.findByTaskIdOrderByChangedAtDesc(taskId);
+    public List<ChangeLogEntry> getChangesByOperationType(ChangeLogOperationType operationType, int limit) {
+        return changeLogRepository.findOperationTypeSlice(operationType, slicePage(limit)).getContent();
     }
 
     @Override
-    public List<ChangeLogEntry> getTaskHistory(Long taskId, LocalDateTime startDate, LocalDateTime endDate) {
-        return changeLogRepository.findByTaskIdAndChangedAtBetweenOrderByChangedAtDesc(taskId, startDate, endDate);
+    public List<ChangeLogEntry> getChangesByUser(Long userId, int limit) {
+        return changeLogRepository.findUserChangesSlice(userId, slicePage(limit)).getContent();
     }
 
     @Override
-    public List<ChangeLogEntry> getRecentTaskChanges(Long taskId, int limit) {
-        return changeLogRepository.findTopNByTaskIdOrderByChangedAtDesc(taskId, limit);
+    public CursorPageDto<ChangeLogEntry> getTaskHistoryPage(Long taskId, String cursor, int size) {
+        TaskHistoryCursor after = TaskHistoryCursor.decode(cursor);
+        PageRequest page = slicePage(size);
+        Slice<ChangeLogEntry> slice = after == null
+                ? changeLogRepository.findTaskHistorySlice(taskId, page)
+                : changeLogRepository.findTaskHistorySliceBefore(taskId, after.seq(), page);
+        List<ChangeLogEntry> items = slice.getContent();
+        String nextCursor = slice.hasNext() && !items.isEmpty()
+                ? new TaskHistoryCursor(items.get(items.size() - 1).getSeq()).encode() : null;
+        return new CursorPageDto<>(items, size, slice.hasNext(), nextCursor);
+    }
+
+    @Override
+    public List<ChangeLogEntry> getTaskChangesSince(Long taskId, long afterSeq, int limit) {
+        if (afterSeq < 0) {
+            throw new IllegalArgumentException("afterSeq must not be negative");
+        }
+        return changeLogRepository.findByTaskIdAndSeqGreaterThanOrderBySeqAsc(taskId, afterSeq, slicePage(limit));
     }
 
     @Override
-    public List<ChangeLogEntry> getChangesByOperationType(ChangeLogOperationType operationType) {
-        return changeLogRepository.findByOperationTypeOrderByChangedAtDesc(operationType);
+    public CursorPageDto<ChangeLogEntry> getChangesByUserPage(Long userId, String cursor, int size) {
+        ChangeLogCursor after = ChangeLogCursor.decode(cursor);
+        PageRequest page = slicePage(size);
+        return toPage(after == null
+                ? changeLogRepository.findUserChangesSlice(userId, page)
+                : changeLogRepository.findUserChangesSliceBefore(userId, after.changedAt(), after.id(), page), size);
     }
 
     @Override
-    public List<ChangeLogEntry> getChangesByUser(Long userId) {
-        return changeLogRepository.findByChangedByIdOrderByChangedAtDesc(userId);
+    public CursorPageDto<ChangeLogEntry> getChangesByOperationTypePage(ChangeLogOperationType operationType,
+                                                                       String cursor, int size) {
+        ChangeLogCursor after = ChangeLogCursor.decode(cursor);
+        PageRequest page = slicePage(size);
+        return toPage(after == null
+                ? changeLogRepository.findOperationTypeSlice(operationType, page)
+                : changeLogRepository.findOperationTypeSliceBefore(operationType, after.changedAt(), after.id(), page), size);
+    }
+
+    private static PageRequest slicePage(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    private static CursorPageDto<ChangeLogEntry> toPage(Slice<ChangeLogEntry> slice, int size) {
+        List<ChangeLogEntry> items = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            ChangeLogEntry last = items.get(items.size() - 1);
+            nextCursor = new ChangeLogCursor(last.getChangedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, size, slice.hasNext(), nextCursor);
     }
 
+    /**
+     * Kolejność i wybór wpisów z bufora aktywności, encje z zadaniem i autorem w jednym zapytaniu po id -
+     * odpowiedź ma dotychczasowy kształt ChangeLogEntry bez ORDER BY changed_at na całej tabeli
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<ChangeLogEntry> getRecentSystemChanges(int limit) {
-        return changeLogRepository.findRecentChanges(limit);
+        List<ActivityRecord> recent = recentActivityService.getRecent(limit);
+        if (recent.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ChangeLogEntry> entries = new HashMap<>();
+        for (ChangeLogEntry entry : changeLogRepository.findAllWithTaskByIdIn(
+                recent.stream().map(ActivityRecord::id).toList())) {
+            entries.put(entry.getId(), entry);
+        }
+        List<ChangeLogEntry> changes = new ArrayList<>(recent.size());
+        for (ActivityRecord record : recent) {
+            // Wpis usunięty w międzyczasie (czyszczenie historii, usunięcie zadania) jest pomijany
+            ChangeLogEntry entry = entries.get(record.id());
+            if (entry != null) {
+                changes.add(entry);
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public List<ActivityRecord> getRecentSystemActivity(int limit) {
+        return recentActivityService.getRecent(limit);
+    }
+
+    @Override
+    public Map<ChangeLogOperationType, Long> countChangesByOperationType() {
+        Map<ChangeLogOperationType, Long> counts = new EnumMap<>(ChangeLogOperationType.class);
+        for (ChangeLogOperationType type : ChangeLogOperationType.values()) {
+            counts.put(type, 0L);
+        }
+        for (Object[] row : changeLogRepository.getChangeStatsByOperationType()) {
+            counts.put((ChangeLogOperationType) row[0], (Long) row[1]);
+        }
+        return counts;
     }
 
+    /**
+     * Statystyki z dwóch zapytań agregujących (podsumowanie i GROUP BY typ, pole) - bez ładowania historii
+     */
     @Override
     public ChangeLogStats getTaskChangeStats(Long taskId) {
-        List<ChangeLogEntry> entries = getTaskHistory(taskId);
-        return calculateStats(taskId, "task", entries);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> summary = changeLogRepository.summarizeTaskChanges(taskId, now.minusHours(24), now.minusDays(7),
+                now.minusDays(30));
+        return buildStats(taskId, "task", summary, changeLogRepository.countTaskChangesByTypeAndField(taskId));
     }
 
     @Override
     public ChangeLogStats getUserChangeStats(Long userId) {
-        List<ChangeLogEntry> entries = getChangesByUser(userId);
-        return calculateStats(userId, "user", entries);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> summary = changeLogRepository.summarizeUserChanges(userId, now.minusHours(24), now.minusDays(7),
+                now.minusDays(30));
+        return buildStats(userId, "user", summary, changeLogRepository.countUserChangesByTypeAndField(userId));
     }
 
-    private ChangeLogStats calculateStats(Long entityId, String entityType, List<ChangeLogEntry> entries) {
+    private static ChangeLogStats buildStats(Long entityId, String entityType, List<Object[]> summary,
+                                             List<Object[]> countsByTypeAndField) {
         ChangeLogStats stats = new ChangeLogStats(entityId, entityType);
-        
-        if (entries.isEmpty()) {
+        Object[] row = summary.isEmpty() ? null : summary.get(0);
+        if (row == null || row[0] == null || ((Number) row[0]).intValue() == 0) {
             return stats;
         }
 
-        stats.setTotalChanges(entries.size());
-        stats.setFirstChange(entries.get(entries.size() - 1).getChangedAt());
-        stats.setLastChange(entries.get(0).getChangedAt());
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime yesterday = now.minusHours(24);
-        LocalDateTime weekAgo = now.minusDays(7);
-        LocalDateTime monthAgo = now.minusDays(30);
-
-        for (ChangeLogEntry entry : entries) {
-            stats.addChangeByType(entry.getOperationType());
-            stats.addChangeByField(entry.getFieldName());
-
-            LocalDateTime changedAt = entry.getChangedAt();
-            if (changedAt.isAfter(yesterday)) {
-                stats.setChangesLast24Hours(stats.getChangesLast24Hours() + 1);
-            }
-            if (changedAt.isAfter(weekAgo)) {
-                stats.setChangesLast7Days(stats.getChangesLast7Days() + 1);
-            }
-            if (changedAt.isAfter(monthAgo)) {
-                stats.setChangesLast30Days(stats.getChangesLast30Days() + 1);
-            }
+        stats.setTotalChanges(((Number) row[0]).intValue());
+        stats.setFirstChange((LocalDateTime) row[1]);
+        stats.setLastChange((LocalDateTime) row[2]);
+        stats.setChangesLast24Hours(((Number) row[3]).intValue());
+        stats.setChangesLast7Days(((Number) row[4]).intValue());
+        stats.setChangesLast30Days(((Number) row[5]).intValue());
+
+        for (Object[] counts : countsByTypeAndField) {
+            int count = ((Number) counts[2]).intValue();
+            stats.addChangesByType((ChangeLogOperationType) counts[0], count);
+            stats.addChangesByField((String) counts[1], count);
         }
 
         // Obliczenie średniej zmian dziennie
@@ -217,12 +369,39 @@ public class ChangeLogServiceImpl implements ChangeLogService {
 
     @Override
     public int cleanOldChangeLog(int daysOld) {
+        return cleanOldChangeLog(daysOld, () -> { });
+    }
+
+    /**
+     * Usuwanie paczkami po RETENTION_CHUNK_SIZE najniższych id: odczyt id i DELETE tego zakresu w jednej krótkiej
+     * transakcji - pamięć i czas blokad nie rosną z długością historii. Przerwane czyszczenie można powtórzyć.
+     */
+    @Override
+    public int cleanOldChangeLog(int daysOld, Runnable beforeChunk) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        List<ChangeLogEntry> oldEntries = changeLogRepository.findByChangedAtBetweenOrderByChangedAtDesc(
-            LocalDateTime.MIN, cutoffDate);
-        
-        changeLogRepository.deleteAll(oldEntries);
-        return oldEntries.size();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            beforeChunk.run();
+            ids = chunkTransaction.execute(status -> {
+                List<Long> chunk = changeLogRepository.findIdsChangedBefore(cutoffDate,
+                        PageRequest.of(0, RETENTION_CHUNK_SIZE));
+                if (!chunk.isEmpty()) {
+                    changeLogRepository.deleteChangedBeforeUpTo(cutoffDate, chunk.get(chunk.size() - 1));
+                }
+                return chunk;
+            });
+            ids.forEach(changeLogSearchService::removeEntry);
+            deleted += ids.size();
+        } while (ids.size() == RETENTION_CHUNK_SIZE);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int reconcileTaskSequences() {
+        return taskChangeSequenceRepository.reconcileWithHistory();
     }
 
     @Override
@@ -72,8 +72,16 @@ public class ChangeLogStats {
     }
 
     public void addChangeByField(String fieldName) {
+        addChangesByField(fieldName, 1);
+    }
+
+    public void addChangesByType(ChangeLogOperationType operationType, int count) {
+        changesByType.merge(operationType, count, Integer::sum);
+    }
+
+    public void addChangesByField(String fieldName, int count) {
         if (fieldName != null && !fieldName.isEmpty()) {
-            changesByField.merge(fieldName, 1, Integer::sum);
+            changesByField.merge(fieldName, count, Integer::sum);
         }
     }
 
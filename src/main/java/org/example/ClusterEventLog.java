@@ -0,0 +1,42 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Wiersz tabeli cluster_event - zdarzenia zmian wymieniane między węzłami przez JdbcClusterEventTransport.
+ * Tabela jest zapisywana i odpytywana przez JdbcTemplate - encja definiuje schemat bez Flyway.
+ */
+@Entity
+@Table(name = "cluster_event", indexes = @Index(name = "idx_cluster_event_created_at", columnList = "created_at"))
+public class ClusterEventLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+
+    @Column(name = "origin_node", nullable = false, length = 100)
+    private String originNode;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ClusterEventLog() {
+    }
+
+    public Long getId() { return id; }
+    public String getEventId() { return eventId; }
+    public String getOriginNode() { return originNode; }
+    public String getEventType() { return eventType; }
+    public Long getEntityId() { return entityId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
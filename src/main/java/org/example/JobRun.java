@@ -0,0 +1,86 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Jedno uruchomienie zadania okresowego (job_run) - węzeł, numer blokady, czas trwania i wynik.
+ */
+@Entity
+@Table(name = "job_run", indexes = @Index(name = "idx_job_run_job_name", columnList = "job_name, id"))
+public class JobRun {
+
+    private static final int TEXT_LIMIT = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private JobRunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "result", length = TEXT_LIMIT)
+    private String result;
+
+    @Column(name = "error", length = TEXT_LIMIT)
+    private String error;
+
+    public JobRun() {
+    }
+
+    public JobRun(String jobName, String nodeId, long fencingToken) {
+        this.jobName = jobName;
+        this.nodeId = nodeId;
+        this.fencingToken = fencingToken;
+        this.status = JobRunStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public void finish(JobRunStatus status, long durationMs, String result, String error) {
+        this.status = status;
+        this.finishedAt = LocalDateTime.now();
+        this.durationMs = durationMs;
+        this.result = truncate(result);
+        this.error = truncate(error);
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > TEXT_LIMIT ? value.substring(0, TEXT_LIMIT) : value;
+    }
+
+    public Long getId() { return id; }
+    public String getJobName() { return jobName; }
+    public String getNodeId() { return nodeId; }
+    public long getFencingToken() { return fencingToken; }
+    public JobRunStatus getStatus() { return status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Long getDurationMs() { return durationMs; }
+    public String getResult() { return result; }
+    public String getError() { return error; }
+
+    @Override
+    public String toString() {
+        return "JobRun{id=" + id + ", jobName='" + jobName + "', nodeId='" + nodeId + "', fencingToken=" + fencingToken
+                + ", status=" + status + ", durationMs=" + durationMs + '}';
+    }
+}
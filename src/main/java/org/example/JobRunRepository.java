@@ -0,0 +1,34 @@
+package org.example;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository historii uruchomień zadań okresowych (job_run).
+ */
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    List<JobRun> findByJobNameOrderByIdDesc(String jobName, Pageable pageable);
+
+    /**
+     * Podsumowanie dla widoku administracyjnego: [zadanie, liczba uruchomień, liczba błędów,
+     * śr. czas ms, maks. czas ms, ostatnie uruchomienie] - tylko zakończone uruchomienia wliczane do czasów
+     */
+    @Query("SELECT r.jobName, COUNT(r), SUM(CASE WHEN r.status = :failed THEN 1 ELSE 0 END), "
+         + "AVG(r.durationMs), MAX(r.durationMs), MAX(r.startedAt) FROM JobRun r GROUP BY r.jobName")
+    List<Object[]> summarizeByJob(@Param("failed") JobRunStatus failed);
+
+    /**
+     * Usuwa wszystko poza keep najnowszymi uruchomieniami zadania
+     */
+    @Modifying
+    @Query(value = "DELETE FROM job_run WHERE job_name = :jobName AND id <= "
+            + "(SELECT id FROM job_run WHERE job_name = :jobName ORDER BY id DESC LIMIT 1 OFFSET :keep)",
+            nativeQuery = true)
+    int trimHistory(@Param("jobName") String jobName, @Param("keep") int keep);
+}
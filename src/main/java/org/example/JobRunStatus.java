@@ -0,0 +1,14 @@
+package org.example;
+
+/**
+ * Wynik uruchomienia zadania okresowego zapisywany w job_run.
+ */
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    /**
+     * Dzierżawa wygasła w trakcie pracy (np. długa pauza GC) - blokadę mógł przejąć inny węzeł
+     */
+    LEASE_LOST
+}
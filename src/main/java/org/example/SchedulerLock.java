@@ -0,0 +1,41 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Blokada zadania okresowego w klastrze (scheduler_lock).
+ * Przejmowana i zwalniana warunkowymi UPDATE w SchedulerLockRepository - encja służy do odczytu i schematu testowego.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    /**
+     * Zwiększany przy każdym przejęciu blokady; zapis ze starszym numerem jest odrzucany
+     */
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    public SchedulerLock() {
+    }
+
+    public String getJobName() { return jobName; }
+    public String getOwnerNode() { return ownerNode; }
+    public long getFencingToken() { return fencingToken; }
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository blokad zadań okresowych.
+ * Czas dzierżawy liczony jest zegarem bazy (LOCALTIMESTAMP) - rozjazd zegarów węzłów nie skraca ani nie wydłuża blokady.
+ * Odnowienie i zwolnienie są warunkowe po fencing_token: węzeł, którego blokadę przejęto, nic już nie zmieni.
+ */
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Tworzy wolny wiersz blokady przy pierwszym uruchomieniu zadania
+     */
+    @Modifying
+    @Query(value = "MERGE INTO scheduler_lock l "
+            + "USING (SELECT CAST(:jobName AS VARCHAR(100)) AS job_name) s ON l.job_name = s.job_name "
+            + "WHEN NOT MATCHED THEN INSERT (job_name, fencing_token) VALUES (s.job_name, 0)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName);
+
+    /**
+     * Przejmuje blokadę, jeśli jest wolna lub dzierżawa wygasła; 1 - przejęta, 0 - trzyma ją inny węzeł
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET owner_node = :nodeId, fencing_token = fencing_token + 1, "
+            + "acquired_at = LOCALTIMESTAMP, lease_until = DATEADD('MILLISECOND', :leaseMs, LOCALTIMESTAMP) "
+            + "WHERE job_name = :jobName AND (lease_until IS NULL OR lease_until <= LOCALTIMESTAMP)",
+            nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName, @Param("nodeId") String nodeId, @Param("leaseMs") long leaseMs);
+
+    @Query(value = "SELECT fencing_token FROM scheduler_lock WHERE job_name = :jobName", nativeQuery = true)
+    Long findFencingToken(@Param("jobName") String jobName);
+
+    /**
+     * Przedłuża dzierżawę; 0 - blokada wygasła i została przejęta (inny fencing_token)
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET lease_until = DATEADD('MILLISECOND', :leaseMs, LOCALTIMESTAMP) "
+            + "WHERE job_name = :jobName AND fencing_token = :token", nativeQuery = true)
+    int renew(@Param("jobName") String jobName, @Param("token") long token, @Param("leaseMs") long leaseMs);
+
+    /**
+     * Zwalnia blokadę, ale nie wcześniej niż minHoldMs od przejęcia - węzły, którym ten sam cron
+     * uruchomił się chwilę później, nie powtórzą zakończonego już zadania
+     */
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET lease_until = "
+            + "GREATEST(LOCALTIMESTAMP, DATEADD('MILLISECOND', :minHoldMs, acquired_at)) "
+            + "WHERE job_name = :jobName AND fencing_token = :token", nativeQuery = true)
+    int release(@Param("jobName") String jobName, @Param("token") long token, @Param("minHoldMs") long minHoldMs);
+
+    /**
+     * 1, jeśli blokada z tym numerem nadal obowiązuje - sprawdzenie przed zapisem kolejnej paczki
+     */
+    @Query(value = "SELECT COUNT(*) FROM scheduler_lock WHERE job_name = :jobName AND fencing_token = :token "
+            + "AND lease_until > LOCALTIMESTAMP", nativeQuery = true)
+    long countValidLease(@Param("jobName") String jobName, @Param("token") long token);
+}
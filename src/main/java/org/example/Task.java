@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.example.audit.TrackChanges;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.time.LocalDate;
@@ -25,29 +26,36 @@ public class Task {
 
     @NotBlank(message = "Title is required")
     @Size(min = 3, max = 100, message = "Title must be between 3 and 100 characters")
+    @TrackChanges(operation = ChangeLogOperationType.TITLE_CHANGE)
     private String title;
     
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    @TrackChanges(operation = ChangeLogOperationType.DESCRIPTION_CHANGE)
     private String description;
     
     @Future(message = "Due date must be in the future")
+    @TrackChanges(operation = ChangeLogOperationType.DUE_DATE_CHANGE)
     private LocalDate dueDate;
     
     @NotNull(message = "Status is required")
     @Enumerated(EnumType.STRING)
     @JsonSerialize(using = TaskStatusConverter.Serializer.class)
     @JsonDeserialize(using = TaskStatusConverter.Deserializer.class)
+    @TrackChanges(operation = ChangeLogOperationType.STATUS_CHANGE)
     private TaskStatus status;
     
     @NotNull(message = "Priority is required")  
     @Enumerated(EnumType.STRING)
     @JsonSerialize(using = TaskPriorityConverter.Serializer.class)
     @JsonDeserialize(using = TaskPriorityConverter.Deserializer.class)
+    @TrackChanges(operation = ChangeLogOperationType.PRIORITY_CHANGE)
     private TaskPriority priority;
 
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     @JsonIgnoreProperties("tasks")
+    @TrackChanges(operation = ChangeLogOperationType.ASSIGN, whenCleared = ChangeLogOperationType.UNASSIGN,
+                  label = "username", nullText = "unassigned")
     private User assignedTo;
 
     /**
@@ -0,0 +1,31 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+/**
+ * Licznik numerów kolejnych historii zmian zadania (task_change_seq).
+ * Wiersz jest zwiększany poleceniem MERGE w transakcji zapisu wpisu - encja służy do odczytu i schematu testowego.
+ */
+@Entity
+@Table(name = "task_change_seq")
+public class TaskChangeSequence {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Ostatni przydzielony numer (numeracja od 1)
+     */
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    public TaskChangeSequence() {
+    }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public long getLastSeq() { return lastSeq; }
+    public void setLastSeq(long lastSeq) { this.lastSeq = lastSeq; }
+}
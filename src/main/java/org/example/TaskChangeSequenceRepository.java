@@ -0,0 +1,64 @@
+package org.example;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository liczników numerów kolejnych historii zadań.
+ * MERGE blokuje wiersz zadania do końca transakcji, więc odczyt last_seq w tej samej transakcji
+ * zwraca numer przydzielony właśnie tej transakcji - zapisy do różnych zadań nie czekają na siebie.
+ */
+public interface TaskChangeSequenceRepository extends JpaRepository<TaskChangeSequence, Long> {
+
+    /**
+     * Zwiększa licznik zadania o 1, tworząc wiersz przy pierwszym wpisie
+     */
+    @Modifying
+    @Query(value = "MERGE INTO task_change_seq t "
+            + "USING (SELECT CAST(:taskId AS BIGINT) AS task_id) s ON t.task_id = s.task_id "
+            + "WHEN MATCHED THEN UPDATE SET last_seq = t.last_seq + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (task_id, last_seq) VALUES (s.task_id, 1)",
+            nativeQuery = true)
+    int increment(@Param("taskId") Long taskId);
+
+    /**
+     * Rezerwuje count kolejnych numerów naraz (wpisy kilku pól zmienionych jedną aktualizacją)
+     */
+    @Modifying
+    @Query(value = "MERGE INTO task_change_seq t "
+            + "USING (SELECT CAST(:taskId AS BIGINT) AS task_id) s ON t.task_id = s.task_id "
+            + "WHEN MATCHED THEN UPDATE SET last_seq = t.last_seq + :count "
+            + "WHEN NOT MATCHED THEN INSERT (task_id, last_seq) VALUES (s.task_id, :count)",
+            nativeQuery = true)
+    int incrementBy(@Param("taskId") Long taskId, @Param("count") int count);
+
+    @Query(value = "SELECT last_seq FROM task_change_seq WHERE task_id = :taskId", nativeQuery = true)
+    Long findLastSeq(@Param("taskId") Long taskId);
+
+    /**
+     * Zwiększa liczniki zadań użytkownika o id nie większym niż upToId - poprzedza
+     * ChangeLogEntryRepository.insertUnassignEntries z tymi samymi parametrami, w tej samej transakcji
+     */
+    @Modifying
+    @Query(value = "MERGE INTO task_change_seq t "
+            + "USING (SELECT id AS task_id FROM task WHERE user_id = :userId AND id <= :upToId) s ON t.task_id = s.task_id "
+            + "WHEN MATCHED THEN UPDATE SET last_seq = t.last_seq + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (task_id, last_seq) VALUES (s.task_id, 1)",
+            nativeQuery = true)
+    int incrementForAssignedTasks(@Param("userId") Long userId, @Param("upToId") Long upToId);
+
+    /**
+     * Podnosi liczniki, które są niższe od największego seq w historii zadania (np. po imporcie danych
+     * z pominięciem aplikacji), i tworzy brakujące - kolejny wpis nie naruszy uk_change_log_task_seq
+     */
+    @Modifying
+    @Query(value = "MERGE INTO task_change_seq t "
+            + "USING (SELECT task_id, MAX(seq) AS max_seq FROM change_log_entry GROUP BY task_id) s "
+            + "ON t.task_id = s.task_id "
+            + "WHEN MATCHED AND t.last_seq < s.max_seq THEN UPDATE SET last_seq = s.max_seq "
+            + "WHEN NOT MATCHED THEN INSERT (task_id, last_seq) VALUES (s.task_id, s.max_seq)",
+            nativeQuery = true)
+    int reconcileWithHistory();
+}
@@ -1,11 +1,14 @@
 package org.example;
 
+import org.example.dto.SearchPageDto;
 import org.example.exception.EntityNotFoundException;
+import org.example.service.TaskSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -14,11 +17,34 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskSearchService taskSearchService;
+
     @GetMapping
     public List<Task> getAllTasks() {
         return taskService.getAllTasks();
     }
 
+    /**
+     * Wyszukiwanie pełnotekstowe w tytułach i opisach (ranking, prefiksy, stronicowanie)
+     * GET /api/tasks/search?q=raport kwart&page=0&size=20
+     */
+    @GetMapping("/search")
+    public SearchPageDto<Task> searchTasks(@RequestParam("q") String query,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        return taskSearchService.search(query, page, size);
+    }
+
+    /**
+     * Przebudowa indeksu wyszukiwania
+     * POST /api/tasks/search/rebuild
+     */
+    @PostMapping("/search/rebuild")
+    public Map<String, Object> rebuildSearchIndex() {
+        return taskSearchService.rebuildIndex();
+    }
+
     @GetMapping("/{id}")
     public Task getTaskById(@PathVariable Long id) {
         return taskService.getTaskById(id)
@@ -0,0 +1,88 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Metryki przepływu zadania wyliczone z historii zmian: lead time (utworzenie -> pierwsze Done),
+ * cycle time (pierwsze In Progress -> pierwsze Done) i czas spędzony w każdym statusie.
+ * Tabela jest zapisywana w całości przez zadanie analityczne - encja służy do odczytu.
+ */
+@Entity
+@Table(name = "task_cycle_metrics")
+public class TaskCycleMetrics {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "first_done_at")
+    private LocalDateTime firstDoneAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "current_status", length = 20)
+    private TaskStatus currentStatus;
+
+    @Column(name = "lead_time_minutes")
+    private Long leadTimeMinutes;
+
+    @Column(name = "cycle_time_minutes")
+    private Long cycleTimeMinutes;
+
+    @Column(name = "todo_minutes", nullable = false)
+    private long todoMinutes;
+
+    @Column(name = "in_progress_minutes", nullable = false)
+    private long inProgressMinutes;
+
+    @Column(name = "status_changes", nullable = false)
+    private int statusChanges;
+
+    /**
+     * Liczba powrotów z Done do innego statusu
+     */
+    @Column(name = "reopen_count", nullable = false)
+    private int reopenCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public TaskCycleMetrics() {
+    }
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getFirstDoneAt() { return firstDoneAt; }
+    public void setFirstDoneAt(LocalDateTime firstDoneAt) { this.firstDoneAt = firstDoneAt; }
+
+    public TaskStatus getCurrentStatus() { return currentStatus; }
+    public void setCurrentStatus(TaskStatus currentStatus) { this.currentStatus = currentStatus; }
+
+    public Long getLeadTimeMinutes() { return leadTimeMinutes; }
+    public void setLeadTimeMinutes(Long leadTimeMinutes) { this.leadTimeMinutes = leadTimeMinutes; }
+
+    public Long getCycleTimeMinutes() { return cycleTimeMinutes; }
+    public void setCycleTimeMinutes(Long cycleTimeMinutes) { this.cycleTimeMinutes = cycleTimeMinutes; }
+
+    public long getTodoMinutes() { return todoMinutes; }
+    public void setTodoMinutes(long todoMinutes) { this.todoMinutes = todoMinutes; }
+
+    public long getInProgressMinutes() { return inProgressMinutes; }
+    public void setInProgressMinutes(long inProgressMinutes) { this.inProgressMinutes = inProgressMinutes; }
+
+    public int getStatusChanges() { return statusChanges; }
+    public void setStatusChanges(int statusChanges) { this.statusChanges = statusChanges; }
+
+    public int getReopenCount() { return reopenCount; }
+    public void setReopenCount(int reopenCount) { this.reopenCount = reopenCount; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
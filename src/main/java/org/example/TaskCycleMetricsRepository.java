@@ -0,0 +1,31 @@
+package org.example;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository metryk przepływu zadań (task_cycle_metrics).
+ */
+public interface TaskCycleMetricsRepository extends JpaRepository<TaskCycleMetrics, Long> {
+
+    /**
+     * Podsumowanie dla dashboardu: [liczba zadań, śr. lead time, śr. cycle time, śr. czas w To Do,
+     * śr. czas w In Progress, suma powrotów z Done, data obliczenia] - czasy w minutach
+     */
+    @Query("SELECT COUNT(m), AVG(m.leadTimeMinutes), AVG(m.cycleTimeMinutes), AVG(m.todoMinutes), "
+         + "AVG(m.inProgressMinutes), SUM(m.reopenCount), MAX(m.computedAt) FROM TaskCycleMetrics m")
+    List<Object[]> summarize();
+
+    /**
+     * Podsumowanie dla zadań przypisanych do użytkowników: [id użytkownika, liczba zadań z lead time,
+     * śr. lead time, śr. cycle time, śr. czas w To Do, śr. czas w In Progress] - czasy w minutach
+     */
+    @Query("SELECT t.assignedTo.id, COUNT(m.leadTimeMinutes), AVG(m.leadTimeMinutes), AVG(m.cycleTimeMinutes), "
+         + "AVG(m.todoMinutes), AVG(m.inProgressMinutes) FROM TaskCycleMetrics m JOIN Task t ON t.id = m.taskId "
+         + "WHERE t.assignedTo.id IN :userIds GROUP BY t.assignedTo.id")
+    List<Object[]> summarizeForUsers(@Param("userIds") Collection<Long> userIds);
+}
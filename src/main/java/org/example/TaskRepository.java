@@ -1,10 +1,13 @@
 package org.example;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -102,10 +105,16 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Long countActiveTasks();
     
     /**
-     * Znajduje użytkowników z najwyższą liczbą ukończonych zadań
+     * Ranking użytkowników według liczby ukończonych zadań (id, nazwa, liczba, pozycja).
+     * Pozycja liczona przez DENSE_RANK - remisy dzielą miejsce; limit pozycji i wierszy wykonuje baza.
      */
-    @Query("SELECT u.username, COUNT(t) FROM Task t JOIN t.assignedTo u WHERE t.status = org.example.TaskStatus.DONE GROUP BY u.id, u.username ORDER BY COUNT(t) DESC")
-    List<Object[]> findTopPerformersByCompletedTasks();
+    @Query(value = "SELECT r.user_id, r.username, r.completed, r.ranking FROM ("
+            + "SELECT u.id AS user_id, u.username AS username, COUNT(*) AS completed, "
+            + "DENSE_RANK() OVER (ORDER BY COUNT(*) DESC) AS ranking "
+            + "FROM task t JOIN app_user u ON t.user_id = u.id WHERE t.status = 'DONE' "
+            + "GROUP BY u.id, u.username) r "
+            + "WHERE r.ranking <= :maxRank ORDER BY r.ranking, r.username LIMIT :maxRows", nativeQuery = true)
+    List<Object[]> findTopPerformersRanked(@Param("maxRank") int maxRank, @Param("maxRows") int maxRows);
     
     /**
      * Znajduje zadania według zakresu dat utworzenia/modyfikacji
@@ -113,6 +122,12 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.id IN (SELECT DISTINCT cle.task.id FROM ChangeLogEntry cle WHERE cle.changedAt >= :fromDate AND cle.changedAt <= :toDate)")
     List<Task> findTasksModifiedBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
     
+    /**
+     * Liczba różnych zadań zmienionych w przedziale [from, to) - bez ładowania encji
+     */
+    @Query("SELECT COUNT(DISTINCT cle.task.id) FROM ChangeLogEntry cle WHERE cle.changedAt >= :from AND cle.changedAt < :to")
+    Long countTasksModifiedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     /**
      * Statystyki zadań według użytkownika
      */
@@ -129,4 +144,24 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      */
     @Query("SELECT CONCAT(t.status, '-', t.priority), COUNT(t) FROM Task t GROUP BY t.status, t.priority")
     List<Object[]> getTaskDistributionByStatusAndPriority();
-} 
\ No newline at end of file
+
+    /**
+     * Paczka dokumentów dla indeksu wyszukiwania (id, tytuł, opis) - stronicowanie po kluczu
+     */
+    @Query("SELECT t.id, t.title, t.description FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Najwyższe id w następnej paczce zadań użytkownika (chunkSize najniższych id) lub null, gdy nie ma zadań
+     */
+    @Query(value = "SELECT MAX(c.id) FROM (SELECT id FROM task WHERE user_id = :userId ORDER BY id LIMIT :chunkSize) c",
+            nativeQuery = true)
+    Long findAssignedChunkUpperId(@Param("userId") Long userId, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Zbiorowe usunięcie przypisania zadań użytkownika o id nie większym niż upToId
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET user_id = NULL WHERE user_id = :userId AND id <= :upToId", nativeQuery = true)
+    int unassignTasksUpTo(@Param("userId") Long userId, @Param("upToId") Long upToId);
+}
@@ -1,18 +1,24 @@
 package org.example;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.ClusterEventType;
 import org.example.exception.EntityNotFoundException;
 import org.example.exception.BusinessLogicException;
 import org.example.exception.ValidationException;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.TaskSearchService;
 
 /**
  * Implementation of TaskService with comprehensive business logic,
  * validation, and change logging using the new ChangeLogService system.
  */
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 public class TaskServiceImpl implements TaskService {
     
     @Autowired
@@ -27,6 +33,21 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private ChangeLogService changeLogService;
     
+    /**
+     * Indeks pełnotekstowy tytułów i opisów - aktualizowany po każdym zapisie
+     */
+    @Autowired
+    private TaskSearchService taskSearchService;
+    
+    @Autowired
+    private ChangeLogSearchService changeLogSearchService;
+    
+    /**
+     * Zmiany zadań dla cache'y innych węzłów i klientów SSE
+     */
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+    
     @Override
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
@@ -52,6 +73,9 @@ public class TaskServiceImpl implements TaskService {
         changeLogService.logChange(savedTask, "task", null, "created", 
                                  ChangeLogOperationType.CREATE, "Task created: " + savedTask.getTitle());
         
+        taskSearchService.indexTask(savedTask);
+        clusterEventBus.publish(ClusterEventType.TASK_CHANGED, savedTask.getId());
+        
         return savedTask;
     }
     
@@ -71,7 +95,10 @@ public class TaskServiceImpl implements TaskService {
         // Automatic change detection and logging in the new system
         changeLogService.logTaskChanges(existingTask, task, null);
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        taskSearchService.indexTask(savedTask);
+        clusterEventBus.publish(ClusterEventType.TASK_CHANGED, id);
+        return savedTask;
     }
     
     @Override
@@ -91,6 +118,10 @@ public class TaskServiceImpl implements TaskService {
                                  ChangeLogOperationType.DELETE, "Task deleted: " + task.getTitle());
         
         taskRepository.deleteById(id);
+        taskSearchService.removeTask(id);
+        // Historia zadania usuwana jest kaskadowo
+        changeLogSearchService.removeTaskEntries(id);
+        clusterEventBus.publish(ClusterEventType.TASK_DELETED, id);
     }
     
     @Override
@@ -137,7 +168,7 @@ public class TaskServiceImpl implements TaskService {
         changeLogService.logChange(task, "assignedTo", oldAssignment, user.getUsername(), 
                                  ChangeLogOperationType.ASSIGN, user);
         
-        return taskRepository.save(task);
+        return saveChanged(task);
     }
     
     @Override
@@ -157,7 +188,7 @@ public class TaskServiceImpl implements TaskService {
         changeLogService.logChange(task, "assignedTo", oldAssignment, "unassigned", 
                                  ChangeLogOperationType.UNASSIGN);
         
-        return taskRepository.save(task);
+        return saveChanged(task);
     }
     
     @Override
@@ -183,7 +214,7 @@ public class TaskServiceImpl implements TaskService {
         changeLogService.logChange(task, "status", oldStatusName, newStatusName, 
                                  ChangeLogOperationType.STATUS_CHANGE);
         
-        return taskRepository.save(task);
+        return saveChanged(task);
     }
     
     @Override
@@ -205,7 +236,16 @@ public class TaskServiceImpl implements TaskService {
         changeLogService.logChange(task, "priority", oldPriorityName, newPriorityName, 
                                  ChangeLogOperationType.PRIORITY_CHANGE);
         
-        return taskRepository.save(task);
+        return saveChanged(task);
+    }
+
+    /**
+     * Zapis zmiany pojedynczego pola zadania i zdarzenie dla pozostałych węzłów
+     */
+    private Task saveChanged(Task task) {
+        Task savedTask = taskRepository.save(task);
+        clusterEventBus.publish(ClusterEventType.TASK_CHANGED, task.getId());
+        return savedTask;
     }
 
     // Business validation methods
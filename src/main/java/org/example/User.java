@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.audit.TrackChanges;
 import java.util.List;
 
 @Entity
@@ -17,16 +18,19 @@ public class User {
 
     @NotBlank(message = "Username is required")
     @Size(min = 2, max = 50, message = "Username must be between 2 and 50 characters")
+    @TrackChanges
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     @Size(max = 100, message = "Email must not exceed 100 characters")
+    @TrackChanges
     private String email;
     
     @Size(max = 500, message = "Avatar URL must not exceed 500 characters")
     @Pattern(regexp = "^(https?://.*\\.(jpg|jpeg|png|gif|webp))$|^$", 
              message = "Avatar URL must be a valid image URL (jpg, jpeg, png, gif, webp)")
+    @TrackChanges
     private String avatarUrl;
 
     @OneToMany(mappedBy = "assignedTo")
@@ -0,0 +1,51 @@
+package org.example;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Wpis historii zmian użytkownika (user_change_log_entry) - jedno zmienione pole aktualizacji.
+ * Wiersze są zapisywane paczką przez JdbcTemplate w UserChangeLogServiceImpl - encja służy do odczytu i schematu testowego.
+ */
+@Entity
+@Table(name = "user_change_log_entry",
+       indexes = @Index(name = "idx_user_change_log_user_id", columnList = "user_id, id"))
+public class UserChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Id użytkownika bez relacji - historia zostaje po jego usunięciu
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "field_name", nullable = false, length = 50)
+    private String fieldName;
+
+    @Column(name = "old_value", length = 1000)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 1000)
+    private String newValue;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation_type", nullable = false)
+    private ChangeLogOperationType operationType;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public UserChangeLogEntry() {
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getFieldName() { return fieldName; }
+    public String getOldValue() { return oldValue; }
+    public String getNewValue() { return newValue; }
+    public ChangeLogOperationType getOperationType() { return operationType; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,14 @@
+package org.example;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repository historii zmian użytkowników.
+ */
+public interface UserChangeLogEntryRepository extends JpaRepository<UserChangeLogEntry, Long> {
+
+    List<UserChangeLogEntry> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+}
@@ -1,10 +1,14 @@
 package org.example;
 
+import org.example.dto.UserSuggestionDto;
+import org.example.service.UserChangeLogService;
+import org.example.service.UserTypeaheadService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -13,11 +17,36 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserTypeaheadService userTypeaheadService;
+
+    @Autowired
+    private UserChangeLogService userChangeLogService;
+
     @GetMapping
     public List<User> getAllUsers() {
         return userService.getAllUsers();
     }
 
+    /**
+     * Podpowiedzi dla pola wyboru osoby
+     * GET /api/users/typeahead?q=wisn&limit=10
+     */
+    @GetMapping("/typeahead")
+    public List<UserSuggestionDto> typeahead(@RequestParam("q") String query,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        return userTypeaheadService.suggest(query, limit);
+    }
+
+    /**
+     * Przebudowa indeksu podpowiedzi
+     * POST /api/users/typeahead/rebuild
+     */
+    @PostMapping("/typeahead/rebuild")
+    public Map<String, Object> rebuildTypeaheadIndex() {
+        return userTypeaheadService.rebuildIndex();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
@@ -37,12 +66,8 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        try {
-            userService.deleteUser(id);
-            return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        userService.deleteUser(id);
+        return ResponseEntity.ok().build();
     }
 
     @PostMapping("/seed")
@@ -77,18 +102,57 @@ public class UserController {
         return ResponseEntity.ok(userService.usernameExists(username));
     }
     
+    /**
+     * Strona użytkowników z zadaniami
+     * GET /api/users/with-tasks?page=0&size=100
+     */
     @GetMapping("/with-tasks")
-    public List<User> getUsersWithTasks() {
-        return userService.getUsersWithTasks();
+    public List<User> getUsersWithTasks(@RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "100") int size) {
+        return userService.getUsersWithTasks(page, size);
     }
     
+    /**
+     * Strona użytkowników bez zadań
+     * GET /api/users/without-tasks?page=0&size=100
+     */
     @GetMapping("/without-tasks")
-    public List<User> getUsersWithoutTasks() {
-        return userService.getUsersWithoutTasks();
+    public List<User> getUsersWithoutTasks(@RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "100") int size) {
+        return userService.getUsersWithoutTasks(page, size);
+    }
+    
+    @GetMapping("/with-tasks/count")
+    public Map<String, Long> countUsersWithTasks() {
+        return Map.of("count", userService.countUsersWithTasks());
+    }
+    
+    @GetMapping("/without-tasks/count")
+    public Map<String, Long> countUsersWithoutTasks() {
+        return Map.of("count", userService.countUsersWithoutTasks());
+    }
+    
+    /**
+     * Statystyki wielu użytkowników w jednym zapytaniu
+     * GET /api/users/stats?ids=1,2,3
+     */
+    @GetMapping("/stats")
+    public List<UserStats> getUserStatsBatch(@RequestParam List<Long> ids) {
+        return userService.getUserStats(ids);
     }
     
     @GetMapping("/{userId}/stats")
     public UserStats getUserStats(@PathVariable Long userId) {
         return userService.getUserStats(userId);
     }
+
+    /**
+     * Historia zmian użytkownika, od najnowszej
+     * GET /api/users/1/changes?limit=50
+     */
+    @GetMapping("/{userId}/changes")
+    public List<UserChangeLogEntry> getUserChanges(@PathVariable Long userId,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        return userChangeLogService.getUserChanges(userId, limit);
+    }
 } 
\ No newline at end of file
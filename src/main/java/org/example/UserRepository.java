@@ -1,9 +1,12 @@
 package org.example;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,16 +33,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     /**
-     * Znajduje użytkowników, którzy mają przypisane zadania
+     * Liczba użytkowników z co najmniej jednym zadaniem - półzłączenie EXISTS zatrzymuje się na pierwszym zadaniu
+     * (indeks idx_task_user_id), bez ładowania encji
      */
-    @Query("SELECT DISTINCT u FROM User u WHERE u.tasks IS NOT EMPTY")
-    List<User> findUsersWithTasks();
+    @Query("SELECT COUNT(u) FROM User u WHERE EXISTS (SELECT 1 FROM Task t WHERE t.assignedTo = u)")
+    long countUsersWithTasks();
     
     /**
-     * Znajduje użytkowników bez przypisanych zadań
+     * Liczba użytkowników bez przypisanych zadań (anty-złączenie NOT EXISTS)
      */
-    @Query("SELECT u FROM User u WHERE u.tasks IS EMPTY")
-    List<User> findUsersWithoutTasks();
+    @Query("SELECT COUNT(u) FROM User u WHERE NOT EXISTS (SELECT 1 FROM Task t WHERE t.assignedTo = u)")
+    long countUsersWithoutTasks();
+    
+    /**
+     * Strona użytkowników, którzy mają przypisane zadania (kolejność po id)
+     */
+    @Query("SELECT u FROM User u WHERE EXISTS (SELECT 1 FROM Task t WHERE t.assignedTo = u) ORDER BY u.id")
+    List<User> findUsersWithTasks(Pageable pageable);
+    
+    /**
+     * Strona użytkowników bez przypisanych zadań (kolejność po id)
+     */
+    @Query("SELECT u FROM User u WHERE NOT EXISTS (SELECT 1 FROM Task t WHERE t.assignedTo = u) ORDER BY u.id")
+    List<User> findUsersWithoutTasks(Pageable pageable);
     
     /**
      * Znajduje użytkowników według części nazwy użytkownika (case insensitive)
@@ -52,4 +68,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))")
     List<User> findByEmailContainingIgnoreCase(@Param("email") String email);
-} 
\ No newline at end of file
+    
+    /**
+     * Dane do indeksu podpowiedzi (id, nazwa, email, avatar) - bez ładowania encji
+     */
+    @Query("SELECT u.id, u.username, u.email, u.avatarUrl FROM User u")
+    List<Object[]> findTypeaheadDocuments();
+    
+    /**
+     * Statystyki zadań użytkowników w jednym zapytaniu (agregacja warunkowa, bez ładowania encji Task):
+     * [id, username, wszystkie, Done, In Progress, To Do, High, Medium, Low, przeterminowane].
+     * LEFT JOIN - użytkownik bez zadań ma wiersz z zerami; brak wiersza = brak użytkownika.
+     */
+    @Query("SELECT u.id, u.username, COUNT(t), "
+         + "SUM(CASE WHEN t.status = org.example.TaskStatus.DONE THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.status = org.example.TaskStatus.IN_PROGRESS THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.status = org.example.TaskStatus.TODO THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.priority = org.example.TaskPriority.HIGH THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.priority = org.example.TaskPriority.MEDIUM THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.priority = org.example.TaskPriority.LOW THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN t.dueDate < :today AND t.status <> org.example.TaskStatus.DONE THEN 1 ELSE 0 END) "
+         + "FROM User u LEFT JOIN u.tasks t WHERE u.id IN :userIds GROUP BY u.id, u.username")
+    List<Object[]> aggregateTaskStats(@Param("userIds") Collection<Long> userIds, @Param("today") LocalDate today);
+}
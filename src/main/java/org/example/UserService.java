@@ -1,5 +1,6 @@
 package org.example;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,7 +31,8 @@ public interface UserService {
     User updateUser(Long id, User user);
     
     /**
-     * Usuwa użytkownika po ID
+     * Usuwa użytkownika po ID, odpinając paczkami jego zadania z wpisami UNASSIGN w historii
+     * (EntityNotFoundException, gdy użytkownik nie istnieje)
      */
     void deleteUser(Long id);
     
@@ -45,24 +47,35 @@ public interface UserService {
     Optional<User> getUserByUsername(String username);
     
     /**
-     * Sprawdza czy email już istnieje
+     * Sprawdza czy email już istnieje (szybka odpowiedź z filtra Blooma, gdy email na pewno nie jest znany;
+     * walidacja zapisu zawsze pyta bazę)
      */
     boolean emailExists(String email);
     
     /**
-     * Sprawdza czy username już istnieje
+     * Sprawdza czy username już istnieje (jak emailExists - filtr Blooma, potem baza)
      */
     boolean usernameExists(String username);
     
     /**
-     * Pobiera użytkowników z zadaniami
+     * Pobiera stronę użytkowników z zadaniami
      */
-    List<User> getUsersWithTasks();
+    List<User> getUsersWithTasks(int page, int size);
     
     /**
-     * Pobiera użytkowników bez zadań
+     * Pobiera stronę użytkowników bez zadań
      */
-    List<User> getUsersWithoutTasks();
+    List<User> getUsersWithoutTasks(int page, int size);
+    
+    /**
+     * Liczba użytkowników z zadaniami (bez ładowania encji)
+     */
+    long countUsersWithTasks();
+    
+    /**
+     * Liczba użytkowników bez zadań (bez ładowania encji)
+     */
+    long countUsersWithoutTasks();
     
     /**
      * Inicjalizuje dane testowe użytkowników
@@ -73,4 +86,10 @@ public interface UserService {
      * Pobiera statystyki użytkownika (liczba zadań, ukończone, etc.)
      */
     UserStats getUserStats(Long userId);
+    
+    /**
+     * Pobiera statystyki wielu użytkowników jednym zapytaniem agregującym (kolejność jak w żądaniu,
+     * nieistniejący użytkownicy są pomijani)
+     */
+    List<UserStats> getUserStats(Collection<Long> userIds);
 } 
\ No newline at end of file
@@ -1,25 +1,125 @@
 package org.example;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.audit.EntityDiffer;
+import org.example.audit.FieldChange;
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.ClusterEventType;
+import org.example.exception.EntityNotFoundException;
+import org.example.service.ChangeLogRollupService;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.RecentActivityService;
+import org.example.service.UserChangeLogService;
+import org.example.service.UserTypeaheadService;
+import org.example.service.UserUniquenessFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementacja serwisu obsługującego logikę biznesową dla użytkowników.
  * Zawiera operacje CRUD oraz zaawansowane funkcjonalności biznesowe.
  */
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 public class UserServiceImpl implements UserService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
+    private static final EntityDiffer<User> USER_DIFFER = EntityDiffer.of(User.class);
+    
+    /**
+     * Maksymalna liczba użytkowników w jednym żądaniu statystyk zbiorczych
+     */
+    static final int MAX_STATS_BATCH_SIZE = 500;
+    
+    /**
+     * Maksymalny rozmiar strony list użytkowników
+     */
+    static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private TaskRepository taskRepository;
     
+    /**
+     * Indeks podpowiedzi użytkowników - aktualizowany po każdym zapisie
+     */
+    @Autowired
+    private UserTypeaheadService userTypeaheadService;
+    
+    /**
+     * Filtr Blooma - pewne "nie istnieje" bez zapytania do bazy
+     */
+    @Autowired
+    private UserUniquenessFilter userUniquenessFilter;
+    
+    /**
+     * Metryki przepływu liczone z historii zmian (TaskCycleMetricsService)
+     */
+    @Autowired
+    private TaskCycleMetricsRepository taskCycleMetricsRepository;
+    
+    /**
+     * Zbiorcze wpisy UNASSIGN przy usuwaniu użytkownika oraz struktury pochodne historii
+     */
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+    
+    @Autowired
+    private TaskChangeSequenceRepository taskChangeSequenceRepository;
+    
+    @Autowired
+    private ChangeLogRollupService changeLogRollupService;
+    
+    @Autowired
+    private ChangeLogSearchService changeLogSearchService;
+    
+    @Autowired
+    private RecentActivityService recentActivityService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Zmiany użytkowników dla cache'y innych węzłów i klientów SSE
+     */
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+
+    /**
+     * Historia zmian pól użytkownika oznaczonych @TrackChanges
+     */
+    @Autowired
+    private UserChangeLogService userChangeLogService;
+    
+    /**
+     * Liczba zadań odpinanych w jednej transakcji przy usuwaniu użytkownika
+     */
+    @Value("${users.delete.chunk-size:1000}")
+    private int deleteChunkSize = 1000;
+    
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -35,10 +135,18 @@ public class UserServiceImpl implements UserService {
         // Walidacja unikalności email i username
         validateUserUniqueness(user);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userUniquenessFilter.addUser(savedUser);
+        userTypeaheadService.indexUser(savedUser);
+        clusterEventBus.publish(ClusterEventType.USER_CHANGED, savedUser.getId());
+        return savedUser;
     }
     
+    /**
+     * Zapis użytkownika i wpisów jego historii w jednej transakcji - zmiana nie zostaje zapisana bez śladu w historii
+     */
     @Override
+    @Transactional
     public User updateUser(Long id, User user) {
         Optional<User> existingUserOpt = userRepository.findById(id);
         if (existingUserOpt.isEmpty()) {
@@ -51,26 +159,78 @@ public class UserServiceImpl implements UserService {
         // Walidacja unikalności tylko jeśli dane się zmieniły
         validateUserUniquenessForUpdate(user, existingUser);
         
-        return userRepository.save(user);
+        // Różnice liczone przed save - merge kopiuje nowe wartości do zarządzanej instancji existingUser
+        List<FieldChange> changes = USER_DIFFER.diff(existingUser, user);
+        User savedUser = userRepository.save(user);
+        userChangeLogService.logChanges(savedUser.getId(), changes);
+        // Filtr i indeks podpowiedzi dopiero po commicie - wycofana zmiana nie może do nich trafić.
+        // publish sam odkłada zdarzenie do commitu (synchronizacja zarejestrowana w afterCommit nie byłaby wywołana)
+        afterCommit(() -> {
+            userUniquenessFilter.addUser(savedUser);
+            userTypeaheadService.indexUser(savedUser);
+        });
+        clusterEventBus.publish(ClusterEventType.USER_CHANGED, savedUser.getId());
+        return savedUser;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
     
     @Override
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User", id));
+        
+        long lastEntryId = changeLogRepository.findMaxId();
+        LocalDateTime changedAt = LocalDateTime.now();
+        String description = "Task unassigned: user " + user.getUsername() + " deleted";
         
-        // Sprawdzenie czy użytkownik ma przypisane zadania
-        List<Task> userTasks = taskRepository.findByAssignedTo_Id(id);
-        if (!userTasks.isEmpty()) {
-            // Opcjonalnie można usunąć przypisania zadań zamiast rzucania błędu
-            userTasks.forEach(task -> {
-                task.setAssignedTo(null);
-                taskRepository.save(task);
+        // Zadania odpinane paczkami po deleteChunkSize najniższych id: numery wpisów z liczników zadań,
+        // INSERT ... SELECT wpisów UNASSIGN i UPDATE tych samych wierszy w jednej transakcji. Przerwane usuwanie można bezpiecznie powtórzyć.
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        int unassigned = 0;
+        int chunks = 0;
+        Integer updated;
+        do {
+            updated = chunkTransaction.execute(status -> {
+                Long upToId = taskRepository.findAssignedChunkUpperId(id, deleteChunkSize);
+                if (upToId == null) {
+                    return 0;
+                }
+                taskChangeSequenceRepository.incrementForAssignedTasks(id, upToId);
+                int logged = changeLogRepository.insertUnassignEntries(id, upToId, user.getUsername(), changedAt, description);
+                int rows = taskRepository.unassignTasksUpTo(id, upToId);
+                changeLogRollupService.recordBulk(changedAt.toLocalDate(), ChangeLogOperationType.UNASSIGN, logged);
+                return rows;
             });
-        }
+            if (updated != null && updated > 0) {
+                unassigned += updated;
+                chunks++;
+            }
+        } while (updated != null && updated > 0);
         
+        // Autor we wpisach historii zerowany przez klucz obcy (ON DELETE SET NULL) - bez osobnego UPDATE całej historii
         userRepository.deleteById(id);
+        
+        // Struktury pochodne - wpisy UNASSIGN zapisano z pominięciem ChangeLogService
+        if (unassigned > 0) {
+            changeLogSearchService.indexEntriesAfter(lastEntryId);
+            recentActivityService.reload();
+            clusterEventBus.publish(ClusterEventType.CHANGE_LOG_BULK_APPENDED, lastEntryId);
+            logger.info("User {} deleted, {} tasks unassigned in {} chunks", id, unassigned, chunks);
+        }
+        userTypeaheadService.removeUser(id);
+        clusterEventBus.publish(ClusterEventType.USER_DELETED, id);
     }
     
     @Override
@@ -85,22 +245,45 @@ public class UserServiceImpl implements UserService {
     
     @Override
     public boolean emailExists(String email) {
+        if (!userUniquenessFilter.mightContainEmail(email)) {
+            return false;
+        }
         return userRepository.existsByEmail(email);
     }
     
     @Override
     public boolean usernameExists(String username) {
+        if (!userUniquenessFilter.mightContainUsername(username)) {
+            return false;
+        }
         return userRepository.existsByUsername(username);
     }
     
     @Override
-    public List<User> getUsersWithTasks() {
-        return userRepository.findUsersWithTasks();
+    public List<User> getUsersWithTasks(int page, int size) {
+        return userRepository.findUsersWithTasks(pageRequest(page, size));
+    }
+    
+    @Override
+    public List<User> getUsersWithoutTasks(int page, int size) {
+        return userRepository.findUsersWithoutTasks(pageRequest(page, size));
     }
     
     @Override
-    public List<User> getUsersWithoutTasks() {
-        return userRepository.findUsersWithoutTasks();
+    public long countUsersWithTasks() {
+        return userRepository.countUsersWithTasks();
+    }
+    
+    @Override
+    public long countUsersWithoutTasks() {
+        return userRepository.countUsersWithoutTasks();
+    }
+    
+    private static PageRequest pageRequest(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(page, size);
     }
     
     @Override
@@ -110,117 +293,123 @@ public class UserServiceImpl implements UserService {
             user1.setUsername("Jan Kowalski");
             user1.setEmail("jan.kowalski@example.com");
             user1.setAvatarUrl("https://randomuser.me/api/portraits/men/1.jpg");
-            userRepository.save(user1);
+            User saved1 = userRepository.save(user1);
+            userUniquenessFilter.addUser(saved1);
+            userTypeaheadService.indexUser(saved1);
             
             User user2 = new User();
             user2.setUsername("Anna Nowak");
             user2.setEmail("anna.nowak@example.com");
             user2.setAvatarUrl("https://randomuser.me/api/portraits/women/2.jpg");
-            userRepository.save(user2);
+            User saved2 = userRepository.save(user2);
+            userUniquenessFilter.addUser(saved2);
+            userTypeaheadService.indexUser(saved2);
             
             User user3 = new User();
             user3.setUsername("Piotr Wiśniewski");
             user3.setEmail("piotr.wisniewski@example.com");
             user3.setAvatarUrl("https://randomuser.me/api/portraits/men/3.jpg");
-            userRepository.save(user3);
+            User saved3 = userRepository.save(user3);
+            userUniquenessFilter.addUser(saved3);
+            userTypeaheadService.indexUser(saved3);
         }
     }
     
     @Override
     public UserStats getUserStats(Long userId) {
-        User user = getUserById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        
-        UserStats stats = new UserStats(userId, user.getUsername());
-        
-        // Pobieranie zadań użytkownika
-        List<Task> userTasks = taskRepository.findByAssignedTo_Id(userId);
-        stats.setTotalTasks(userTasks.size());
-        
-        // Liczenie zadań według statusu
-        int completedTasks = 0;
-        int inProgressTasks = 0;
-        int todoTasks = 0;
-        
-        // Liczenie zadań według priorytetu
-        int highPriorityTasks = 0;
-        int mediumPriorityTasks = 0;
-        int lowPriorityTasks = 0;
+        List<UserStats> stats = getUserStats(List.of(userId));
+        if (stats.isEmpty()) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        return stats.get(0);
+    }
+    
+    @Override
+    public List<UserStats> getUserStats(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one user id is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > MAX_STATS_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot fetch stats for more than " + MAX_STATS_BATCH_SIZE + " users at once");
+        }
         
-        // Liczenie przeterminowanych zadań
-        int overdueTasks = 0;
-        LocalDate today = LocalDate.now();
+        // Liczniki statusów, priorytetów i przeterminowanych - jedno zapytanie dla wszystkich użytkowników
+        Map<Long, UserStats> statsById = new HashMap<>();
+        for (Object[] row : userRepository.aggregateTaskStats(ids, LocalDate.now())) {
+            UserStats stats = new UserStats((Long) row[0], (String) row[1]);
+            stats.setTotalTasks(toInt(row[2]));
+            stats.setCompletedTasks(toInt(row[3]));
+            stats.setInProgressTasks(toInt(row[4]));
+            stats.setTodoTasks(toInt(row[5]));
+            stats.setHighPriorityTasks(toInt(row[6]));
+            stats.setMediumPriorityTasks(toInt(row[7]));
+            stats.setLowPriorityTasks(toInt(row[8]));
+            stats.setOverdueTasks(toInt(row[9]));
+            statsById.put(stats.getUserId(), stats);
+        }
+        if (statsById.isEmpty()) {
+            return List.of();
+        }
         
-        for (Task task : userTasks) {
-            // Statystyki statusu
-            switch (task.getStatus()) {
-                case DONE:
-                    completedTasks++;
-                    break;
-                case IN_PROGRESS:
-                    inProgressTasks++;
-                    break;
-                case TODO:
-                    todoTasks++;
-                    break;
-            }
-            
-            // Statystyki priorytetu
-            switch (task.getPriority()) {
-                case HIGH:
-                    highPriorityTasks++;
-                    break;
-                case MEDIUM:
-                    mediumPriorityTasks++;
-                    break;
-                case LOW:
-                    lowPriorityTasks++;
-                    break;
-            }
-            
-            // Sprawdzenie czy zadanie jest przeterminowane
-            if (task.getDueDate() != null && 
-                task.getDueDate().isBefore(today) && 
-                task.getStatus() != TaskStatus.DONE) {
-                overdueTasks++;
+        // Lead time / cycle time z zapisanych metryk przepływu
+        for (Object[] cycle : taskCycleMetricsRepository.summarizeForUsers(statsById.keySet())) {
+            UserStats stats = statsById.get((Long) cycle[0]);
+            if (stats != null) {
+                stats.setMeasuredTasks(toInt(cycle[1]));
+                stats.setAverageLeadTimeDays(minutesToDays(cycle[2]));
+                stats.setAverageCycleTimeDays(minutesToDays(cycle[3]));
+                stats.setAverageDaysInProgress(minutesToDays(cycle[5]));
             }
         }
         
-        stats.setCompletedTasks(completedTasks);
-        stats.setInProgressTasks(inProgressTasks);
-        stats.setTodoTasks(todoTasks);
-        stats.setHighPriorityTasks(highPriorityTasks);
-        stats.setMediumPriorityTasks(mediumPriorityTasks);
-        stats.setLowPriorityTasks(lowPriorityTasks);
-        stats.setOverdueTasks(overdueTasks);
-        
-        return stats;
+        // Kolejność jak w żądaniu, nieistniejący użytkownicy pominięci
+        List<UserStats> result = new ArrayList<>(statsById.size());
+        for (Long id : ids) {
+            UserStats stats = statsById.get(id);
+            if (stats != null) {
+                result.add(stats);
+            }
+        }
+        return result;
+    }
+    
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+    
+    private static Double minutesToDays(Object minutes) {
+        return minutes != null ? Math.round(((Number) minutes).doubleValue() / (24 * 60) * 100.0) / 100.0 : null;
     }
     
     /**
-     * Waliduje unikalność email i username dla nowego użytkownika
+     * Waliduje unikalność email i username dla nowego użytkownika.
+     * Zawsze zapytanie do bazy, bez filtra Blooma: filtr nie zna jeszcze użytkowników dodanych na innym węźle
+     * (przed dotarciem USER_CHANGED) ani wstawionych z pominięciem aplikacji (generator danych), a username
+     * nie ma ograniczenia UNIQUE w schemacie. Filtr skraca tylko endpointy /check-*.
      */
     private void validateUserUniqueness(User user) {
-        if (emailExists(user.getEmail())) {
+        if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("Email already exists: " + user.getEmail());
         }
         
-        if (usernameExists(user.getUsername())) {
+        if (userRepository.existsByUsername(user.getUsername())) {
             throw new RuntimeException("Username already exists: " + user.getUsername());
         }
     }
     
     /**
-     * Waliduje unikalność email i username dla aktualizacji użytkownika
+     * Waliduje unikalność email i username dla aktualizacji użytkownika - jak validateUserUniqueness, zawsze w bazie
      */
     private void validateUserUniquenessForUpdate(User newUser, User existingUser) {
         // Sprawdzenie email tylko jeśli się zmienił
-        if (!newUser.getEmail().equals(existingUser.getEmail()) && emailExists(newUser.getEmail())) {
+        if (!newUser.getEmail().equals(existingUser.getEmail()) && userRepository.existsByEmail(newUser.getEmail())) {
             throw new RuntimeException("Email already exists: " + newUser.getEmail());
         }
         
         // Sprawdzenie username tylko jeśli się zmienił
-        if (!newUser.getUsername().equals(existingUser.getUsername()) && usernameExists(newUser.getUsername())) {
+        if (!newUser.getUsername().equals(existingUser.getUsername())
+                && userRepository.existsByUsername(newUser.getUsername())) {
             throw new RuntimeException("Username already exists: " + newUser.getUsername());
         }
     }
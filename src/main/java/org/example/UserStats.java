@@ -17,6 +17,12 @@ public class UserStats {
     private int lowPriorityTasks;
     private int overdueTasks;
     
+    // Metryki przepływu z task_cycle_metrics (null, gdy brak zakończonych zadań)
+    private int measuredTasks;
+    private Double averageLeadTimeDays;
+    private Double averageCycleTimeDays;
+    private Double averageDaysInProgress;
+    
     // Konstruktor domyślny
     public UserStats() {}
     
@@ -57,6 +63,18 @@ public class UserStats {
     public int getOverdueTasks() { return overdueTasks; }
     public void setOverdueTasks(int overdueTasks) { this.overdueTasks = overdueTasks; }
     
+    public int getMeasuredTasks() { return measuredTasks; }
+    public void setMeasuredTasks(int measuredTasks) { this.measuredTasks = measuredTasks; }
+    
+    public Double getAverageLeadTimeDays() { return averageLeadTimeDays; }
+    public void setAverageLeadTimeDays(Double averageLeadTimeDays) { this.averageLeadTimeDays = averageLeadTimeDays; }
+    
+    public Double getAverageCycleTimeDays() { return averageCycleTimeDays; }
+    public void setAverageCycleTimeDays(Double averageCycleTimeDays) { this.averageCycleTimeDays = averageCycleTimeDays; }
+    
+    public Double getAverageDaysInProgress() { return averageDaysInProgress; }
+    public void setAverageDaysInProgress(Double averageDaysInProgress) { this.averageDaysInProgress = averageDaysInProgress; }
+    
     // Metody pomocnicze
     public double getCompletionRate() {
         if (totalTasks == 0) return 0.0;
@@ -0,0 +1,62 @@
+package org.example.activity;
+
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogOperationType;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Niezmienny wpis aktywności z rozwiązanym tytułem zadania i nazwą autora zmiany -
+ * odczyt z bufora nie wymaga dociągania encji Task ani User.
+ */
+public record ActivityRecord(Long id, Long taskId, String taskTitle, ChangeLogOperationType operationType,
+                             String fieldName, String oldValue, String newValue, String description,
+                             LocalDateTime changedAt, Long changedById, String changedBy) {
+
+    /**
+     * Wpis z encji zapisanej w bieżącej sesji (zadanie i autor są już załadowane)
+     */
+    public static ActivityRecord from(ChangeLogEntry entry) {
+        return new ActivityRecord(entry.getId(),
+                entry.getTask() != null ? entry.getTask().getId() : null,
+                entry.getTask() != null ? entry.getTask().getTitle() : null,
+                entry.getOperationType(), entry.getFieldName(), entry.getOldValue(), entry.getNewValue(),
+                entry.getDescription(), entry.getChangedAt(),
+                entry.getChangedBy() != null ? entry.getChangedBy().getId() : null,
+                entry.getChangedBy() != null ? entry.getChangedBy().getUsername() : null);
+    }
+
+    /**
+     * Wpis z wiersza projekcji ChangeLogEntryRepository.findRecentActivityRows
+     */
+    public static ActivityRecord fromRow(Object[] row) {
+        return new ActivityRecord((Long) row[0], (Long) row[1], (String) row[2], (ChangeLogOperationType) row[3],
+                (String) row[4], (String) row[5], (String) row[6], (String) row[7], (LocalDateTime) row[8],
+                (Long) row[9], (String) row[10]);
+    }
+
+    /**
+     * Format odpowiedzi /api/analytics/recent-activity
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("id", id);
+        activity.put("taskId", taskId);
+        activity.put("taskTitle", taskTitle);
+        activity.put("operationType", operationType.getDisplayName());
+        activity.put("description", description);
+        activity.put("changedAt", changedAt);
+        if (changedBy != null) {
+            activity.put("changedBy", changedBy);
+        }
+        if (!Objects.equals(oldValue, newValue)) {
+            activity.put("fieldName", fieldName);
+            activity.put("oldValue", oldValue);
+            activity.put("newValue", newValue);
+        }
+        return activity;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.activity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ograniczony bufor cykliczny ostatnich N elementów bez blokad.
+ *
+ * Zapis rezerwuje numer sekwencyjny (getAndIncrement) i wstawia element do slotu seq % N przez CAS -
+ * wolniejszy zapis nie nadpisze nowszego elementu z tego samego slotu. Odczyt przechodzi sekwencje
+ * od najnowszej i pomija sloty, których numer nie pasuje (zapis w toku lub już nadpisany),
+ * więc nigdy nie czeka na piszących.
+ */
+public class RecentActivityBuffer<T> {
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RecentActivityBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 20)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + (1 << 20));
+        }
+        // Potęga dwójki - indeks slotu to maska zamiast dzielenia
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void add(T item) {
+        long seq = sequence.getAndIncrement();
+        int index = (int) (seq & mask);
+        Slot<T> slot = new Slot<>(seq, item);
+        Slot<T> current;
+        do {
+            current = slots.get(index);
+            if (current != null && current.seq() > seq) {
+                return;
+            }
+        } while (!slots.compareAndSet(index, current, slot));
+    }
+
+    /**
+     * Kopia co najwyżej limit ostatnich elementów, od najnowszego
+     */
+    public List<T> latest(int limit) {
+        long end = sequence.get();
+        long start = Math.max(0, end - Math.min(limit, capacity()));
+        List<T> result = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            Slot<T> slot = slots.get((int) (seq & mask));
+            if (slot != null && slot.seq() == seq) {
+                result.add(slot.item());
+            }
+        }
+        return result;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        return (int) Math.min(sequence.get(), capacity());
+    }
+
+    private record Slot<T>(long seq, T item) {
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.audit;
+
+import org.example.ChangeLogOperationType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Porównanie dwóch instancji encji po polach oznaczonych @TrackChanges.
+ *
+ * Komparatory powstają raz na klasę (ClassValue) z MethodHandle getterów - refleksja tylko przy budowie.
+ * Pola prymitywne są czytane uchwytami o typie prymitywnym (bez boxingu), pozostałe porównywane
+ * przez Objects.equals, encje wskazywane przez pole - po id. Tekst wartości powstaje wyłącznie dla
+ * zmienionych pól, a lista wyników przy pierwszej zmianie: porównanie bez zmian niczego nie alokuje.
+ * Zmiany są zwracane w kolejności deklaracji pól (najpierw pola nadklasy).
+ */
+public final class EntityDiffer<T> {
+
+    private static final ClassValue<EntityDiffer<?>> DIFFERS = new ClassValue<>() {
+        @Override
+        protected EntityDiffer<?> computeValue(Class<?> type) {
+            return new EntityDiffer<>(type);
+        }
+    };
+
+    private static final MethodHandle IDENTITY = MethodHandles.identity(Object.class);
+
+    private final Class<T> type;
+    private final FieldComparator[] comparators;
+
+    @SuppressWarnings("unchecked")
+    public static <T> EntityDiffer<T> of(Class<T> type) {
+        return (EntityDiffer<T>) DIFFERS.get(type);
+    }
+
+    private EntityDiffer(Class<T> type) {
+        this.type = type;
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        List<FieldComparator> fields = new ArrayList<>();
+        for (Class<?> declaringClass : hierarchy) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                TrackChanges tracked = field.getAnnotation(TrackChanges.class);
+                if (tracked != null) {
+                    fields.add(comparator(declaringClass, field, tracked));
+                }
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No @TrackChanges fields in " + type.getName());
+        }
+        this.comparators = fields.toArray(new FieldComparator[0]);
+    }
+
+    /**
+     * Zmienione pola (pusta, niemodyfikowalna lista, gdy brak zmian)
+     */
+    public List<FieldChange> diff(T oldValue, T newValue) {
+        Objects.requireNonNull(oldValue, "oldValue");
+        Objects.requireNonNull(newValue, "newValue");
+        List<FieldChange> changes = null;
+        for (FieldComparator comparator : comparators) {
+            FieldChange change;
+            try {
+                change = comparator.compare(oldValue, newValue);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot compare " + type.getSimpleName() + "." + comparator.field, e);
+            }
+            if (change != null) {
+                if (changes == null) {
+                    changes = new ArrayList<>(comparators.length);
+                }
+                changes.add(change);
+            }
+        }
+        return changes != null ? changes : List.of();
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private static FieldComparator comparator(Class<?> declaringClass, Field field, TrackChanges tracked) {
+        String name = tracked.value().isEmpty() ? field.getName() : tracked.value();
+        ChangeLogOperationType cleared = tracked.whenCleared().length > 0 ? tracked.whenCleared()[0] : null;
+        String nullText = tracked.nullText().isEmpty() ? null : tracked.nullText();
+        Class<?> fieldType = field.getType();
+        MethodHandle getter = getter(declaringClass, field.getName(), fieldType);
+
+        if (fieldType == long.class || fieldType == int.class || fieldType == short.class || fieldType == byte.class) {
+            return new LongComparator(name, tracked.operation(),
+                    getter.asType(MethodType.methodType(long.class, Object.class)));
+        }
+        if (fieldType == double.class || fieldType == float.class) {
+            return new DoubleComparator(name, tracked.operation(),
+                    getter.asType(MethodType.methodType(double.class, Object.class)));
+        }
+        if (fieldType == boolean.class) {
+            return new BooleanComparator(name, tracked.operation(),
+                    getter.asType(MethodType.methodType(boolean.class, Object.class)));
+        }
+
+        MethodHandle value = getter.asType(MethodType.methodType(Object.class, Object.class));
+        MethodHandle key = null;
+        MethodHandle display = IDENTITY;
+        if (!tracked.label().isEmpty()) {
+            // Pole wskazuje encję: porównanie po id, w historii jej właściwość label
+            key = toObject(getter(fieldType, "id", null));
+            display = toObject(getter(fieldType, tracked.label(), null));
+        } else if (fieldType.isEnum()) {
+            display = displayName(fieldType);
+        }
+        return new ObjectComparator(name, tracked.operation(), cleared, nullText, value, key, display);
+    }
+
+    /**
+     * Getter właściwości; valueType null - dowolny typ zwracany
+     */
+    private static MethodHandle getter(Class<?> owner, String property, Class<?> valueType) {
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        String name = (valueType == boolean.class ? "is" : "get") + suffix;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            if (valueType != null) {
+                return lookup.findVirtual(owner, name, MethodType.methodType(valueType));
+            }
+            return lookup.unreflect(owner.getMethod(name));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No accessible getter " + owner.getSimpleName() + "." + name + "()", e);
+        }
+    }
+
+    /**
+     * getDisplayName() enuma, jeśli jest - w historii nazwy wyświetlane (np. "In Progress"), inaczej toString()
+     */
+    private static MethodHandle displayName(Class<?> enumType) {
+        try {
+            return toObject(MethodHandles.publicLookup().findVirtual(enumType, "getDisplayName",
+                    MethodType.methodType(String.class)));
+        } catch (ReflectiveOperationException e) {
+            return IDENTITY;
+        }
+    }
+
+    private static MethodHandle toObject(MethodHandle handle) {
+        return handle.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    private abstract static class FieldComparator {
+        final String field;
+        final ChangeLogOperationType operation;
+
+        FieldComparator(String field, ChangeLogOperationType operation) {
+            this.field = field;
+            this.operation = operation;
+        }
+
+        /**
+         * null, gdy wartości są równe
+         */
+        abstract FieldChange compare(Object oldEntity, Object newEntity) throws Throwable;
+    }
+
+    private static final class LongComparator extends FieldComparator {
+        private final MethodHandle getter;
+
+        LongComparator(String field, ChangeLogOperationType operation, MethodHandle getter) {
+            super(field, operation);
+            this.getter = getter;
+        }
+
+        @Override
+        FieldChange compare(Object oldEntity, Object newEntity) throws Throwable {
+            long oldValue = (long) getter.invokeExact(oldEntity);
+            long newValue = (long) getter.invokeExact(newEntity);
+            return oldValue == newValue ? null
+                    : new FieldChange(field, Long.toString(oldValue), Long.toString(newValue), operation);
+        }
+    }
+
+    private static final class DoubleComparator extends FieldComparator {
+        private final MethodHandle getter;
+
+        DoubleComparator(String field, ChangeLogOperationType operation, MethodHandle getter) {
+            super(field, operation);
+            this.getter = getter;
+        }
+
+        @Override
+        FieldChange compare(Object oldEntity, Object newEntity) throws Throwable {
+            double oldValue = (double) getter.invokeExact(oldEntity);
+            double newValue = (double) getter.invokeExact(newEntity);
+            return Double.compare(oldValue, newValue) == 0 ? null
+                    : new FieldChange(field, Double.toString(oldValue), Double.toString(newValue), operation);
+        }
+    }
+
+    private static final class BooleanComparator extends FieldComparator {
+        private final MethodHandle getter;
+
+        BooleanComparator(String field, ChangeLogOperationType operation, MethodHandle getter) {
+            super(field, operation);
+            this.getter = getter;
+        }
+
+        @Override
+        FieldChange compare(Object oldEntity, Object newEntity) throws Throwable {
+            boolean oldValue = (boolean) getter.invokeExact(oldEntity);
+            boolean newValue = (boolean) getter.invokeExact(newEntity);
+            return oldValue == newValue ? null
+                    : new FieldChange(field, Boolean.toString(oldValue), Boolean.toString(newValue), operation);
+        }
+    }
+
+    private static final class ObjectComparator extends FieldComparator {
+        private final ChangeLogOperationType clearedOperation;
+        private final String nullText;
+        private final MethodHandle getter;
+        private final MethodHandle key;
+        private final MethodHandle display;
+
+        ObjectComparator(String field, ChangeLogOperationType operation, ChangeLogOperationType clearedOperation,
+                         String nullText, MethodHandle getter, MethodHandle key, MethodHandle display) {
+            super(field, operation);
+            this.clearedOperation = clearedOperation;
+            this.nullText = nullText;
+            this.getter = getter;
+            this.key = key;
+            this.display = display;
+        }
+
+        @Override
+        FieldChange compare(Object oldEntity, Object newEntity) throws Throwable {
+            Object oldValue = (Object) getter.invokeExact(oldEntity);
+            Object newValue = (Object) getter.invokeExact(newEntity);
+            if (key != null ? Objects.equals(key(oldValue), key(newValue)) : Objects.equals(oldValue, newValue)) {
+                return null;
+            }
+            ChangeLogOperationType type = newValue == null && clearedOperation != null ? clearedOperation : operation;
+            return new FieldChange(field, render(oldValue), render(newValue), type);
+        }
+
+        private Object key(Object value) throws Throwable {
+            return value != null ? (Object) key.invokeExact(value) : null;
+        }
+
+        private String render(Object value) throws Throwable {
+            if (value == null) {
+                return nullText;
+            }
+            Object shown = (Object) display.invokeExact(value);
+            return shown != null ? shown.toString() : null;
+        }
+    }
+}
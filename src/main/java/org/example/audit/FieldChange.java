@@ -0,0 +1,9 @@
+package org.example.audit;
+
+import org.example.ChangeLogOperationType;
+
+/**
+ * Zmiana jednego pola wykryta przez EntityDiffer - wartości już w postaci zapisywanej w historii.
+ */
+public record FieldChange(String field, String oldValue, String newValue, ChangeLogOperationType operation) {
+}
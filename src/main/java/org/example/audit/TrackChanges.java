@@ -0,0 +1,39 @@
+package org.example.audit;
+
+import org.example.ChangeLogOperationType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pole encji porównywane przez EntityDiffer i zapisywane w historii zmian, gdy jego wartość się zmieni.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface TrackChanges {
+
+    /**
+     * Nazwa pola w historii; domyślnie nazwa pola Javy
+     */
+    String value() default "";
+
+    ChangeLogOperationType operation() default ChangeLogOperationType.UPDATE;
+
+    /**
+     * Typ operacji, gdy nowa wartość to null (np. UNASSIGN); pusty - zawsze operation
+     */
+    ChangeLogOperationType[] whenCleared() default {};
+
+    /**
+     * Dla pola wskazującego inną encję: jej właściwość zapisywana w historii (np. "username").
+     * Encje są wtedy porównywane po getId(), nie po equals.
+     */
+    String label() default "";
+
+    /**
+     * Tekst zapisywany zamiast null (np. "unassigned"); pusty - null
+     */
+    String nullText() default "";
+}
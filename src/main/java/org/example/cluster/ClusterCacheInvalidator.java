@@ -0,0 +1,122 @@
+package org.example.cluster;
+
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.Task;
+import org.example.TaskRepository;
+import org.example.User;
+import org.example.UserRepository;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.LeaderboardService;
+import org.example.service.RecentActivityService;
+import org.example.service.TaskSearchService;
+import org.example.service.UserTypeaheadService;
+import org.example.service.UserUniquenessFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aktualizuje struktury w pamięci tego węzła po zmianach wykonanych na innych węzłach:
+ * indeksy wyszukiwania zadań i historii, podpowiedzi użytkowników, filtr Blooma,
+ * okna rankingu i bufor ostatniej aktywności. Zdarzenia lokalne są pomijane - te struktury
+ * aktualizują serwisy przy zapisie. Stan encji jest doczytywany z bazy jednym zapytaniem na typ zdarzenia.
+ */
+@Component
+public class ClusterCacheInvalidator implements ClusterEventListener {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private ChangeLogSearchService changeLogSearchService;
+
+    @Autowired
+    private UserTypeaheadService userTypeaheadService;
+
+    @Autowired
+    private UserUniquenessFilter userUniquenessFilter;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RecentActivityService recentActivityService;
+
+    @Override
+    public void onEvents(List<ClusterEvent> events, boolean remote) {
+        if (!remote) {
+            return;
+        }
+        Map<ClusterEventType, List<Long>> ids = new EnumMap<>(ClusterEventType.class);
+        for (ClusterEvent event : events) {
+            if (event.entityId() != null) {
+                ids.computeIfAbsent(event.type(), type -> new ArrayList<>()).add(event.entityId());
+            }
+        }
+
+        ids.getOrDefault(ClusterEventType.TASK_DELETED, List.of()).forEach(taskId -> {
+            taskSearchService.removeTask(taskId);
+            changeLogSearchService.removeTaskEntries(taskId);
+        });
+        refreshTasks(ids.getOrDefault(ClusterEventType.TASK_CHANGED, List.of()));
+
+        ids.getOrDefault(ClusterEventType.USER_DELETED, List.of()).forEach(userTypeaheadService::removeUser);
+        refreshUsers(ids.getOrDefault(ClusterEventType.USER_CHANGED, List.of()));
+
+        List<Long> entryIds = ids.getOrDefault(ClusterEventType.CHANGE_LOG_APPENDED, List.of());
+        if (!entryIds.isEmpty()) {
+            for (ChangeLogEntry entry : changeLogRepository.findAllWithTaskByIdIn(entryIds)) {
+                changeLogSearchService.indexEntry(entry);
+                leaderboardService.recordCompletion(entry);
+                recentActivityService.record(entry);
+            }
+        }
+        List<Long> bulkAfterIds = ids.getOrDefault(ClusterEventType.CHANGE_LOG_BULK_APPENDED, List.of());
+        if (!bulkAfterIds.isEmpty()) {
+            changeLogSearchService.indexEntriesAfter(bulkAfterIds.stream().mapToLong(Long::longValue).min().getAsLong());
+            recentActivityService.reload();
+        }
+    }
+
+    private void refreshTasks(List<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(taskIds);
+        for (Task task : taskRepository.findAllById(taskIds)) {
+            taskSearchService.indexTask(task);
+            missing.remove(task.getId());
+        }
+        // Zadanie usunięte, zanim zdarzenie dotarło
+        missing.forEach(taskSearchService::removeTask);
+    }
+
+    private void refreshUsers(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(userIds);
+        for (User user : userRepository.findAllById(userIds)) {
+            userTypeaheadService.indexUser(user);
+            userUniquenessFilter.addUser(user);
+            missing.remove(user.getId());
+        }
+        missing.forEach(userTypeaheadService::removeUser);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.cluster;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Zdarzenie zmiany danych rozsyłane między węzłami.
+ * eventId jest unikalny - transport może dostarczyć zdarzenie więcej niż raz, odbiorca odrzuca powtórzenia.
+ */
+public record ClusterEvent(String eventId, String originNode, ClusterEventType type, Long entityId,
+                           LocalDateTime publishedAt) {
+
+    public static ClusterEvent create(String originNode, ClusterEventType type, Long entityId) {
+        return new ClusterEvent(UUID.randomUUID().toString(), originNode, type, entityId,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /**
+     * Klucz scalania: kilka zdarzeń o tym samym typie i encji w jednej paczce wymaga jednej reakcji
+     */
+    public String coalescingKey() {
+        return type.name() + ":" + entityId;
+    }
+}
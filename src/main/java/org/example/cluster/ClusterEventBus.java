@@ -0,0 +1,259 @@
+package org.example.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Szyna zdarzeń między węzłami aplikacji uruchomionymi za load balancerem.
+ *
+ * publish() tylko dopisuje zdarzenie do kolejki (po commicie transakcji, jeśli jest aktywna).
+ * flush() co cluster.events.flush-interval-ms scala kolejkę w paczki - jedno zdarzenie na (typ, encja) -
+ * przekazuje je lokalnym odbiorcom (remote = false) i wysyła transportem. poll() co
+ * cluster.events.poll-interval-ms odbiera paczki innych węzłów, odrzuca powtórzenia po eventId
+ * i przekazuje odbiorcom z remote = true. Bez transportu (cluster.events.transport=none) działa
+ * tylko dostarczanie lokalne, np. do klientów SSE.
+ */
+public class ClusterEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventBus.class);
+
+    /**
+     * Limit rund odbioru w jednym wywołaniu poll - zaległości nie blokują wątku harmonogramu na długo
+     */
+    private static final int MAX_POLL_ROUNDS = 10;
+
+    private final String nodeId;
+    private final ClusterEventTransport transport;
+    private final Supplier<? extends Collection<ClusterEventListener>> listeners;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final ConcurrentLinkedQueue<ClusterEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // ReentrantLock zamiast monitorów - blokady trwają przez wysyłkę / odbiór JDBC (wątki wirtualne na JDK 21)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    /**
+     * Ostatnio odebrane eventId (LRU) - transport może dostarczyć zdarzenie ponownie
+     */
+    private final Map<String, Boolean> seenEventIds;
+
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter duplicateCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    public ClusterEventBus(String nodeId, ClusterEventTransport transport,
+                           Supplier<? extends Collection<ClusterEventListener>> listeners,
+                           int batchSize, int maxPending, int seenCapacity, MeterRegistry meterRegistry) {
+        if (batchSize < 1 || maxPending < batchSize || seenCapacity < batchSize) {
+            throw new IllegalArgumentException("Invalid cluster event bus limits");
+        }
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.listeners = listeners;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.seenEventIds = new LinkedHashMap<>(seenCapacity * 4 / 3 + 1, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > seenCapacity;
+            }
+        };
+        this.sentCounter = counter(meterRegistry, "sent");
+        this.receivedCounter = counter(meterRegistry, "received");
+        this.duplicateCounter = counter(meterRegistry, "duplicate");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+        this.failedCounter = counter(meterRegistry, "failed");
+        Gauge.builder("taskmanager.cluster.events.pending", pendingCount, AtomicInteger::get)
+                .description("Cluster events waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("taskmanager.cluster.events").tag("result", result).register(registry);
+    }
+
+    /**
+     * Zgłasza zmianę encji. W transakcji zdarzenie trafia do kolejki dopiero po commicie -
+     * wycofana zmiana nie unieważnia cache'y innych węzłów.
+     */
+    public void publish(ClusterEventType type, Long entityId) {
+        ClusterEvent event = ClusterEvent.create(nodeId, type, entityId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(ClusterEvent event) {
+        // Przepełnienie oznacza, że flush nie nadąża - zdarzenie jest odrzucane zamiast zajmować pamięć
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            droppedCounter.increment();
+            return;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Wysyła oczekujące zdarzenia paczkami po batchSize; zwraca liczbę zdarzeń po scaleniu
+     */
+    @Scheduled(fixedDelayString = "${cluster.events.flush-interval-ms:200}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            List<ClusterEvent> drained = new ArrayList<>(batchSize);
+            ClusterEvent event;
+            while ((event = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                drained.add(event);
+                if (drained.size() == batchSize) {
+                    flushed += sendBatch(drained);
+                    drained = new ArrayList<>(batchSize);
+                }
+            }
+            if (!drained.isEmpty()) {
+                flushed += sendBatch(drained);
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int sendBatch(List<ClusterEvent> drained) {
+        List<ClusterEvent> batch = coalesce(drained);
+        dispatch(batch, false);
+        if (transport != null) {
+            try {
+                transport.send(batch);
+                sentCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                // Inne węzły nadrobią przy okresowej przebudowie swoich indeksów
+                failedCounter.increment(batch.size());
+                logger.warn("Failed to send {} cluster events: {}", batch.size(), e.getMessage());
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Odbiera i przekazuje zdarzenia innych węzłów; zwraca liczbę nowych zdarzeń po scaleniu
+     */
+    @Scheduled(fixedDelayString = "${cluster.events.poll-interval-ms:500}")
+    public int poll() {
+        if (transport == null) {
+            return 0;
+        }
+        pollLock.lock();
+        try {
+            int delivered = 0;
+            for (int round = 0; round < MAX_POLL_ROUNDS; round++) {
+                List<ClusterEvent> received;
+                try {
+                    received = transport.receive(nodeId, batchSize);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to receive cluster events: {}", e.getMessage());
+                    break;
+                }
+                List<ClusterEvent> fresh = new ArrayList<>(received.size());
+                for (ClusterEvent event : received) {
+                    if (seenEventIds.put(event.eventId(), Boolean.TRUE) == null) {
+                        fresh.add(event);
+                    } else {
+                        duplicateCounter.increment();
+                    }
+                }
+                if (!fresh.isEmpty()) {
+                    receivedCounter.increment(fresh.size());
+                    List<ClusterEvent> batch = coalesce(fresh);
+                    dispatch(batch, true);
+                    delivered += batch.size();
+                }
+                if (fresh.size() < batchSize) {
+                    break;
+                }
+            }
+            return delivered;
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.events.purge-interval-ms:60000}")
+    public int purgeExpired() {
+        if (transport == null) {
+            return 0;
+        }
+        try {
+            return transport.purgeExpired();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge cluster events: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Jedno zdarzenie na (typ, encja), w kolejności pierwszego wystąpienia
+     */
+    private static List<ClusterEvent> coalesce(List<ClusterEvent> events) {
+        Map<String, ClusterEvent> unique = new LinkedHashMap<>();
+        for (ClusterEvent event : events) {
+            unique.putIfAbsent(event.coalescingKey(), event);
+        }
+        return unique.size() == events.size() ? events : new ArrayList<>(unique.values());
+    }
+
+    private void dispatch(List<ClusterEvent> batch, boolean remote) {
+        for (ClusterEventListener listener : listeners.get()) {
+            try {
+                listener.onEvents(batch, remote);
+            } catch (RuntimeException e) {
+                logger.warn("Cluster event listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("nodeId", nodeId);
+        status.put("transport", transport != null ? transport.getClass().getSimpleName() : "none");
+        status.put("pending", pendingCount.get());
+        status.put("sent", (long) sentCounter.count());
+        status.put("received", (long) receivedCounter.count());
+        status.put("duplicates", (long) duplicateCounter.count());
+        status.put("dropped", (long) droppedCounter.count());
+        status.put("failed", (long) failedCounter.count());
+        return status;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.cluster;
+
+import java.util.List;
+
+/**
+ * Odbiorca paczek zdarzeń z ClusterEventBus (beany Springa wykrywane automatycznie).
+ * remote = false: zdarzenia tego węzła (lokalne struktury są już aktualne), true: zdarzenia innych węzłów.
+ * Wywoływany z wątku harmonogramu - wyjątek jest logowany i nie zatrzymuje pozostałych odbiorców.
+ */
+public interface ClusterEventListener {
+
+    void onEvents(List<ClusterEvent> events, boolean remote);
+}
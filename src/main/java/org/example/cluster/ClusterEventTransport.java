@@ -0,0 +1,27 @@
+package org.example.cluster;
+
+import java.util.List;
+
+/**
+ * Wymienny kanał przesyłania zdarzeń między węzłami (cluster.events.transport).
+ * Dostarczanie "co najmniej raz": receive może zwrócić zdarzenie ponownie, deduplikację robi ClusterEventBus.
+ */
+public interface ClusterEventTransport {
+
+    /**
+     * Wysyła paczkę zdarzeń tego węzła
+     */
+    void send(List<ClusterEvent> batch);
+
+    /**
+     * Kolejne zdarzenia innych węzłów niż nodeId, najwyżej maxEvents, w kolejności wysłania
+     */
+    List<ClusterEvent> receive(String nodeId, int maxEvents);
+
+    /**
+     * Usuwa zdarzenia starsze niż okres przechowywania; zwraca liczbę usuniętych
+     */
+    default int purgeExpired() {
+        return 0;
+    }
+}
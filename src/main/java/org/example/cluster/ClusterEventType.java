@@ -0,0 +1,20 @@
+package org.example.cluster;
+
+/**
+ * Rodzaje zdarzeń propagowanych między węzłami. entityId zdarzenia to id zadania, użytkownika
+ * lub wpisu historii - odbiorca doczytuje aktualny stan z bazy, zdarzenie nie niesie danych.
+ */
+public enum ClusterEventType {
+    TASK_CHANGED,
+    TASK_DELETED,
+    USER_CHANGED,
+    USER_DELETED,
+    /**
+     * Nowy wpis historii zapisany przez ChangeLogService (entityId = id wpisu)
+     */
+    CHANGE_LOG_APPENDED,
+    /**
+     * Wpisy zapisane zbiorczo z pominięciem ChangeLogService (entityId = ostatnie id wpisu sprzed zapisu)
+     */
+    CHANGE_LOG_BULK_APPENDED
+}
@@ -0,0 +1,91 @@
+package org.example.cluster;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transport przez wspólną tabelę cluster_event (H2/Postgres współdzielone przez węzły).
+ * Wysyłka to jeden batch INSERT na paczkę, odbiór - odpytywanie po id od ostatnio widzianego.
+ *
+ * Id z sekwencji są przydzielane przy INSERT, a widoczne po commicie, więc wiersz z mniejszym id może
+ * pojawić się po wierszu z większym. Dlatego każdy odczyt cofa się o pollOverlap wierszy - powtórzenia
+ * odrzuca deduplikacja po eventId w ClusterEventBus.
+ */
+public class JdbcClusterEventTransport implements ClusterEventTransport {
+
+    private static final String INSERT_SQL = "INSERT INTO cluster_event "
+            + "(event_id, origin_node, event_type, entity_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT id, event_id, origin_node, event_type, entity_id, created_at "
+            + "FROM cluster_event WHERE id > ? AND origin_node <> ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pollOverlap;
+    private final Duration retention;
+
+    /**
+     * Najwyższe id odczytane przez ten węzeł; start od bieżącego końca tabeli - bez odtwarzania starych zdarzeń
+     */
+    private long lastSeenId = -1;
+    // Odczyt trwa przez całe zapytanie JDBC - ReentrantLock nie przypina wątku wirtualnego do nośnego
+    private final ReentrantLock receiveLock = new ReentrantLock();
+
+    public JdbcClusterEventTransport(JdbcTemplate jdbcTemplate, int pollOverlap, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollOverlap = pollOverlap;
+        this.retention = retention;
+    }
+
+    @Override
+    public void send(List<ClusterEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ClusterEvent event : batch) {
+            rows.add(new Object[] { event.eventId(), event.originNode(), event.type().name(), event.entityId(),
+                                    Timestamp.valueOf(event.publishedAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Override
+    public List<ClusterEvent> receive(String nodeId, int maxEvents) {
+        receiveLock.lock();
+        try {
+            if (lastSeenId < 0) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cluster_event", Long.class);
+                lastSeenId = maxId != null ? maxId : 0;
+                return List.of();
+            }
+            // Okno nakładki nie liczy się do limitu - inaczej przy pełnych paczkach odczyt stałby w miejscu
+            List<ClusterEvent> events = new ArrayList<>();
+            long[] maxId = { lastSeenId };
+            jdbcTemplate.query(SELECT_SQL, rs -> {
+                long id = rs.getLong("id");
+                maxId[0] = Math.max(maxId[0], id);
+                long entityValue = rs.getLong("entity_id");
+                Long entityId = rs.wasNull() ? null : entityValue;
+                events.add(new ClusterEvent(rs.getString("event_id"), rs.getString("origin_node"),
+                        ClusterEventType.valueOf(rs.getString("event_type")), entityId,
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+            }, Math.max(0, lastSeenId - pollOverlap), nodeId, maxEvents + pollOverlap);
+            lastSeenId = maxId[0];
+            return events;
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        return jdbcTemplate.update("DELETE FROM cluster_event WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wypycha paczki zdarzeń (lokalne i z innych węzłów) do klientów podłączonych przez SSE,
+ * jedno zdarzenie SSE "changes" na paczkę. Klient po otrzymaniu paczki doczytuje to, co wyświetla.
+ * Klient, do którego zapis się nie udał, jest odłączany - EventSource w przeglądarce łączy się ponownie sam.
+ */
+@Component
+public class LiveUpdateBroadcaster implements ClusterEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateBroadcaster.class);
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Value("${cluster.events.sse.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${cluster.events.sse.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    /**
+     * Rejestruje nowego klienta; przekroczenie limitu połączeń to IllegalStateException (409)
+     */
+    public SseEmitter subscribe() {
+        if (emitters.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live update subscribers (max " + maxSubscribers + ")");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    @Override
+    public void onEvents(List<ClusterEvent> events, boolean remote) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("changes").data(events, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping live update subscriber: {}", e.getMessage());
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport w pamięci jednego procesu - do testów i uruchomień jednowęzłowych.
+ * Instancje utworzone przez attach() współdzielą dziennik zdarzeń, każda ma własną pozycję odczytu,
+ * więc kilka ClusterEventBus w jednej JVM zachowuje się jak osobne węzły.
+ */
+public class LoopbackClusterEventTransport implements ClusterEventTransport {
+
+    private final List<ClusterEvent> log;
+    private int position;
+
+    public LoopbackClusterEventTransport() {
+        this(new ArrayList<>());
+    }
+
+    private LoopbackClusterEventTransport(List<ClusterEvent> log) {
+        this.log = log;
+        synchronized (log) {
+            this.position = log.size();
+        }
+    }
+
+    /**
+     * Kolejny "węzeł" podłączony do tego samego dziennika; widzi tylko zdarzenia wysłane po podłączeniu
+     */
+    public LoopbackClusterEventTransport attach() {
+        return new LoopbackClusterEventTransport(log);
+    }
+
+    @Override
+    public void send(List<ClusterEvent> batch) {
+        synchronized (log) {
+            log.addAll(batch);
+        }
+    }
+
+    @Override
+    public List<ClusterEvent> receive(String nodeId, int maxEvents) {
+        List<ClusterEvent> received = new ArrayList<>();
+        synchronized (log) {
+            while (position < log.size() && received.size() < maxEvents) {
+                ClusterEvent event = log.get(position++);
+                if (!event.originNode().equals(nodeId)) {
+                    received.add(event);
+                }
+            }
+        }
+        return received;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.ClusterEventListener;
+import org.example.cluster.ClusterEventTransport;
+import org.example.cluster.JdbcClusterEventTransport;
+import org.example.cluster.LoopbackClusterEventTransport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Szyna zdarzeń klastra (ClusterEventBus) z transportem wybranym przez cluster.events.transport:
+ * none - jeden węzeł, tylko dostarczanie lokalne (SSE); jdbc - wspólna tabela cluster_event;
+ * loopback - w pamięci procesu (testy).
+ *
+ * cluster.node-id domyślnie: HOSTNAME + losowy sufiks - restart węzła to nowy identyfikator.
+ */
+@Configuration
+public class ClusterEventConfig {
+
+    @Bean
+    public ClusterEventBus clusterEventBus(Environment environment, ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                           ObjectProvider<ClusterEventListener> listeners, MeterRegistry meterRegistry) {
+        String transportName = environment.getProperty("cluster.events.transport", "none");
+        ClusterEventTransport transport = switch (transportName) {
+            case "none" -> null;
+            case "loopback" -> new LoopbackClusterEventTransport();
+            case "jdbc" -> new JdbcClusterEventTransport(jdbcTemplate.getObject(),
+                    environment.getProperty("cluster.events.jdbc.poll-overlap", Integer.class, 200),
+                    Duration.ofMinutes(environment.getProperty("cluster.events.jdbc.retention-minutes", Long.class, 10L)));
+            default -> throw new IllegalStateException("Unknown cluster.events.transport: " + transportName
+                    + ". Valid values are: none, jdbc, loopback");
+        };
+        String nodeId = environment.getProperty("cluster.node-id");
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        // Odbiorcy pobierani przy każdej paczce - bez cyklu zależności z serwisami, które publikują zdarzenia
+        return new ClusterEventBus(nodeId, transport, () -> listeners.orderedStream().toList(),
+                environment.getProperty("cluster.events.batch-size", Integer.class, 500),
+                environment.getProperty("cluster.events.max-pending", Integer.class, 10_000),
+                environment.getProperty("cluster.events.dedup-capacity", Integer.class, 10_000),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.datasource.ConnectionLimitingDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ograniczenie liczby wątków jednocześnie pobierających połączenie z puli
+ * (włączenie: datasource.connection-limit.enabled=true, domyślnie w profilu vthreads).
+ *
+ * Liczba zezwoleń domyślnie równa się spring.datasource.hikari.maximum-pool-size,
+ * a czas oczekiwania - spring.datasource.hikari.connection-timeout.
+ * Metryki: taskmanager.datasource.permits.available / .waiting
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.connection-limit.enabled", havingValue = "true")
+public class ConnectionLimitConfig {
+
+    /**
+     * Metoda statyczna - BeanPostProcessor musi powstać przed pozostałymi beanami konfiguracji
+     */
+    @Bean
+    public static ConnectionLimitPostProcessor connectionLimitPostProcessor(Environment environment) {
+        int permits = environment.getProperty("datasource.connection-limit.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long timeoutMillis = environment.getProperty("datasource.connection-limit.acquire-timeout-ms", Long.class,
+                environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30_000L));
+        if (permits < 1) {
+            throw new IllegalStateException("datasource.connection-limit.permits must be positive");
+        }
+        return new ConnectionLimitPostProcessor(new Semaphore(permits, true), timeoutMillis);
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(ConnectionLimitPostProcessor postProcessor) {
+        Semaphore permits = postProcessor.permits();
+        return registry -> {
+            Gauge.builder("taskmanager.datasource.permits.available", permits, Semaphore::availablePermits)
+                    .description("Free connection permits")
+                    .register(registry);
+            Gauge.builder("taskmanager.datasource.permits.waiting", permits, Semaphore::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .register(registry);
+        };
+    }
+
+    public record ConnectionLimitPostProcessor(Semaphore permits, long acquireTimeoutMillis)
+            implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof DataSource dataSource && !ConnectionLimitingDataSource.isWrapped(bean)) {
+                return ConnectionLimitingDataSource.wrap(dataSource, permits, acquireTimeoutMillis);
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.config;
+
+import org.example.diagnostics.QueryTrackingDataSource;
+import org.example.diagnostics.SlowQueryRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Konfiguracja diagnostyki zapytań SQL.
+ * Każdy DataSource w kontekście jest opakowywany przez {@link QueryTrackingDataSource}
+ * (wyłączenie: diagnostics.queries.enabled=false).
+ */
+@Configuration
+public class DiagnosticsConfig {
+
+    /**
+     * Metoda statyczna - BeanPostProcessor musi powstać przed pozostałymi beanami konfiguracji
+     */
+    @Bean
+    public static BeanPostProcessor queryTrackingDataSourcePostProcessor(ObjectProvider<SlowQueryRegistry> registry,
+                                                                         Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource
+                        && !QueryTrackingDataSource.isWrapped(bean)
+                        && environment.getProperty("diagnostics.queries.enabled", Boolean.class, true)) {
+                    return QueryTrackingDataSource.wrap(dataSource, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
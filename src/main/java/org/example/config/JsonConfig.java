@@ -4,14 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 /**
  * Konfiguracja JSON dla aplikacji.
  * Centralne zarządzanie ustawieniami ObjectMapper.
+ * Binarne formaty (CBOR, Smile) korzystają z tej samej konfiguracji modułów
+ * i są negocjowane przez nagłówek Accept ({@code application/cbor},
+ * {@code application/x-jackson-smile}) na wszystkich kontrolerach /api.
  */
 @Configuration
 public class JsonConfig {
@@ -28,26 +35,63 @@ public class JsonConfig {
     @Bean
     @Primary
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        
+        ObjectMapper mapper = configure(new ObjectMapper());
+
+        // Czytelne formatowanie JSON (wcięcia) - przydatne do debugowania
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+
+        return mapper;
+    }
+
+    /**
+     * Konwerter dla application/cbor - wspólne ustawienia z JSON, bez wcięć
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper());
+    }
+
+    /**
+     * Konwerter dla application/x-jackson-smile - wspólne ustawienia z JSON, bez wcięć
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper());
+    }
+
+    /**
+     * Mapper CBOR z konfiguracją współdzieloną z JSON
+     */
+    public static ObjectMapper cborMapper() {
+        return configure(new CBORMapper());
+    }
+
+    /**
+     * Mapper Smile z konfiguracją współdzieloną z JSON
+     */
+    public static ObjectMapper smileMapper() {
+        return configure(new SmileMapper());
+    }
+
+    /**
+     * Wspólna konfiguracja modułów i cech dla wszystkich formatów (JSON, CBOR, Smile)
+     */
+    public static <M extends ObjectMapper> M configure(M mapper) {
         // Rejestracja modułu Java Time dla obsługi LocalDate, LocalDateTime, etc.
         mapper.registerModule(new JavaTimeModule());
-        
+
         // Wyłączenie zapisywania dat jako timestamps - używamy ISO strings
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        
+
         // Ignorowanie nieznanych pól podczas deserializacji
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        
+
         // Ignorowanie pustych właściwości (null values) w JSON
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        
-        // Czytelne formatowanie JSON (wcięcia) - przydatne do debugowania
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        
+
         // Obsługa pustych obiektów - nie rzucanie wyjątków
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        
+
         return mapper;
     }
-} 
\ No newline at end of file
+}
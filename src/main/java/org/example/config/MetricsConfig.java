@@ -0,0 +1,26 @@
+package org.example.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguracja metryk Micrometer.
+ * Metryki dostępne są w formacie Prometheus pod /actuator/prometheus:
+ * - taskmanager.service - czas każdej metody serwisów oznaczonych @Timed (tagi class, method, exception)
+ * - spring.data.repository.invocations - czas każdego zapytania repozytorium
+ * - hikaricp.connections.* - stan puli połączeń
+ * - taskmanager.changelog.entries - liczba zapisanych wpisów historii według typu operacji
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Aspekt obsługujący adnotację @Timed na beanach serwisów
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
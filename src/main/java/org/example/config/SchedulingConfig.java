@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Włącza zadania okresowe (@Scheduled), np. przebudowę indeksów wyszukiwania.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
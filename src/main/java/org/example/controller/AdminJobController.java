@@ -0,0 +1,55 @@
+package org.example.controller;
+
+import org.example.JobRun;
+import org.example.scheduling.MaintenanceJobs;
+import org.example.service.JobCoordinator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kontroler administracyjny zadań okresowych - blokady klastra, czasy trwania i historia uruchomień.
+ */
+@RestController
+@RequestMapping("/api/admin/jobs")
+public class AdminJobController {
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private MaintenanceJobs maintenanceJobs;
+
+    /**
+     * Zadania: właściciel i ważność blokady, fencing token, liczba uruchomień i błędów, średni / maks. czas
+     * (z zachowanej historii) oraz wynik ostatniego uruchomienia
+     * GET /api/admin/jobs
+     */
+    @GetMapping
+    public Map<String, Object> getJobs() {
+        return Map.of(
+            "nodeId", jobCoordinator.getNodeId(),
+            "jobs", jobCoordinator.getJobs()
+        );
+    }
+
+    /**
+     * Ostatnie uruchomienia zadania, od najnowszego
+     * GET /api/admin/jobs/{jobName}/runs?limit=20
+     */
+    @GetMapping("/{jobName}/runs")
+    public List<JobRun> getRuns(@PathVariable String jobName, @RequestParam(defaultValue = "20") int limit) {
+        return jobCoordinator.getRecentRuns(jobName, limit);
+    }
+
+    /**
+     * Uruchamia zadanie na tym węźle, jeśli żaden inny go nie wykonuje (409, gdy blokada jest zajęta)
+     * POST /api/admin/jobs/{jobName}/run
+     */
+    @PostMapping("/{jobName}/run")
+    public JobRun runNow(@PathVariable String jobName) {
+        return maintenanceJobs.runNow(jobName);
+    }
+}
@@ -4,6 +4,11 @@ import org.example.dto.TaskSummaryDto;
 import org.example.dto.UserStatsDto;
 import org.example.dto.DashboardDto;
 import org.example.service.AnalyticsService;
+import org.example.service.ChangeLogRollupService;
+import org.example.service.CompletionForecastService;
+import org.example.service.LeaderboardService;
+import org.example.service.TaskCycleMetricsService;
+import org.example.forecast.ForecastModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +28,18 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private ChangeLogRollupService changeLogRollupService;
+
+    @Autowired
+    private CompletionForecastService completionForecastService;
+
+    @Autowired
+    private TaskCycleMetricsService taskCycleMetricsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     /**
      * Pobiera podstawowe podsumowanie zadań
      * GET /api/analytics/task-summary
@@ -101,7 +118,7 @@ public class AnalyticsController {
     }
 
     /**
-     * Statystyki trendu dla wykresów
+     * Dzienna seria zmian, utworzeń i zakończeń zadań dla wykresów (z agregatów change_log_daily_rollup)
      * GET /api/analytics/trend-data?fromDate=2024-01-01&toDate=2024-01-31
      */
     @GetMapping("/trend-data")
@@ -112,7 +129,16 @@ public class AnalyticsController {
     }
 
     /**
-     * Prognoza zakończenia zadań
+     * Przelicza dzienne agregaty dni obecnych w historii zmian (np. po imporcie danych z pominięciem aplikacji)
+     * POST /api/analytics/rollups/rebuild
+     */
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Object> rebuildRollups() {
+        return changeLogRollupService.rebuildRollups();
+    }
+
+    /**
+     * Prognoza zakończenia zadań (percentyle Monte Carlo z historycznej przepustowości)
      * GET /api/analytics/completion-forecast
      */
     @GetMapping("/completion-forecast")
@@ -120,6 +146,60 @@ public class AnalyticsController {
         return analyticsService.getCompletionForecast();
     }
 
+    /**
+     * Przebudowuje model prognoz (czas realizacji i przepustowość) bez czekania na upływ TTL
+     * POST /api/analytics/completion-forecast/refresh
+     */
+    @PostMapping("/completion-forecast/refresh")
+    public Map<String, Object> refreshForecastModel() {
+        ForecastModel model = completionForecastService.refreshModel();
+        return Map.of(
+            "completedTasks", model.getCompletedTasks(),
+            "historyDays", model.getHistoryDays(),
+            "activeHistoryDays", model.getActiveDays(),
+            "builtAt", model.getBuiltAt(),
+            "buildTimeMs", model.getBuildTimeMs()
+        );
+    }
+
+    /**
+     * Średni lead time, cycle time i czas w statusach (z ostatniego przeliczenia)
+     * GET /api/analytics/cycle-metrics
+     */
+    @GetMapping("/cycle-metrics")
+    public Map<String, Object> getCycleMetrics() {
+        return taskCycleMetricsService.getSummary();
+    }
+
+    /**
+     * Przelicza metryki przepływu wszystkich zadań jednym przebiegiem po historii zmian
+     * POST /api/analytics/cycle-metrics/recompute
+     */
+    @PostMapping("/cycle-metrics/recompute")
+    public Map<String, Object> recomputeCycleMetrics() {
+        return taskCycleMetricsService.recompute();
+    }
+
+    /**
+     * Ranking najlepszych wykonawców (ranking gęsty) dla całego okresu lub okna 7/30 dni
+     * GET /api/analytics/leaderboard?window=30d&limit=10
+     */
+    @GetMapping("/leaderboard")
+    public List<Map<String, Object>> getLeaderboard(
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return leaderboardService.getTopPerformers(limit, LeaderboardService.Window.fromParam(window));
+    }
+
+    /**
+     * Odtwarza liczniki okien rankingu z historii zmian
+     * POST /api/analytics/leaderboard/rebuild
+     */
+    @PostMapping("/leaderboard/rebuild")
+    public Map<String, Object> rebuildLeaderboard() {
+        return leaderboardService.rebuildWindows();
+    }
+
     /**
      * Kompaktowy endpoint dla widgetów dashboardu
      * GET /api/analytics/widgets
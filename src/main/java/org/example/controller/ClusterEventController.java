@@ -0,0 +1,44 @@
+package org.example.controller;
+
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.LiveUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Kontroler zdarzeń zmian - strumień SSE dla klientów i stan szyny zdarzeń klastra.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class ClusterEventController {
+
+    @Autowired
+    private LiveUpdateBroadcaster liveUpdateBroadcaster;
+
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+
+    /**
+     * Strumień paczek zmian (zdarzenie "changes": [{type, entityId, originNode, ...}])
+     * GET /api/events/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return liveUpdateBroadcaster.subscribe();
+    }
+
+    /**
+     * Stan szyny: id węzła, transport, liczniki wysłanych / odebranych / powtórzonych zdarzeń
+     * GET /api/events/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> status() {
+        Map<String, Object> status = clusterEventBus.getStatus();
+        status.put("liveSubscribers", liveUpdateBroadcaster.getSubscriberCount());
+        return status;
+    }
+}
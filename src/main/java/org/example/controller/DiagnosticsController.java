@@ -0,0 +1,48 @@
+package org.example.controller;
+
+import org.example.diagnostics.SlowQueryRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kontroler diagnostyki zapytań SQL - top N najwolniejszych zapytań
+ * i ostatnie żądania przekraczające budżet zapytań.
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    @Autowired
+    private SlowQueryRegistry slowQueryRegistry;
+
+    /**
+     * Statystyki zapytań
+     * GET /api/diagnostics/queries?limit=20&sort=max (max, total, count, rows)
+     */
+    @GetMapping("/queries")
+    public Map<String, Object> getQueryStats(@RequestParam(defaultValue = "20") int limit,
+                                             @RequestParam(defaultValue = "max") String sort) {
+        if (limit < 1 || limit > 500) {
+            throw new IllegalArgumentException("Limit must be between 1 and 500");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totals", slowQueryRegistry.getTotals());
+        result.put("topStatements", slowQueryRegistry.getTopStatements(limit, sort));
+        result.put("offendingRequests", slowQueryRegistry.getOffendingRequests());
+        return result;
+    }
+
+    /**
+     * Reset statystyk (np. przed przebiegiem testu obciążeniowego)
+     * DELETE /api/diagnostics/queries
+     */
+    @DeleteMapping("/queries")
+    public ResponseEntity<Void> resetQueryStats() {
+        slowQueryRegistry.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,277 @@
+package org.example.datagen;
+
+import org.example.ChangeLogOperationType;
+import org.example.TaskPriority;
+import org.example.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministyczny generator dużych zbiorów danych (użytkownicy, zadania, historia zmian).
+ * Dane wstawiane są wsadowo przez JDBC z pominięciem warstwy JPA.
+ * Rozkłady są skośne: przypisania zadań wg rozkładu Zipfa, większość zadań otwarta,
+ * historia zmian spójna ze statusem końcowym zadania.
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] FIRST_NAMES = {
+        "Jan", "Anna", "Piotr", "Katarzyna", "Tomasz", "Małgorzata", "Paweł", "Agnieszka", "Michał", "Magdalena",
+        "Krzysztof", "Joanna", "Łukasz", "Ewa", "Grzegorz", "Żaneta", "Marek", "Barbara", "Wojciech", "Zofia"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Kowalski", "Nowak", "Wiśniewski", "Wójcik", "Kowalczyk", "Kamiński", "Lewandowski", "Zieliński",
+        "Szymański", "Woźniak", "Dąbrowski", "Kozłowski", "Jankowski", "Mazur", "Kwiatkowski", "Krawczyk",
+        "Piotrowski", "Grabowski", "Nowakowski", "Pawłowski", "Michalski", "Nowicki", "Adamczyk", "Dudek"
+    };
+
+    private static final String[] VERBS = {
+        "Implementacja", "Optymalizacja", "Refaktoryzacja", "Testy", "Dokumentacja", "Analiza",
+        "Naprawa", "Migracja", "Konfiguracja", "Przegląd", "Integracja", "Monitoring"
+    };
+
+    private static final String[] SUBJECTS = {
+        "logowania", "bazy danych", "API zadań", "raportów", "powiadomień", "eksportu CSV", "dashboardu",
+        "uprawnień", "wyszukiwarki", "historii zmian", "kolejki zadań", "płatności", "cache", "backendu"
+    };
+
+    private static final String[] DETAILS = {
+        "Zgłoszone przez zespół wsparcia po ostatnim wdrożeniu.",
+        "Wymaga konsultacji z architektem przed rozpoczęciem prac.",
+        "Dotyczy wydajności zapytań przy dużej liczbie rekordów.",
+        "Uzupełnić testy regresyjne i opis w dokumentacji API.",
+        "Klient zgłasza błędy przy równoległych aktualizacjach.",
+        "Przygotować plan migracji danych i wycofania zmian."
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Generuje i zapisuje zbiór danych zgodnie ze specyfikacją
+     */
+    public DatasetSummary generate(DatasetSpec spec) {
+        logger.info("Generating dataset {}", spec);
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+
+        long[] userIds = insertUsers(spec, random.split());
+        long[] taskIds = insertTasksWithHistory(spec, userIds, random.split());
+
+        DatasetSummary summary = new DatasetSummary(userIds, taskIds, changeLogCount(taskIds),
+                                                    (System.nanoTime() - start) / 1_000_000);
+        logger.info("Dataset generated: {}", summary);
+        return summary;
+    }
+
+    private long[] insertUsers(DatasetSpec spec, SplittableRandom random) {
+        Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM app_user", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(spec.getBatchSize());
+        int combinations = FIRST_NAMES.length * LAST_NAMES.length;
+        for (int i = 0; i < spec.getUsers(); i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            // Żeńskie formy nazwisk zakończonych na -ski/-cki
+            if (first.endsWith("a") && (last.endsWith("ski") || last.endsWith("cki"))) {
+                last = last.substring(0, last.length() - 1) + "a";
+            }
+            String username = i < combinations ? first + " " + last : first + " " + last + " " + (i / combinations);
+            String email = "gen" + spec.getSeed() + "." + i + "@datagen.example.com";
+            String avatar = "https://randomuser.me/api/portraits/" + (first.endsWith("a") ? "women/" : "men/") + (i % 99) + ".jpg";
+            batch.add(new Object[] { username, email, avatar });
+            if (batch.size() == spec.getBatchSize()) {
+                jdbcTemplate.batchUpdate("INSERT INTO app_user (username, email, avatar_url) VALUES (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO app_user (username, email, avatar_url) VALUES (?, ?, ?)", batch);
+        }
+
+        return jdbcTemplate.queryForList("SELECT id FROM app_user WHERE id > ? ORDER BY id", Long.class, maxBefore)
+            .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long[] insertTasksWithHistory(DatasetSpec spec, long[] userIds, SplittableRandom random) {
+        double[] assignmentCdf = zipfCdf(userIds.length, spec.getAssignmentSkew());
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        long[] taskIds = new long[spec.getTasks()];
+        int written = 0;
+
+        while (written < spec.getTasks()) {
+            int chunk = Math.min(spec.getBatchSize(), spec.getTasks() - written);
+            Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM task", Long.class);
+
+            // Każde zadanie z paczki ma własny generator - historia nie zależy od rozmiaru paczki
+            GeneratedTask[] generated = new GeneratedTask[chunk];
+            List<Object[]> taskRows = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                GeneratedTask task = generateTask(spec, written + i, userIds, assignmentCdf, random.split(), today, now);
+                generated[i] = task;
+                taskRows.add(new Object[] { task.title, task.description, Date.valueOf(task.dueDate), task.status.name(),
+                                            task.priority.name(), task.userId });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO task (title, description, due_date, status, priority, user_id) VALUES (?, ?, ?, ?, ?, ?)",
+                taskRows);
+
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM task WHERE id > ? ORDER BY id", Long.class, maxBefore);
+            List<Object[]> changeRows = new ArrayList<>(chunk * (spec.getMaxChangesPerTask() + 1));
+            List<Object[]> sequenceRows = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                long taskId = ids.get(i);
+                taskIds[written + i] = taskId;
+                // Nowe zadanie - numery wpisów od 1 w kolejności historii, licznik na ostatnim numerze
+                long seq = 0;
+                for (Object[] change : generated[i].history) {
+                    Object[] row = Arrays.copyOf(change, change.length + 3);
+                    System.arraycopy(change, 0, row, 2, change.length);
+                    row[0] = taskId;
+                    row[1] = ++seq;
+                    // Przypisanie nie zmienia się w wygenerowanej historii - ta sama osoba dla każdego wpisu
+                    row[row.length - 1] = generated[i].userId;
+                    changeRows.add(row);
+                }
+                sequenceRows.add(new Object[] { taskId, seq });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO change_log_entry (task_id, seq, field_name, old_value, new_value, operation_type, " +
+                "changed_by_user_id, changed_at, description, assignee_user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                changeRows);
+            jdbcTemplate.batchUpdate("INSERT INTO task_change_seq (task_id, last_seq) VALUES (?, ?)", sequenceRows);
+
+            written += chunk;
+            if (written % (spec.getBatchSize() * 50) == 0 || written == spec.getTasks()) {
+                logger.info("Generated {}/{} tasks", written, spec.getTasks());
+            }
+        }
+        return taskIds;
+    }
+
+    private GeneratedTask generateTask(DatasetSpec spec, int index, long[] userIds, double[] assignmentCdf,
+                                       SplittableRandom random, LocalDate today, LocalDateTime now) {
+        GeneratedTask task = new GeneratedTask();
+        task.title = VERBS[random.nextInt(VERBS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)] + " #" + index;
+        task.description = random.nextInt(10) < 7 ? DETAILS[random.nextInt(DETAILS.length)] : null;
+
+        int statusRoll = random.nextInt(100);
+        task.status = statusRoll < 40 ? TaskStatus.TODO : statusRoll < 65 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE;
+        int priorityRoll = random.nextInt(100);
+        task.priority = priorityRoll < 30 ? TaskPriority.LOW : priorityRoll < 80 ? TaskPriority.MEDIUM : TaskPriority.HIGH;
+        task.dueDate = today.plusDays(random.nextInt(-60, 120));
+        task.userId = random.nextDouble() < spec.getUnassignedRatio() || userIds.length == 0
+            ? null : userIds[sampleIndex(assignmentCdf, random.nextDouble())];
+
+        // Historia: utworzenie, ewentualne przypisanie, przejścia statusu zgodne ze statusem końcowym, drobne edycje
+        LocalDateTime at = now.minusMinutes(random.nextLong(60L, 180L * 24 * 60));
+        Long actor = task.userId;
+        task.history.add(change("task", null, "created", ChangeLogOperationType.CREATE, actor, at, "Task created: " + task.title));
+
+        if (task.userId != null) {
+            at = advance(at, random, now);
+            task.history.add(change("assignedTo", "unassigned", "user#" + task.userId, ChangeLogOperationType.ASSIGN, actor, at, null));
+        }
+
+        int extraEdits = spec.getMaxChangesPerTask() > 0 ? random.nextInt(spec.getMaxChangesPerTask()) : 0;
+        TaskPriority priority = task.priority;
+        for (int i = 0; i < extraEdits && task.history.size() < spec.getMaxChangesPerTask(); i++) {
+            at = advance(at, random, now);
+            TaskPriority next = TaskPriority.values()[random.nextInt(TaskPriority.values().length)];
+            if (next != priority) {
+                task.history.add(change("priority", priority.getDisplayName(), next.getDisplayName(),
+                                        ChangeLogOperationType.PRIORITY_CHANGE, actor, at, null));
+                priority = next;
+            }
+        }
+        task.priority = priority;
+
+        if (task.status != TaskStatus.TODO) {
+            at = advance(at, random, now);
+            task.history.add(change("status", TaskStatus.TODO.getDisplayName(), TaskStatus.IN_PROGRESS.getDisplayName(),
+                                    ChangeLogOperationType.STATUS_CHANGE, actor, at, null));
+        }
+        if (task.status == TaskStatus.DONE) {
+            at = advance(at, random, now);
+            task.history.add(change("status", TaskStatus.IN_PROGRESS.getDisplayName(), TaskStatus.DONE.getDisplayName(),
+                                    ChangeLogOperationType.STATUS_CHANGE, actor, at, null));
+        }
+        return task;
+    }
+
+    /**
+     * Przesuwa czas o losowy odstęp (rozkład wykładniczy, średnio ok. 2 dni), nie dalej niż "teraz"
+     */
+    private LocalDateTime advance(LocalDateTime at, SplittableRandom random, LocalDateTime now) {
+        long minutes = 1 + (long) (-Math.log(1 - random.nextDouble()) * 2 * 24 * 60);
+        LocalDateTime next = at.plusMinutes(minutes);
+        return next.isAfter(now) ? now : next;
+    }
+
+    private Object[] change(String field, String oldValue, String newValue, ChangeLogOperationType type,
+                            Long actor, LocalDateTime at, String description) {
+        return new Object[] { field, oldValue, newValue, type.name(), actor, Timestamp.valueOf(at), description };
+    }
+
+    private long changeLogCount(long[] taskIds) {
+        if (taskIds.length == 0) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM change_log_entry WHERE task_id BETWEEN ? AND ?", Long.class,
+            taskIds[0], taskIds[taskIds.length - 1]);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Dystrybuanta rozkładu Zipfa dla n elementów
+     */
+    static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    static int sampleIndex(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        int result = index >= 0 ? index : -index - 1;
+        return Math.min(result, cdf.length - 1);
+    }
+
+    /**
+     * Wiersz zadania przed zapisem (ID nadawane przez bazę)
+     */
+    private static class GeneratedTask {
+        String title;
+        String description;
+        TaskStatus status;
+        TaskPriority priority;
+        LocalDate dueDate;
+        Long userId;
+        final List<Object[]> history = new ArrayList<>();
+    }
+}
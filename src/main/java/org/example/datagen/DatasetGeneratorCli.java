@@ -0,0 +1,22 @@
+package org.example.datagen;
+
+import org.example.Main;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Wejście z linii poleceń: generuje dane do bazy wskazanej przez aktywny profil i kończy działanie.
+ * Przykład: ./gradlew generateDataset --args='--spring.profiles.active=prod --datagen.tasks=1000000'
+ */
+public class DatasetGeneratorCli {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+            .web(WebApplicationType.NONE)
+            .profiles("datagen")
+            .run(args);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.datagen;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Uruchamia generator danych przy starcie aplikacji w profilu "datagen".
+ * Przykład: --spring.profiles.active=dev,datagen --datagen.users=5000 --datagen.tasks=1000000
+ */
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${datagen.users:1000}")
+    private int users;
+
+    @Value("${datagen.tasks:100000}")
+    private int tasks;
+
+    @Value("${datagen.max-changes-per-task:8}")
+    private int maxChangesPerTask;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${datagen.assignment-skew:1.1}")
+    private double assignmentSkew;
+
+    @Override
+    public void run(String... args) {
+        DatasetSpec spec = new DatasetSpec(users, tasks, maxChangesPerTask, seed);
+        spec.setBatchSize(batchSize);
+        spec.setAssignmentSkew(assignmentSkew);
+        new DatasetGenerator(jdbcTemplate).generate(spec);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.datagen;
+
+/**
+ * Parametry generowanego zbioru danych.
+ * Te same parametry i to samo ziarno zawsze dają identyczny zbiór danych.
+ */
+public class DatasetSpec {
+
+    private int users = 1_000;
+    private int tasks = 100_000;
+    private int maxChangesPerTask = 8;
+    private long seed = 42L;
+    private int batchSize = 1_000;
+
+    /**
+     * Wykładnik rozkładu Zipfa przy przypisywaniu zadań - kilku użytkowników dostaje większość pracy
+     */
+    private double assignmentSkew = 1.1;
+
+    /**
+     * Odsetek zadań bez przypisanego użytkownika
+     */
+    private double unassignedRatio = 0.08;
+
+    public DatasetSpec() {}
+
+    public DatasetSpec(int users, int tasks, int maxChangesPerTask, long seed) {
+        this.users = users;
+        this.tasks = tasks;
+        this.maxChangesPerTask = maxChangesPerTask;
+        this.seed = seed;
+    }
+
+    // Gettery i settery
+    public int getUsers() { return users; }
+    public void setUsers(int users) { this.users = users; }
+
+    public int getTasks() { return tasks; }
+    public void setTasks(int tasks) { this.tasks = tasks; }
+
+    public int getMaxChangesPerTask() { return maxChangesPerTask; }
+    public void setMaxChangesPerTask(int maxChangesPerTask) { this.maxChangesPerTask = maxChangesPerTask; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public double getAssignmentSkew() { return assignmentSkew; }
+    public void setAssignmentSkew(double assignmentSkew) { this.assignmentSkew = assignmentSkew; }
+
+    public double getUnassignedRatio() { return unassignedRatio; }
+    public void setUnassignedRatio(double unassignedRatio) { this.unassignedRatio = unassignedRatio; }
+
+    @Override
+    public String toString() {
+        return String.format("DatasetSpec{users=%d, tasks=%d, maxChangesPerTask=%d, seed=%d, skew=%.2f}",
+                             users, tasks, maxChangesPerTask, seed, assignmentSkew);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.datagen;
+
+/**
+ * Podsumowanie wygenerowanego zbioru danych - zakresy ID przydają się do sterownika obciążenia.
+ */
+public class DatasetSummary {
+
+    private final int users;
+    private final int tasks;
+    private final long changeLogEntries;
+    private final long firstUserId;
+    private final long lastUserId;
+    private final long firstTaskId;
+    private final long lastTaskId;
+    private final long durationMs;
+
+    public DatasetSummary(long[] userIds, long[] taskIds, long changeLogEntries, long durationMs) {
+        this.users = userIds.length;
+        this.tasks = taskIds.length;
+        this.changeLogEntries = changeLogEntries;
+        this.firstUserId = userIds.length > 0 ? userIds[0] : 0;
+        this.lastUserId = userIds.length > 0 ? userIds[userIds.length - 1] : 0;
+        this.firstTaskId = taskIds.length > 0 ? taskIds[0] : 0;
+        this.lastTaskId = taskIds.length > 0 ? taskIds[taskIds.length - 1] : 0;
+        this.durationMs = durationMs;
+    }
+
+    // Gettery
+    public int getUsers() { return users; }
+    public int getTasks() { return tasks; }
+    public long getChangeLogEntries() { return changeLogEntries; }
+    public long getFirstUserId() { return firstUserId; }
+    public long getLastUserId() { return lastUserId; }
+    public long getFirstTaskId() { return firstTaskId; }
+    public long getLastTaskId() { return lastTaskId; }
+    public long getDurationMs() { return durationMs; }
+
+    @Override
+    public String toString() {
+        return String.format("DatasetSummary{users=%d (ids %d-%d), tasks=%d (ids %d-%d), changeLogEntries=%d, durationMs=%d}",
+                             users, firstUserId, lastUserId, tasks, firstTaskId, lastTaskId, changeLogEntries, durationMs);
+    }
+}
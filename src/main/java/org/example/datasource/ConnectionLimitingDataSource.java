@@ -0,0 +1,117 @@
+package org.example.datasource;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opakowanie DataSource ograniczające liczbę jednocześnie wypożyczonych połączeń semaforem.
+ *
+ * Przy wątkach wirtualnych liczba równoległych żądań nie jest ograniczona pulą Tomcata,
+ * więc tysiące wątków trafiałyby naraz do puli Hikari. Semafor (sprawiedliwy, FIFO)
+ * wpuszcza do puli najwyżej tyle wątków, ile jest połączeń - pozostałe parkują tanio
+ * na semaforze. Zezwolenie zwalniane jest przy zamknięciu połączenia (dokładnie raz).
+ */
+public final class ConnectionLimitingDataSource {
+
+    private ConnectionLimitingDataSource() {}
+
+    public static DataSource wrap(DataSource target, Semaphore permits, long acquireTimeoutMillis) {
+        Class<?>[] interfaces = Arrays.stream(ClassUtils.getAllInterfaces(target))
+                .filter(type -> Modifier.isPublic(type.getModifiers()))
+                .toArray(Class<?>[]::new);
+        return (DataSource) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(), interfaces,
+                new DataSourceHandler(target, permits, acquireTimeoutMillis));
+    }
+
+    public static boolean isWrapped(Object dataSource) {
+        return Proxy.isProxyClass(dataSource.getClass())
+                && Proxy.getInvocationHandler(dataSource) instanceof DataSourceHandler;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Object identityMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    private record DataSourceHandler(DataSource target, Semaphore permits, long acquireTimeoutMillis)
+            implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            if (!method.getName().equals("getConnection")) {
+                return ConnectionLimitingDataSource.invoke(target, method, args);
+            }
+            acquire();
+            try {
+                Connection connection = (Connection) ConnectionLimitingDataSource.invoke(target, method, args);
+                return Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                        new Class<?>[]{Connection.class}, new ConnectionHandler(connection, permits, new AtomicBoolean()));
+            } catch (Throwable e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLTransientConnectionException {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Connection limit reached - no permit within "
+                            + acquireTimeoutMillis + " ms (" + permits.getQueueLength() + " waiting)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+            }
+        }
+    }
+
+    private record ConnectionHandler(Connection target, Semaphore permits, AtomicBoolean released)
+            implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            if (method.getName().equals("close")) {
+                try {
+                    return ConnectionLimitingDataSource.invoke(target, method, args);
+                } finally {
+                    // Ponowne close() jest dozwolone przez JDBC - zezwolenie oddajemy tylko raz
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+            }
+            return ConnectionLimitingDataSource.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liczniki zapytań SQL wykonanych w ramach jednego żądania HTTP.
+ * Trzymane w ThreadLocal - ustawiane przez {@link QueryBudgetFilter},
+ * aktualizowane przez {@link QueryTrackingDataSource}.
+ */
+public final class QueryBudget {
+
+    private static final ThreadLocal<QueryBudget> CURRENT = new ThreadLocal<>();
+
+    // Limit różnych treści SQL liczonych w jednym żądaniu (wystarcza do wykrycia N+1)
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private int statements;
+    private long dbNanos;
+    private long rows;
+    private final Map<String, Integer> statementCounts = new LinkedHashMap<>();
+
+    private QueryBudget() {}
+
+    public static QueryBudget start() {
+        QueryBudget budget = new QueryBudget();
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * Budżet bieżącego wątku lub null poza żądaniem HTTP (schedulery, start aplikacji)
+     */
+    public static QueryBudget current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql, long nanos) {
+        statements++;
+        dbNanos += nanos;
+        if (sql != null && (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql))) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public double getDbTimeMs() {
+        return dbNanos / 1_000_000.0;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Różne treści SQL w kolejności pierwszego wykonania
+     */
+    public List<String> getDistinctStatements() {
+        return List.copyOf(statementCounts.keySet());
+    }
+
+    /**
+     * Najczęściej powtarzane zapytanie - typowy ślad problemu N+1
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Budżet zapytań SQL dla każdego żądania /api.
+ * - w dev dołącza nagłówki X-Query-Count, X-Query-Time-Ms, X-Query-Rows i Server-Timing
+ * - żądania przekraczające progi loguje jako WARN i zapisuje w {@link SlowQueryRegistry}
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    @Autowired
+    private SlowQueryRegistry slowQueryRegistry;
+
+    @Value("${diagnostics.queries.enabled:true}")
+    private boolean enabled;
+
+    @Value("${diagnostics.queries.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Value("${diagnostics.queries.max-statements:50}")
+    private int maxStatements;
+
+    @Value("${diagnostics.queries.max-db-time-ms:500}")
+    private long maxDbTimeMs;
+
+    @Value("${diagnostics.queries.max-rows:5000}")
+    private long maxRows;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith("/api/") || uri.startsWith("/api/diagnostics");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryBudget budget = QueryBudget.start();
+        // Nagłówki trzeba ustawić przed wysłaniem ciała - buforujemy odpowiedź (poza strumieniami SSE)
+        ContentCachingResponseWrapper wrapper = responseHeaders && !isEventStream(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            QueryBudget.clear();
+            if (wrapper != null) {
+                wrapper.setHeader("X-Query-Count", String.valueOf(budget.getStatements()));
+                wrapper.setHeader("X-Query-Time-Ms", String.format(Locale.ROOT, "%.2f", budget.getDbTimeMs()));
+                wrapper.setHeader("X-Query-Rows", String.valueOf(budget.getRows()));
+                wrapper.setHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.2f", budget.getDbTimeMs()));
+                wrapper.copyBodyToResponse();
+            }
+            checkThresholds(request, budget);
+        }
+    }
+
+    private void checkThresholds(HttpServletRequest request, QueryBudget budget) {
+        if (budget.getStatements() <= maxStatements && budget.getDbTimeMs() <= maxDbTimeMs && budget.getRows() <= maxRows) {
+            return;
+        }
+        String uri = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString() : request.getRequestURI();
+        slowQueryRegistry.recordOffendingRequest(request.getMethod(), uri, budget);
+
+        Map.Entry<String, Integer> repeated = budget.getMostRepeatedStatement();
+        logger.warn("Query budget exceeded: {} {} - statements={}, dbTimeMs={}, rows={}, mostRepeated={}x [{}]",
+                request.getMethod(), uri, budget.getStatements(), String.format(Locale.ROOT, "%.2f", budget.getDbTimeMs()),
+                budget.getRows(), repeated != null ? repeated.getValue() : 0, repeated != null ? repeated.getKey() : "");
+    }
+
+    private boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+}
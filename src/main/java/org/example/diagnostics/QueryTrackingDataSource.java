@@ -0,0 +1,167 @@
+package org.example.diagnostics;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Opakowanie DataSource w stylu datasource-proxy (dynamiczne proxy JDK).
+ * Dla każdego wykonanego zapytania mierzy czas i liczbę pobranych wierszy,
+ * zapisując je w {@link SlowQueryRegistry} oraz w budżecie bieżącego żądania ({@link QueryBudget}).
+ */
+public final class QueryTrackingDataSource {
+
+    private QueryTrackingDataSource() {}
+
+    public static DataSource wrap(DataSource target, SlowQueryRegistry registry) {
+        // Wszystkie publiczne interfejsy celu - zachowuje Closeable (zamykanie puli) i MXBeany Hikari
+        Class<?>[] interfaces = Arrays.stream(ClassUtils.getAllInterfaces(target))
+                .filter(type -> Modifier.isPublic(type.getModifiers()))
+                .toArray(Class<?>[]::new);
+        return (DataSource) Proxy.newProxyInstance(QueryTrackingDataSource.class.getClassLoader(), interfaces,
+                new DataSourceHandler(target, registry));
+    }
+
+    public static boolean isWrapped(Object dataSource) {
+        return Proxy.isProxyClass(dataSource.getClass())
+                && Proxy.getInvocationHandler(dataSource) instanceof DataSourceHandler;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * equals/hashCode na proxy - porównanie tożsamości obiektu proxy, nie celu
+     */
+    private static Object identityMethod(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    private record DataSourceHandler(DataSource target, SlowQueryRegistry registry) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            Object result = QueryTrackingDataSource.invoke(target, method, args);
+            if (result instanceof Connection connection) {
+                return Proxy.newProxyInstance(QueryTrackingDataSource.class.getClassLoader(),
+                        new Class<?>[]{Connection.class}, new ConnectionHandler(connection, registry));
+            }
+            return result;
+        }
+    }
+
+    private record ConnectionHandler(Connection target, SlowQueryRegistry registry) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            Object result = QueryTrackingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall - treść SQL znana z góry; createStatement - z execute(sql)
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(QueryTrackingDataSource.class.getClassLoader(),
+                        new Class<?>[]{type}, new StatementHandler(statement, sql, registry));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final SlowQueryRegistry registry;
+        private String sql;
+
+        StatementHandler(Statement target, String sql, SlowQueryRegistry registry) {
+            this.target = target;
+            this.sql = sql;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = QueryTrackingDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") || name.equals("getGeneratedKeys")
+                        ? wrapResultSet(result, registry.statsFor(sql)) : result;
+            }
+
+            if (args != null && args.length > 0 && args[0] instanceof String s) {
+                sql = s;
+            }
+            SlowQueryRegistry.StatementStats stats = registry.statsFor(sql);
+            long start = System.nanoTime();
+            try {
+                return wrapResultSet(QueryTrackingDataSource.invoke(target, method, args), stats);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                registry.recordExecution(stats, elapsed);
+                QueryBudget budget = QueryBudget.current();
+                if (budget != null) {
+                    budget.recordStatement(sql, elapsed);
+                }
+            }
+        }
+
+        private Object wrapResultSet(Object result, SlowQueryRegistry.StatementStats stats) {
+            if (result instanceof ResultSet resultSet) {
+                return Proxy.newProxyInstance(QueryTrackingDataSource.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, new ResultSetHandler(resultSet, stats, registry, QueryBudget.current()));
+            }
+            return result;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, SlowQueryRegistry.StatementStats stats,
+                                    SlowQueryRegistry registry, QueryBudget budget) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identityMethod(proxy, method, args);
+            }
+            Object result = QueryTrackingDataSource.invoke(target, method, args);
+            if (result == Boolean.TRUE && method.getName().equals("next")) {
+                registry.recordRow(stats);
+                if (budget != null) {
+                    budget.recordRow();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.diagnostics;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Globalne statystyki zapytań SQL od startu aplikacji (lub ostatniego resetu)
+ * oraz lista ostatnich żądań, które przekroczyły progi budżetu zapytań.
+ */
+@Component
+public class SlowQueryRegistry {
+
+    // Ograniczenie pamięci - zapytania spoza limitu liczą się tylko do sum globalnych
+    static final int MAX_TRACKED_STATEMENTS = 1000;
+    static final int MAX_OFFENDING_REQUESTS = 50;
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final LongAdder totalStatements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final Deque<Map<String, Object>> offendingRequests = new ArrayDeque<>();
+
+    /**
+     * Statystyki dla danej treści SQL (null gdy przekroczono limit śledzonych zapytań)
+     */
+    StatementStats statsFor(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String key = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+        StatementStats stats = statements.get(key);
+        if (stats == null && statements.size() < MAX_TRACKED_STATEMENTS) {
+            stats = statements.computeIfAbsent(key, StatementStats::new);
+        }
+        return stats;
+    }
+
+    void recordExecution(StatementStats stats, long nanos) {
+        totalStatements.increment();
+        totalNanos.add(nanos);
+        if (stats != null) {
+            stats.record(nanos);
+        }
+    }
+
+    void recordRow(StatementStats stats) {
+        totalRows.increment();
+        if (stats != null) {
+            stats.rows.increment();
+        }
+    }
+
+    /**
+     * Zapisuje żądanie przekraczające progi (najstarsze są usuwane)
+     */
+    public void recordOffendingRequest(String method, String uri, QueryBudget budget) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("at", LocalDateTime.now());
+        report.put("method", method);
+        report.put("uri", uri);
+        report.put("statements", budget.getStatements());
+        report.put("dbTimeMs", round(budget.getDbTimeMs()));
+        report.put("rows", budget.getRows());
+        Map.Entry<String, Integer> repeated = budget.getMostRepeatedStatement();
+        if (repeated != null) {
+            report.put("mostRepeatedStatement", repeated.getKey());
+            report.put("mostRepeatedCount", repeated.getValue());
+        }
+        synchronized (offendingRequests) {
+            if (offendingRequests.size() == MAX_OFFENDING_REQUESTS) {
+                offendingRequests.removeLast();
+            }
+            offendingRequests.addFirst(report);
+        }
+    }
+
+    /**
+     * Top N zapytań posortowanych według: max, total, count lub rows
+     */
+    public List<Map<String, Object>> getTopStatements(int limit, String sortBy) {
+        Comparator<StatementStats> comparator = switch (sortBy) {
+            case "total" -> Comparator.comparingLong(s -> s.totalNanos.sum());
+            case "count" -> Comparator.comparingLong(s -> s.count.sum());
+            case "rows" -> Comparator.comparingLong(s -> s.rows.sum());
+            case "max" -> Comparator.comparingLong(s -> s.maxNanos.get());
+            default -> throw new IllegalArgumentException("Invalid sort: " + sortBy + ". Valid values: max, total, count, rows");
+        };
+        List<StatementStats> sorted = new ArrayList<>(statements.values());
+        sorted.sort(comparator.reversed());
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (StatementStats stats : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            result.add(stats.toMap());
+        }
+        return result;
+    }
+
+    public List<Map<String, Object>> getOffendingRequests() {
+        synchronized (offendingRequests) {
+            return new ArrayList<>(offendingRequests);
+        }
+    }
+
+    public Map<String, Object> getTotals() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("statements", totalStatements.sum());
+        totals.put("dbTimeMs", round(totalNanos.sum() / 1_000_000.0));
+        totals.put("rows", totalRows.sum());
+        totals.put("distinctStatements", statements.size());
+        return totals;
+    }
+
+    public void reset() {
+        statements.clear();
+        totalStatements.reset();
+        totalNanos.reset();
+        totalRows.reset();
+        synchronized (offendingRequests) {
+            offendingRequests.clear();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Liczniki jednej treści SQL
+     */
+    static final class StatementStats {
+        final String sql;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("count", executions);
+            map.put("totalMs", round(total / 1_000_000.0));
+            map.put("avgMs", executions > 0 ? round(total / 1_000_000.0 / executions) : 0.0);
+            map.put("maxMs", round(maxNanos.get() / 1_000_000.0));
+            map.put("rows", rows.sum());
+            return map;
+        }
+    }
+}
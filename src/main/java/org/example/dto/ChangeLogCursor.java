@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Kursor stronicowania historii zmian: pozycja (changedAt, id) ostatniego wpisu poprzedniej strony.
+ * Dla klienta to nieprzezroczysty token Base64 (URL-safe).
+ */
+public record ChangeLogCursor(LocalDateTime changedAt, long id) {
+
+    public String encode() {
+        String raw = changedAt.toEpochSecond(ZoneOffset.UTC) + "." + changedAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Odczytuje token kursora; null lub pusty token oznacza pierwszą stronę
+     */
+    public static ChangeLogCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            long seconds = Long.parseLong(raw.substring(0, dot));
+            int nanos = Integer.parseInt(raw.substring(dot + 1, colon));
+            long id = Long.parseLong(raw.substring(colon + 1));
+            return new ChangeLogCursor(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
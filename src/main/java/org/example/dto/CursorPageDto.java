@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO strony wyników stronicowanych kursorem (bez liczenia wszystkich wyników).
+ * nextCursor przekazuje się jako parametr cursor kolejnego żądania; null oznacza ostatnią stronę.
+ */
+public class CursorPageDto<T> {
+
+    private List<T> items = new ArrayList<>();
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorPageDto() {}
+
+    public CursorPageDto(List<T> items, int size, boolean hasNext, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Gettery i settery
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
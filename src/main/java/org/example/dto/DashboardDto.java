@@ -15,6 +15,7 @@ public class DashboardDto {
     private Map<String, Object> progressTracking;
     private Map<String, Object> taskDistribution;
     private Map<String, Double> performanceMetrics;
+    private Map<String, Object> cycleMetrics;
     private LocalDateTime generatedAt;
 
     public DashboardDto() {
@@ -40,6 +41,9 @@ public class DashboardDto {
     public Map<String, Double> getPerformanceMetrics() { return performanceMetrics; }
     public void setPerformanceMetrics(Map<String, Double> performanceMetrics) { this.performanceMetrics = performanceMetrics; }
 
+    public Map<String, Object> getCycleMetrics() { return cycleMetrics; }
+    public void setCycleMetrics(Map<String, Object> cycleMetrics) { this.cycleMetrics = cycleMetrics; }
+
     public LocalDateTime getGeneratedAt() { return generatedAt; }
     public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
 } 
\ No newline at end of file
@@ -0,0 +1,65 @@
+package org.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO strony wyników wyszukiwania pełnotekstowego (wyniki w kolejności rankingu).
+ */
+public class SearchPageDto<T> {
+
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private double tookMs;
+    private List<Hit<T>> results = new ArrayList<>();
+
+    public SearchPageDto() {}
+
+    public SearchPageDto(String query, int page, int size) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+    }
+
+    // Gettery i settery
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalHits() { return totalHits; }
+    public void setTotalHits(long totalHits) { this.totalHits = totalHits; }
+
+    public double getTookMs() { return tookMs; }
+    public void setTookMs(double tookMs) { this.tookMs = tookMs; }
+
+    public List<Hit<T>> getResults() { return results; }
+    public void setResults(List<Hit<T>> results) { this.results = results; }
+
+    /**
+     * Pojedynczy wynik z oceną trafności
+     */
+    public static class Hit<T> {
+        private T item;
+        private double score;
+
+        public Hit() {}
+
+        public Hit(T item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+
+        public T getItem() { return item; }
+        public void setItem(T item) { this.item = item; }
+
+        public double getScore() { return score; }
+        public void setScore(double score) { this.score = score; }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Kursor stronicowania historii jednego zadania: numer kolejny (seq) ostatniego wpisu poprzedniej strony.
+ * Dla klienta to nieprzezroczysty token Base64 (URL-safe), tak jak ChangeLogCursor.
+ */
+public record TaskHistoryCursor(long seq) {
+
+    private static final String PREFIX = "seq:";
+
+    public String encode() {
+        String raw = PREFIX + seq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Odczytuje token kursora; null lub pusty token oznacza pierwszą stronę
+     */
+    public static TaskHistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            long seq = Long.parseLong(raw.substring(PREFIX.length()));
+            if (seq < 1) {
+                throw new IllegalArgumentException();
+            }
+            return new TaskHistoryCursor(seq);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.dto;
+
+/**
+ * DTO podpowiedzi użytkownika dla pola wyboru osoby (typeahead).
+ */
+public class UserSuggestionDto {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String avatarUrl;
+    private double score;
+
+    public UserSuggestionDto() {}
+
+    public UserSuggestionDto(Long id, String username, String email, String avatarUrl) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.avatarUrl = avatarUrl;
+    }
+
+    // Gettery i settery
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getAvatarUrl() { return avatarUrl; }
+    public void setAvatarUrl(String avatarUrl) { this.avatarUrl = avatarUrl; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,78 @@
+package org.example.forecast;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Niezmienny model przepustowości zespołu zbudowany z historii zmian:
+ * rozkład czasu realizacji (CREATE -> DONE) i dzienna liczba zakończeń w oknie historii.
+ */
+public final class ForecastModel {
+
+    private final long completedTasks;
+    private final double meanCycleTimeDays;
+    private final double cycleTimeStdDevDays;
+    private final double minCycleTimeDays;
+    private final double maxCycleTimeDays;
+    private final double[] sortedCycleTimeSample;
+    private final long[] dailyThroughput;
+    private final LocalDate historyFrom;
+    private final LocalDate historyTo;
+    private final LocalDateTime builtAt;
+    private final long buildTimeMs;
+
+    public ForecastModel(RunningStats cycleTime, ReservoirSample cycleTimeSample, long[] dailyThroughput,
+                         LocalDate historyFrom, LocalDate historyTo, LocalDateTime builtAt, long buildTimeMs) {
+        this.completedTasks = cycleTime.getCount();
+        this.meanCycleTimeDays = cycleTime.getMean();
+        this.cycleTimeStdDevDays = cycleTime.getStandardDeviation();
+        this.minCycleTimeDays = cycleTime.getMin();
+        this.maxCycleTimeDays = cycleTime.getMax();
+        this.sortedCycleTimeSample = cycleTimeSample.sortedValues();
+        this.dailyThroughput = dailyThroughput.clone();
+        this.historyFrom = historyFrom;
+        this.historyTo = historyTo;
+        this.builtAt = builtAt;
+        this.buildTimeMs = buildTimeMs;
+    }
+
+    public long getCompletedTasks() { return completedTasks; }
+    public double getMeanCycleTimeDays() { return meanCycleTimeDays; }
+    public double getCycleTimeStdDevDays() { return cycleTimeStdDevDays; }
+    public double getMinCycleTimeDays() { return minCycleTimeDays; }
+    public double getMaxCycleTimeDays() { return maxCycleTimeDays; }
+    public LocalDate getHistoryFrom() { return historyFrom; }
+    public LocalDate getHistoryTo() { return historyTo; }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+    public long getBuildTimeMs() { return buildTimeMs; }
+
+    /**
+     * Percentyl czasu realizacji w dniach (z próbki rezerwuarowej)
+     */
+    public double cycleTimePercentile(double percentile) {
+        return ReservoirSample.percentile(sortedCycleTimeSample, percentile);
+    }
+
+    /**
+     * Dzienna liczba zakończeń w oknie historii (kopia - model pozostaje niezmienny)
+     */
+    public long[] getDailyThroughput() {
+        return dailyThroughput.clone();
+    }
+
+    public int getHistoryDays() {
+        return dailyThroughput.length;
+    }
+
+    public double getMeanDailyThroughput() {
+        return Arrays.stream(dailyThroughput).average().orElse(0.0);
+    }
+
+    /**
+     * Liczba dni z co najmniej jednym zakończeniem - miara wiarygodności prognozy
+     */
+    public int getActiveDays() {
+        return (int) Arrays.stream(dailyThroughput).filter(count -> count > 0).count();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.forecast;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prognoza Monte Carlo: każda symulacja losuje (ze zwracaniem) dzienną przepustowość z historii
+ * aż do wyczerpania pozostałych zadań. Symulacje dzielone są na podzadania fork/join;
+ * każde podzadanie ma własny, wydzielony generator - wynik zależy tylko od ziarna.
+ */
+public class MonteCarloForecaster {
+
+    /**
+     * Liczba symulacji wykonywanych sekwencyjnie w jednym podzadaniu
+     */
+    private static final int TRIALS_PER_LEAF = 1_000;
+
+    private final ForkJoinPool pool;
+    private final int maxDays;
+
+    /**
+     * @param pool pula fork/join (np. ForkJoinPool.commonPool())
+     * @param maxDays limit długości pojedynczej symulacji - symulacja, która go osiąga, zwraca maxDays
+     */
+    public MonteCarloForecaster(ForkJoinPool pool, int maxDays) {
+        this.pool = pool;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Wykonuje symulacje i zwraca posortowane liczby dni do ukończenia pozostałych zadań
+     */
+    public Result forecast(long[] dailyThroughput, long remainingTasks, int trials, long seed) {
+        if (trials < 1) {
+            throw new IllegalArgumentException("Number of trials must be positive");
+        }
+        if (dailyThroughput.length == 0 || Arrays.stream(dailyThroughput).allMatch(count -> count <= 0)) {
+            throw new IllegalStateException("No completions in throughput history - cannot forecast");
+        }
+        int[] days = new int[trials];
+        if (remainingTasks > 0) {
+            pool.invoke(new SimulationTask(dailyThroughput, remainingTasks, days, 0, trials, new SplittableRandom(seed)));
+        }
+        Arrays.sort(days);
+        return new Result(days, maxDays);
+    }
+
+    private int simulate(long[] throughput, long remainingTasks, SplittableRandom random) {
+        long remaining = remainingTasks;
+        int day = 0;
+        while (remaining > 0 && day < maxDays) {
+            remaining -= throughput[random.nextInt(throughput.length)];
+            day++;
+        }
+        return day;
+    }
+
+    private class SimulationTask extends RecursiveAction {
+
+        private final long[] throughput;
+        private final long remainingTasks;
+        private final int[] days;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        SimulationTask(long[] throughput, long remainingTasks, int[] days, int from, int to, SplittableRandom random) {
+            this.throughput = throughput;
+            this.remainingTasks = remainingTasks;
+            this.days = days;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TRIALS_PER_LEAF) {
+                for (int i = from; i < to; i++) {
+                    days[i] = simulate(throughput, remainingTasks, random);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            // split() przed fork - podział zależy od zakresu, nie od kolejności wykonania wątków
+            SimulationTask left = new SimulationTask(throughput, remainingTasks, days, from, mid, random.split());
+            SimulationTask right = new SimulationTask(throughput, remainingTasks, days, mid, to, random.split());
+            invokeAll(left, right);
+        }
+    }
+
+    /**
+     * Posortowane wyniki symulacji
+     */
+    public static final class Result {
+
+        private final int[] sortedDays;
+        private final int maxDays;
+
+        Result(int[] sortedDays, int maxDays) {
+            this.sortedDays = sortedDays;
+            this.maxDays = maxDays;
+        }
+
+        /**
+         * Liczba dni, w której kończy się podany odsetek symulacji
+         */
+        public int percentile(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedDays.length);
+            return sortedDays[Math.min(sortedDays.length, Math.max(1, rank)) - 1];
+        }
+
+        public int getTrials() {
+            return sortedDays.length;
+        }
+
+        /**
+         * Odsetek symulacji, które nie skończyły się przed limitem dni
+         */
+        public double getCappedRatio() {
+            int capped = 0;
+            for (int i = sortedDays.length - 1; i >= 0 && sortedDays[i] >= maxDays; i--) {
+                capped++;
+            }
+            return (double) capped / sortedDays.length;
+        }
+    }
+}
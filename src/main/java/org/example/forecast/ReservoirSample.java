@@ -0,0 +1,59 @@
+package org.example.forecast;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Próbka o stałym rozmiarze z dowolnie długiego strumienia (algorytm R).
+ * Percentyle liczone z próbki - pamięć nie rośnie z liczbą zadań.
+ */
+public class ReservoirSample {
+
+    private final double[] values;
+    private final SplittableRandom random;
+    private long seen;
+
+    public ReservoirSample(int capacity, long seed) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Reservoir capacity must be positive");
+        }
+        this.values = new double[capacity];
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void add(double value) {
+        if (seen < values.length) {
+            values[(int) seen] = value;
+        } else {
+            long slot = random.nextLong(seen + 1);
+            if (slot < values.length) {
+                values[(int) slot] = value;
+            }
+        }
+        seen++;
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    /**
+     * Posortowana kopia próbki
+     */
+    public double[] sortedValues() {
+        double[] copy = Arrays.copyOf(values, (int) Math.min(seen, values.length));
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Percentyl (metoda najbliższej pozycji) z posortowanych wartości; NaN dla pustej tablicy
+     */
+    public static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.forecast;
+
+/**
+ * Statystyki strumieniowe w jednym przebiegu (algorytm Welforda): liczność, średnia, wariancja, min, max.
+ * Stabilne numerycznie również dla dużych wartości - bez sumy kwadratów.
+ */
+public class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * Wariancja z próby (n - 1)
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.forecast;
+
+import org.example.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Stan jednego zadania podczas przebiegu po historii posortowanej (task_id, changed_at).
+ * Pamięć stała na zadanie - kilka pól zamiast listy wpisów; reset() przygotowuje obiekt dla kolejnego zadania.
+ * Czas w statusie Done nie jest naliczany (status końcowy), czas otwartego statusu liczony jest do chwili obliczeń.
+ * Wpis CREATE nie zawiera statusu - status początkowy to "from" pierwszej zmiany statusu, a bez zmian bieżący
+ * status zadania (zadanie utworzone od razu jako In Progress / Done liczy cycle / lead time od utworzenia).
+ */
+public class TaskTimelineAccumulator {
+
+    private final LocalDateTime now;
+
+    private long taskId;
+    private TaskStatus taskStatus;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime firstInProgressAt;
+    private LocalDateTime firstDoneAt;
+    private TaskStatus currentStatus;
+    private LocalDateTime statusSince;
+    private long todoMinutes;
+    private long inProgressMinutes;
+    private int statusChanges;
+    private int reopenCount;
+
+    /**
+     * @param now chwila obliczeń - koniec bieżącego, otwartego statusu
+     */
+    public TaskTimelineAccumulator(LocalDateTime now) {
+        this.now = now;
+    }
+
+    /**
+     * @param taskStatus bieżący status zadania - status początkowy, jeśli oś czasu nie zawiera zmian statusu
+     */
+    public void reset(long taskId, TaskStatus taskStatus) {
+        this.taskId = taskId;
+        this.taskStatus = taskStatus;
+        this.active = true;
+        this.createdAt = null;
+        this.firstInProgressAt = null;
+        this.firstDoneAt = null;
+        this.currentStatus = null;
+        this.statusSince = null;
+        this.todoMinutes = 0;
+        this.inProgressMinutes = 0;
+        this.statusChanges = 0;
+        this.reopenCount = 0;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public void onCreate(LocalDateTime at) {
+        if (createdAt == null) {
+            createdAt = at;
+        }
+        onEvent(at);
+    }
+
+    /**
+     * Dowolny wpis historii - pierwszy wyznacza początek osi czasu, jeśli brak wpisu CREATE
+     */
+    public void onEvent(LocalDateTime at) {
+        if (statusSince == null) {
+            statusSince = at;
+        }
+    }
+
+    public void onStatusChange(TaskStatus from, TaskStatus to, LocalDateTime at) {
+        onEvent(at);
+        if (currentStatus == null) {
+            // Status początkowy znany dopiero z pierwszej zmiany - odcinek od utworzenia należy do "from"
+            startIn(from != null ? from : TaskStatus.TODO);
+        }
+        accrue(currentStatus, statusSince, at);
+
+        if (to == TaskStatus.IN_PROGRESS && firstInProgressAt == null) {
+            firstInProgressAt = at;
+        }
+        if (to == TaskStatus.DONE && firstDoneAt == null) {
+            firstDoneAt = at;
+        }
+        if (currentStatus == TaskStatus.DONE && to != TaskStatus.DONE) {
+            reopenCount++;
+        }
+        currentStatus = to;
+        statusSince = at;
+        statusChanges++;
+    }
+
+    /**
+     * Zamyka oś czasu zadania i zwraca wynik
+     */
+    public Result finish() {
+        if (currentStatus == null) {
+            // Brak zmian statusu - zadanie wciąż w statusie, z którym zostało utworzone
+            startIn(taskStatus != null ? taskStatus : TaskStatus.TODO);
+        }
+        accrue(currentStatus, statusSince, now);
+        active = false;
+
+        Long leadTime = createdAt != null && firstDoneAt != null ? minutesBetween(createdAt, firstDoneAt) : null;
+        Long cycleTime = firstInProgressAt != null && firstDoneAt != null && !firstDoneAt.isBefore(firstInProgressAt)
+                ? minutesBetween(firstInProgressAt, firstDoneAt) : null;
+        return new Result(taskId, createdAt, firstDoneAt, currentStatus, leadTime, cycleTime,
+                todoMinutes, inProgressMinutes, statusChanges, reopenCount);
+    }
+
+    /**
+     * Status od początku osi czasu; zadanie utworzone jako In Progress / Done rozpoczyna cycle / kończy lead time
+     */
+    private void startIn(TaskStatus initialStatus) {
+        currentStatus = initialStatus;
+        if (initialStatus == TaskStatus.IN_PROGRESS) {
+            firstInProgressAt = statusSince;
+        } else if (initialStatus == TaskStatus.DONE) {
+            firstDoneAt = statusSince;
+        }
+    }
+
+    private void accrue(TaskStatus status, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return;
+        }
+        long minutes = minutesBetween(from, to);
+        if (status == TaskStatus.TODO) {
+            todoMinutes += minutes;
+        } else if (status == TaskStatus.IN_PROGRESS) {
+            inProgressMinutes += minutes;
+        }
+    }
+
+    private static long minutesBetween(LocalDateTime from, LocalDateTime to) {
+        return Math.max(0, Duration.between(from, to).toMinutes());
+    }
+
+    /**
+     * Metryki zadania; leadTimeMinutes / cycleTimeMinutes są null, dopóki zadanie nie trafiło do Done
+     */
+    public record Result(long taskId, LocalDateTime createdAt, LocalDateTime firstDoneAt, TaskStatus currentStatus,
+                         Long leadTimeMinutes, Long cycleTimeMinutes, long todoMinutes, long inProgressMinutes,
+                         int statusChanges, int reopenCount) {
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Ranking użytkowników w przesuwanym oknie N dni.
+ *
+ * Każdy użytkownik ma bufor cykliczny dziennych liczników (slot = dzień % N) i sumę okna.
+ * Użytkownicy są pogrupowani w kubełki według sumy (TreeMap malejąco), więc:
+ * - zapis to przeniesienie użytkownika do sąsiedniego kubełka - O(log n),
+ * - przesunięcie okna odejmuje tylko liczniki dnia, który wypada z okna (indeks użytkowników per slot),
+ * - odczyt top-k przechodzi kolejne kubełki - O(k + remisy); kubełek to jedna pozycja rankingu gęstego.
+ */
+public class SlidingWindowLeaderboard {
+
+    private final int windowDays;
+    private final Map<Long, UserWindow> users = new HashMap<>();
+    private final NavigableMap<Integer, Set<Long>> buckets = new TreeMap<>(Collections.reverseOrder());
+    private final List<Set<Long>> usersBySlot;
+    private long currentDay = Long.MIN_VALUE;
+
+    public SlidingWindowLeaderboard(int windowDays) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("windowDays must be positive");
+        }
+        this.windowDays = windowDays;
+        this.usersBySlot = new ArrayList<>(windowDays);
+        for (int i = 0; i < windowDays; i++) {
+            usersBySlot.add(new HashSet<>());
+        }
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    /**
+     * Dodaje zdarzenia użytkownika z dnia epochDay. Zdarzenia starsze niż okno są pomijane.
+     */
+    public synchronized void record(long userId, long epochDay, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (epochDay > currentDay) {
+            advanceTo(epochDay);
+        }
+        if (epochDay <= currentDay - windowDays) {
+            return;
+        }
+        int slot = slot(epochDay);
+        UserWindow window = users.computeIfAbsent(userId, id -> new UserWindow(windowDays));
+        int before = window.total;
+        window.daily[slot] += count;
+        window.total += count;
+        usersBySlot.get(slot).add(userId);
+        move(userId, before, window.total);
+    }
+
+    /**
+     * Przesuwa okno tak, aby kończyło się na dniu epochDay (dzień bieżący), zerując dni spoza okna
+     */
+    public synchronized void advanceTo(long epochDay) {
+        if (epochDay <= currentDay) {
+            return;
+        }
+        if (currentDay == Long.MIN_VALUE || epochDay - currentDay >= windowDays) {
+            clear();
+        } else {
+            for (long day = currentDay + 1; day <= epochDay; day++) {
+                expireSlot(slot(day));
+            }
+        }
+        currentDay = epochDay;
+    }
+
+    /**
+     * Najlepsi użytkownicy z rankingiem gęstym: remisy dzielą pozycję, kolejna pozycja jest o jeden niższa.
+     * Zwraca wszystkich użytkowników z pozycji 1..maxRank, ale nie więcej niż maxRows wierszy.
+     */
+    public synchronized List<Entry> top(int maxRank, int maxRows) {
+        List<Entry> result = new ArrayList<>();
+        int rank = 0;
+        for (Map.Entry<Integer, Set<Long>> bucket : buckets.entrySet()) {
+            if (++rank > maxRank) {
+                break;
+            }
+            for (Long userId : bucket.getValue()) {
+                if (result.size() >= maxRows) {
+                    return result;
+                }
+                result.add(new Entry(userId, bucket.getKey(), rank));
+            }
+        }
+        return result;
+    }
+
+    public synchronized int countFor(long userId) {
+        UserWindow window = users.get(userId);
+        return window != null ? window.total : 0;
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public synchronized void clear() {
+        users.clear();
+        buckets.clear();
+        usersBySlot.forEach(Set::clear);
+        currentDay = Long.MIN_VALUE;
+    }
+
+    private void expireSlot(int slot) {
+        Set<Long> expiring = usersBySlot.get(slot);
+        for (Long userId : expiring) {
+            UserWindow window = users.get(userId);
+            int before = window.total;
+            window.total -= window.daily[slot];
+            window.daily[slot] = 0;
+            move(userId, before, window.total);
+            if (window.total == 0) {
+                users.remove(userId);
+            }
+        }
+        expiring.clear();
+    }
+
+    private void move(long userId, int from, int to) {
+        if (from > 0) {
+            Set<Long> bucket = buckets.get(from);
+            bucket.remove(userId);
+            if (bucket.isEmpty()) {
+                buckets.remove(from);
+            }
+        }
+        if (to > 0) {
+            buckets.computeIfAbsent(to, total -> new LinkedHashSet<>()).add(userId);
+        }
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) windowDays);
+    }
+
+    public record Entry(long userId, int count, int rank) {
+    }
+
+    private static final class UserWindow {
+        final int[] daily;
+        int total;
+
+        UserWindow(int windowDays) {
+            this.daily = new int[windowDays];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.scheduling;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Kontekst jednego uruchomienia zadania pod blokadą klastra: nazwa, węzeł i fencing token.
+ *
+ * Zadanie zapisujące dane paczkami wywołuje checkFence() przed każdą paczką - po utracie dzierżawy
+ * (wygaśnięcie, przejęcie przez inny węzeł) kolejne zapisy nie trafią do bazy obok zapisów nowego właściciela.
+ */
+public final class JobContext {
+
+    private final String jobName;
+    private final String nodeId;
+    private final long fencingToken;
+    private final BooleanSupplier leaseValid;
+    private volatile boolean leaseLost;
+
+    public JobContext(String jobName, String nodeId, long fencingToken, BooleanSupplier leaseValid) {
+        this.jobName = jobName;
+        this.nodeId = nodeId;
+        this.fencingToken = fencingToken;
+        this.leaseValid = leaseValid;
+    }
+
+    /**
+     * Rzuca IllegalStateException, jeśli blokada z tym numerem już nie obowiązuje
+     */
+    public void checkFence() {
+        if (leaseLost || !leaseValid.getAsBoolean()) {
+            leaseLost = true;
+            throw new IllegalStateException("Lease of job '" + jobName + "' lost (fencing token " + fencingToken + ")");
+        }
+    }
+
+    /**
+     * Wywoływane przez odnawianie dzierżawy, gdy blokadę przejął inny węzeł
+     */
+    public void markLeaseLost() {
+        leaseLost = true;
+    }
+
+    public boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    public String getJobName() { return jobName; }
+    public String getNodeId() { return nodeId; }
+    public long getFencingToken() { return fencingToken; }
+}
@@ -0,0 +1,150 @@
+package org.example.scheduling;
+
+import org.example.ChangeLogService;
+import org.example.JobRun;
+import org.example.TaskCycleMetricsRepository;
+import org.example.service.ChangeLogRollupService;
+import org.example.service.JobCoordinator;
+import org.example.service.TaskCycleMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Zadania okresowe zmieniające dane w bazie - każde uruchamiane przez JobCoordinator, więc wykonuje je
+ * jeden węzeł klastra. Przebudowy indeksów w pamięci (wyszukiwanie, filtr unikalności) zostają
+ * na każdym węźle osobno - to stan lokalny.
+ *
+ * jobs.enabled=false wyłącza uruchomienia z cronów i przy starcie (testy); runNow działa zawsze.
+ */
+@Component
+public class MaintenanceJobs {
+
+    public static final String CYCLE_METRICS = "task-cycle-metrics";
+    public static final String ROLLUP_RECONCILE = "change-log-rollup-reconcile";
+    public static final String CHANGE_LOG_RETENTION = "change-log-retention";
+    public static final String SEQUENCE_RECONCILE = "task-change-seq-reconcile";
+
+    public static final Set<String> JOB_NAMES = Set.of(CYCLE_METRICS, ROLLUP_RECONCILE, CHANGE_LOG_RETENTION,
+            SEQUENCE_RECONCILE);
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private TaskCycleMetricsService taskCycleMetricsService;
+
+    @Autowired
+    private TaskCycleMetricsRepository cycleMetricsRepository;
+
+    @Autowired
+    private ChangeLogRollupService changeLogRollupService;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Value("${jobs.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Minimalny czas trzymania blokady po zakończeniu - musi być krótszy od odstępu między uruchomieniami crona
+     */
+    @Value("${jobs.lock-at-least-ms:60000}")
+    private long lockAtLeastMs = 60_000;
+
+    /**
+     * 0 - retencja historii wyłączona
+     */
+    @Value("${changelog.retention.days:0}")
+    private int retentionDays;
+
+    /**
+     * Metryki przepływu przy pustej tabeli i uzgodnienie agregatów - poprzednio każdy węzeł robił to przy starcie
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (cycleMetricsRepository.count() == 0) {
+            run(CYCLE_METRICS);
+        }
+        run(ROLLUP_RECONCILE);
+    }
+
+    @Scheduled(cron = "${analytics.cycle-metrics.cron:0 0 4 * * *}")
+    public void recomputeCycleMetrics() {
+        runScheduled(CYCLE_METRICS);
+    }
+
+    @Scheduled(cron = "${changelog.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRollups() {
+        runScheduled(ROLLUP_RECONCILE);
+    }
+
+    @Scheduled(cron = "${changelog.retention.cron:0 15 3 * * *}")
+    public void cleanOldChangeLog() {
+        if (retentionDays > 0) {
+            runScheduled(CHANGE_LOG_RETENTION);
+        }
+    }
+
+    @Scheduled(cron = "${changelog.sequence.reconcile-cron:0 45 3 * * SUN}")
+    public void reconcileTaskSequences() {
+        runScheduled(SEQUENCE_RECONCILE);
+    }
+
+    private void runScheduled(String jobName) {
+        if (enabled) {
+            run(jobName);
+        }
+    }
+
+    /**
+     * Ręczne uruchomienie z panelu administracyjnego - ta sama blokada co cron
+     */
+    public JobRun runNow(String jobName) {
+        if (!JOB_NAMES.contains(jobName)) {
+            throw new IllegalArgumentException("Unknown job: " + jobName + ". Valid values are: " + JOB_NAMES);
+        }
+        return run(jobName).orElseThrow(() -> new IllegalStateException(
+                "Job " + jobName + " is running on another node or finished less than " + lockAtLeastMs + " ms ago"));
+    }
+
+    private Optional<JobRun> run(String jobName) {
+        return jobCoordinator.runExclusive(jobName, Duration.ofMillis(lockAtLeastMs), job(jobName));
+    }
+
+    private Function<JobContext, Map<String, Object>> job(String jobName) {
+        return switch (jobName) {
+            case CYCLE_METRICS -> context -> taskCycleMetricsService.recompute(context::checkFence);
+            case ROLLUP_RECONCILE -> context -> changeLogRollupService.reconcile(context::checkFence);
+            case CHANGE_LOG_RETENTION -> context -> {
+                if (retentionDays <= 0) {
+                    throw new IllegalStateException("Change log retention is disabled (changelog.retention.days=0)");
+                }
+                return stats("deletedEntries", changeLogService.cleanOldChangeLog(retentionDays, context::checkFence));
+            };
+            // Bez fencingu: MERGE tylko podnosi liczniki do największego seq w historii - równoległe uruchomienie
+            // na dwóch węzłach daje ten sam wynik i nie może obniżyć licznika poniżej już nadanego numeru
+            case SEQUENCE_RECONCILE -> context -> stats("reconciledTasks", changeLogService.reconcileTaskSequences());
+            default -> throw new IllegalArgumentException("Unknown job: " + jobName);
+        };
+    }
+
+    private static Map<String, Object> stats(String key, Object value) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put(key, value);
+        return stats;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtr Blooma dla kluczy tekstowych.
+ * Odpowiedź "nie ma" jest pewna, "może jest" wymaga sprawdzenia w bazie.
+ * Bity w AtomicLongArray - dodawanie i sprawdzanie bez blokad. Brak usuwania:
+ * usunięty klucz daje najwyżej fałszywie pozytywną odpowiedź, która trafi do repozytorium.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions spodziewana liczba kluczy
+     * @param falsePositiveRate docelowy odsetek fałszywie pozytywnych odpowiedzi (np. 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.bitCount = (long) bits.length() * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 64-bitowy FNV-1a na bajtach UTF-8 z końcowym mieszaniem (finalizer MurmurHash3)
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
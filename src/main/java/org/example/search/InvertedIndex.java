@@ -0,0 +1,365 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Odwrócony indeks pełnotekstowy w pamięci.
+ * - słownik termów w posortowanej mapie - wyszukiwanie prefiksowe to zakres kluczy
+ * - listy postingów jako posortowane tablice prymitywów (id dokumentu + ważona częstość termu)
+ * - ranking BM25, pola dokumentu mają wagi (np. tytuł ważniejszy od opisu)
+ * - zapytanie wielowyrazowe to AND, każdy wyraz zapytania dopasowuje też termy o tym prefiksie
+ * - opcjonalne atrybuty liczbowe dokumentu (np. id zadania, znacznik czasu) do filtrowania wyników
+ * - opcjonalnie grupy dokumentów według jednego atrybutu (np. wpisy jednego zadania) usuwane bez przeglądu indeksu
+ * Bezpieczny wątkowo: wiele równoległych odczytów, zapisy pod blokadą zapisu.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Dopasowanie prefiksowe punktowane niżej niż dokładne
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final float[] fieldWeights;
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, DocumentEntry> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    /**
+     * Indeks atrybutu grupującego (-1 - bez grup) i id dokumentów każdej grupy
+     */
+    private final int groupAttribute;
+    private final Map<Long, Set<Long>> groups = new HashMap<>();
+
+    /**
+     * @param fieldWeights waga każdego pola w kolejności przekazywania do {@link #index(long, String...)}
+     */
+    public InvertedIndex(float... fieldWeights) {
+        this(-1, fieldWeights);
+    }
+
+    private InvertedIndex(int groupAttribute, float[] fieldWeights) {
+        this.groupAttribute = groupAttribute;
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Indeks utrzymujący dla wartości atrybutu groupAttribute listę dokumentów - {@link #removeGroup(long)}
+     * kosztuje O(dokumenty grupy) zamiast przeglądu całego indeksu
+     */
+    public static InvertedIndex groupedBy(int groupAttribute, float... fieldWeights) {
+        if (groupAttribute < 0) {
+            throw new IllegalArgumentException("Group attribute index must not be negative");
+        }
+        return new InvertedIndex(groupAttribute, fieldWeights);
+    }
+
+    /**
+     * Dodaje lub zastępuje dokument
+     */
+    public void index(long docId, String... fields) {
+        index(docId, null, fields);
+    }
+
+    /**
+     * Dodaje lub zastępuje dokument z atrybutami dostępnymi dla {@link DocumentFilter}
+     */
+    public void index(long docId, long[] attributes, String... fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (int f = 0; f < fields.length && f < fieldWeights.length; f++) {
+            for (String token : TextNormalizer.tokenize(fields[f])) {
+                frequencies.merge(token, fieldWeights[f], Float::sum);
+                length += fieldWeights[f];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), key -> new Postings()).put(docId, entry.getValue());
+            }
+            documents.put(docId, new DocumentEntry(frequencies.keySet().toArray(new String[0]), length, attributes));
+            totalLength += Math.round(length);
+            if (isGrouped(attributes)) {
+                groups.computeIfAbsent(attributes[groupAttribute], key -> new HashSet<>()).add(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Usuwa dokumenty grupy (indeks z {@link #groupedBy}); zwraca liczbę usuniętych
+     */
+    public int removeGroup(long groupKey) {
+        if (groupAttribute < 0) {
+            throw new IllegalStateException("Index is not grouped");
+        }
+        lock.writeLock().lock();
+        try {
+            Set<Long> members = groups.remove(groupKey);
+            if (members == null) {
+                return 0;
+            }
+            for (Long docId : members) {
+                removeInternal(docId);
+            }
+            return members.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Usuwa wszystkie dokumenty spełniające filtr (pełny przegląd - dla rzadkich operacji)
+     */
+    public int removeIf(DocumentFilter filter) {
+        lock.writeLock().lock();
+        try {
+            List<Long> matching = new ArrayList<>();
+            for (Map.Entry<Long, DocumentEntry> entry : documents.entrySet()) {
+                if (filter.test(entry.getKey(), entry.getValue().attributes)) {
+                    matching.add(entry.getKey());
+                }
+            }
+            matching.forEach(this::removeInternal);
+            return matching.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+            groups.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    public SearchResult search(String query, int offset, int limit) {
+        return search(query, null, offset, limit);
+    }
+
+    /**
+     * Wyszukiwanie z rankingiem i stronicowaniem
+     * @param filter dodatkowy filtr po id i atrybutach dokumentu (null = brak)
+     */
+    public SearchResult search(String query, DocumentFilter filter, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be >= 0");
+        }
+        List<String> queryTokens = TextNormalizer.tokenize(query).stream().distinct().toList();
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return new SearchResult(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new SearchResult(0, List.of());
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / documents.size());
+
+            List<Map<Long, Double>> perToken = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Map<Long, Double> scores = scoreToken(token, averageLength);
+                if (scores.isEmpty()) {
+                    return new SearchResult(0, List.of());
+                }
+                perToken.add(scores);
+            }
+            // Przecięcie zaczynając od najmniejszego zbioru
+            perToken.sort(Comparator.comparingInt(Map::size));
+
+            // long - offset bliski Integer.MAX_VALUE nie może się przepełnić; kopiec i tak rośnie najwyżej do liczby trafień
+            long k = (long) offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::docId));
+            long totalHits = 0;
+            candidates:
+            for (Map.Entry<Long, Double> candidate : perToken.get(0).entrySet()) {
+                long docId = candidate.getKey();
+                if (filter != null && !filter.test(docId, documents.get(docId).attributes)) {
+                    continue;
+                }
+                double score = candidate.getValue();
+                for (int i = 1; i < perToken.size(); i++) {
+                    Double tokenScore = perToken.get(i).get(docId);
+                    if (tokenScore == null) {
+                        continue candidates;
+                    }
+                    score += tokenScore;
+                }
+                totalHits++;
+                if (top.size() < k) {
+                    top.add(new Hit(docId, score));
+                } else if (score > top.peek().score() || (score == top.peek().score() && docId > top.peek().docId())) {
+                    top.poll();
+                    top.add(new Hit(docId, score));
+                }
+            }
+
+            Hit[] ranked = top.toArray(new Hit[0]);
+            Arrays.sort(ranked, Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::docId).reversed());
+            List<Hit> page = offset >= ranked.length ? List.of() : List.of(Arrays.copyOfRange(ranked, offset, ranked.length));
+            return new SearchResult(totalHits, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wyniki BM25 dla jednego wyrazu zapytania (dokładny term + termy o tym prefiksie)
+     */
+    private Map<Long, Double> scoreToken(String token, double averageLength) {
+        Map<String, Double> matchedTerms = new LinkedHashMap<>();
+        if (terms.containsKey(token)) {
+            matchedTerms.put(token, 1.0);
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : terms.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (matchedTerms.size() > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matchedTerms.put(term, PREFIX_FACTOR);
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        for (Map.Entry<String, Double> matched : matchedTerms.entrySet()) {
+            Postings postings = terms.get(matched.getKey());
+            if (postings == null || postings.size == 0) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+            for (int i = 0; i < postings.size; i++) {
+                long docId = postings.docs[i];
+                double tf = postings.weights[i];
+                double length = documents.get(docId).length;
+                double score = matched.getValue() * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(docId, score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void removeInternal(long docId) {
+        DocumentEntry existing = documents.remove(docId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= Math.round(existing.length);
+        if (isGrouped(existing.attributes)) {
+            Set<Long> members = groups.get(existing.attributes[groupAttribute]);
+            // Przy removeGroup zbiór jest już odpięty z mapy
+            if (members != null && members.remove(docId) && members.isEmpty()) {
+                groups.remove(existing.attributes[groupAttribute]);
+            }
+        }
+        for (String term : existing.terms) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(docId) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private boolean isGrouped(long[] attributes) {
+        return groupAttribute >= 0 && attributes != null && attributes.length > groupAttribute;
+    }
+
+    @FunctionalInterface
+    public interface DocumentFilter {
+        boolean test(long docId, long[] attributes);
+    }
+
+    public record Hit(long docId, double score) {}
+
+    public record SearchResult(long totalHits, List<Hit> hits) {}
+
+    private record DocumentEntry(String[] terms, float length, long[] attributes) {}
+
+    /**
+     * Posortowana lista postingów - id dokumentów rosną, więc nowe dokumenty trafiają na koniec
+     */
+    private static final class Postings {
+        long[] docs = new long[4];
+        float[] weights = new float[4];
+        int size;
+
+        void put(long docId, float weight) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+            docs[insertAt] = docId;
+            weights[insertAt] = weight;
+            size++;
+        }
+
+        boolean remove(long docId) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
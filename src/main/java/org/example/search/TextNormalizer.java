@@ -0,0 +1,61 @@
+package org.example.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalizacja tekstu dla indeksów wyszukiwania.
+ * Małe litery + usunięcie znaków diakrytycznych ("Wiśniewski" -> "wisniewski", "Łódź" -> "lodz").
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {}
+
+    /**
+     * Małe litery bez znaków diakrytycznych
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        boolean ascii = true;
+        for (int i = 0; i < lower.length() && ascii; i++) {
+            ascii = lower.charAt(i) < 128;
+        }
+        if (ascii) {
+            return lower;
+        }
+        // "ł" nie rozkłada się w NFD na literę bazową i znak łączący
+        String decomposed = Normalizer.normalize(lower.replace('ł', 'l'), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Podział na tokeny (ciągi liter i cyfr) po normalizacji
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
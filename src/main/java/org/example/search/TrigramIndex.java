@@ -0,0 +1,217 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indeks trigramów do wyszukiwania rozmytego (typeahead) w krótkich tekstach.
+ * - tekst normalizowany przez {@link TextNormalizer#fold} ("wisn" znajduje "Wiśniewski")
+ * - dokumenty mają gęste numery porządkowe, listy postingów to tablice int
+ * - licznik trafień trigramów w mapie tylko dla kandydatów zapytania - pamięć proporcjonalna do trafień,
+ *   nie do liczby dokumentów, i bez buforów przypiętych do wątku (wątki wirtualne)
+ * - ranking: odsetek trigramów zapytania + premia za dokładny podciąg i początek wyrazu
+ */
+public class TrigramIndex {
+
+    // Minimalny odsetek trigramów zapytania, który musi wystąpić w dokumencie (tolerancja literówek)
+    private static final double MIN_SIMILARITY = 0.35;
+    private static final double SUBSTRING_BONUS = 1.0;
+    private static final double WORD_PREFIX_BONUS = 0.5;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] texts = new String[1024];
+    private final IntList freeOrdinals = new IntList();
+    private int nextOrdinal;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Dodaje lub zastępuje dokument (pola łączone spacją)
+     */
+    public void index(long id, String... fields) {
+        String text = normalize(String.join(" ", Arrays.stream(fields).map(f -> f != null ? f : "").toList()), true);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int ordinal = freeOrdinals.size > 0 ? freeOrdinals.removeLast() : nextOrdinal++;
+            if (ordinal >= ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                texts = Arrays.copyOf(texts, texts.length * 2);
+            }
+            ids[ordinal] = id;
+            texts[ordinal] = text;
+            ordinals.put(id, ordinal);
+            for (long trigram : trigrams(text)) {
+                postings.computeIfAbsent(trigram, key -> new IntList()).add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top-k dokumentów najbardziej podobnych do zapytania
+     */
+    public List<Hit> search(String query, int limit) {
+        String normalizedQuery = normalize(query, false);
+        Set<Long> queryTrigrams = trigrams(normalizedQuery);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String needle = normalizedQuery.trim();
+        String wordPrefixNeedle = " " + needle;
+        int minMatches = Math.max(1, (int) Math.ceil(queryTrigrams.size() * MIN_SIMILARITY));
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (long trigram : queryTrigrams) {
+                IntList list = postings.get(trigram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    counts.merge(list.values[i], 1, Integer::sum);
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score)
+                    .thenComparing(Comparator.comparingLong(Hit::id).reversed()));
+            for (Map.Entry<Integer, Integer> candidate : counts.entrySet()) {
+                int ordinal = candidate.getKey();
+                int matched = candidate.getValue();
+                if (matched < minMatches) {
+                    continue;
+                }
+                double score = (double) matched / queryTrigrams.size();
+                // Nawet z premiami kandydat nie wejdzie do top-k - pomijamy sprawdzanie podciągu
+                if (top.size() == limit && score + SUBSTRING_BONUS + WORD_PREFIX_BONUS < top.peek().score()) {
+                    continue;
+                }
+                String text = texts[ordinal];
+                if (text.contains(wordPrefixNeedle)) {
+                    score += SUBSTRING_BONUS + WORD_PREFIX_BONUS;
+                } else if (text.contains(needle)) {
+                    score += SUBSTRING_BONUS;
+                }
+                // Krótszy tekst przy tym samym dopasowaniu jest trafniejszy
+                score -= text.length() * 1e-4;
+                Hit hit = new Hit(ids[ordinal], score);
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (top.comparator().compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<Hit> result = new ArrayList<>(top);
+            result.sort(top.comparator().reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        for (long trigram : trigrams(texts[ordinal])) {
+            IntList list = postings.get(trigram);
+            if (list != null && list.remove(ordinal) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        texts[ordinal] = null;
+        freeOrdinals.add(ordinal);
+    }
+
+    /**
+     * Tekst bez znaków diakrytycznych, separatory zamienione na pojedyncze spacje,
+     * spacja na początku (trigramy początku wyrazu), spacja na końcu tylko dla dokumentów
+     */
+    static String normalize(String text, boolean document) {
+        String folded = TextNormalizer.fold(text);
+        StringBuilder normalized = new StringBuilder(folded.length() + 2).append(' ');
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        if (document && normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    static Set<Long> trigrams(String normalized) {
+        Set<Long> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            result.add(((long) normalized.charAt(i) << 32) | ((long) normalized.charAt(i + 1) << 16) | normalized.charAt(i + 2));
+        }
+        return result;
+    }
+
+    public record Hit(long id, double score) {}
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        // Kolejność nie ma znaczenia - ostatni element zastępuje usuwany
+        boolean remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
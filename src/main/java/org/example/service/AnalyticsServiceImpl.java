@@ -4,6 +4,8 @@ import org.example.*;
 import org.example.dto.TaskSummaryDto;
 import org.example.dto.UserStatsDto;
 import org.example.dto.DashboardDto;
+import org.example.activity.ActivityRecord;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
  * Implementacja serwisu analitycznego z wydajnymi zapytaniami agregacyjnymi.
  */
 @Service
+@Timed(value = "taskmanager.service", histogram = true)
 public class AnalyticsServiceImpl implements AnalyticsService {
     
     @Autowired
@@ -26,6 +29,26 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Autowired
     private ChangeLogEntryRepository changeLogRepository;
     
+    @Autowired
+    private ChangeLogDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private CompletionForecastService completionForecastService;
+    
+    @Autowired
+    private TaskCycleMetricsService taskCycleMetricsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RecentActivityService recentActivityService;
+    
+    /**
+     * Maksymalna długość dziennej serii (dwa lata)
+     */
+    private static final int MAX_SERIES_DAYS = 731;
+    
     @Override
     public TaskSummaryDto getTaskSummary() {
         TaskSummaryDto summary = new TaskSummaryDto();
@@ -77,12 +100,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         
         // Podstawowe liczby użytkowników
         long totalUsers = userRepository.count();
-        List<User> usersWithTasks = userRepository.findUsersWithTasks();
-        List<User> usersWithoutTasks = userRepository.findUsersWithoutTasks();
+        long usersWithTasks = userRepository.countUsersWithTasks();
         
         stats.setTotalUsers((int) totalUsers);
-        stats.setActiveUsers(usersWithTasks.size());
-        stats.setInactiveUsers(usersWithoutTasks.size());
+        stats.setActiveUsers((int) usersWithTasks);
+        stats.setInactiveUsers((int) (totalUsers - usersWithTasks));
         
         // Dystrybucja zadań według użytkowników
         List<Object[]> userTaskCounts = taskRepository.countTasksByUser();
@@ -101,20 +123,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         double averageTasksPerUser = totalUsers > 0 ? totalTasksSum / totalUsers : 0;
         stats.setAverageTasksPerUser(Math.round(averageTasksPerUser * 100.0) / 100.0);
         
-        // Najlepsi wykonawcy
-        List<Object[]> topPerformers = taskRepository.findTopPerformersByCompletedTasks();
+        // Najlepsi wykonawcy - pozycje 1-5 (remisy dzielą pozycję), limit wykonuje baza / liczniki okien
         Map<String, Object> topPerformersMap = new HashMap<>();
-        List<Map<String, Object>> performersList = new ArrayList<>();
-        
-        for (int i = 0; i < Math.min(5, topPerformers.size()); i++) {
-            Object[] row = topPerformers.get(i);
-            Map<String, Object> performer = new HashMap<>();
-            performer.put("username", (String) row[0]);
-            performer.put("completedTasks", ((Long) row[1]).intValue());
-            performer.put("rank", i + 1);
-            performersList.add(performer);
-        }
-        topPerformersMap.put("top5", performersList);
+        topPerformersMap.put("top5", leaderboardService.getTopPerformers(5, LeaderboardService.Window.ALL_TIME));
+        topPerformersMap.put("last7Days", leaderboardService.getTopPerformers(5, LeaderboardService.Window.LAST_7_DAYS));
+        topPerformersMap.put("last30Days", leaderboardService.getTopPerformers(5, LeaderboardService.Window.LAST_30_DAYS));
         stats.setTopPerformers(topPerformersMap);
         
         return stats;
@@ -132,6 +145,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             LocalDate.now().minusDays(30), LocalDate.now()));
         dashboard.setTaskDistribution(getTaskDistribution());
         dashboard.setPerformanceMetrics(getPerformanceMetrics());
+        dashboard.setCycleMetrics(taskCycleMetricsService.getSummary());
         
         return dashboard;
     }
@@ -161,20 +175,20 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     
     @Override
     public Map<String, Object> getProgressTracking(LocalDate fromDate, LocalDate toDate) {
+        validateRange(fromDate, toDate);
         Map<String, Object> progress = new HashMap<>();
         
-        // Zadania zmodyfikowane w okresie
-        List<Task> modifiedTasks = taskRepository.findTasksModifiedBetween(fromDate, toDate);
-        progress.put("modifiedTasksCount", modifiedTasks.size());
-        
-        // Statystyki zmian w okresie
-        List<ChangeLogEntry> recentChanges = changeLogRepository.findByChangedAtBetweenOrderByChangedAtDesc(fromDate.atStartOfDay(), toDate.atTime(23, 59, 59));
+        // Liczba zadań zmodyfikowanych w okresie
+        Long modifiedTasks = taskRepository.countTasksModifiedBetween(fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+        progress.put("modifiedTasksCount", modifiedTasks.intValue());
         
-        Map<String, Integer> changesByType = recentChanges.stream()
-            .collect(Collectors.groupingBy(
-                change -> change.getOperationType().getDisplayName(),
-                Collectors.summingInt(change -> 1)
-            ));
+        // Statystyki zmian w okresie - z dziennych agregatów, nie z wpisów historii
+        Map<String, Integer> changesByType = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByOperationType(fromDate, toDate)) {
+            ChangeLogOperationType type = (ChangeLogOperationType) row[0];
+            Long count = (Long) row[1];
+            changesByType.put(type.getDisplayName(), count.intValue());
+        }
         progress.put("changesByType", changesByType);
         
         // Trend zakończeń zadań
@@ -204,8 +218,9 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         // Wskaźnik przeterminowania
         metrics.put("overdueRate", calculateOverdueRate());
         
-        // Średni czas realizacji (symulowany - w rzeczywistej aplikacji byłby wyliczany na podstawie dat)
-        metrics.put("averageCompletionTime", 5.2); // dni
+        // Średni czas realizacji CREATE -> DONE w dniach (z modelu prognoz)
+        double averageCompletionTime = completionForecastService.getModel().getMeanCycleTimeDays();
+        metrics.put("averageCompletionTime", Double.isNaN(averageCompletionTime) ? 0.0 : Math.round(averageCompletionTime * 100.0) / 100.0);
         
         // Produktywność zespołu
         metrics.put("teamProductivity", calculateTeamProductivity());
@@ -215,62 +230,97 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     
     @Override
     public List<Map<String, Object>> getRecentActivity(int limit) {
-        List<ChangeLogEntry> recentChanges = changeLogRepository.findTopNByOrderByChangedAtDesc(limit);
-        
-        return recentChanges.stream()
-            .map(change -> {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("id", change.getId());
-                activity.put("taskId", change.getTask().getId());
-                activity.put("taskTitle", change.getTask().getTitle());
-                activity.put("operationType", change.getOperationType().getDisplayName());
-                activity.put("description", change.getDescription());
-                activity.put("changedAt", change.getChangedAt());
-                
-                if (change.getChangedBy() != null) {
-                    activity.put("changedBy", change.getChangedBy().getUsername());
-                }
-                
-                if (change.hasValueChange()) {
-                    activity.put("fieldName", change.getFieldName());
-                    activity.put("oldValue", change.getOldValue());
-                    activity.put("newValue", change.getNewValue());
-                }
-                
-                return activity;
-            })
+        return recentActivityService.getRecent(limit).stream()
+            .map(ActivityRecord::toMap)
             .collect(Collectors.toList());
     }
     
     @Override
     public Map<String, Object> getTrendData(LocalDate fromDate, LocalDate toDate) {
-        // Implementacja trendu - można rozszerzyć o szczegółowe analizy
-        Map<String, Object> trend = new HashMap<>();
+        int days = validateRange(fromDate, toDate);
+        
+        long[] totalChanges = new long[days];
+        long[] created = new long[days];
+        long[] completed = new long[days];
+        long[] statusChanges = new long[days];
+        long[] activeUsers = new long[days];
+        List<Map<String, Long>> changesByType = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            changesByType.add(new LinkedHashMap<>());
+        }
+        
+        // Kilka wierszy agregatu na dzień - koszt nie zależy od liczby wpisów historii
+        for (Object[] row : rollupRepository.sumByDayOperationAndStatus(fromDate, toDate)) {
+            int day = (int) (((LocalDate) row[0]).toEpochDay() - fromDate.toEpochDay());
+            ChangeLogOperationType type = (ChangeLogOperationType) row[1];
+            long count = (Long) row[3];
+            
+            totalChanges[day] += count;
+            changesByType.get(day).merge(type.getDisplayName(), count, Long::sum);
+            if (type == ChangeLogOperationType.CREATE) {
+                created[day] += count;
+            } else if (type == ChangeLogOperationType.STATUS_CHANGE) {
+                statusChanges[day] += count;
+                if (TaskStatus.DONE.name().equals(row[2])) {
+                    completed[day] += count;
+                }
+            }
+        }
+        for (Object[] row : rollupRepository.countActiveUsersByDay(fromDate, toDate)) {
+            int day = (int) (((LocalDate) row[0]).toEpochDay() - fromDate.toEpochDay());
+            activeUsers[day] = (Long) row[1];
+        }
+        
+        // Seria z zerami dla dni bez zmian
+        List<Map<String, Object>> series = new ArrayList<>(days);
+        long totalSum = 0, createdSum = 0, completedSum = 0;
+        LocalDate peakDay = null;
+        long peakChanges = 0;
+        for (int i = 0; i < days; i++) {
+            LocalDate date = fromDate.plusDays(i);
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", date);
+            point.put("totalChanges", totalChanges[i]);
+            point.put("created", created[i]);
+            point.put("completed", completed[i]);
+            point.put("statusChanges", statusChanges[i]);
+            point.put("activeUsers", activeUsers[i]);
+            point.put("changesByType", changesByType.get(i));
+            series.add(point);
+            
+            totalSum += totalChanges[i];
+            createdSum += created[i];
+            completedSum += completed[i];
+            if (totalChanges[i] > peakChanges) {
+                peakChanges = totalChanges[i];
+                peakDay = date;
+            }
+        }
+        
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("totalChanges", totalSum);
+        totals.put("created", createdSum);
+        totals.put("completed", completedSum);
+        totals.put("averageChangesPerDay", Math.round(totalSum * 100.0 / days) / 100.0);
+        totals.put("averageCompletionsPerDay", Math.round(completedSum * 100.0 / days) / 100.0);
+        totals.put("peakDay", peakDay);
+        totals.put("peakDayChanges", peakChanges);
+        
+        Map<String, Object> trend = new LinkedHashMap<>();
         trend.put("fromDate", fromDate);
         trend.put("toDate", toDate);
-        trend.put("period", "custom");
-        
-        // Dodaj więcej logiki trendu według potrzeb
+        trend.put("period", "daily");
+        trend.put("days", days);
+        trend.put("series", series);
+        trend.put("totals", totals);
         return trend;
     }
     
     @Override
     public Map<String, Object> getCompletionForecast() {
-        Map<String, Object> forecast = new HashMap<>();
-        
-        // Prosta prognoza na podstawie obecnego tempa
+        // Prognoza Monte Carlo na podstawie historycznej przepustowości
         Long activeTasks = taskRepository.countActiveTasks();
-        double averageCompletionRate = 0.15; // 15% zadań dziennie (przykład)
-        
-        double estimatedDays = activeTasks > 0 ? activeTasks / averageCompletionRate : 0;
-        LocalDate estimatedCompletion = LocalDate.now().plusDays((long) estimatedDays);
-        
-        forecast.put("activeTasks", activeTasks.intValue());
-        forecast.put("estimatedCompletionDate", estimatedCompletion);
-        forecast.put("estimatedDays", Math.round(estimatedDays));
-        forecast.put("confidenceLevel", "Medium");
-        
-        return forecast;
+        return completionForecastService.forecast(activeTasks);
     }
     
     // Metody pomocnicze
@@ -326,19 +376,46 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     
     private Map<String, Object> calculateCompletionTrend(LocalDate fromDate, LocalDate toDate) {
         Map<String, Object> trend = new HashMap<>();
+        int days = (int) (toDate.toEpochDay() - fromDate.toEpochDay() + 1);
         
-        // Można rozszerzyć o bardziej szczegółową analizę trendu
-        List<ChangeLogEntry> completions = changeLogRepository.findByOperationTypeAndChangedAtBetweenOrderByChangedAtDesc(
-            ChangeLogOperationType.STATUS_CHANGE, fromDate.atStartOfDay(), toDate.atTime(23, 59, 59)
-        );
+        // Przejścia do DONE z agregatów, dzień po dniu
+        long[] completed = new long[days];
+        for (Object[] row : rollupRepository.sumStatusTransitionsByDay(TaskStatus.DONE.name(), fromDate, toDate)) {
+            int day = (int) (((LocalDate) row[0]).toEpochDay() - fromDate.toEpochDay());
+            completed[day] = (Long) row[1];
+        }
         
-        long completionsCount = completions.stream()
-            .filter(change -> "Done".equals(change.getNewValue()))
-            .count();
+        long completionsCount = 0;
+        List<Map<String, Object>> daily = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            completionsCount += completed[i];
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", fromDate.plusDays(i));
+            point.put("completed", completed[i]);
+            daily.add(point);
+        }
         
         trend.put("completionsInPeriod", completionsCount);
-        trend.put("averagePerDay", completionsCount / (double) (toDate.toEpochDay() - fromDate.toEpochDay() + 1));
+        trend.put("averagePerDay", completionsCount / (double) days);
+        trend.put("daily", daily);
         
         return trend;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Sprawdza zakres dat serii dziennej i zwraca liczbę dni (włącznie z końcami)
+     */
+    private int validateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Both fromDate and toDate are required");
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate must not be after toDate");
+        }
+        long days = toDate.toEpochDay() - fromDate.toEpochDay() + 1;
+        if (days > MAX_SERIES_DAYS) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_SERIES_DAYS + " days");
+        }
+        return (int) days;
+    }
+}
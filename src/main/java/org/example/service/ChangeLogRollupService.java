@@ -0,0 +1,42 @@
+package org.example.service;
+
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogOperationType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Interface serwisu utrzymującego dzienne agregaty historii zmian (change_log_daily_rollup).
+ */
+public interface ChangeLogRollupService {
+
+    /**
+     * Dolicza zapisany wpis historii do agregatu jego dnia
+     */
+    void recordEntry(ChangeLogEntry entry);
+
+    /**
+     * Dolicza wpisy zapisane zbiorczo poleceniem SQL (bez autora i statusu docelowego)
+     */
+    void recordBulk(LocalDate date, ChangeLogOperationType operationType, long count);
+
+    /**
+     * Przebudowuje agregaty dni, w których suma liczników jest mniejsza od liczby wpisów historii
+     * (historia zapisana z pominięciem aplikacji, np. przez generator danych); dni usunięte przez retencję
+     * nie są porównywane ani zmieniane
+     */
+    Map<String, Object> reconcile();
+
+    /**
+     * Jak reconcile(), ale przed przebudową (usunięcie i wstawienie agregatów) wywołuje beforeRebuild w tej samej
+     * transakcji - wyjątek z niego wycofuje przebudowę (zadanie okresowe sprawdza blokadę klastra)
+     */
+    Map<String, Object> reconcile(Runnable beforeRebuild);
+
+    /**
+     * Przelicza od zera agregaty dni, które wciąż mają wpisy w change_log_entry (od najstarszego wpisu);
+     * agregaty wcześniejszych dni zostają
+     */
+    Map<String, Object> rebuildRollups();
+}
@@ -0,0 +1,164 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogDailyRollup;
+import org.example.ChangeLogDailyRollupRepository;
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.ChangeLogOperationType;
+import org.example.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Przyrostowe utrzymanie dziennych agregatów historii zmian.
+ * Każdy zapisany wpis to jedno polecenie MERGE zwiększające licznik - bez odczytu i bez blokady całej tabeli.
+ * Agregaty nie są zmniejszane przy czyszczeniu starej historii: trendy za okresy sprzed retencji zostają dostępne.
+ * Przebudowa i uzgadnianie dotyczą więc tylko dni, które wciąż mają wpisy w change_log_entry.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class ChangeLogRollupServiceImpl implements ChangeLogRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogRollupServiceImpl.class);
+
+    @Autowired
+    private ChangeLogDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Override
+    @Transactional
+    public void recordEntry(ChangeLogEntry entry) {
+        if (entry == null || entry.getChangedAt() == null || entry.getOperationType() == null) {
+            return;
+        }
+        long userId = entry.getChangedBy() != null && entry.getChangedBy().getId() != null
+                ? entry.getChangedBy().getId() : ChangeLogDailyRollup.NO_USER;
+        rollupRepository.increment(entry.getChangedAt().toLocalDate(), entry.getOperationType().name(),
+                userId, statusKey(entry), 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordBulk(LocalDate date, ChangeLogOperationType operationType, long count) {
+        if (count <= 0) {
+            return;
+        }
+        rollupRepository.increment(date, operationType.name(), ChangeLogDailyRollup.NO_USER,
+                ChangeLogDailyRollup.NO_STATUS, count);
+    }
+
+    /**
+     * Porównanie dzień po dniu: dzień z większą liczbą wpisów niż suma liczników jest przebudowywany.
+     * Suma liczników większa od liczby wpisów jest poprawna - to wpisy usunięte przez czyszczenie historii
+     * lub razem z zadaniem.
+     */
+    @Override
+    @Transactional
+    public Map<String, Object> reconcile() {
+        return reconcile(() -> { });
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Object> reconcile(Runnable beforeRebuild) {
+        long start = System.nanoTime();
+        TreeMap<LocalDate, Long> entriesByDay = toDayCounts(changeLogRepository.countEntriesByDay());
+        List<LocalDate> behind = new ArrayList<>();
+        if (!entriesByDay.isEmpty()) {
+            Map<LocalDate, Long> countedByDay = toDayCounts(rollupRepository.sumEntryCountsByDay(entriesByDay.firstKey()));
+            entriesByDay.forEach((day, entries) -> {
+                if (countedByDay.getOrDefault(day, 0L) < entries) {
+                    behind.add(day);
+                }
+            });
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rebuilt", !behind.isEmpty());
+        stats.put("changeLogDays", entriesByDay.size());
+        stats.put("rebuiltDays", behind.size());
+        if (!behind.isEmpty()) {
+            logger.info("Change log rollups behind history on {} days, rebuilding", behind.size());
+            beforeRebuild.run();
+            // Kolejne dni przebudowywane jednym zakresem (np. historia z generatora danych)
+            LocalDate rangeStart = behind.get(0);
+            LocalDate rangeEnd = rangeStart;
+            int rows = 0;
+            for (LocalDate day : behind.subList(1, behind.size())) {
+                if (!day.equals(rangeEnd.plusDays(1))) {
+                    rows += rebuildDays(rangeStart, rangeEnd)[1];
+                    rangeStart = day;
+                }
+                rangeEnd = day;
+            }
+            rows += rebuildDays(rangeStart, rangeEnd)[1];
+            stats.put("rollupRows", rows);
+        }
+        stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+        return stats;
+    }
+
+    /**
+     * Przelicza agregaty dni od najstarszego do najnowszego wpisu historii; starsze dni (usunięte przez retencję)
+     * zostają bez zmian
+     */
+    @Override
+    @Transactional
+    public Map<String, Object> rebuildRollups() {
+        long start = System.nanoTime();
+        TreeMap<LocalDate, Long> entriesByDay = toDayCounts(changeLogRepository.countEntriesByDay());
+        int[] counts = entriesByDay.isEmpty() ? new int[2] : rebuildDays(entriesByDay.firstKey(), entriesByDay.lastKey());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("fromDate", entriesByDay.isEmpty() ? null : entriesByDay.firstKey());
+        stats.put("deletedRows", counts[0]);
+        stats.put("rollupRows", counts[1]);
+        stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+        logger.info("Change log rollups rebuilt: {}", stats);
+        return stats;
+    }
+
+    /**
+     * Usuwa i wstawia ponownie agregaty dni [fromDate, toDate]: [usunięte wiersze, wstawione wiersze]
+     */
+    private int[] rebuildDays(LocalDate fromDate, LocalDate toDate) {
+        int deleted = rollupRepository.deleteRollupsBetween(fromDate, toDate);
+        int rows = rollupRepository.insertFromChangeLog(fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+        return new int[] {deleted, rows};
+    }
+
+    private static TreeMap<LocalDate, Long> toDayCounts(List<Object[]> rows) {
+        TreeMap<LocalDate, Long> counts = new TreeMap<>();
+        for (Object[] row : rows) {
+            counts.put((LocalDate) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Nazwa statusu docelowego dla STATUS_CHANGE (historia przechowuje nazwę wyświetlaną)
+     */
+    private static String statusKey(ChangeLogEntry entry) {
+        if (entry.getOperationType() != ChangeLogOperationType.STATUS_CHANGE || entry.getNewValue() == null) {
+            return ChangeLogDailyRollup.NO_STATUS;
+        }
+        try {
+            return TaskStatus.fromString(entry.getNewValue()).name();
+        } catch (IllegalArgumentException e) {
+            return ChangeLogDailyRollup.NO_STATUS;
+        }
+    }
+}
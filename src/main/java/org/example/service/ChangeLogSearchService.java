@@ -0,0 +1,44 @@
+package org.example.service;
+
+import org.example.ChangeLogEntry;
+import org.example.dto.SearchPageDto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Interface serwisu wyszukiwania pełnotekstowego w historii zmian
+ * (opis, stara i nowa wartość wpisu).
+ */
+public interface ChangeLogSearchService {
+
+    /**
+     * Wyszukuje wpisy historii z opcjonalnym filtrem zadania i zakresu czasu
+     */
+    SearchPageDto<ChangeLogEntry> search(String query, Long taskId, LocalDateTime from, LocalDateTime to, int page, int size);
+
+    /**
+     * Dodaje zapisany wpis do indeksu (po zatwierdzeniu transakcji, jeśli jest aktywna)
+     */
+    void indexEntry(ChangeLogEntry entry);
+
+    /**
+     * Usuwa wpis z indeksu
+     */
+    void removeEntry(Long entryId);
+
+    /**
+     * Usuwa z indeksu wszystkie wpisy zadania (historia jest usuwana kaskadowo razem z zadaniem)
+     */
+    void removeTaskEntries(Long taskId);
+
+    /**
+     * Indeksuje wpisy o id większym niż afterId - po zapisach zbiorczych z pominięciem ChangeLogService
+     */
+    int indexEntriesAfter(Long afterId);
+
+    /**
+     * Przebudowuje indeks od zera na podstawie bazy danych
+     */
+    Map<String, Object> rebuildIndex();
+}
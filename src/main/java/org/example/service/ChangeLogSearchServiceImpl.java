@@ -0,0 +1,229 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.dto.SearchPageDto;
+import org.example.search.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Wyszukiwanie w historii zmian przez odwrócony indeks zamiast LIKE '%x%' na change_log_entry.
+ * Atrybuty dokumentu: [id zadania, changedAt w sekundach epoki] - filtry zadania i zakresu czasu
+ * działają na liście trafień bez dotykania bazy.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class ChangeLogSearchServiceImpl implements ChangeLogSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogSearchServiceImpl.class);
+
+    private static final float DESCRIPTION_WEIGHT = 2.0f;
+    private static final float VALUE_WEIGHT = 1.0f;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    private volatile InvertedIndex index = newIndex();
+
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Override
+    public SearchPageDto<ChangeLogEntry> search(String query, Long taskId, LocalDateTime from, LocalDateTime to,
+                                                int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page is too large: page * size must not exceed " + Integer.MAX_VALUE);
+        }
+
+        long start = System.nanoTime();
+        long fromEpoch = from != null ? toEpoch(from) : Long.MIN_VALUE;
+        long toEpoch = to != null ? toEpoch(to) : Long.MAX_VALUE;
+        InvertedIndex.DocumentFilter filter = taskId == null && from == null && to == null ? null
+                : (docId, attributes) -> (taskId == null || attributes[0] == taskId)
+                        && attributes[1] >= fromEpoch && attributes[1] <= toEpoch;
+        InvertedIndex.SearchResult result = index.search(query, filter, (int) offset, size);
+
+        List<Long> ids = result.hits().stream().map(InvertedIndex.Hit::docId).toList();
+        Map<Long, ChangeLogEntry> entries = changeLogRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ChangeLogEntry::getId, Function.identity()));
+
+        SearchPageDto<ChangeLogEntry> dto = new SearchPageDto<>(query, page, size);
+        dto.setTotalHits(result.totalHits());
+        List<SearchPageDto.Hit<ChangeLogEntry>> hits = new ArrayList<>();
+        for (InvertedIndex.Hit hit : result.hits()) {
+            ChangeLogEntry entry = entries.get(hit.docId());
+            if (entry != null) {
+                hits.add(new SearchPageDto.Hit<>(entry, Math.round(hit.score() * 1000.0) / 1000.0));
+            }
+        }
+        dto.setResults(hits);
+        dto.setTookMs(Math.round((System.nanoTime() - start) / 10_000.0) / 100.0);
+        return dto;
+    }
+
+    @Override
+    public void indexEntry(ChangeLogEntry entry) {
+        if (entry == null || entry.getId() == null || entry.getTask() == null) {
+            return;
+        }
+        Long entryId = entry.getId();
+        long[] attributes = {entry.getTask().getId(), toEpoch(entry.getChangedAt())};
+        String description = entry.getDescription();
+        String oldValue = entry.getOldValue();
+        String newValue = entry.getNewValue();
+
+        Runnable indexing = () -> {
+            index.index(entryId, attributes, description, oldValue, newValue);
+            if (rebuilding.get()) {
+                touchedDuringRebuild.add(entryId);
+            }
+        };
+        // Wpis wycofany razem z transakcją nie może trafić do indeksu
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexing.run();
+                }
+            });
+        } else {
+            indexing.run();
+        }
+    }
+
+    @Override
+    public void removeEntry(Long entryId) {
+        if (entryId == null) {
+            return;
+        }
+        index.remove(entryId);
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(entryId);
+        }
+    }
+
+    @Override
+    public void removeTaskEntries(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        // Tylko wpisy tego zadania (grupa po atrybucie 0) - bez przeglądu całego indeksu pod blokadą zapisu
+        index.removeGroup(taskId);
+    }
+
+    @Override
+    public int indexEntriesAfter(Long afterId) {
+        long lastId = afterId != null ? afterId : 0L;
+        int indexed = 0;
+        List<Object[]> batch;
+        do {
+            batch = changeLogRepository.findSearchDocumentsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                Long entryId = (Long) row[0];
+                index.index(entryId, new long[]{(Long) row[1], toEpoch((LocalDateTime) row[2])},
+                        (String) row[3], (String) row[4], (String) row[5]);
+                if (rebuilding.get()) {
+                    touchedDuringRebuild.add(entryId);
+                }
+                lastId = entryId;
+                indexed++;
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildIndex();
+    }
+
+    @Scheduled(cron = "${search.changelog.rebuild-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        if (!rebuilding.get()) {
+            rebuildIndex();
+        }
+    }
+
+    @Override
+    public Map<String, Object> rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Change log search index rebuild is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            touchedDuringRebuild.clear();
+            InvertedIndex fresh = newIndex();
+            long afterId = 0L;
+            List<Object[]> batch;
+            do {
+                batch = changeLogRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : batch) {
+                    Long entryId = (Long) row[0];
+                    long[] attributes = {(Long) row[1], toEpoch((LocalDateTime) row[2])};
+                    fresh.index(entryId, attributes, (String) row[3], (String) row[4], (String) row[5]);
+                    afterId = entryId;
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            index = fresh;
+            for (Long entryId : touchedDuringRebuild) {
+                changeLogRepository.findById(entryId).ifPresentOrElse(
+                        entry -> fresh.index(entryId, new long[]{entry.getTask().getId(), toEpoch(entry.getChangedAt())},
+                                entry.getDescription(), entry.getOldValue(), entry.getNewValue()),
+                        () -> fresh.remove(entryId));
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", fresh.size());
+            stats.put("terms", fresh.termCount());
+            stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            logger.info("Change log search index rebuilt: {}", stats);
+            return stats;
+        } finally {
+            touchedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    private static long toEpoch(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : 0L;
+    }
+
+    private static InvertedIndex newIndex() {
+        return InvertedIndex.groupedBy(0, DESCRIPTION_WEIGHT, VALUE_WEIGHT, VALUE_WEIGHT);
+    }
+}
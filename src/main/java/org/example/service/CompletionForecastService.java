@@ -0,0 +1,26 @@
+package org.example.service;
+
+import org.example.forecast.ForecastModel;
+
+import java.util.Map;
+
+/**
+ * Interface silnika prognoz ukończenia zadań opartego na historycznej przepustowości zespołu.
+ */
+public interface CompletionForecastService {
+
+    /**
+     * Zwraca model z pamięci podręcznej, przebudowując go po upływie czasu ważności
+     */
+    ForecastModel getModel();
+
+    /**
+     * Przebudowuje model z historii zmian niezależnie od czasu ważności
+     */
+    ForecastModel refreshModel();
+
+    /**
+     * Prognoza Monte Carlo dla podanej liczby pozostałych zadań (percentyle dni i dat ukończenia)
+     */
+    Map<String, Object> forecast(long remainingTasks);
+}
@@ -0,0 +1,240 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogDailyRollupRepository;
+import org.example.ChangeLogEntryRepository;
+import org.example.ChangeLogOperationType;
+import org.example.TaskStatus;
+import org.example.forecast.ForecastModel;
+import org.example.forecast.MonteCarloForecaster;
+import org.example.forecast.ReservoirSample;
+import org.example.forecast.RunningStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Silnik prognoz ukończenia zadań.
+ * Czas realizacji (CREATE -> pierwsze DONE) liczony w jednym przebiegu strumienia historii (Welford + rezerwuar),
+ * przepustowość dzienna z agregatów change_log_daily_rollup. Model trzymany w pamięci do upływu TTL,
+ * symulacje Monte Carlo wykonywane równolegle na wspólnej puli fork/join.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class CompletionForecastServiceImpl implements CompletionForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompletionForecastServiceImpl.class);
+
+    private static final int CYCLE_TIME_SAMPLE_SIZE = 4096;
+    private static final double[] PERCENTILES = {50, 70, 85, 95};
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Autowired
+    private ChangeLogDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${forecast.history-days:90}")
+    private int historyDays;
+
+    @Value("${forecast.trials:10000}")
+    private int trials;
+
+    @Value("${forecast.max-days:3650}")
+    private int maxDays;
+
+    @Value("${forecast.model.ttl-minutes:15}")
+    private long modelTtlMinutes;
+
+    @Value("${forecast.seed:42}")
+    private long seed;
+
+    private volatile ForecastModel model;
+    // ReentrantLock zamiast monitora - wątek wirtualny czekający na JDBC nie blokuje wątku nośnego (JDK 21)
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Override
+    public ForecastModel getModel() {
+        ForecastModel current = model;
+        if (current == null || isExpired(current)) {
+            refreshLock.lock();
+            try {
+                current = model;
+                if (current == null || isExpired(current)) {
+                    current = refreshModel();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public ForecastModel refreshModel() {
+        refreshLock.lock();
+        try {
+            return buildModel();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private ForecastModel buildModel() {
+        long start = System.nanoTime();
+        RunningStats cycleTime = new RunningStats();
+        ReservoirSample cycleTimeSample = new ReservoirSample(CYCLE_TIME_SAMPLE_SIZE, seed);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> timeline = changeLogRepository.streamCompletionTimeline(TaskStatus.DONE.getDisplayName())) {
+                accumulateCycleTimes(timeline, cycleTime, cycleTimeSample);
+            }
+        });
+
+        LocalDate historyTo = LocalDate.now();
+        LocalDate historyFrom = historyTo.minusDays(historyDays - 1L);
+        long[] dailyThroughput = new long[historyDays];
+        for (Object[] row : rollupRepository.sumStatusTransitionsByDay(TaskStatus.DONE.name(), historyFrom, historyTo)) {
+            int day = (int) (((LocalDate) row[0]).toEpochDay() - historyFrom.toEpochDay());
+            dailyThroughput[day] = (Long) row[1];
+        }
+
+        ForecastModel fresh = new ForecastModel(cycleTime, cycleTimeSample, dailyThroughput, historyFrom, historyTo,
+                LocalDateTime.now(), (System.nanoTime() - start) / 1_000_000);
+        model = fresh;
+        logger.info("Forecast model rebuilt: {} completed tasks, {} active days of {}, {} ms",
+                fresh.getCompletedTasks(), fresh.getActiveDays(), fresh.getHistoryDays(), fresh.getBuildTimeMs());
+        return fresh;
+    }
+
+    @Override
+    public Map<String, Object> forecast(long remainingTasks) {
+        ForecastModel current = getModel();
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> forecast = new LinkedHashMap<>();
+        forecast.put("activeTasks", remainingTasks);
+        forecast.put("averageDailyThroughput", round(current.getMeanDailyThroughput()));
+        forecast.put("historyDays", current.getHistoryDays());
+        forecast.put("activeHistoryDays", current.getActiveDays());
+        forecast.put("cycleTime", cycleTimeSummary(current));
+        forecast.put("modelBuiltAt", current.getBuiltAt());
+
+        if (current.getActiveDays() == 0) {
+            forecast.put("confidenceLevel", "None");
+            forecast.put("message", "No completed tasks in the last " + current.getHistoryDays() + " days");
+            return forecast;
+        }
+
+        MonteCarloForecaster forecaster = new MonteCarloForecaster(ForkJoinPool.commonPool(), maxDays);
+        MonteCarloForecaster.Result result = forecaster.forecast(current.getDailyThroughput(), remainingTasks, trials,
+                seed ^ remainingTasks);
+
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            int days = result.percentile(percentile);
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("days", days);
+            point.put("date", today.plusDays(days));
+            percentiles.put("p" + (int) percentile, point);
+        }
+
+        int medianDays = result.percentile(50);
+        forecast.put("estimatedCompletionDate", today.plusDays(medianDays));
+        forecast.put("estimatedDays", medianDays);
+        forecast.put("percentiles", percentiles);
+        forecast.put("simulations", result.getTrials());
+        forecast.put("confidenceLevel", confidenceLevel(current, result));
+        return forecast;
+    }
+
+    /**
+     * Jeden przebieg po osi czasu posortowanej (zadanie, data): pierwsze CREATE i pierwsze późniejsze DONE zadania
+     */
+    private void accumulateCycleTimes(Stream<Object[]> timeline, RunningStats cycleTime, ReservoirSample sample) {
+        Long[] currentTask = {null};
+        LocalDateTime[] createdAt = {null};
+        boolean[] completed = {false};
+
+        timeline.forEach(row -> {
+            Long taskId = (Long) row[0];
+            ChangeLogOperationType type = (ChangeLogOperationType) row[1];
+            LocalDateTime changedAt = (LocalDateTime) row[2];
+
+            if (!Objects.equals(taskId, currentTask[0])) {
+                currentTask[0] = taskId;
+                createdAt[0] = null;
+                completed[0] = false;
+            }
+            if (type == ChangeLogOperationType.CREATE) {
+                if (createdAt[0] == null) {
+                    createdAt[0] = changedAt;
+                }
+            } else if (createdAt[0] != null && !completed[0]) {
+                double days = Duration.between(createdAt[0], changedAt).toMinutes() / (24.0 * 60.0);
+                cycleTime.add(days);
+                sample.add(days);
+                completed[0] = true;
+            }
+        });
+    }
+
+    private Map<String, Object> cycleTimeSummary(ForecastModel current) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("completedTasks", current.getCompletedTasks());
+        if (current.getCompletedTasks() > 0) {
+            summary.put("meanDays", round(current.getMeanCycleTimeDays()));
+            summary.put("stdDevDays", round(current.getCycleTimeStdDevDays()));
+            summary.put("p50Days", round(current.cycleTimePercentile(50)));
+            summary.put("p85Days", round(current.cycleTimePercentile(85)));
+            summary.put("maxDays", round(current.getMaxCycleTimeDays()));
+        }
+        return summary;
+    }
+
+    /**
+     * Wiarygodność: ile dni historii miało zakończenia i jak szeroki jest rozrzut symulacji
+     */
+    private String confidenceLevel(ForecastModel current, MonteCarloForecaster.Result result) {
+        if (result.getCappedRatio() > 0) {
+            return "Low";
+        }
+        int median = result.percentile(50);
+        double spread = median > 0 ? (double) (result.percentile(95) - median) / median : 0.0;
+        double activeRatio = (double) current.getActiveDays() / current.getHistoryDays();
+        if (activeRatio >= 0.5 && spread <= 0.25) {
+            return "High";
+        }
+        if (activeRatio >= 0.2 && spread <= 0.75) {
+            return "Medium";
+        }
+        return "Low";
+    }
+
+    private boolean isExpired(ForecastModel current) {
+        return current.getBuiltAt().plusMinutes(modelTtlMinutes).isBefore(LocalDateTime.now());
+    }
+
+    private static double round(double value) {
+        return Double.isNaN(value) ? 0.0 : Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.service;
+
+import org.example.JobRun;
+import org.example.scheduling.JobContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Interface koordynatora zadań okresowych - jedno uruchomienie zadania w całym klastrze.
+ */
+public interface JobCoordinator {
+
+    /**
+     * Uruchamia zadanie, jeśli ten węzeł przejmie jego blokadę; pusty wynik, gdy blokadę trzyma inny węzeł
+     * albo od ostatniego uruchomienia nie minęło lockAtLeastFor. Błąd zadania jest zapisywany w historii, nie rzucany.
+     */
+    Optional<JobRun> runExclusive(String jobName, Duration lockAtLeastFor,
+                                  Function<JobContext, Map<String, Object>> job);
+
+    /**
+     * Stan blokad i statystyki czasu trwania wszystkich zadań
+     */
+    List<Map<String, Object>> getJobs();
+
+    /**
+     * Ostatnie uruchomienia zadania, od najnowszego
+     */
+    List<JobRun> getRecentRuns(String jobName, int limit);
+
+    String getNodeId();
+}
@@ -0,0 +1,235 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.JobRun;
+import org.example.JobRunRepository;
+import org.example.JobRunStatus;
+import org.example.SchedulerLock;
+import org.example.SchedulerLockRepository;
+import org.example.cluster.ClusterEventBus;
+import org.example.scheduling.JobContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Koordynator zadań okresowych oparty o tabelę scheduler_lock.
+ *
+ * Każdy węzeł uruchamia te same crony; zadanie wykonuje tylko węzeł, którego warunkowy UPDATE przejmie
+ * blokadę (dzierżawa jobs.lease-ms, odnawiana co 1/3 dzierżawy osobnym wątkiem). Przejęcie zwiększa
+ * fencing_token - odnowienie, zwolnienie i JobContext.checkFence() są warunkowe po numerze, więc węzeł
+ * wybudzony po wygaśnięciu dzierżawy nie nadpisze pracy nowego właściciela. Każde uruchomienie trafia
+ * do job_run (węzeł, numer, czas trwania, wynik) i do metryki taskmanager.jobs.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class JobCoordinatorImpl implements JobCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobCoordinatorImpl.class);
+
+    @Autowired
+    private SchedulerLockRepository lockRepository;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jobs.lease-ms:300000}")
+    private long leaseMs = 300_000;
+
+    @Value("${jobs.history.max-per-job:200}")
+    private int historyPerJob = 200;
+
+    /**
+     * Zadania, których wiersz blokady już istnieje - MERGE tylko przy pierwszym uruchomieniu na węźle
+     */
+    private final Set<String> knownJobs = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService leaseRenewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewal.shutdownNow();
+    }
+
+    @Override
+    public Optional<JobRun> runExclusive(String jobName, Duration lockAtLeastFor,
+                                         Function<JobContext, Map<String, Object>> job) {
+        String nodeId = getNodeId();
+        Long token = acquire(jobName, nodeId);
+        if (token == null) {
+            logger.debug("Job {} skipped on {} - lock held by another node", jobName, nodeId);
+            return Optional.empty();
+        }
+
+        JobRun run;
+        try {
+            run = jobRunRepository.save(new JobRun(jobName, nodeId, token));
+        } catch (RuntimeException e) {
+            inTransaction(() -> lockRepository.release(jobName, token, 0));
+            throw e;
+        }
+        JobContext context = new JobContext(jobName, nodeId, token, () -> isLeaseValid(jobName, token));
+        long renewEveryMs = Math.max(1, leaseMs / 3);
+        ScheduledFuture<?> renewal = leaseRenewal.scheduleAtFixedRate(() -> renew(context),
+                renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        JobRunStatus status;
+        String result = null;
+        String error = null;
+        try {
+            Map<String, Object> stats = job.apply(context);
+            result = stats != null ? stats.toString() : null;
+            status = JobRunStatus.SUCCEEDED;
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            status = JobRunStatus.FAILED;
+            logger.error("Job {} failed on {} (fencing token {})", jobName, nodeId, token, e);
+        } finally {
+            renewal.cancel(false);
+        }
+        long durationNanos = System.nanoTime() - start;
+
+        Integer released = inTransaction(() -> lockRepository.release(jobName, token, lockAtLeastFor.toMillis()));
+        if (context.isLeaseLost() || released == null || released == 0) {
+            status = JobRunStatus.LEASE_LOST;
+            logger.warn("Job {} on {} lost its lease (fencing token {})", jobName, nodeId, token);
+        }
+
+        run.finish(status, durationNanos / 1_000_000, result, error);
+        run = jobRunRepository.save(run);
+        inTransaction(() -> jobRunRepository.trimHistory(jobName, historyPerJob));
+        Timer.builder("taskmanager.jobs").tag("job", jobName).tag("status", status.name())
+                .register(meterRegistry).record(durationNanos, TimeUnit.NANOSECONDS);
+        logger.info("Job {} finished on {} with {} in {} ms", jobName, nodeId, status, run.getDurationMs());
+        return Optional.of(run);
+    }
+
+    /**
+     * Przejęcie blokady i odczyt nowego numeru w jednej transakcji - wiersz pozostaje zablokowany
+     * przez UPDATE do commitu, więc odczytany numer należy do tego przejęcia
+     */
+    private Long acquire(String jobName, String nodeId) {
+        if (!knownJobs.contains(jobName)) {
+            try {
+                inTransaction(() -> lockRepository.insertIfAbsent(jobName));
+            } catch (DataIntegrityViolationException e) {
+                // Inny węzeł utworzył wiersz w tej samej chwili
+            }
+            knownJobs.add(jobName);
+        }
+        return inTransaction(() -> lockRepository.tryAcquire(jobName, nodeId, leaseMs) == 1
+                ? lockRepository.findFencingToken(jobName) : null);
+    }
+
+    private void renew(JobContext context) {
+        try {
+            Integer renewed = inTransaction(() ->
+                    lockRepository.renew(context.getJobName(), context.getFencingToken(), leaseMs));
+            if (renewed == null || renewed == 0) {
+                context.markLeaseLost();
+                logger.warn("Lease of job {} (fencing token {}) taken over by another node",
+                        context.getJobName(), context.getFencingToken());
+            }
+        } catch (RuntimeException e) {
+            // Chwilowy błąd bazy - dzierżawa może nadal obowiązywać, checkFence() sprawdzi ją przed zapisem
+            logger.warn("Failed to renew lease of job {}: {}", context.getJobName(), e.getMessage());
+        }
+    }
+
+    private boolean isLeaseValid(String jobName, long token) {
+        return lockRepository.countValidLease(jobName, token) > 0;
+    }
+
+    /**
+     * Zmiany blokad zatwierdzane od razu, także gdy wywołujący ma otwartą transakcję
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> action.get());
+    }
+
+    @Override
+    public List<Map<String, Object>> getJobs() {
+        Map<String, Map<String, Object>> jobs = new TreeMap<>();
+        for (SchedulerLock lock : lockRepository.findAll()) {
+            Map<String, Object> job = jobs.computeIfAbsent(lock.getJobName(), JobCoordinatorImpl::newJobView);
+            job.put("ownerNode", lock.getOwnerNode());
+            job.put("fencingToken", lock.getFencingToken());
+            job.put("acquiredAt", lock.getAcquiredAt());
+            job.put("leaseUntil", lock.getLeaseUntil());
+        }
+        for (Object[] row : jobRunRepository.summarizeByJob(JobRunStatus.FAILED)) {
+            Map<String, Object> job = jobs.computeIfAbsent((String) row[0], JobCoordinatorImpl::newJobView);
+            job.put("runs", ((Number) row[1]).longValue());
+            job.put("failures", row[2] != null ? ((Number) row[2]).longValue() : 0L);
+            job.put("averageDurationMs", row[3] != null ? Math.round(((Number) row[3]).doubleValue()) : null);
+            job.put("maxDurationMs", row[4]);
+            job.put("lastStartedAt", row[5]);
+        }
+        for (Map<String, Object> job : jobs.values()) {
+            getRecentRuns((String) job.get("jobName"), 1).stream().findFirst().ifPresent(last -> {
+                job.put("lastStatus", last.getStatus());
+                job.put("lastNode", last.getNodeId());
+                job.put("lastDurationMs", last.getDurationMs());
+            });
+        }
+        return List.copyOf(jobs.values());
+    }
+
+    private static Map<String, Object> newJobView(String jobName) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("jobName", jobName);
+        return job;
+    }
+
+    @Override
+    public List<JobRun> getRecentRuns(String jobName, int limit) {
+        int size = Math.max(1, Math.min(limit, historyPerJob));
+        return jobRunRepository.findByJobNameOrderByIdDesc(jobName, PageRequest.of(0, size));
+    }
+
+    @Override
+    public String getNodeId() {
+        return clusterEventBus.getNodeId();
+    }
+}
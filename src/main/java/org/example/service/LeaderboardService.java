@@ -0,0 +1,61 @@
+package org.example.service;
+
+import org.example.ChangeLogEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface rankingu najlepszych wykonawców (liczba ukończonych zadań) - cały okres lub przesuwane okno dni.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Okno rankingu: cały okres liczony w bazie, okna 7 i 30 dni z liczników w pamięci
+     */
+    enum Window {
+        ALL_TIME("all", 0),
+        LAST_7_DAYS("7d", 7),
+        LAST_30_DAYS("30d", 30);
+
+        private final String param;
+        private final int days;
+
+        Window(String param, int days) {
+            this.param = param;
+            this.days = days;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public static Window fromParam(String value) {
+            for (Window window : values()) {
+                if (window.param.equalsIgnoreCase(value) || window.name().equalsIgnoreCase(value)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown leaderboard window: " + value + ". Valid values are: all, 7d, 30d");
+        }
+    }
+
+    /**
+     * Użytkownicy z pozycji 1..limit (ranking gęsty - remisy dzielą pozycję): userId, username, completedTasks, rank
+     */
+    List<Map<String, Object>> getTopPerformers(int limit, Window window);
+
+    /**
+     * Aktualizuje liczniki okien, jeśli wpis jest przejściem zadania do DONE
+     */
+    void recordCompletion(ChangeLogEntry entry);
+
+    /**
+     * Odtwarza liczniki okien z historii zmian (ostatnie 30 dni)
+     */
+    Map<String, Object> rebuildWindows();
+}
@@ -0,0 +1,176 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.ChangeLogOperationType;
+import org.example.TaskRepository;
+import org.example.TaskStatus;
+import org.example.User;
+import org.example.UserRepository;
+import org.example.leaderboard.SlidingWindowLeaderboard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking najlepszych wykonawców.
+ * Cały okres: DENSE_RANK z limitem w SQL. Okna 7 i 30 dni: liczniki w buforach cyklicznych
+ * aktualizowane przy każdym przejściu do DONE, więc odczyt kosztuje O(k) i jedno zapytanie o nazwy k użytkowników.
+ * Przejście liczone jest dla osoby przypisanej do zadania w chwili zmiany statusu (change_log_entry.assignee_user_id) -
+ * tę samą wartość czyta odbudowa okien; ponowne otwarcie zadania go nie cofa.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardServiceImpl.class);
+
+    public static final int MAX_LIMIT = 100;
+
+    // Górna granica wierszy przy masowych remisach (np. wszyscy z jednym zadaniem)
+    public static final int MAX_ROWS = 500;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    // Podmieniane w całości przy odbudowie - czytelnicy nie widzą częściowo wczytanego stanu
+    private volatile SlidingWindowLeaderboard last7Days = new SlidingWindowLeaderboard(7);
+    private volatile SlidingWindowLeaderboard last30Days = new SlidingWindowLeaderboard(30);
+
+    @Override
+    public List<Map<String, Object>> getTopPerformers(int limit, Window window) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (window == Window.ALL_TIME) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (Object[] row : taskRepository.findTopPerformersRanked(limit, MAX_ROWS)) {
+                result.add(performer(((Number) row[0]).longValue(), (String) row[1],
+                        ((Number) row[2]).intValue(), ((Number) row[3]).intValue()));
+            }
+            return result;
+        }
+
+        SlidingWindowLeaderboard counters = window == Window.LAST_7_DAYS ? last7Days : last30Days;
+        counters.advanceTo(LocalDate.now().toEpochDay());
+        List<SlidingWindowLeaderboard.Entry> entries = counters.top(limit, MAX_ROWS);
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, String> usernames = new HashMap<>();
+        for (User user : userRepository.findAllById(entries.stream().map(SlidingWindowLeaderboard.Entry::userId).toList())) {
+            usernames.put(user.getId(), user.getUsername());
+        }
+        List<Map<String, Object>> result = new ArrayList<>(entries.size());
+        for (SlidingWindowLeaderboard.Entry entry : entries) {
+            String username = usernames.get(entry.userId());
+            // Użytkownik usunięty po zapisaniu licznika - pomijany do następnej odbudowy
+            if (username != null) {
+                result.add(performer(entry.userId(), username, entry.count(), entry.rank()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void recordCompletion(ChangeLogEntry entry) {
+        if (!isCompletion(entry) || entry.getAssigneeId() == null) {
+            return;
+        }
+        long userId = entry.getAssigneeId();
+        long day = entry.getChangedAt().toLocalDate().toEpochDay();
+        Runnable recording = () -> {
+            last7Days.record(userId, day, 1);
+            last30Days.record(userId, day, 1);
+        };
+        // Wycofane przejście do DONE nie może zawyżyć liczników do następnej odbudowy
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recording.run();
+                }
+            });
+        } else {
+            recording.run();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuildWindows();
+    }
+
+    @Override
+    public Map<String, Object> rebuildWindows() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        SlidingWindowLeaderboard week = new SlidingWindowLeaderboard(7);
+        SlidingWindowLeaderboard month = new SlidingWindowLeaderboard(30);
+        week.advanceTo(today.toEpochDay());
+        month.advanceTo(today.toEpochDay());
+
+        List<Object[]> rows = changeLogRepository.countCompletionsByAssigneeAndDay(
+                TaskStatus.DONE.getDisplayName(), today.minusDays(month.getWindowDays() - 1).atStartOfDay());
+        long completions = 0;
+        for (Object[] row : rows) {
+            long userId = ((Number) row[0]).longValue();
+            long day = ((LocalDate) row[1]).toEpochDay();
+            int count = ((Number) row[2]).intValue();
+            week.record(userId, day, count);
+            month.record(userId, day, count);
+            completions += count;
+        }
+        last7Days = week;
+        last30Days = month;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completions30Days", completions);
+        stats.put("users7Days", week.size());
+        stats.put("users30Days", month.size());
+        stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+        logger.info("Leaderboard windows rebuilt: {}", stats);
+        return stats;
+    }
+
+    private static boolean isCompletion(ChangeLogEntry entry) {
+        if (entry == null || entry.getOperationType() != ChangeLogOperationType.STATUS_CHANGE
+                || entry.getNewValue() == null || entry.getChangedAt() == null) {
+            return false;
+        }
+        try {
+            return TaskStatus.fromString(entry.getNewValue()) == TaskStatus.DONE;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, Object> performer(long userId, String username, int completed, int rank) {
+        Map<String, Object> performer = new LinkedHashMap<>();
+        performer.put("userId", userId);
+        performer.put("username", username);
+        performer.put("completedTasks", completed);
+        performer.put("rank", rank);
+        return performer;
+    }
+}
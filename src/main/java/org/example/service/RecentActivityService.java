@@ -0,0 +1,28 @@
+package org.example.service;
+
+import org.example.ChangeLogEntry;
+import org.example.activity.ActivityRecord;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface strumienia ostatniej aktywności w systemie, obsługiwanego z bufora w pamięci.
+ */
+public interface RecentActivityService {
+
+    /**
+     * Dodaje wpis do bufora po zatwierdzeniu bieżącej transakcji (od razu, jeśli transakcji nie ma)
+     */
+    void record(ChangeLogEntry entry);
+
+    /**
+     * Ostatnie wpisy od najnowszego; powyżej pojemności bufora odczyt z bazy
+     */
+    List<ActivityRecord> getRecent(int limit);
+
+    /**
+     * Wczytuje bufor ponownie z historii zmian
+     */
+    Map<String, Object> reload();
+}
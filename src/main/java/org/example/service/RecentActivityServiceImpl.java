@@ -0,0 +1,111 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogEntry;
+import org.example.ChangeLogEntryRepository;
+import org.example.activity.ActivityRecord;
+import org.example.activity.RecentActivityBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ostatnia aktywność systemu z bufora cyklicznego w pamięci.
+ * Wpisy trafiają do bufora po zatwierdzeniu transakcji zapisu historii - wycofana zmiana nie pojawi się
+ * na dashboardzie. Przy starcie bufor wczytywany jest jednym zapytaniem projekcyjnym (bez encji).
+ * Wpisy usuniętych zadań zostają w buforze do czasu nadpisania - to dziennik aktywności, nie stan zadań.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class RecentActivityServiceImpl implements RecentActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentActivityServiceImpl.class);
+
+    public static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Value("${activity.buffer.capacity:256}")
+    private int capacity = 256;
+
+    private volatile RecentActivityBuffer<ActivityRecord> buffer;
+
+    @Override
+    public void record(ChangeLogEntry entry) {
+        if (entry == null || entry.getId() == null) {
+            return;
+        }
+        // Rekord budowany od razu - zadanie i autor są jeszcze dostępne w sesji zapisu
+        ActivityRecord record = ActivityRecord.from(entry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer().add(record);
+                }
+            });
+        } else {
+            buffer().add(record);
+        }
+    }
+
+    @Override
+    public List<ActivityRecord> getRecent(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        RecentActivityBuffer<ActivityRecord> current = buffer();
+        if (limit > current.capacity()) {
+            return changeLogRepository.findRecentActivityRows(limit).stream().map(ActivityRecord::fromRow).toList();
+        }
+        return current.latest(limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        reload();
+    }
+
+    @Override
+    public Map<String, Object> reload() {
+        long start = System.nanoTime();
+        RecentActivityBuffer<ActivityRecord> fresh = new RecentActivityBuffer<>(capacity);
+        List<Object[]> rows = changeLogRepository.findRecentActivityRows(fresh.capacity());
+        // Zapytanie zwraca od najnowszego - do bufora od najstarszego
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            fresh.add(ActivityRecord.fromRow(rows.get(i)));
+        }
+        buffer = fresh;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", fresh.capacity());
+        stats.put("loaded", fresh.size());
+        stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+        logger.info("Recent activity buffer loaded: {}", stats);
+        return stats;
+    }
+
+    private RecentActivityBuffer<ActivityRecord> buffer() {
+        RecentActivityBuffer<ActivityRecord> current = buffer;
+        if (current == null) {
+            synchronized (this) {
+                if (buffer == null) {
+                    buffer = new RecentActivityBuffer<>(capacity);
+                }
+                current = buffer;
+            }
+        }
+        return current;
+    }
+}
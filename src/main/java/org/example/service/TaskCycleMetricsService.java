@@ -0,0 +1,25 @@
+package org.example.service;
+
+import java.util.Map;
+
+/**
+ * Interface zadania analitycznego liczącego lead time, cycle time i czas w statusach z historii zmian.
+ */
+public interface TaskCycleMetricsService {
+
+    /**
+     * Przelicza metryki wszystkich zadań jednym przebiegiem po historii i zapisuje je w task_cycle_metrics
+     */
+    Map<String, Object> recompute();
+
+    /**
+     * Jak recompute(), ale przed zapisem każdej paczki wywołuje beforeWrite - wyjątek z niego przerywa
+     * przeliczenie (zadanie okresowe sprawdza w ten sposób, czy nadal trzyma blokadę klastra)
+     */
+    Map<String, Object> recompute(Runnable beforeWrite);
+
+    /**
+     * Podsumowanie zapisanych metryk (średnie w dniach) dla dashboardu
+     */
+    Map<String, Object> getSummary();
+}
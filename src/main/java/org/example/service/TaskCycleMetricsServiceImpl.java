@@ -0,0 +1,187 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.ChangeLogEntryRepository;
+import org.example.ChangeLogOperationType;
+import org.example.TaskCycleMetricsRepository;
+import org.example.TaskStatus;
+import org.example.forecast.TaskTimelineAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Metryki przepływu zadań liczone jednym przebiegiem po change_log_entry posortowanej (task_id, changed_at)
+ * zamiast getTaskHistory dla każdego zadania (N zapytań). Stan jednego zadania naraz, wyniki zapisywane
+ * paczkami w osobnych transakcjach, więc pamięć nie zależy od liczby zadań.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class TaskCycleMetricsServiceImpl implements TaskCycleMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCycleMetricsServiceImpl.class);
+
+    private static final int WRITE_BATCH_SIZE = 1000;
+    private static final double MINUTES_PER_DAY = 24.0 * 60.0;
+
+    private static final String MERGE_SQL = "MERGE INTO task_cycle_metrics (task_id, created_at, first_done_at, "
+            + "current_status, lead_time_minutes, cycle_time_minutes, todo_minutes, in_progress_minutes, "
+            + "status_changes, reopen_count, computed_at) KEY (task_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Autowired
+    private TaskCycleMetricsRepository cycleMetricsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Override
+    public Map<String, Object> recompute() {
+        return recompute(() -> { });
+    }
+
+    @Override
+    public Map<String, Object> recompute(Runnable beforeWrite) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Task cycle metrics computation is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            TaskTimelineAccumulator accumulator = new TaskTimelineAccumulator(now);
+            List<Object[]> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+            long[] counters = new long[2]; // [wpisy historii, zadania]
+
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> timeline = changeLogRepository.streamTaskTimeline()) {
+                    timeline.forEach(row -> {
+                        counters[0]++;
+                        long taskId = (Long) row[0];
+                        if (!accumulator.isActive() || accumulator.getTaskId() != taskId) {
+                            if (accumulator.isActive()) {
+                                addResult(batch, accumulator.finish(), now);
+                                counters[1]++;
+                            }
+                            accumulator.reset(taskId, (TaskStatus) row[5]);
+                        }
+                        apply(accumulator, (ChangeLogOperationType) row[1], (String) row[2], (String) row[3],
+                                (LocalDateTime) row[4]);
+                        if (batch.size() >= WRITE_BATCH_SIZE) {
+                            flush(batch, beforeWrite);
+                        }
+                    });
+                }
+            });
+            if (accumulator.isActive()) {
+                addResult(batch, accumulator.finish(), now);
+                counters[1]++;
+            }
+            flush(batch, beforeWrite);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("changeLogEntries", counters[0]);
+            stats.put("tasks", counters[1]);
+            stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            logger.info("Task cycle metrics computed: {}", stats);
+            return stats;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        List<Object[]> rows = cycleMetricsRepository.summarize();
+        Object[] row = rows.isEmpty() ? new Object[7] : rows.get(0);
+
+        summary.put("tasksMeasured", row[0] != null ? ((Number) row[0]).longValue() : 0L);
+        summary.put("averageLeadTimeDays", toDays(row[1]));
+        summary.put("averageCycleTimeDays", toDays(row[2]));
+        Map<String, Double> daysInStatus = new LinkedHashMap<>();
+        daysInStatus.put(TaskStatus.TODO.getDisplayName(), toDays(row[3]));
+        daysInStatus.put(TaskStatus.IN_PROGRESS.getDisplayName(), toDays(row[4]));
+        summary.put("averageDaysInStatus", daysInStatus);
+        summary.put("reopenedTransitions", row[5] != null ? ((Number) row[5]).longValue() : 0L);
+        summary.put("computedAt", row[6]);
+        return summary;
+    }
+
+    /**
+     * Minuty (średnia z bazy) na dni z dwoma miejscami po przecinku; null, gdy brak danych
+     */
+    private static Double toDays(Object minutes) {
+        if (minutes == null) {
+            return null;
+        }
+        return Math.round(((Number) minutes).doubleValue() / MINUTES_PER_DAY * 100.0) / 100.0;
+    }
+
+    private void apply(TaskTimelineAccumulator accumulator, ChangeLogOperationType type, String oldValue,
+                       String newValue, LocalDateTime changedAt) {
+        if (type == ChangeLogOperationType.CREATE) {
+            accumulator.onCreate(changedAt);
+        } else if (type == ChangeLogOperationType.STATUS_CHANGE) {
+            TaskStatus to = parseStatus(newValue);
+            if (to != null) {
+                accumulator.onStatusChange(parseStatus(oldValue), to, changedAt);
+            } else {
+                accumulator.onEvent(changedAt);
+            }
+        } else {
+            accumulator.onEvent(changedAt);
+        }
+    }
+
+    private void addResult(List<Object[]> batch, TaskTimelineAccumulator.Result result, LocalDateTime computedAt) {
+        batch.add(new Object[] {
+            result.taskId(), result.createdAt(), result.firstDoneAt(), result.currentStatus().name(),
+            result.leadTimeMinutes(), result.cycleTimeMinutes(), result.todoMinutes(), result.inProgressMinutes(),
+            result.statusChanges(), result.reopenCount(), computedAt
+        });
+    }
+
+    /**
+     * Zapis paczki w osobnej transakcji - kursor odczytu zostaje otwarty, a zapis nie rośnie w jedną dużą transakcję
+     */
+    private void flush(List<Object[]> batch, Runnable beforeWrite) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        beforeWrite.run();
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        write.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MERGE_SQL, batch));
+        batch.clear();
+    }
+
+    private static TaskStatus parseStatus(String value) {
+        try {
+            return TaskStatus.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
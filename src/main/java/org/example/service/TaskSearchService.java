@@ -0,0 +1,32 @@
+package org.example.service;
+
+import org.example.Task;
+import org.example.dto.SearchPageDto;
+
+import java.util.Map;
+
+/**
+ * Interface serwisu wyszukiwania pełnotekstowego zadań (tytuł i opis).
+ */
+public interface TaskSearchService {
+
+    /**
+     * Wyszukuje zadania z rankingiem, dopasowaniem prefiksowym i stronicowaniem
+     */
+    SearchPageDto<Task> search(String query, int page, int size);
+
+    /**
+     * Dodaje lub aktualizuje zadanie w indeksie (wywoływane po zapisie)
+     */
+    void indexTask(Task task);
+
+    /**
+     * Usuwa zadanie z indeksu (wywoływane po usunięciu)
+     */
+    void removeTask(Long taskId);
+
+    /**
+     * Przebudowuje indeks od zera na podstawie bazy danych
+     */
+    Map<String, Object> rebuildIndex();
+}
@@ -0,0 +1,167 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.Task;
+import org.example.TaskRepository;
+import org.example.dto.SearchPageDto;
+import org.example.search.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Wyszukiwanie zadań przez odwrócony indeks w pamięci zamiast LIKE '%x%' na tabeli task.
+ * Indeks budowany jest przy starcie, aktualizowany przyrostowo przez TaskServiceImpl
+ * i okresowo przebudowywany (search.tasks.rebuild-cron) - np. po imporcie danych z pominięciem serwisu.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchServiceImpl.class);
+
+    // Tytuł ważniejszy od opisu
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private volatile InvertedIndex index = newIndex();
+
+    // Zadania zmienione w trakcie przebudowy - dociągane do nowego indeksu po jej zakończeniu
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Override
+    public SearchPageDto<Task> search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page is too large: page * size must not exceed " + Integer.MAX_VALUE);
+        }
+
+        long start = System.nanoTime();
+        InvertedIndex.SearchResult result = index.search(query, (int) offset, size);
+
+        // Jedno zapytanie po encje dla całej strony, kolejność według rankingu
+        List<Long> ids = result.hits().stream().map(InvertedIndex.Hit::docId).toList();
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        SearchPageDto<Task> dto = new SearchPageDto<>(query, page, size);
+        dto.setTotalHits(result.totalHits());
+        List<SearchPageDto.Hit<Task>> hits = new ArrayList<>();
+        for (InvertedIndex.Hit hit : result.hits()) {
+            Task task = tasks.get(hit.docId());
+            if (task != null) {
+                hits.add(new SearchPageDto.Hit<>(task, Math.round(hit.score() * 1000.0) / 1000.0));
+            }
+        }
+        dto.setResults(hits);
+        dto.setTookMs(Math.round((System.nanoTime() - start) / 10_000.0) / 100.0);
+        return dto;
+    }
+
+    @Override
+    public void indexTask(Task task) {
+        if (task == null || task.getId() == null) {
+            return;
+        }
+        index.index(task.getId(), task.getTitle(), task.getDescription());
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(task.getId());
+        }
+    }
+
+    @Override
+    public void removeTask(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        index.remove(taskId);
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(taskId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildIndex();
+    }
+
+    @Scheduled(cron = "${search.tasks.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (!rebuilding.get()) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Nowy indeks budowany jest obok bieżącego, który do końca obsługuje wyszukiwania
+     */
+    @Override
+    public Map<String, Object> rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Task search index rebuild is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            touchedDuringRebuild.clear();
+            InvertedIndex fresh = newIndex();
+            long afterId = 0L;
+            List<Object[]> batch;
+            do {
+                batch = taskRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : batch) {
+                    fresh.index((Long) row[0], (String) row[1], (String) row[2]);
+                    afterId = (Long) row[0];
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            index = fresh;
+            for (Long taskId : touchedDuringRebuild) {
+                taskRepository.findById(taskId).ifPresentOrElse(
+                        task -> fresh.index(taskId, task.getTitle(), task.getDescription()),
+                        () -> fresh.remove(taskId));
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", fresh.size());
+            stats.put("terms", fresh.termCount());
+            stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            logger.info("Task search index rebuilt: {}", stats);
+            return stats;
+        } finally {
+            touchedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    private static InvertedIndex newIndex() {
+        return new InvertedIndex(TITLE_WEIGHT, DESCRIPTION_WEIGHT);
+    }
+}
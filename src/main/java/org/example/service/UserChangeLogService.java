@@ -0,0 +1,22 @@
+package org.example.service;
+
+import org.example.UserChangeLogEntry;
+import org.example.audit.FieldChange;
+
+import java.util.List;
+
+/**
+ * Interface serwisu historii zmian użytkowników (user_change_log_entry).
+ */
+public interface UserChangeLogService {
+
+    /**
+     * Zapisuje zmiany jednej aktualizacji użytkownika jedną paczką INSERT; zwraca liczbę wpisów
+     */
+    int logChanges(Long userId, List<FieldChange> changes);
+
+    /**
+     * Ostatnie zmiany użytkownika, od najnowszej
+     */
+    List<UserChangeLogEntry> getUserChanges(Long userId, int limit);
+}
@@ -0,0 +1,58 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.UserChangeLogEntry;
+import org.example.UserChangeLogEntryRepository;
+import org.example.audit.FieldChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historia zmian użytkowników - wpisy wszystkich zmienionych pól aktualizacji zapisywane jednym batchUpdate.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class UserChangeLogServiceImpl implements UserChangeLogService {
+
+    private static final int MAX_LIMIT = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO user_change_log_entry "
+            + "(user_id, field_name, old_value, new_value, operation_type, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserChangeLogEntryRepository userChangeLogRepository;
+
+    @Override
+    public int logChanges(Long userId, List<FieldChange> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (FieldChange change : changes) {
+            rows.add(new Object[] {
+                userId, change.field(), change.oldValue(), change.newValue(), change.operation().name(), changedAt
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return rows.size();
+    }
+
+    @Override
+    public List<UserChangeLogEntry> getUserChanges(Long userId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return userChangeLogRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, limit));
+    }
+}
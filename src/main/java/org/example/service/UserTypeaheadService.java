@@ -0,0 +1,33 @@
+package org.example.service;
+
+import org.example.User;
+import org.example.dto.UserSuggestionDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface serwisu podpowiedzi użytkowników (typeahead) po nazwie i emailu.
+ */
+public interface UserTypeaheadService {
+
+    /**
+     * Top-k użytkowników pasujących do wpisanego fragmentu (bez rozróżniania polskich znaków)
+     */
+    List<UserSuggestionDto> suggest(String query, int limit);
+
+    /**
+     * Dodaje lub aktualizuje użytkownika w indeksie (wywoływane po zapisie)
+     */
+    void indexUser(User user);
+
+    /**
+     * Usuwa użytkownika z indeksu (wywoływane po usunięciu)
+     */
+    void removeUser(Long userId);
+
+    /**
+     * Przebudowuje indeks od zera na podstawie bazy danych
+     */
+    Map<String, Object> rebuildIndex();
+}
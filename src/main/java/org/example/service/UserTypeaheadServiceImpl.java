@@ -0,0 +1,148 @@
+package org.example.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.User;
+import org.example.UserRepository;
+import org.example.dto.UserSuggestionDto;
+import org.example.search.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Podpowiedzi użytkowników z indeksu trigramów w pamięci - bez zapytań LIKE '%x%' przy każdym naciśnięciu klawisza.
+ * Dane do wyświetlenia (nazwa, email, avatar) trzymane są obok indeksu, więc podpowiedź nie dotyka bazy.
+ */
+@Service
+@Timed(value = "taskmanager.service", histogram = true)
+public class UserTypeaheadServiceImpl implements UserTypeaheadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTypeaheadServiceImpl.class);
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile Map<Long, UserSuggestionDto> suggestions = new ConcurrentHashMap<>();
+
+    // Użytkownicy zmienieni w trakcie przebudowy - dociągani do nowego indeksu po jej zakończeniu
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Override
+    public List<UserSuggestionDto> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<UserSuggestionDto> result = new ArrayList<>(limit);
+        for (TrigramIndex.Hit hit : index.search(query, limit)) {
+            UserSuggestionDto user = suggestions.get(hit.id());
+            if (user != null) {
+                UserSuggestionDto suggestion = new UserSuggestionDto(user.getId(), user.getUsername(), user.getEmail(), user.getAvatarUrl());
+                suggestion.setScore(Math.round(hit.score() * 1000.0) / 1000.0);
+                result.add(suggestion);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void indexUser(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // Najpierw oznaczenie, potem zapis - zapis do starego indeksu po podmianie zawsze zostanie powtórzony
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(user.getId());
+        }
+        suggestions.put(user.getId(), new UserSuggestionDto(user.getId(), user.getUsername(), user.getEmail(), user.getAvatarUrl()));
+        index.index(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(userId);
+        }
+        index.remove(userId);
+        suggestions.remove(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildIndex();
+    }
+
+    /**
+     * Nowy indeks budowany obok bieżącego i podmieniany na końcu; zmiany z czasu przebudowy
+     * (nowi i usunięci użytkownicy) odtwarzane są w nowym indeksie na podstawie bazy
+     */
+    @Override
+    public Map<String, Object> rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("User typeahead index rebuild is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            touchedDuringRebuild.clear();
+            TrigramIndex fresh = new TrigramIndex();
+            Map<Long, UserSuggestionDto> freshSuggestions = new ConcurrentHashMap<>();
+            for (Object[] row : userRepository.findTypeaheadDocuments()) {
+                Long id = (Long) row[0];
+                String username = (String) row[1];
+                String email = (String) row[2];
+                freshSuggestions.put(id, new UserSuggestionDto(id, username, email, (String) row[3]));
+                fresh.index(id, username, email);
+            }
+            suggestions = freshSuggestions;
+            index = fresh;
+
+            // Zapisy oznaczone przed podmianą mogły trafić do starego indeksu - późniejsze widzą już nowy
+            replayTouched(fresh, freshSuggestions);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("users", fresh.size());
+            stats.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            logger.info("User typeahead index rebuilt: {}", stats);
+            return stats;
+        } finally {
+            touchedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    private void replayTouched(TrigramIndex fresh, Map<Long, UserSuggestionDto> freshSuggestions) {
+        for (Iterator<Long> it = touchedDuringRebuild.iterator(); it.hasNext(); ) {
+            Long userId = it.next();
+            it.remove();
+            userRepository.findById(userId).ifPresentOrElse(user -> {
+                freshSuggestions.put(userId, new UserSuggestionDto(userId, user.getUsername(), user.getEmail(), user.getAvatarUrl()));
+                fresh.index(userId, user.getUsername(), user.getEmail());
+            }, () -> {
+                fresh.remove(userId);
+                freshSuggestions.remove(userId);
+            });
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.service;
+
+import org.example.User;
+import org.example.UserRepository;
+import org.example.search.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Szybka ścieżka dla sprawdzania unikalności email i nazwy użytkownika.
+ * Filtr Blooma nad znormalizowanymi wartościami (trim + małe litery) odpowiada "na pewno wolne"
+ * bez zapytania do bazy; tylko odpowiedzi "może zajęte" trafiają do existsByEmail/existsByUsername.
+ * Przed pierwszym załadowaniem zawsze odpowiada "może" - poprawność nie zależy od rozgrzania.
+ */
+@Component
+public class UserUniquenessFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserUniquenessFilter.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Filters current;
+    // Filtry w trakcie przebudowy - zapisy trafiają do obu wersji
+    private volatile Filters building;
+    // Zapis do filtrów i podmiana wersji wzajemnie się wykluczają - bez tego użytkownik dodany w chwili podmiany
+    // trafiłby tylko do starego filtra (fałszywe "na pewno wolne" do następnej przebudowy)
+    private final Object swapLock = new Object();
+    // Przebudowy jedna po drugiej; ReentrantLock, bo trzymany przez zapytania JDBC (wątki wirtualne na JDK 21)
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null || filters.emails.mightContain(normalize(email));
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return filters == null || username == null || filters.usernames.mightContain(normalize(username));
+    }
+
+    /**
+     * Rejestruje email i nazwę zapisanego użytkownika (wywoływane po zapisie)
+     */
+    public void addUser(User user) {
+        if (user == null) {
+            return;
+        }
+        synchronized (swapLock) {
+            for (Filters filters : new Filters[]{current, building}) {
+                if (filters != null) {
+                    filters.add(user.getEmail(), user.getUsername());
+                }
+            }
+        }
+    }
+
+    public boolean isWarm() {
+        return current != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Przebudowa co noc - dopasowuje rozmiar filtra do liczby użytkowników i czyści usunięte klucze
+     */
+    @Scheduled(cron = "${uniqueness.filter.rebuild-cron:0 15 3 * * *}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            long capacity = Math.max(MIN_CAPACITY, userRepository.count() * 2);
+            Filters fresh = new Filters(capacity);
+            synchronized (swapLock) {
+                building = fresh;
+            }
+            try {
+                List<Object[]> rows = userRepository.findTypeaheadDocuments();
+                for (Object[] row : rows) {
+                    fresh.add((String) row[2], (String) row[1]);
+                }
+                synchronized (swapLock) {
+                    current = fresh;
+                    building = null;
+                }
+                logger.info("User uniqueness filter rebuilt: users={}, capacity={}, tookMs={}",
+                        rows.size(), capacity, (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                synchronized (swapLock) {
+                    if (building == fresh) {
+                        building = null;
+                    }
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Ładuje filtr bezpośrednio z podanych wartości (testy, import danych)
+     */
+    public void warmUp(Collection<String> emails, Collection<String> usernames) {
+        Filters fresh = new Filters(Math.max(MIN_CAPACITY, (emails.size() + usernames.size()) * 2L));
+        emails.forEach(email -> fresh.add(email, null));
+        usernames.forEach(username -> fresh.add(null, username));
+        synchronized (swapLock) {
+            current = fresh;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        final BloomFilter emails;
+        final BloomFilter usernames;
+
+        Filters(long capacity) {
+            emails = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+            usernames = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        }
+
+        void add(String email, String username) {
+            if (email != null) {
+                emails.add(normalize(email));
+            }
+            if (username != null) {
+                usernames.add(normalize(username));
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Migration V10: Cluster-wide locks and run history of scheduled maintenance jobs (JobCoordinator)
+-- Wiersz blokady na zadanie; węzeł przejmuje go warunkowym UPDATE, gdy lease_until minął (zegar bazy, nie węzła)
+CREATE TABLE scheduler_lock (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner_node VARCHAR(100),
+    fencing_token BIGINT NOT NULL DEFAULT 0,
+    acquired_at TIMESTAMP,
+    lease_until TIMESTAMP
+);
+
+-- Historia uruchomień; przycinana do jobs.history.max-per-job ostatnich wierszy na zadanie
+CREATE TABLE job_run (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    node_id VARCHAR(100) NOT NULL,
+    fencing_token BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    result VARCHAR(1000),
+    error VARCHAR(1000)
+);
+
+CREATE INDEX idx_job_run_job_name ON job_run(job_name, id);
@@ -0,0 +1,13 @@
+-- Migration V11: Field-level audit of user updates (username, email, avatar URL)
+-- Bez klucza obcego do app_user - historia zostaje po usunięciu użytkownika
+CREATE TABLE user_change_log_entry (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    field_name VARCHAR(50) NOT NULL,
+    old_value VARCHAR(1000),
+    new_value VARCHAR(1000),
+    operation_type VARCHAR(20) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_user_change_log_user_id ON user_change_log_entry(user_id, id);
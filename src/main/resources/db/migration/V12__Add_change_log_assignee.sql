@@ -0,0 +1,10 @@
+-- Migration V12: Assignee captured on change_log_entry at the moment of the change
+-- Ranking okien 7/30 dni liczy przejście do DONE dla osoby przypisanej w chwili zmiany statusu;
+-- odbudowa z bieżącego task.user_id przenosiła zasługi po zmianie przypisania i gubiła je po odpięciu
+-- Bez klucza obcego - zasługi zostają po usunięciu użytkownika (ranking pomija nieistniejących)
+ALTER TABLE change_log_entry ADD COLUMN assignee_user_id BIGINT;
+
+-- Istniejące przejścia do DONE: najlepsze dostępne przybliżenie to bieżące przypisanie zadania
+UPDATE change_log_entry c
+SET assignee_user_id = (SELECT t.user_id FROM task t WHERE t.id = c.task_id)
+WHERE c.operation_type = 'STATUS_CHANGE' AND c.new_value = 'Done';
@@ -0,0 +1,39 @@
+-- Migration V5: Composite and covering indexes for the hot TaskRepository / ChangeLogEntryRepository queries
+-- Kolejność kolumn: najpierw równość, potem zakres / sortowanie
+
+-- countOverdueTasks: due_date < ? AND status <> 'DONE' (indeks pokrywający - COUNT bez odczytu wierszy)
+CREATE INDEX idx_task_due_date_status ON task(due_date, status);
+
+-- findByAssignedTo_IdAndStatus, validateTaskAssignment, getUserTaskStatistics (GROUP BY user_id z sumami po status)
+CREATE INDEX idx_task_user_status ON task(user_id, status);
+
+-- findByAssignedTo_IdAndPriority
+CREATE INDEX idx_task_user_priority ON task(user_id, priority);
+
+-- countTasksByStatus, countCompletedTasks, findByStatus, findTopPerformersByCompletedTasks (status = DONE -> user_id)
+CREATE INDEX idx_task_status_user ON task(status, user_id);
+
+-- getTaskDistributionByStatusAndPriority (GROUP BY status, priority)
+CREATE INDEX idx_task_status_priority ON task(status, priority);
+
+-- findByOperationTypeOrderByChangedAtDesc, findByOperationTypeAndChangedAtBetween..., countByOperationType
+CREATE INDEX idx_change_log_operation_changed_at ON change_log_entry(operation_type, changed_at);
+
+-- findByChangedByIdOrderByChangedAtDesc, countByChangedById
+CREATE INDEX idx_change_log_changed_by_changed_at ON change_log_entry(changed_by_user_id, changed_at);
+
+-- findByFieldNameOrderByChangedAtDesc
+CREATE INDEX idx_change_log_field_changed_at ON change_log_entry(field_name, changed_at);
+
+-- findByTaskIdAndFieldNameOrderByChangedAtDesc
+CREATE INDEX idx_change_log_task_field_changed_at ON change_log_entry(task_id, field_name, changed_at);
+
+-- findByTaskIdAndOperationTypeOrderByChangedAtDesc
+CREATE INDEX idx_change_log_task_operation_changed_at ON change_log_entry(task_id, operation_type, changed_at);
+
+-- Indeksy jednokolumnowe będące prefiksem nowych indeksów złożonych - tylko koszt zapisu.
+-- Indeksy kolumn kluczy obcych (task.user_id, change_log_entry.task_id, changed_by_user_id) zostają.
+DROP INDEX idx_task_status;
+DROP INDEX idx_task_due_date;
+DROP INDEX idx_change_log_operation_type;
+DROP INDEX idx_change_log_field_name;
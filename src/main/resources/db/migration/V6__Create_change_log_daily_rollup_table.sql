@@ -0,0 +1,28 @@
+-- Migration V6: Daily rollups of change_log_entry (dzień x typ operacji x użytkownik x nowy status)
+CREATE TABLE change_log_daily_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    operation_type VARCHAR(20) NOT NULL,
+    -- 0 = zmiana bez użytkownika (system); bez FK - agregaty przeżywają usunięcie użytkownika
+    user_id BIGINT NOT NULL DEFAULT 0,
+    -- nazwa TaskStatus dla STATUS_CHANGE, pusty tekst dla pozostałych operacji
+    new_status VARCHAR(20) NOT NULL DEFAULT '',
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_change_log_rollup UNIQUE (rollup_date, operation_type, user_id, new_status)
+);
+
+-- Zakres dat jest warunkiem każdego odczytu trendu
+CREATE INDEX idx_change_log_rollup_date_operation ON change_log_daily_rollup(rollup_date, operation_type);
+
+-- Wypełnienie istniejącą historią
+INSERT INTO change_log_daily_rollup (rollup_date, operation_type, user_id, new_status, entry_count)
+SELECT CAST(changed_at AS DATE), operation_type, COALESCE(changed_by_user_id, 0),
+       CASE WHEN operation_type = 'STATUS_CHANGE' THEN
+           CASE new_value WHEN 'To Do' THEN 'TODO' WHEN 'In Progress' THEN 'IN_PROGRESS' WHEN 'Done' THEN 'DONE' ELSE '' END
+       ELSE '' END,
+       COUNT(*)
+FROM change_log_entry
+GROUP BY CAST(changed_at AS DATE), operation_type, COALESCE(changed_by_user_id, 0),
+         CASE WHEN operation_type = 'STATUS_CHANGE' THEN
+             CASE new_value WHEN 'To Do' THEN 'TODO' WHEN 'In Progress' THEN 'IN_PROGRESS' WHEN 'Done' THEN 'DONE' ELSE '' END
+         ELSE '' END;
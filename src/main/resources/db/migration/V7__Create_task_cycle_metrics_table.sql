@@ -0,0 +1,16 @@
+-- Migration V7: Per-task lead time / cycle time / time-in-status computed from change_log_entry
+CREATE TABLE task_cycle_metrics (
+    task_id BIGINT PRIMARY KEY,
+    created_at TIMESTAMP,
+    first_done_at TIMESTAMP,
+    current_status VARCHAR(20),
+    -- czasy w minutach; NULL = zadanie jeszcze nie osiągnęło danego etapu
+    lead_time_minutes BIGINT,
+    cycle_time_minutes BIGINT,
+    todo_minutes BIGINT NOT NULL DEFAULT 0,
+    in_progress_minutes BIGINT NOT NULL DEFAULT 0,
+    status_changes INT NOT NULL DEFAULT 0,
+    reopen_count INT NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE CASCADE
+);
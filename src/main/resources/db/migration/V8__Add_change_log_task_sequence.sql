@@ -0,0 +1,24 @@
+-- Migration V8: Per-task monotonic sequence number of change_log_entry
+-- changed_at nie rozróżnia wpisów zapisanych w tej samej chwili; seq daje dokładny porządek w obrębie zadania
+ALTER TABLE change_log_entry ADD COLUMN seq BIGINT;
+
+-- Wypełnienie istniejącej historii w kolejności (changed_at, id)
+MERGE INTO change_log_entry c
+USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY changed_at, id) AS rn FROM change_log_entry) s
+ON c.id = s.id
+WHEN MATCHED THEN UPDATE SET seq = s.rn;
+
+ALTER TABLE change_log_entry ALTER COLUMN seq SET NOT NULL;
+
+-- Historia zadania, stronicowanie i odtwarzanie osi czasu to skany zakresu po (task_id, seq)
+CREATE UNIQUE INDEX uk_change_log_task_seq ON change_log_entry(task_id, seq);
+
+-- Ostatni przydzielony numer dla zadania; wiersz blokowany przez MERGE do końca transakcji zapisu wpisu
+CREATE TABLE task_change_seq (
+    task_id BIGINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    FOREIGN KEY (task_id) REFERENCES task(id) ON DELETE CASCADE
+);
+
+INSERT INTO task_change_seq (task_id, last_seq)
+SELECT task_id, MAX(seq) FROM change_log_entry GROUP BY task_id;
@@ -0,0 +1,12 @@
+-- Migration V9: Change events exchanged between application nodes (JdbcClusterEventTransport)
+-- Wiersze żyją cluster.events.jdbc.retention-minutes; każdy węzeł odpytuje tabelę po id
+CREATE TABLE cluster_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(36) NOT NULL,
+    origin_node VARCHAR(100) NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_cluster_event_created_at ON cluster_event(created_at);
@@ -1,5 +1,7 @@
 package org.example;
 
+import org.example.dto.CursorPageDto;
+import org.example.service.AnalyticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +11,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,6 +36,9 @@ class ChangeLogServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
     private Task testTask;
     private User testUser;
 
@@ -220,6 +229,24 @@ class ChangeLogServiceTest {
         assertEquals(10, recentChanges.size());
     }
 
+    @Test
+    void shouldGetRecentTaskChangesOfOperationTypeWithinLimit() {
+        // Given
+        changeLogService.logChange(testTask, "title", "Old", "New", ChangeLogOperationType.TITLE_CHANGE);
+        changeLogService.logChange(testTask, "status", "TODO", "IN_PROGRESS", ChangeLogOperationType.STATUS_CHANGE);
+        changeLogService.logChange(testTask, "status", "IN_PROGRESS", "DONE", ChangeLogOperationType.STATUS_CHANGE);
+
+        // When
+        List<ChangeLogEntry> statusChanges = changeLogService.getRecentTaskChanges(
+                testTask.getId(), ChangeLogOperationType.STATUS_CHANGE, 1);
+
+        // Then
+        assertEquals(1, statusChanges.size());
+        assertEquals(ChangeLogOperationType.STATUS_CHANGE, statusChanges.get(0).getOperationType());
+        assertThrows(IllegalArgumentException.class, () -> changeLogService.getRecentTaskChanges(
+                testTask.getId(), ChangeLogOperationType.STATUS_CHANGE, ChangeLogServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
     @Test
     void shouldGetChangesByOperationType() {
         // Given
@@ -228,7 +255,7 @@ class ChangeLogServiceTest {
         changeLogService.logChange(testTask, "status", "IN_PROGRESS", "DONE", ChangeLogOperationType.STATUS_CHANGE);
 
         // When
-        List<ChangeLogEntry> statusChanges = changeLogService.getChangesByOperationType(ChangeLogOperationType.STATUS_CHANGE);
+        List<ChangeLogEntry> statusChanges = changeLogService.getChangesByOperationType(ChangeLogOperationType.STATUS_CHANGE, 50);
 
         // Then
         assertNotNull(statusChanges);
@@ -243,7 +270,7 @@ class ChangeLogServiceTest {
         changeLogService.logChange(testTask, "status", "TODO", "IN_PROGRESS", ChangeLogOperationType.STATUS_CHANGE, testUser);
 
         // When
-        List<ChangeLogEntry> userChanges = changeLogService.getChangesByUser(testUser.getId());
+        List<ChangeLogEntry> userChanges = changeLogService.getChangesByUser(testUser.getId(), 50);
 
         // Then
         assertNotNull(userChanges);
@@ -273,6 +300,28 @@ class ChangeLogServiceTest {
         assertEquals(1, stats.getChangesByType().get(ChangeLogOperationType.TITLE_CHANGE));
     }
 
+    @Test
+    void shouldGetUserChangeStatsFromAggregates() {
+        // Given
+        changeLogService.logChange(testTask, "title", "Old", "New", ChangeLogOperationType.TITLE_CHANGE, testUser);
+        changeLogService.logChange(testTask, "status", "To Do", "In Progress", ChangeLogOperationType.STATUS_CHANGE, testUser);
+        changeLogService.logChange(testTask, "status", "In Progress", "Done", ChangeLogOperationType.STATUS_CHANGE, testUser);
+        changeLogService.logChange(testTask, "priority", "Medium", "High", ChangeLogOperationType.PRIORITY_CHANGE);
+
+        // When
+        ChangeLogStats stats = changeLogService.getUserChangeStats(testUser.getId());
+
+        // Then - wpis bez autora nie jest liczony
+        assertEquals("user", stats.getEntityType());
+        assertEquals(3, stats.getTotalChanges());
+        assertEquals(3, stats.getChangesLast24Hours());
+        assertEquals(2, stats.getChangesByType().get(ChangeLogOperationType.STATUS_CHANGE));
+        assertEquals(2, stats.getChangesByField().get("status"));
+        assertEquals(1, stats.getChangesByField().get("title"));
+        assertNotNull(stats.getFirstChange());
+        assertEquals(0, changeLogService.getUserChangeStats(-1L).getTotalChanges());
+    }
+
     @Test
     void shouldExportTaskHistoryToJson() {
         // Given
@@ -322,6 +371,93 @@ class ChangeLogServiceTest {
         assertTrue(changes.isEmpty());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMaintainDailyRollupsForTrendData() {
+        // Given
+        LocalDate today = LocalDate.now();
+        Map<String, Object> totalsBefore = (Map<String, Object>) analyticsService.getTrendData(today, today).get("totals");
+
+        // When
+        changeLogService.logChange(testTask, "status", "In Progress", "Done", ChangeLogOperationType.STATUS_CHANGE, testUser);
+        changeLogService.logChange(testTask, "title", "Old", "New", ChangeLogOperationType.TITLE_CHANGE, testUser);
+
+        // Then
+        Map<String, Object> trend = analyticsService.getTrendData(today.minusDays(1), today);
+        List<Map<String, Object>> series = (List<Map<String, Object>>) trend.get("series");
+        assertEquals(2, series.size());
+
+        Map<String, Object> totals = (Map<String, Object>) trend.get("totals");
+        assertEquals((Long) totalsBefore.get("totalChanges") + 2, totals.get("totalChanges"));
+        assertEquals((Long) totalsBefore.get("completed") + 1, totals.get("completed"));
+        assertTrue((Long) series.get(1).get("activeUsers") >= 1);
+    }
+
+    @Test
+    void shouldPaginateTaskHistoryWithCursor() {
+        // Given - wpisy zapisane w jednej chwili mogą mieć ten sam changedAt
+        for (int i = 0; i < 7; i++) {
+            changeLogService.logChange(testTask, "title", "Old" + i, "New" + i, ChangeLogOperationType.TITLE_CHANGE);
+        }
+
+        // When
+        Set<Long> seen = new HashSet<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        CursorPageDto<ChangeLogEntry> page;
+        do {
+            page = changeLogService.getTaskHistoryPage(testTask.getId(), cursor, 3);
+            page.getItems().forEach(entry -> assertTrue(seen.add(entry.getId())));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        // Then
+        assertEquals(List.of(3, 3, 1), pageSizes);
+        assertEquals(7, seen.size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldAssignConsecutiveSequenceNumbersPerTask() {
+        // Given - wpisy jednej aktualizacji zapisane w tej samej chwili
+        Task otherTask = new Task();
+        otherTask.setTitle("Other Task");
+        otherTask.setStatus(TaskStatus.TODO);
+        otherTask = taskRepository.save(otherTask);
+        changeLogService.logTaskChanges(null, testTask, testUser);
+        changeLogService.logChange(otherTask, "title", "a", "b", ChangeLogOperationType.TITLE_CHANGE);
+        Task updated = createTaskCopy(testTask);
+        updated.setTitle("Updated Title");
+        updated.setStatus(TaskStatus.DONE);
+        updated.setPriority(TaskPriority.HIGH);
+        changeLogService.logTaskChanges(testTask, updated, testUser);
+
+        // When
+        List<ChangeLogEntry> history = changeLogService.getTaskHistory(testTask.getId());
+        List<ChangeLogEntry> replay = changeLogService.getTaskChangesSince(testTask.getId(), 1, 100);
+
+        // Then - numeracja per zadanie, historia od najnowszego, odtwarzanie rosnąco od podanej pozycji
+        assertEquals(List.of(4L, 3L, 2L, 1L), history.stream().map(ChangeLogEntry::getSeq).toList());
+        assertEquals(List.of(2L, 3L, 4L), replay.stream().map(ChangeLogEntry::getSeq).toList());
+        assertEquals(List.of("title", "status", "priority"), replay.stream().map(ChangeLogEntry::getFieldName).toList());
+        assertEquals(1L, changeLogService.getTaskHistory(otherTask.getId()).get(0).getSeq());
+    }
+
+    @Test
+    void shouldRejectInvalidCursorAndPageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> changeLogService.getTaskHistoryPage(testTask.getId(), "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> changeLogService.getChangesByUserPage(testUser.getId(), null, 5000));
+    }
+
+    @Test
+    void shouldRejectInvertedTrendRange() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getTrendData(today, today.minusDays(1)));
+    }
+
     /**
      * Pomocnicza metoda do tworzenia kopii zadania
      */
@@ -0,0 +1,122 @@
+package org.example;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.cluster.ClusterEvent;
+import org.example.cluster.ClusterEventBus;
+import org.example.cluster.ClusterEventListener;
+import org.example.cluster.ClusterEventType;
+import org.example.cluster.LoopbackClusterEventTransport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testy szyny zdarzeń klastra - dwa "węzły" w jednej JVM połączone transportem loopback.
+ */
+class ClusterEventBusTest {
+
+    private LoopbackClusterEventTransport hub;
+    private RecordingListener nodeAListener;
+    private RecordingListener nodeBListener;
+    private ClusterEventBus nodeA;
+    private ClusterEventBus nodeB;
+
+    @BeforeEach
+    void setUp() {
+        hub = new LoopbackClusterEventTransport();
+        nodeAListener = new RecordingListener();
+        nodeBListener = new RecordingListener();
+        nodeA = new ClusterEventBus("node-a", hub, () -> List.of(nodeAListener), 10, 20, 100, new SimpleMeterRegistry());
+        nodeB = new ClusterEventBus("node-b", hub.attach(), () -> List.of(nodeBListener), 10, 20, 100,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_ShouldDeliverLocallyAndToOtherNodesOnly() {
+        // Given
+        nodeA.publish(ClusterEventType.TASK_CHANGED, 1L);
+        nodeA.publish(ClusterEventType.USER_DELETED, 7L);
+
+        // When
+        int flushed = nodeA.flush();
+        int receivedByA = nodeA.poll();
+        int receivedByB = nodeB.poll();
+
+        // Then
+        assertThat(flushed).isEqualTo(2);
+        assertThat(receivedByA).isZero();
+        assertThat(receivedByB).isEqualTo(2);
+        assertThat(nodeAListener.local).extracting(ClusterEvent::type)
+                .containsExactly(ClusterEventType.TASK_CHANGED, ClusterEventType.USER_DELETED);
+        assertThat(nodeAListener.remote).isEmpty();
+        assertThat(nodeBListener.remote).extracting(ClusterEvent::originNode).containsOnly("node-a");
+        assertThat(nodeBListener.remote).extracting(ClusterEvent::entityId).containsExactly(1L, 7L);
+    }
+
+    @Test
+    void flush_ShouldCoalesceRepeatedEventsAndSplitIntoBatches() {
+        // Given - 3x to samo zadanie + 12 różnych wpisów historii, paczki po 10
+        for (int i = 0; i < 3; i++) {
+            nodeA.publish(ClusterEventType.TASK_CHANGED, 42L);
+        }
+        for (long entryId = 1; entryId <= 12; entryId++) {
+            nodeA.publish(ClusterEventType.CHANGE_LOG_APPENDED, entryId);
+        }
+
+        // When
+        int flushed = nodeA.flush();
+        nodeB.poll();
+
+        // Then
+        assertThat(flushed).isEqualTo(13);
+        assertThat(nodeBListener.batches).hasSize(2);
+        assertThat(nodeBListener.remote).filteredOn(event -> event.type() == ClusterEventType.TASK_CHANGED).hasSize(1);
+        assertThat(nodeBListener.remote).hasSize(13);
+    }
+
+    @Test
+    void poll_ShouldIgnoreRedeliveredEvents() {
+        // Given
+        nodeA.publish(ClusterEventType.TASK_DELETED, 5L);
+        nodeA.flush();
+        nodeB.poll();
+
+        // When - transport dostarcza te same zdarzenia ponownie
+        hub.send(new ArrayList<>(nodeAListener.local));
+        int redelivered = nodeB.poll();
+
+        // Then
+        assertThat(redelivered).isZero();
+        assertThat(nodeBListener.remote).hasSize(1);
+        assertThat(nodeB.getStatus()).containsEntry("duplicates", 1L);
+    }
+
+    @Test
+    void publish_ShouldDropEventsBeyondPendingLimit() {
+        // When
+        for (long id = 1; id <= 25; id++) {
+            nodeA.publish(ClusterEventType.USER_CHANGED, id);
+        }
+
+        // Then
+        assertThat(nodeA.getStatus()).containsEntry("pending", 20).containsEntry("dropped", 5L);
+        assertThat(nodeA.flush()).isEqualTo(20);
+        assertThat(nodeA.getStatus()).containsEntry("pending", 0);
+    }
+
+    private static class RecordingListener implements ClusterEventListener {
+        final List<List<ClusterEvent>> batches = new ArrayList<>();
+        final List<ClusterEvent> local = new ArrayList<>();
+        final List<ClusterEvent> remote = new ArrayList<>();
+
+        @Override
+        public void onEvents(List<ClusterEvent> events, boolean isRemote) {
+            batches.add(events);
+            (isRemote ? remote : local).addAll(events);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import org.example.audit.EntityDiffer;
+import org.example.audit.FieldChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testy porównania encji po polach @TrackChanges.
+ */
+class EntityDifferTest {
+
+    private final EntityDiffer<Task> taskDiffer = EntityDiffer.of(Task.class);
+
+    @Test
+    void diff_ShouldReturnEmptyListWhenNothingChanged() {
+        // Given
+        Task oldTask = task(user(1L, "alice"));
+        Task newTask = task(user(1L, "alice"));
+
+        // When & Then
+        assertThat(taskDiffer.diff(oldTask, newTask)).isEmpty();
+        assertThat(EntityDiffer.of(Task.class)).isSameAs(taskDiffer);
+    }
+
+    @Test
+    void diff_ShouldReportChangedFieldsInDeclarationOrderWithDisplayNames() {
+        // Given
+        Task oldTask = task(null);
+        Task newTask = task(null);
+        newTask.setTitle("Nowy tytuł");
+        newTask.setDueDate(LocalDate.of(2024, 6, 30));
+        newTask.setStatus(TaskStatus.IN_PROGRESS);
+
+        // When
+        List<FieldChange> changes = taskDiffer.diff(oldTask, newTask);
+
+        // Then
+        assertThat(changes).containsExactly(
+                new FieldChange("title", "Zadanie", "Nowy tytuł", ChangeLogOperationType.TITLE_CHANGE),
+                new FieldChange("dueDate", "2024-06-01", "2024-06-30", ChangeLogOperationType.DUE_DATE_CHANGE),
+                new FieldChange("status", TaskStatus.TODO.getDisplayName(), TaskStatus.IN_PROGRESS.getDisplayName(),
+                        ChangeLogOperationType.STATUS_CHANGE));
+    }
+
+    @Test
+    void diff_ShouldCompareAssigneesByIdAndUseUnassignWhenCleared() {
+        // Given
+        Task unassigned = task(null);
+        Task assigned = task(user(1L, "alice"));
+        Task sameAssigneeOtherInstance = task(user(1L, "alice-renamed"));
+
+        // When
+        List<FieldChange> assign = taskDiffer.diff(unassigned, assigned);
+        List<FieldChange> unassign = taskDiffer.diff(assigned, unassigned);
+
+        // Then
+        assertThat(assign).containsExactly(
+                new FieldChange("assignedTo", "unassigned", "alice", ChangeLogOperationType.ASSIGN));
+        assertThat(unassign).containsExactly(
+                new FieldChange("assignedTo", "alice", "unassigned", ChangeLogOperationType.UNASSIGN));
+        assertThat(taskDiffer.diff(assigned, sameAssigneeOtherInstance)).isEmpty();
+    }
+
+    @Test
+    void diff_ShouldReportUserFieldChanges() {
+        // Given
+        User oldUser = user(5L, "bob");
+        User newUser = user(5L, "bob");
+        newUser.setEmail("bob@new.example.com");
+
+        // When
+        List<FieldChange> changes = EntityDiffer.of(User.class).diff(oldUser, newUser);
+
+        // Then
+        assertThat(changes).containsExactly(new FieldChange("email", "bob@example.com", "bob@new.example.com",
+                ChangeLogOperationType.UPDATE));
+    }
+
+    @Test
+    void of_ShouldRejectClassWithoutTrackedFields() {
+        assertThatThrownBy(() -> EntityDiffer.of(ChangeLogEntry.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Task task(User assignee) {
+        Task task = new Task();
+        task.setId(10L);
+        task.setTitle("Zadanie");
+        task.setDescription("Opis");
+        task.setDueDate(LocalDate.of(2024, 6, 1));
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setAssignedTo(assignee);
+        return task;
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import org.example.forecast.MonteCarloForecaster;
+import org.example.forecast.ReservoirSample;
+import org.example.forecast.RunningStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy statystyk strumieniowych i symulacji Monte Carlo silnika prognoz.
+ */
+class ForecastEngineTest {
+
+    @Test
+    void runningStats_ShouldMatchTwoPassComputation() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] values = new double[10_000];
+        RunningStats stats = new RunningStats();
+        for (int i = 0; i < values.length; i++) {
+            // Duże przesunięcie - naiwna suma kwadratów traci tu precyzję
+            values[i] = 1_000_000 + random.nextDouble() * 10;
+            stats.add(values[i]);
+        }
+
+        double mean = 0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+
+        assertEquals(values.length, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-6);
+        assertEquals(squares / (values.length - 1), stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    void reservoirSample_ShouldKeepBoundedSampleWithPercentiles() {
+        ReservoirSample sample = new ReservoirSample(1000, 42);
+        for (int i = 1; i <= 100_000; i++) {
+            sample.add(i);
+        }
+
+        double[] sorted = sample.sortedValues();
+        assertEquals(1000, sorted.length);
+        assertEquals(100_000, sample.getSeen());
+        assertEquals(50_000, ReservoirSample.percentile(sorted, 50), 5_000);
+    }
+
+    @Test
+    void monteCarlo_ShouldBeExactForConstantThroughput() {
+        MonteCarloForecaster forecaster = new MonteCarloForecaster(ForkJoinPool.commonPool(), 3650);
+
+        MonteCarloForecaster.Result result = forecaster.forecast(new long[]{2, 2, 2}, 10, 5_000, 1L);
+
+        assertEquals(5, result.percentile(50));
+        assertEquals(5, result.percentile(95));
+        assertEquals(0.0, result.getCappedRatio());
+    }
+
+    @Test
+    void monteCarlo_ShouldBeDeterministicForSeedAndOrderedByPercentile() {
+        MonteCarloForecaster forecaster = new MonteCarloForecaster(ForkJoinPool.commonPool(), 3650);
+        long[] throughput = {0, 1, 0, 3, 5, 0, 2, 1};
+
+        MonteCarloForecaster.Result first = forecaster.forecast(throughput, 120, 20_000, 99L);
+        MonteCarloForecaster.Result second = forecaster.forecast(throughput, 120, 20_000, 99L);
+
+        assertEquals(first.percentile(85), second.percentile(85));
+        assertTrue(first.percentile(50) <= first.percentile(85));
+        assertTrue(first.percentile(85) <= first.percentile(95));
+        // Średnio 1.5 zadania dziennie -> mediana w okolicy 80 dni
+        assertEquals(80, first.percentile(50), 10);
+    }
+
+    @Test
+    void monteCarlo_ShouldRejectHistoryWithoutCompletions() {
+        MonteCarloForecaster forecaster = new MonteCarloForecaster(ForkJoinPool.commonPool(), 3650);
+
+        assertThrows(IllegalStateException.class, () -> forecaster.forecast(new long[]{0, 0}, 5, 100, 1L));
+    }
+}
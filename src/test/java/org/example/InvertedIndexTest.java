@@ -0,0 +1,108 @@
+package org.example;
+
+import org.example.search.InvertedIndex;
+import org.example.search.TextNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(3.0f, 1.0f);
+        index.index(1L, "Raport kwartalny", "Przygotować zestawienie sprzedaży");
+        index.index(2L, "Spotkanie zespołu", "Omówić raport kwartalny i plan");
+        index.index(3L, "Naprawa logowania", "Błąd przy zmianie hasła");
+    }
+
+    @Test
+    void tokenize_ShouldFoldDiacritics() {
+        assertThat(TextNormalizer.tokenize("Piotr Wiśniewski, Łódź-2024")).containsExactly("piotr", "wisniewski", "lodz", "2024");
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirst() {
+        InvertedIndex.SearchResult result = index.search("raport", 0, 10);
+
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.hits()).extracting(InvertedIndex.Hit::docId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_ShouldReturnEmptyPageForOffsetNearIntegerMaxAndRejectNegativeOffset() {
+        InvertedIndex.SearchResult result = index.search("raport", Integer.MAX_VALUE - 5, 10);
+
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.hits()).isEmpty();
+        assertThatThrownBy(() -> index.search("raport", -10, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesAndRequireAllTerms() {
+        assertThat(index.search("kwart rap", 0, 10).totalHits()).isEqualTo(2);
+        assertThat(index.search("kwart zespol", 0, 10).hits()).extracting(InvertedIndex.Hit::docId).containsExactly(2L);
+        assertThat(index.search("blad hasla", 0, 10).hits()).extracting(InvertedIndex.Hit::docId).containsExactly(3L);
+        assertThat(index.search("raport nieistniejace", 0, 10).totalHits()).isZero();
+    }
+
+    @Test
+    void search_ShouldPaginate() {
+        List<InvertedIndex.Hit> secondPage = index.search("raport", 1, 1).hits();
+
+        assertThat(secondPage).extracting(InvertedIndex.Hit::docId).containsExactly(2L);
+        assertThat(index.search("raport", 2, 1).hits()).isEmpty();
+    }
+
+    @Test
+    void index_ShouldReplaceAndRemoveDocuments() {
+        index.index(1L, "Plan wdrożenia", null);
+        assertThat(index.search("raport", 0, 10).hits()).extracting(InvertedIndex.Hit::docId).containsExactly(2L);
+        assertThat(index.search("wdrozenia", 0, 10).hits()).extracting(InvertedIndex.Hit::docId).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.search("raport", 0, 10).totalHits()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void search_ShouldApplyAttributeFilter() {
+        InvertedIndex history = new InvertedIndex(2.0f, 1.0f, 1.0f);
+        history.index(10L, new long[]{1L, 100L}, "Status changed", "To Do", "In Progress");
+        history.index(11L, new long[]{1L, 200L}, "Status changed", "In Progress", "Done");
+        history.index(12L, new long[]{2L, 150L}, "Status changed", "To Do", "Done");
+
+        assertThat(history.search("status", (docId, attributes) -> attributes[0] == 1L, 0, 10).hits())
+                .extracting(InvertedIndex.Hit::docId).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(history.search("done", (docId, attributes) -> attributes[1] >= 150L && attributes[1] <= 200L, 0, 10).totalHits())
+                .isEqualTo(2);
+
+        assertThat(history.removeIf((docId, attributes) -> attributes[0] == 1L)).isEqualTo(2);
+        assertThat(history.search("status", 0, 10).hits()).extracting(InvertedIndex.Hit::docId).containsExactly(12L);
+    }
+
+    @Test
+    void removeGroup_ShouldRemoveOnlyDocumentsOfThatGroup() {
+        InvertedIndex history = InvertedIndex.groupedBy(0, 2.0f, 1.0f, 1.0f);
+        history.index(10L, new long[]{1L, 100L}, "Status changed", "To Do", "In Progress");
+        history.index(11L, new long[]{1L, 200L}, "Status changed", "In Progress", "Done");
+        history.index(12L, new long[]{2L, 150L}, "Status changed", "To Do", "Done");
+        // Ponowne zaindeksowanie dokumentu w innej grupie przenosi go
+        history.index(11L, new long[]{2L, 200L}, "Status changed", "In Progress", "Done");
+
+        assertThat(history.removeGroup(1L)).isEqualTo(1);
+        assertThat(history.removeGroup(1L)).isZero();
+        assertThat(history.search("status", 0, 10).hits()).extracting(InvertedIndex.Hit::docId)
+                .containsExactlyInAnyOrder(11L, 12L);
+
+        history.remove(12L);
+        assertThat(history.removeGroup(2L)).isEqualTo(1);
+        assertThat(history.size()).isZero();
+    }
+}
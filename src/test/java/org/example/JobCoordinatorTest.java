@@ -0,0 +1,93 @@
+package org.example;
+
+import org.example.service.JobCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testy koordynatora zadań okresowych na bazie H2 - bez @Transactional, bo blokady są zatwierdzane
+ * w osobnych transakcjach. Każdy test używa własnej nazwy zadania.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JobCoordinatorTest {
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    private String jobName;
+
+    @BeforeEach
+    void setUp() {
+        jobName = "test-job-" + UUID.randomUUID();
+    }
+
+    @Test
+    void runExclusive_ShouldRecordRunAndIncrementFencingToken() {
+        // When
+        Optional<JobRun> first = jobCoordinator.runExclusive(jobName, Duration.ZERO, context -> {
+            context.checkFence();
+            return Map.of("processed", 3);
+        });
+        Optional<JobRun> second = jobCoordinator.runExclusive(jobName, Duration.ZERO, context -> Map.of());
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(first.get().getStatus()).isEqualTo(JobRunStatus.SUCCEEDED);
+        assertThat(first.get().getResult()).isEqualTo("{processed=3}");
+        assertThat(first.get().getDurationMs()).isNotNull();
+        assertThat(second).isPresent();
+        assertThat(second.get().getFencingToken()).isEqualTo(first.get().getFencingToken() + 1);
+        assertThat(jobCoordinator.getRecentRuns(jobName, 10)).extracting(JobRun::getId)
+                .containsExactly(second.get().getId(), first.get().getId());
+    }
+
+    @Test
+    void runExclusive_ShouldSkipWhileLockIsHeld() {
+        // When - drugie wywołanie w trakcie pracy (jak cron na innym węźle) i tuż po zakończeniu
+        AtomicReference<Optional<JobRun>> concurrent = new AtomicReference<>();
+        Optional<JobRun> run = jobCoordinator.runExclusive(jobName, Duration.ofMinutes(1), context -> {
+            concurrent.set(jobCoordinator.runExclusive(jobName, Duration.ofMinutes(1), inner -> Map.of()));
+            return Map.of();
+        });
+        Optional<JobRun> afterFinish = jobCoordinator.runExclusive(jobName, Duration.ofMinutes(1), context -> Map.of());
+
+        // Then
+        assertThat(run).isPresent();
+        assertThat(concurrent.get()).isEmpty();
+        assertThat(afterFinish).isEmpty();
+        assertThat(jobCoordinator.getRecentRuns(jobName, 10)).hasSize(1);
+    }
+
+    @Test
+    void runExclusive_ShouldRecordFailureAndReleaseLock() {
+        // When
+        Optional<JobRun> failed = jobCoordinator.runExclusive(jobName, Duration.ZERO, context -> {
+            throw new IllegalStateException("boom");
+        });
+        Optional<JobRun> retried = jobCoordinator.runExclusive(jobName, Duration.ZERO, context -> Map.of());
+
+        // Then
+        assertThat(failed).isPresent();
+        assertThat(failed.get().getStatus()).isEqualTo(JobRunStatus.FAILED);
+        assertThat(failed.get().getError()).isEqualTo("IllegalStateException: boom");
+        assertThat(retried).isPresent();
+        assertThat(jobCoordinator.getJobs()).filteredOn(job -> jobName.equals(job.get("jobName")))
+                .singleElement()
+                .satisfies(job -> {
+                    assertThat(job).containsEntry("runs", 2L).containsEntry("failures", 1L);
+                    assertThat(job).containsEntry("lastStatus", JobRunStatus.SUCCEEDED);
+                });
+    }
+}
@@ -170,6 +170,25 @@ public class JsonConfigTest {
         assertThat(mapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).isFalse();
     }
 
+    @Test
+    void binaryMappers_ShouldShareJsonConfiguration() throws Exception {
+        // Given
+        LocalDateTime dateTime = LocalDateTime.of(2025, 6, 5, 12, 30, 45);
+        testObject.setCreatedAt(dateTime);
+
+        for (ObjectMapper mapper : new ObjectMapper[] { JsonConfig.cborMapper(), JsonConfig.smileMapper() }) {
+            // When
+            byte[] encoded = mapper.writeValueAsBytes(testObject);
+            TestObject decoded = mapper.readValue(encoded, TestObject.class);
+
+            // Then
+            assertThat(mapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).isFalse();
+            assertThat(mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+            assertThat(decoded.getCreatedAt()).isEqualTo(dateTime);
+            assertThat(decoded.getName()).isEqualTo("Test Name");
+        }
+    }
+
     // Klasy pomocnicze dla testów
     public static class TestObject {
         private Long id;
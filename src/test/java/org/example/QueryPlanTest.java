@@ -0,0 +1,151 @@
+package org.example;
+
+import org.example.datagen.DatasetGenerator;
+import org.example.datagen.DatasetSpec;
+import org.example.diagnostics.QueryBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plany wykonania (EXPLAIN) gorących zapytań na schemacie z migracji Flyway.
+ * SQL nie jest przepisany ręcznie: test wywołuje metodę repozytorium i przechwytuje zapytanie wygenerowane
+ * przez Hibernate (QueryTrackingDataSource + QueryBudget), a EXPLAIN dostaje te same wartości parametrów.
+ * Test nie przechodzi, jeśli którekolwiek zapytanie wraca do pełnego skanu tabeli.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplandb;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "diagnostics.queries.enabled=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final long USER_ID = 5L;
+    private static final long TASK_ID = 42L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogRepository;
+
+    /**
+     * Wywołanie metody repozytorium i wartości parametrów JDBC w kolejności znaków ? w wygenerowanym SQL
+     */
+    private record HotQuery(Runnable call, Object... parameters) {}
+
+    private final Map<String, HotQuery> hotQueries = new LinkedHashMap<>();
+
+    @BeforeAll
+    void seedAndAnalyze() {
+        // Dane ze skośnym rozkładem, żeby optymalizator miał realne statystyki selektywności
+        new DatasetGenerator(jdbcTemplate).generate(new DatasetSpec(200, 5000, 6, 7L));
+        jdbcTemplate.execute("ANALYZE");
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        hotQueries.put("countOverdueTasks",
+                new HotQuery(() -> taskRepository.countOverdueTasks(today), today));
+        hotQueries.put("findByAssignedTo_Id",
+                new HotQuery(() -> taskRepository.findByAssignedTo_Id(USER_ID), USER_ID));
+        hotQueries.put("findByAssignedTo_IdAndStatus",
+                new HotQuery(() -> taskRepository.findByAssignedTo_IdAndStatus(USER_ID, TaskStatus.IN_PROGRESS),
+                        USER_ID, TaskStatus.IN_PROGRESS.name()));
+        hotQueries.put("findByAssignedTo_IdAndPriority",
+                new HotQuery(() -> taskRepository.findByAssignedTo_IdAndPriority(USER_ID, TaskPriority.HIGH),
+                        USER_ID, TaskPriority.HIGH.name()));
+        hotQueries.put("countCompletedTasks",
+                new HotQuery(() -> taskRepository.countCompletedTasks()));
+        // Agregacja wewnątrz DENSE_RANK
+        hotQueries.put("findTopPerformersRanked",
+                new HotQuery(() -> taskRepository.findTopPerformersRanked(5, 10), 5, 10));
+        hotQueries.put("findByTaskIdOrderBySeqDesc",
+                new HotQuery(() -> changeLogRepository.findByTaskIdOrderBySeqDesc(TASK_ID), TASK_ID));
+        hotQueries.put("findByTaskIdAndSeqGreaterThanOrderBySeqAsc",
+                new HotQuery(() -> changeLogRepository.findByTaskIdAndSeqGreaterThanOrderBySeqAsc(TASK_ID, 3L,
+                        PageRequest.of(0, 20)), TASK_ID, 3L, 20));
+        hotQueries.put("findByTaskIdAndFieldNameOrderByChangedAtDesc",
+                new HotQuery(() -> changeLogRepository.findByTaskIdAndFieldNameOrderByChangedAtDesc(TASK_ID, "status"),
+                        TASK_ID, "status"));
+        hotQueries.put("findByTaskIdAndOperationTypeOrderByChangedAtDesc",
+                new HotQuery(() -> changeLogRepository.findByTaskIdAndOperationTypeOrderByChangedAtDesc(TASK_ID,
+                        ChangeLogOperationType.STATUS_CHANGE, PageRequest.of(0, 50)),
+                        TASK_ID, ChangeLogOperationType.STATUS_CHANGE.name(), 50));
+        hotQueries.put("findByOperationTypeAndChangedAtBetweenOrderByChangedAtDesc",
+                new HotQuery(() -> changeLogRepository.findByOperationTypeAndChangedAtBetweenOrderByChangedAtDesc(
+                        ChangeLogOperationType.ASSIGN, now.minusDays(7), now),
+                        ChangeLogOperationType.ASSIGN.name(), now.minusDays(7), now));
+        // Slice pobiera size + 1 wierszy
+        hotQueries.put("findUserChangesSlice",
+                new HotQuery(() -> changeLogRepository.findUserChangesSlice(USER_ID, PageRequest.of(0, 50)),
+                        USER_ID, 51));
+        hotQueries.put("countByChangedById",
+                new HotQuery(() -> changeLogRepository.countByChangedById(USER_ID), USER_ID));
+        hotQueries.put("findByFieldNameOrderByChangedAtDesc",
+                new HotQuery(() -> changeLogRepository.findByFieldNameOrderByChangedAtDesc("priority"), "priority"));
+    }
+
+    @Test
+    void hotQueries_ShouldNotUseFullTableScan() {
+        Map<String, String> degraded = new LinkedHashMap<>();
+        for (String name : hotQueries.keySet()) {
+            String plan = explain(name);
+            if (plan.contains("tableScan")) {
+                degraded.put(name, plan);
+            }
+        }
+
+        assertThat(degraded).as("Queries degraded to a full table scan").isEmpty();
+    }
+
+    @Test
+    void compositeIndexes_ShouldBeUsedForCombinedFilters() {
+        assertThat(explain("countOverdueTasks")).containsIgnoringCase("IDX_TASK_DUE_DATE_STATUS");
+        assertThat(explain("findByTaskIdAndFieldNameOrderByChangedAtDesc"))
+                .containsIgnoringCase("IDX_CHANGE_LOG_TASK_FIELD_CHANGED_AT");
+        assertThat(explain("findByTaskIdAndSeqGreaterThanOrderBySeqAsc"))
+                .containsIgnoringCase("UK_CHANGE_LOG_TASK_SEQ");
+    }
+
+    /**
+     * EXPLAIN zapytania wygenerowanego dla metody repozytorium - pierwsze wykonane zapytanie wywołania
+     * (kolejne to ewentualne dociąganie powiązań)
+     */
+    private String explain(String name) {
+        HotQuery query = hotQueries.get(name);
+        QueryBudget budget = QueryBudget.start();
+        try {
+            query.call().run();
+        } finally {
+            QueryBudget.clear();
+        }
+        List<String> statements = budget.getDistinctStatements();
+        assertThat(statements).as("SQL executed by " + name).isNotEmpty();
+        String sql = statements.get(0);
+        assertThat(StringUtils.countOccurrencesOf(sql, "?")).as("Parameters of " + name + ": " + sql)
+                .isEqualTo(query.parameters().length);
+
+        List<String> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, query.parameters());
+        return String.join("\n", rows);
+    }
+}
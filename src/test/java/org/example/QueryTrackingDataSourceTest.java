@@ -0,0 +1,78 @@
+package org.example;
+
+import org.example.diagnostics.QueryBudget;
+import org.example.diagnostics.QueryTrackingDataSource;
+import org.example.diagnostics.SlowQueryRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryTrackingDataSourceTest {
+
+    private SlowQueryRegistry registry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:querytracking;DB_CLOSE_DELAY=-1", "sa", "");
+        registry = new SlowQueryRegistry();
+        dataSource = QueryTrackingDataSource.wrap(h2, registry);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY)");
+            statement.execute("DELETE FROM item");
+            statement.execute("INSERT INTO item VALUES (1), (2), (3)");
+        }
+        registry.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryBudget.clear();
+    }
+
+    @Test
+    void shouldCountStatementsAndRowsPerRequest() throws Exception {
+        QueryBudget budget = QueryBudget.start();
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 1; id <= 3; id++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM item WHERE id = ?")) {
+                    statement.setLong(1, id);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getLong(1);
+                        }
+                    }
+                }
+            }
+        }
+
+        assertThat(budget.getStatements()).isEqualTo(3);
+        assertThat(budget.getRows()).isEqualTo(3);
+        assertThat(budget.getMostRepeatedStatement().getKey()).isEqualTo("SELECT id FROM item WHERE id = ?");
+        assertThat(budget.getMostRepeatedStatement().getValue()).isEqualTo(3);
+
+        List<Map<String, Object>> top = registry.getTopStatements(10, "count");
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).get("count")).isEqualTo(3L);
+        assertThat(top.get(0).get("rows")).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldNotWrapTwice() {
+        assertThat(QueryTrackingDataSource.isWrapped(dataSource)).isTrue();
+        assertThat(dataSource).isEqualTo(dataSource);
+    }
+}
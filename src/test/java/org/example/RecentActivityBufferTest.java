@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.activity.RecentActivityBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy bufora ostatniej aktywności (kolejność, nadpisywanie, zapis współbieżny).
+ */
+class RecentActivityBufferTest {
+
+    @Test
+    void shouldReturnLatestFirstAndOverwriteOldest() {
+        RecentActivityBuffer<Integer> buffer = new RecentActivityBuffer<>(6);
+        assertEquals(8, buffer.capacity());
+
+        for (int i = 1; i <= 20; i++) {
+            buffer.add(i);
+        }
+
+        assertEquals(List.of(20, 19, 18), buffer.latest(3));
+        assertEquals(List.of(20, 19, 18, 17, 16, 15, 14, 13), buffer.latest(100));
+        assertEquals(8, buffer.size());
+    }
+
+    @Test
+    void shouldReturnOnlyWrittenElements() {
+        RecentActivityBuffer<String> buffer = new RecentActivityBuffer<>(16);
+        assertTrue(buffer.latest(10).isEmpty());
+
+        buffer.add("a");
+        buffer.add("b");
+
+        assertEquals(List.of("b", "a"), buffer.latest(10));
+    }
+
+    @Test
+    void shouldKeepLatestElementsOfEachWriterUnderConcurrentWrites() throws Exception {
+        int writers = 8;
+        int perWriter = 10_000;
+        RecentActivityBuffer<long[]> buffer = new RecentActivityBuffer<>(128);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> readerErrors = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            long writer = w;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perWriter; i++) {
+                    buffer.add(new long[]{writer, i});
+                }
+                return null;
+            });
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(buffer.latest(128).size() <= 128);
+                }
+            } catch (Throwable e) {
+                readerErrors.add(e);
+            }
+        });
+        reader.start();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        reader.join();
+
+        List<long[]> latest = buffer.latest(128);
+        assertTrue(readerErrors.isEmpty());
+        assertEquals(128, latest.size());
+        // Elementy jednego wątku występują od najnowszego, bez duplikatów
+        long[] lastSeen = new long[writers];
+        Arrays.fill(lastSeen, Long.MAX_VALUE);
+        for (long[] item : latest) {
+            assertTrue(item[1] < lastSeen[(int) item[0]]);
+            lastSeen[(int) item[0]] = item[1];
+        }
+    }
+}
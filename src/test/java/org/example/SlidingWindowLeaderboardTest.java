@@ -0,0 +1,65 @@
+package org.example;
+
+import org.example.leaderboard.SlidingWindowLeaderboard;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy rankingu w przesuwanym oknie dni (remisy, wygasanie dni, limit wierszy).
+ */
+class SlidingWindowLeaderboardTest {
+
+    private static final long DAY = 19_800;
+
+    @Test
+    void shouldRankWithDenseRanksAndTies() {
+        SlidingWindowLeaderboard leaderboard = new SlidingWindowLeaderboard(7);
+        leaderboard.record(1L, DAY, 3);
+        leaderboard.record(2L, DAY, 3);
+        leaderboard.record(3L, DAY, 2);
+        leaderboard.record(4L, DAY, 1);
+
+        List<SlidingWindowLeaderboard.Entry> top = leaderboard.top(2, 100);
+
+        assertEquals(3, top.size());
+        assertEquals(1, top.get(0).rank());
+        assertEquals(1, top.get(1).rank());
+        assertEquals(3, top.get(0).count());
+        assertEquals(new SlidingWindowLeaderboard.Entry(3L, 2, 2), top.get(2));
+    }
+
+    @Test
+    void shouldExpireDaysLeavingTheWindow() {
+        SlidingWindowLeaderboard leaderboard = new SlidingWindowLeaderboard(7);
+        leaderboard.record(1L, DAY, 5);
+        leaderboard.record(1L, DAY + 3, 1);
+        leaderboard.record(2L, DAY + 4, 2);
+
+        leaderboard.advanceTo(DAY + 6);
+        assertEquals(6, leaderboard.countFor(1L));
+
+        leaderboard.advanceTo(DAY + 7);
+        assertEquals(1, leaderboard.countFor(1L));
+        assertEquals(2L, leaderboard.top(1, 10).get(0).userId());
+
+        leaderboard.advanceTo(DAY + 30);
+        assertEquals(0, leaderboard.size());
+        assertTrue(leaderboard.top(5, 10).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreEventsOlderThanWindowAndCapRows() {
+        SlidingWindowLeaderboard leaderboard = new SlidingWindowLeaderboard(7);
+        leaderboard.advanceTo(DAY + 10);
+        leaderboard.record(1L, DAY, 4);
+        assertEquals(0, leaderboard.countFor(1L));
+
+        for (long userId = 1; userId <= 20; userId++) {
+            leaderboard.record(userId, DAY + 9, 1);
+        }
+        assertEquals(5, leaderboard.top(1, 5).size());
+    }
+}
@@ -1,5 +1,8 @@
 package org.example;
 
+import org.example.cluster.ClusterEventBus;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.TaskSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +34,15 @@ public class TaskServiceTest {
     @Mock
     private ChangeLogService changeLogService;
 
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @Mock
+    private ChangeLogSearchService changeLogSearchService;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -105,6 +117,7 @@ public class TaskServiceTest {
         // Then
         assertThat(result).isEqualTo(testTask);
         verify(taskRepository).save(testTask);
+        verify(taskSearchService).indexTask(testTask);
         verify(changeLogService).logChange(
             eq(testTask), 
             eq("task"), 
@@ -182,6 +195,7 @@ public class TaskServiceTest {
         // Then
         verify(taskRepository).findById(1L);
         verify(taskRepository).deleteById(1L);
+        verify(taskSearchService).removeTask(1L);
         verify(changeLogService).logChange(
             eq(testTask), 
             eq("task"), 
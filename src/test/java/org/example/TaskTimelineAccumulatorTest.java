@@ -0,0 +1,108 @@
+package org.example;
+
+import org.example.forecast.TaskTimelineAccumulator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy liczenia czasu w statusach dla osi czasu jednego zadania.
+ */
+class TaskTimelineAccumulatorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Test
+    void shouldComputeLeadCycleAndTimeInStatus() {
+        TaskTimelineAccumulator accumulator = new TaskTimelineAccumulator(T0.plusDays(30));
+        accumulator.reset(7L, TaskStatus.DONE);
+
+        accumulator.onCreate(T0);
+        accumulator.onEvent(T0.plusHours(1));
+        accumulator.onStatusChange(TaskStatus.TODO, TaskStatus.IN_PROGRESS, T0.plusDays(2));
+        accumulator.onStatusChange(TaskStatus.IN_PROGRESS, TaskStatus.DONE, T0.plusDays(5));
+
+        TaskTimelineAccumulator.Result result = accumulator.finish();
+
+        assertEquals(7L, result.taskId());
+        assertEquals(TaskStatus.DONE, result.currentStatus());
+        assertEquals(5L * 24 * 60, result.leadTimeMinutes());
+        assertEquals(3L * 24 * 60, result.cycleTimeMinutes());
+        assertEquals(2L * 24 * 60, result.todoMinutes());
+        assertEquals(3L * 24 * 60, result.inProgressMinutes());
+        assertEquals(2, result.statusChanges());
+        assertEquals(0, result.reopenCount());
+        assertFalse(accumulator.isActive());
+    }
+
+    @Test
+    void shouldCountReopenAndAccrueOpenStatusUntilNow() {
+        TaskTimelineAccumulator accumulator = new TaskTimelineAccumulator(T0.plusDays(10));
+        accumulator.reset(1L, TaskStatus.IN_PROGRESS);
+
+        accumulator.onCreate(T0);
+        accumulator.onStatusChange(TaskStatus.TODO, TaskStatus.DONE, T0.plusDays(1));
+        accumulator.onStatusChange(TaskStatus.DONE, TaskStatus.IN_PROGRESS, T0.plusDays(4));
+
+        TaskTimelineAccumulator.Result result = accumulator.finish();
+
+        assertEquals(1, result.reopenCount());
+        assertEquals(TaskStatus.IN_PROGRESS, result.currentStatus());
+        // Lead time liczony do pierwszego Done; bez In Progress przed Done nie ma cycle time
+        assertEquals(24L * 60, result.leadTimeMinutes());
+        assertNull(result.cycleTimeMinutes());
+        // Czas w Done nie jest naliczany, otwarty In Progress trwa do chwili obliczeń
+        assertEquals(24L * 60, result.todoMinutes());
+        assertEquals(6L * 24 * 60, result.inProgressMinutes());
+    }
+
+    @Test
+    void shouldResetStateBetweenTasks() {
+        TaskTimelineAccumulator accumulator = new TaskTimelineAccumulator(T0.plusDays(3));
+        accumulator.reset(1L, TaskStatus.DONE);
+        accumulator.onCreate(T0);
+        accumulator.onStatusChange(TaskStatus.TODO, TaskStatus.DONE, T0.plusDays(1));
+        accumulator.finish();
+
+        accumulator.reset(2L, TaskStatus.TODO);
+        accumulator.onCreate(T0.plusDays(2));
+        TaskTimelineAccumulator.Result second = accumulator.finish();
+
+        assertEquals(2L, second.taskId());
+        assertEquals(TaskStatus.TODO, second.currentStatus());
+        assertNull(second.leadTimeMinutes());
+        assertEquals(24L * 60, second.todoMinutes());
+        assertEquals(0, second.statusChanges());
+    }
+
+    @Test
+    void shouldStartTimelineInStatusTaskWasCreatedWith() {
+        TaskTimelineAccumulator accumulator = new TaskTimelineAccumulator(T0.plusDays(4));
+        accumulator.reset(3L, TaskStatus.DONE);
+        accumulator.onCreate(T0);
+        accumulator.onStatusChange(TaskStatus.IN_PROGRESS, TaskStatus.DONE, T0.plusDays(2));
+
+        TaskTimelineAccumulator.Result inProgress = accumulator.finish();
+
+        // Utworzone jako In Progress - cycle time od utworzenia, brak czasu w To Do
+        assertEquals(2L * 24 * 60, inProgress.cycleTimeMinutes());
+        assertEquals(2L * 24 * 60, inProgress.leadTimeMinutes());
+        assertEquals(0L, inProgress.todoMinutes());
+        assertEquals(2L * 24 * 60, inProgress.inProgressMinutes());
+
+        accumulator.reset(4L, TaskStatus.DONE);
+        accumulator.onCreate(T0);
+        accumulator.onEvent(T0.plusDays(1));
+
+        TaskTimelineAccumulator.Result done = accumulator.finish();
+
+        // Utworzone jako Done bez zmian statusu - ukończone w chwili utworzenia, bez czasu w To Do
+        assertEquals(TaskStatus.DONE, done.currentStatus());
+        assertEquals(0L, done.leadTimeMinutes());
+        assertEquals(T0, done.firstDoneAt());
+        assertEquals(0L, done.todoMinutes());
+        assertEquals(0L, done.inProgressMinutes());
+    }
+}
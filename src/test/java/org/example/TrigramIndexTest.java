@@ -0,0 +1,53 @@
+package org.example;
+
+import org.example.search.TrigramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.index(1L, "Jan Kowalski", "jan.kowalski@example.com");
+        index.index(2L, "Anna Nowak", "anna.nowak@example.com");
+        index.index(3L, "Piotr Wiśniewski", "piotr.wisniewski@example.com");
+        index.index(4L, "Katarzyna Wiśniewska", "k.wisniewska@example.com");
+    }
+
+    @Test
+    void search_ShouldIgnoreDiacritics() {
+        List<TrigramIndex.Hit> hits = index.search("wisn", 10);
+
+        assertThat(hits).extracting(TrigramIndex.Hit::id).containsExactlyInAnyOrder(3L, 4L);
+        assertThat(index.search("Wiśniewski", 10).get(0).id()).isEqualTo(3L);
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        assertThat(index.search("kowlaski", 10)).extracting(TrigramIndex.Hit::id).startsWith(1L);
+    }
+
+    @Test
+    void search_ShouldLimitResultsAndMatchEmail() {
+        assertThat(index.search("example", 2)).hasSize(2);
+        assertThat(index.search("anna.nowak", 10).get(0).id()).isEqualTo(2L);
+    }
+
+    @Test
+    void index_ShouldReplaceAndRemoveDocuments() {
+        index.index(2L, "Anna Zielińska", "anna.zielinska@example.com");
+        assertThat(index.search("nowak", 10)).isEmpty();
+        assertThat(index.search("zielin", 10)).extracting(TrigramIndex.Hit::id).containsExactly(2L);
+
+        index.remove(3L);
+        assertThat(index.search("piotr", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
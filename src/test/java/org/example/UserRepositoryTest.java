@@ -0,0 +1,70 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            entityManager.persist(user);
+            // Użytkownicy 0, 2, 4 mają zadania (użytkownik 0 kilka)
+            int tasks = i % 2 == 0 ? (i == 0 ? 3 : 1) : 0;
+            for (int t = 0; t < tasks; t++) {
+                Task task = new Task();
+                task.setTitle("task " + i + "." + t);
+                task.setStatus(TaskStatus.TODO);
+                task.setPriority(TaskPriority.MEDIUM);
+                task.setAssignedTo(user);
+                entityManager.persist(task);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void countQueries_ShouldMatchCollectionPredicates() {
+        long withTasks = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(u) FROM User u WHERE u.tasks IS NOT EMPTY", Long.class).getSingleResult();
+        long withoutTasks = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(u) FROM User u WHERE u.tasks IS EMPTY", Long.class).getSingleResult();
+
+        assertThat(userRepository.countUsersWithTasks()).isEqualTo(withTasks);
+        assertThat(userRepository.countUsersWithoutTasks()).isEqualTo(withoutTasks);
+        assertThat(userRepository.countUsersWithTasks() + userRepository.countUsersWithoutTasks())
+                .isEqualTo(userRepository.count());
+    }
+
+    @Test
+    void pagedQueries_ShouldReturnEachUserOnceInIdOrder() {
+        List<User> firstPage = userRepository.findUsersWithTasks(PageRequest.of(0, 2));
+        List<User> secondPage = userRepository.findUsersWithTasks(PageRequest.of(1, 2));
+
+        assertThat(firstPage).extracting(User::getUsername).containsExactly("user0", "user2");
+        assertThat(secondPage).extracting(User::getUsername).containsExactly("user4");
+        assertThat(userRepository.findUsersWithoutTasks(PageRequest.of(0, 10)))
+                .extracting(User::getUsername).containsExactly("user1", "user3");
+    }
+}
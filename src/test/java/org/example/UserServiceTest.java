@@ -1,11 +1,21 @@
 package org.example;
 
+import org.example.cluster.ClusterEventBus;
+import org.example.exception.EntityNotFoundException;
+import org.example.service.ChangeLogRollupService;
+import org.example.service.ChangeLogSearchService;
+import org.example.service.RecentActivityService;
+import org.example.service.UserChangeLogService;
+import org.example.service.UserTypeaheadService;
+import org.example.service.UserUniquenessFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -16,6 +26,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +41,41 @@ public class UserServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private UserTypeaheadService userTypeaheadService;
+
+    @Mock
+    private UserChangeLogService userChangeLogService;
+
+    @Mock
+    private TaskCycleMetricsRepository taskCycleMetricsRepository;
+
+    @Mock
+    private ChangeLogEntryRepository changeLogRepository;
+
+    @Mock
+    private TaskChangeSequenceRepository taskChangeSequenceRepository;
+
+    @Mock
+    private ChangeLogRollupService changeLogRollupService;
+
+    @Mock
+    private ChangeLogSearchService changeLogSearchService;
+
+    @Mock
+    private RecentActivityService recentActivityService;
+
+    @Mock
+    private ClusterEventBus clusterEventBus;
+
+    // Mock menedżera transakcji - TransactionTemplate wykonuje callback bez prawdziwej transakcji
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Prawdziwy, nierozgrzany filtr - odpowiada "może", więc zapytania trafiają do repozytorium
+    @Spy
+    private UserUniquenessFilter userUniquenessFilter = new UserUniquenessFilter();
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -155,6 +204,9 @@ public class UserServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         verify(userRepository).findById(1L);
         verify(userRepository).save(any(User.class));
+        verify(userChangeLogService).logChanges(eq(1L), argThat(changes -> changes.size() == 2
+                && changes.get(0).field().equals("username") && changes.get(0).newValue().equals("New Username")
+                && changes.get(1).field().equals("email") && changes.get(1).oldValue().equals("old@example.com")));
     }
 
     @Test
@@ -171,42 +223,58 @@ public class UserServiceTest {
     @Test
     void deleteUser_WhenUserExists_ShouldDeleteUser() {
         // Given
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(taskRepository.findByAssignedTo_Id(1L)).thenReturn(Arrays.asList());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(changeLogRepository.findMaxId()).thenReturn(0L);
+        when(taskRepository.findAssignedChunkUpperId(1L, 1000)).thenReturn(null);
 
         // When
         userService.deleteUser(1L);
 
         // Then
-        verify(userRepository).existsById(1L);
+        verify(taskRepository, never()).unassignTasksUpTo(anyLong(), anyLong());
         verify(userRepository).deleteById(1L);
+        verify(userTypeaheadService).removeUser(1L);
+        verifyNoInteractions(changeLogSearchService, recentActivityService);
     }
 
     @Test
-    void deleteUser_WhenUserHasTasks_ShouldUnassignTasksAndDeleteUser() {
-        // Given
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(taskRepository.findByAssignedTo_Id(1L)).thenReturn(Arrays.asList(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+    void deleteUser_WhenUserHasTasks_ShouldUnassignTasksInChunksAndDeleteUser() {
+        // Given - dwie paczki zadań (do id 1500 i do id 2300), potem brak przypisanych
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(changeLogRepository.findMaxId()).thenReturn(42L);
+        when(taskRepository.findAssignedChunkUpperId(1L, 1000)).thenReturn(1500L, 2300L, null);
+        when(changeLogRepository.insertUnassignEntries(eq(1L), anyLong(), eq("Test User"), any(), anyString()))
+                .thenReturn(1000, 400);
+        when(taskRepository.unassignTasksUpTo(1L, 1500L)).thenReturn(1000);
+        when(taskRepository.unassignTasksUpTo(1L, 2300L)).thenReturn(400);
 
         // When
         userService.deleteUser(1L);
 
         // Then
-        verify(taskRepository).save(testTask);
-        assertThat(testTask.getAssignedTo()).isNull();
+        verify(taskChangeSequenceRepository).incrementForAssignedTasks(1L, 1500L);
+        verify(taskChangeSequenceRepository).incrementForAssignedTasks(1L, 2300L);
+        verify(changeLogRepository).insertUnassignEntries(eq(1L), eq(1500L), eq("Test User"), any(), anyString());
+        verify(changeLogRepository).insertUnassignEntries(eq(1L), eq(2300L), eq("Test User"), any(), anyString());
+        verify(changeLogRollupService).recordBulk(any(), eq(ChangeLogOperationType.UNASSIGN), eq(1000L));
+        verify(changeLogRollupService).recordBulk(any(), eq(ChangeLogOperationType.UNASSIGN), eq(400L));
+        verify(taskRepository, never()).save(any(Task.class));
         verify(userRepository).deleteById(1L);
+        verify(changeLogSearchService).indexEntriesAfter(42L);
+        verify(recentActivityService).reload();
     }
 
     @Test
-    void deleteUser_WhenUserDoesNotExist_ShouldThrowException() {
+    void deleteUser_WhenUserDoesNotExist_ShouldThrowEntityNotFoundException() {
         // Given
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> userService.deleteUser(1L))
-                .isInstanceOf(RuntimeException.class)
+                .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("User not found with id: 1");
+        verify(userRepository, never()).deleteById(anyLong());
+        verify(taskRepository, never()).findAssignedChunkUpperId(anyLong(), anyInt());
     }
 
     @Test
@@ -250,6 +318,43 @@ public class UserServiceTest {
         verify(userRepository).existsByEmail("test@example.com");
     }
 
+    @Test
+    void emailExists_WhenFilterIsWarmAndEmailUnknown_ShouldSkipRepository() {
+        // Given
+        userUniquenessFilter.warmUp(List.of("test@example.com"), List.of("Test User"));
+
+        // When & Then
+        assertThat(userService.emailExists("new.user@example.com")).isFalse();
+        assertThat(userService.usernameExists("New User")).isFalse();
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    @Test
+    void emailExists_WhenFilterIsWarmAndEmailKnown_ShouldAskRepository() {
+        // Given
+        userUniquenessFilter.warmUp(List.of("test@example.com"), List.of("Test User"));
+        when(userRepository.existsByEmail(" Test@Example.com")).thenReturn(true);
+
+        // When & Then
+        assertThat(userService.emailExists(" Test@Example.com")).isTrue();
+        verify(userRepository).existsByEmail(" Test@Example.com");
+    }
+
+    @Test
+    void createUser_WhenFilterDoesNotKnowUsername_ShouldStillRejectDuplicateFromDatabase() {
+        // Given - użytkownik dodany na innym węźle, filtr tego węzła go jeszcze nie zna
+        userUniquenessFilter.warmUp(List.of("other@example.com"), List.of("Other User"));
+        when(userRepository.existsByEmail(testUser.getEmail())).thenReturn(false);
+        when(userRepository.existsByUsername(testUser.getUsername())).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(testUser))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Username already exists");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void usernameExists_ShouldReturnTrue() {
         // Given
@@ -265,24 +370,9 @@ public class UserServiceTest {
 
     @Test
     void getUserStats_ShouldCalculateCorrectStats() {
-        // Given
-        Task completedTask = new Task();
-        completedTask.setStatus(TaskStatus.DONE);
-        completedTask.setPriority(TaskPriority.HIGH);
-
-        Task inProgressTask = new Task();
-        inProgressTask.setStatus(TaskStatus.IN_PROGRESS);
-        inProgressTask.setPriority(TaskPriority.MEDIUM);
-
-        Task overdueTask = new Task();
-        overdueTask.setStatus(TaskStatus.TODO);
-        overdueTask.setPriority(TaskPriority.LOW);
-        overdueTask.setDueDate(LocalDate.now().minusDays(1));
-
-        List<Task> userTasks = Arrays.asList(completedTask, inProgressTask, overdueTask);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(taskRepository.findByAssignedTo_Id(1L)).thenReturn(userTasks);
+        // Given - wiersz agregacji: [id, username, wszystkie, Done, In Progress, To Do, High, Medium, Low, przeterminowane]
+        List<Object[]> aggregated = List.<Object[]>of(new Object[]{1L, "Test User", 3L, 1L, 1L, 1L, 1L, 1L, 1L, 1L});
+        when(userRepository.aggregateTaskStats(any(), any(LocalDate.class))).thenReturn(aggregated);
 
         // When
         UserStats result = userService.getUserStats(1L);
@@ -299,6 +389,35 @@ public class UserServiceTest {
         assertThat(result.getLowPriorityTasks()).isEqualTo(1);
         assertThat(result.getOverdueTasks()).isEqualTo(1);
         assertThat(result.getCompletionRate()).isEqualTo(33.3, within(0.1));
+        verify(taskRepository, never()).findByAssignedTo_Id(any());
+    }
+
+    @Test
+    void getUserStats_WhenUserDoesNotExist_ShouldThrowException() {
+        // Given
+        when(userRepository.aggregateTaskStats(any(), any(LocalDate.class))).thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> userService.getUserStats(99L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("User not found");
+    }
+
+    @Test
+    void getUserStatsBatch_ShouldKeepRequestOrderAndSkipMissingUsers() {
+        // Given
+        List<Object[]> aggregated = List.<Object[]>of(
+                new Object[]{1L, "Test User", 2L, 2L, 0L, 0L, 0L, 2L, 0L, 0L},
+                new Object[]{2L, "Other User", 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L});
+        when(userRepository.aggregateTaskStats(any(), any(LocalDate.class))).thenReturn(aggregated);
+
+        // When
+        List<UserStats> result = userService.getUserStats(Arrays.asList(2L, 99L, 1L, 2L));
+
+        // Then
+        assertThat(result).extracting(UserStats::getUserId).containsExactly(2L, 1L);
+        assertThat(result.get(1).getCompletionRate()).isEqualTo(100.0);
+        verify(userRepository, times(1)).aggregateTaskStats(any(), any(LocalDate.class));
     }
 
     @Test